@@ -1,15 +1,30 @@
 package duke;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 import duke.command.ClearCommand;
 import duke.command.Command;
 import duke.command.EmptyCommand;
 import duke.command.UpdateCommand;
+import duke.metrics.CommandExecutedEvent;
+import duke.metrics.MetricsExporter;
+import duke.metrics.MetricsRegistry;
 import duke.parser.Parser;
+import duke.reminder.ReminderScheduler;
+import duke.storage.DataFileWatcher;
+import duke.storage.DurabilityPolicy;
+import duke.storage.ExternalChange;
 import duke.storage.Storage;
 import duke.task.Deadline;
+import duke.task.DescriptionInterner;
 import duke.task.Event;
 import duke.task.Task;
 import duke.task.TaskList;
@@ -25,11 +40,71 @@ import duke.util.UpdateStateUtil;
  * and Storage components.
  */
 public class MrMoon {
+    /**
+     * System property overriding how often metrics are exported, in seconds; 0 disables export
+     */
+    private static final String METRICS_INTERVAL_PROPERTY = "mrmoon.metrics.intervalSeconds";
+    private static final long DEFAULT_METRICS_INTERVAL_SECONDS = 60;
+    private static final String METRICS_FILE_NAME = "metrics.prom";
+
+    /**
+     * System property overriding how many mutations can be undone
+     */
+    private static final String UNDO_DEPTH_PROPERTY = "mrmoon.undo.depth";
+
+    /**
+     * System property that keeps tasks in the compact columnar store instead of an ArrayList
+     */
+    private static final String COLUMNAR_PROPERTY = "mrmoon.columnar";
+
+    /**
+     * System property that turns deadline and event reminders off when set to false
+     */
+    private static final String REMINDERS_PROPERTY = "mrmoon.reminders";
+
+    /**
+     * System property choosing the storage durability policy, e.g. "fsync-file" or "group-fsync"
+     */
+    private static final String DURABILITY_PROPERTY = "mrmoon.durability";
+
+    /**
+     * System property overriding how often saves are forced to disk under group-fsync, in ms
+     */
+    private static final String GROUP_FSYNC_MILLIS_PROPERTY = "mrmoon.durability.groupMillis";
+
+    /**
+     * System property splitting storage into segment files of this many tasks each
+     */
+    private static final String SEGMENT_SIZE_PROPERTY = "mrmoon.segmentSize";
+
+    /**
+     * System property compressing saves at this deflate level, 1-9, or turning compression off with 0
+     */
+    private static final String COMPRESSION_LEVEL_PROPERTY = "mrmoon.compression.level";
+
+    /**
+     * System property overriding how much record data is compressed together in one block, in bytes
+     */
+    private static final String COMPRESSION_BLOCK_SIZE_PROPERTY = "mrmoon.compression.blockSize";
+
+    /**
+     * System property archiving, at startup, completed tasks that ended more than this many days ago
+     */
+    private static final String ARCHIVE_AFTER_DAYS_PROPERTY = "mrmoon.archive.afterDays";
+
+    /**
+     * System property that stops reloading the data file when other programs change it, if false
+     */
+    private static final String WATCH_PROPERTY = "mrmoon.watch";
 
     private final TaskList tasks;
     private final Ui ui;
     private final Parser parser;
     private final Scanner scanner;
+    private final MetricsExporter metricsExporter;
+    private final Path dataFile;
+    private ReminderScheduler reminders;
+    private DataFileWatcher watcher;
     private UpdateStateUtil updateStateUtil;
 
     /**
@@ -43,7 +118,11 @@ public class MrMoon {
 
         this.ui = new Ui(System.out);
         this.parser = new Parser();
+        this.dataFile = Paths.get(filePath);
         Storage storage = new Storage(filePath);
+        configureDurability(storage);
+        storage.setSegmentSize(Math.max(0, Integer.getInteger(SEGMENT_SIZE_PROPERTY, 0)));
+        configureCompression(storage);
         this.scanner = new Scanner(System.in);
 
         List<Task> loaded;
@@ -54,7 +133,43 @@ public class MrMoon {
             loaded = List.of();
         }
 
-        this.tasks = new TaskList(storage, loaded);
+        this.tasks = new TaskList(storage, loaded, Boolean.getBoolean(COLUMNAR_PROPERTY));
+        tasks.setHistoryDepth(Integer.getInteger(UNDO_DEPTH_PROPERTY, TaskList.DEFAULT_HISTORY_DEPTH));
+        Integer archiveAfterDays = Integer.getInteger(ARCHIVE_AFTER_DAYS_PROPERTY);
+        if (archiveAfterDays != null && archiveAfterDays >= 0) {
+            tasks.archive(LocalDate.now().minusDays(archiveAfterDays));
+        }
+
+        this.metricsExporter =
+            new MetricsExporter(
+                MetricsRegistry.global(), Paths.get(filePath).resolveSibling(METRICS_FILE_NAME));
+        metricsExporter.start(
+            Long.getLong(METRICS_INTERVAL_PROPERTY, DEFAULT_METRICS_INTERVAL_SECONDS));
+    }
+
+    /**
+     * Applies the durability policy chosen through system properties, keeping the default if the
+     * property is missing or not recognised.
+     */
+    private static void configureDurability(Storage storage) {
+        String keyword = System.getProperty(DURABILITY_PROPERTY);
+        DurabilityPolicy policy = keyword == null ? null : DurabilityPolicy.fromKeyword(keyword);
+        if (keyword != null && policy == null) {
+            System.err.println("[WARN] Unknown durability policy '" + keyword + "'; using "
+                + storage.getDurability().getKeyword());
+        }
+        long groupMillis = Long.getLong(GROUP_FSYNC_MILLIS_PROPERTY, Storage.DEFAULT_GROUP_FSYNC_MILLIS);
+        storage.setDurability(policy == null ? storage.getDurability() : policy, Math.max(1, groupMillis));
+    }
+
+    /**
+     * Applies the compression level and block size chosen through system properties. Without a
+     * level, saves are compressed only if the data file's name ends in .gz.
+     */
+    private static void configureCompression(Storage storage) {
+        int level = Integer.getInteger(COMPRESSION_LEVEL_PROPERTY, storage.getCompressionLevel());
+        int blockSize = Integer.getInteger(COMPRESSION_BLOCK_SIZE_PROPERTY, Storage.DEFAULT_COMPRESSION_BLOCK_SIZE);
+        storage.setCompression(Math.min(9, Math.max(0, level)), Math.max(1, blockSize));
     }
 
     /**
@@ -82,6 +197,8 @@ public class MrMoon {
      */
     public void run() {
         ui.printWelcome();
+        startReminders(ui::printReminder);
+        startWatching(() -> { });
         boolean waitingForClearConfirmation = false;
 
         try (scanner) {
@@ -104,6 +221,7 @@ public class MrMoon {
                     continue;
                 }
 
+                reloadIfChanged(ui);
                 Command command;
                 try {
                     command = parser.parseCommand(line);
@@ -112,7 +230,7 @@ public class MrMoon {
                     continue;
                 }
 
-                command.execute(tasks, ui);
+                executeTimed(command, ui);
 
                 if (command instanceof UpdateCommand) {
                     UpdateCommand updateCmd = (UpdateCommand) command;
@@ -132,19 +250,114 @@ public class MrMoon {
                     break;
                 }
             }
+        } finally {
+            shutdown();
         }
     }
 
+    /**
+     * Stops reminders and watching, and stops the metrics export after writing one final snapshot.
+     * The text UI calls it when the user says bye; the GUI calls it as the window closes.
+     */
+    public void shutdown() {
+        stopReminders();
+        stopWatching();
+        metricsExporter.close();
+    }
+
+    /**
+     * Starts delivering reminders for deadlines and events to the given sink, unless reminders are
+     * disabled with {@code -Dmrmoon.reminders=false}. Calling it again has no effect.
+     *
+     * @param sink Receives each task as it falls due, on the reminder thread
+     */
+    public void startReminders(Consumer<Task> sink) {
+        if (reminders != null || !Boolean.parseBoolean(System.getProperty(REMINDERS_PROPERTY, "true"))) {
+            return;
+        }
+        reminders = new ReminderScheduler(Clock.systemDefaultZone(), sink);
+        tasks.addIndex(reminders);
+        reminders.start();
+    }
+
+    /**
+     * Stops delivering reminders.
+     */
+    public void stopReminders() {
+        if (reminders != null) {
+            reminders.close();
+        }
+    }
+
+    /**
+     * Starts watching the data file for changes made by other programs, unless that is disabled
+     * with {@code -Dmrmoon.watch=false}. Changes are applied by {@link #reloadIfChanged(Ui)}, which
+     * commands call first. Calling it again has no effect.
+     *
+     * @param onChange Called on the watcher thread each time the file may have changed, e.g. to
+     *                 reload straight away on the GUI thread
+     */
+    public void startWatching(Runnable onChange) {
+        if (watcher != null || !Boolean.parseBoolean(System.getProperty(WATCH_PROPERTY, "true"))) {
+            return;
+        }
+        watcher = new DataFileWatcher(dataFile, onChange);
+        try {
+            watcher.start();
+        } catch (IOException ioe) {
+            // Saves still keep a copy of anything another program wrote, rather than overwrite it
+            System.err.println("[WARN] Cannot watch " + dataFile + " for changes: " + ioe.getMessage());
+            watcher = null;
+        }
+    }
+
+    /**
+     * Stops watching the data file.
+     */
+    public void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Reloads the list if the watcher saw another program change the data file, reparsing only the
+     * changed records, and reports what changed. Saves by other instances of MrMoon are applied by
+     * the next change to the list instead, as {@link TaskList#reload()} explains. Does nothing while
+     * an update is waiting for its fields, whose task number a reload could shift; the change is
+     * picked up afterwards.
+     *
+     * @param targetUi The user interface to report the reload to
+     * @return true if the list changed
+     */
+    public boolean reloadIfChanged(Ui targetUi) {
+        if (watcher == null || updateStateUtil != null || !watcher.takeChange()) {
+            return false;
+        }
+        int removed = 0;
+        int added = 0;
+        for (ExternalChange change : tasks.reload()) {
+            removed += change.getRemoved();
+            added += change.getInserted().size();
+        }
+        if (removed == 0 && added == 0) {
+            return false;
+        }
+        targetUi.printReloaded(removed, added, tasks.size());
+        return true;
+    }
+
     public String getResponse(String input) {
         try {
             if (updateStateUtil != null) {
                 return handleGuiUpdateState(input.trim());
             }
 
-            Command c = parser.parseCommand(input);
             GuiUi guiUi = new GuiUi();
+            reloadIfChanged(guiUi);
+            Command c = parser.parseCommand(input);
 
-            c.execute(tasks, guiUi);
+            executeTimed(c, guiUi);
 
             if (c instanceof UpdateCommand) {
                 UpdateCommand updateCmd = (UpdateCommand) c;
@@ -177,6 +390,30 @@ public class MrMoon {
         return tasks;
     }
 
+    /**
+     * Executes a command, records its latency under the command's type name, and emits a
+     * CommandExecuted flight recorder event when recording is enabled. A command that lost a race
+     * with another instance of MrMoon for the same task is reported rather than thrown.
+     */
+    private void executeTimed(Command command, Ui targetUi) {
+        CommandExecutedEvent event = new CommandExecutedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            command.execute(tasks, targetUi);
+        } catch (ConcurrentModificationException ex) {
+            targetUi.printUsage(ex.getMessage()); // another instance got there first
+        } finally {
+            String name = command.getClass().getSimpleName();
+            MetricsRegistry.global().recordCommand(name, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setCommand(name);
+                event.commit();
+            }
+        }
+    }
+
     /**
      * Handles the multi-step update conversation. Returns true when the update is complete, false
      * to continue.
@@ -234,8 +471,9 @@ public class MrMoon {
         // Create updated task with new description
         Task updatedTask =
             createUpdatedTask(updateStateUtil.getOriginalTask(), newDescription, null, null);
-        replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-        ui.printTaskUpdated(updatedTask, "description");
+        if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, ui)) {
+            ui.printTaskUpdated(updatedTask, "description");
+        }
         return true; // Update complete
     }
 
@@ -247,8 +485,9 @@ public class MrMoon {
             // Create updated task with new date
             Task updatedTask =
                 createUpdatedTask(updateStateUtil.getOriginalTask(), null, newDate, null);
-            replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-            ui.printTaskUpdated(updatedTask, "date/time");
+            if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, ui)) {
+                ui.printTaskUpdated(updatedTask, "date/time");
+            }
             return true; // Update complete
         } catch (Exception e) {
             ui.printUsage(
@@ -289,8 +528,9 @@ public class MrMoon {
                     null,
                     updateStateUtil.getNewStartDate(),
                     newEndDate);
-            replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-            ui.printTaskUpdated(updatedTask, "dates");
+            if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, ui)) {
+                ui.printTaskUpdated(updatedTask, "dates");
+            }
             return true; // Update complete
         } catch (Exception e) {
             ui.printUsage(
@@ -306,7 +546,7 @@ public class MrMoon {
      */
     private Task createUpdatedTask(
         Task original, String newDesc, String newDate1, String newDate2) {
-        String description = newDesc != null ? newDesc : original.getDescription();
+        String description = newDesc != null ? DescriptionInterner.intern(newDesc) : original.getDescription();
         Task newTask;
 
         switch (original.getTaskType()) {
@@ -324,7 +564,7 @@ public class MrMoon {
             Event originalEvent = (Event) original;
             String fromDate = newDate1 != null ? newDate1 : originalEvent.getFrom();
             String toDate = newDate2 != null ? newDate2 : originalEvent.getTo();
-            newTask = new Event(description, fromDate, toDate);
+            newTask = new Event(description, fromDate, toDate, originalEvent.getRecurrence());
             break;
 
         default:
@@ -340,11 +580,19 @@ public class MrMoon {
     }
 
     /**
-     * Replaces a task at the specified index (1-based).
+     * Replaces a task at the specified index (1-based). If another instance changed or removed the
+     * task first, says so instead.
+     *
+     * @return true if the task was replaced
      */
-    private void replaceTask(int oneBasedIndex, Task newTask) {
-        tasks.remove(oneBasedIndex - 1);
-        tasks.add(oneBasedIndex - 1, newTask); // You'll need to add this method to TaskList
+    private boolean replaceTask(int oneBasedIndex, Task newTask, Ui targetUi) {
+        try {
+            tasks.replace(oneBasedIndex - 1, newTask);
+            return true;
+        } catch (ConcurrentModificationException ex) {
+            targetUi.printUsage(ex.getMessage());
+            return false;
+        }
     }
 
     private boolean handleClearConfirmation(String response) {
@@ -417,8 +665,9 @@ public class MrMoon {
         }
 
         Task updatedTask = createUpdatedTask(updateStateUtil.getOriginalTask(), input, null, null);
-        replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-        guiUi.printTaskUpdated(updatedTask, "description");
+        if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, guiUi)) {
+            guiUi.printTaskUpdated(updatedTask, "description");
+        }
         updateStateUtil = null;
         return guiUi.getResponse();
     }
@@ -428,8 +677,9 @@ public class MrMoon {
             DateTimeUtil.parseLenientResult(input);
             Task updatedTask =
                 createUpdatedTask(updateStateUtil.getOriginalTask(), null, input, null);
-            replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-            guiUi.printTaskUpdated(updatedTask, "date/time");
+            if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, guiUi)) {
+                guiUi.printTaskUpdated(updatedTask, "date/time");
+            }
             updateStateUtil = null;
             return guiUi.getResponse();
         } catch (Exception e) {
@@ -466,8 +716,9 @@ public class MrMoon {
                     null,
                     updateStateUtil.getNewStartDate(),
                     input);
-            replaceTask(updateStateUtil.getTaskIndex(), updatedTask);
-            guiUi.printTaskUpdated(updatedTask, "dates");
+            if (replaceTask(updateStateUtil.getTaskIndex(), updatedTask, guiUi)) {
+                guiUi.printTaskUpdated(updatedTask, "dates");
+            }
             updateStateUtil = null;
             return guiUi.getResponse();
         } catch (Exception e) {
@@ -1,5 +1,10 @@
 package duke.command;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import duke.task.Event;
+import duke.task.Task;
 import duke.task.TaskList;
 import duke.ui.Ui;
 import duke.util.DateTimeUtil;
@@ -41,8 +46,13 @@ public class AgendaCommand implements Command {
         try {
             var r = DateTimeUtil.parseLenientResult(dateInput.trim());
             var target = r.dt.toLocalDate();
-            var matches = tasks.tasksOn(target);
-            ui.printAgendaForDate(target, matches, tasks);
+            int[] positions = tasks.positionsOn(target);
+            List<Task> matches = new ArrayList<>(positions.length);
+            for (int idx : positions) {
+                Task t = tasks.get(idx);
+                matches.add(t instanceof Event e ? e.occurrenceOn(target) : t);
+            }
+            ui.printAgendaForDate(target, matches, positions);
         } catch (IllegalArgumentException ex) {
             ui.printUsage("I couldn't read that date: " + ex.getMessage());
         }
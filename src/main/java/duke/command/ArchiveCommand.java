@@ -0,0 +1,80 @@
+package duke.command;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to move completed tasks out of the list into the compressed archive, e.g.
+ * "archive" for every completed task or "archive 30" for those that ended over 30 days ago.
+ * Archived tasks can still be found with {@code find --all}.
+ */
+public class ArchiveCommand implements Command {
+
+    /**
+     * The number of days input string provided by the user
+     */
+    private final String daysInput;
+
+    /**
+     * The clock that supplies today's date
+     */
+    private final Clock clock;
+
+    /**
+     * Constructs an ArchiveCommand using the system clock.
+     *
+     * @param daysInput The minimum number of days since tasks ended, or an empty string for all
+     */
+    public ArchiveCommand(String daysInput) {
+        this(daysInput, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an ArchiveCommand using the given clock.
+     *
+     * @param daysInput The minimum number of days since tasks ended, or an empty string for all
+     * @param clock     The clock that supplies today's date
+     */
+    public ArchiveCommand(String daysInput, Clock clock) {
+        this.daysInput = daysInput;
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the archive command. If the number of days is not a non-negative integer, shows
+     * usage information, and if the archive cannot be written, says so and leaves the list alone.
+     *
+     * @param tasks The task list to archive from
+     * @param ui    The user interface for displaying results
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String trimmed = daysInput == null ? "" : daysInput.trim();
+        LocalDate endedBefore = null;
+        if (!trimmed.isEmpty()) {
+            int days;
+            try {
+                days = Integer.parseInt(trimmed);
+            } catch (NumberFormatException ex) {
+                days = -1;
+            }
+            if (days < 0) {
+                ui.printArchiveFormat();
+                return;
+            }
+            endedBefore = LocalDate.now(clock).minusDays(days);
+        }
+
+        List<Task> archived = tasks.archive(endedBefore);
+        if (archived == null) {
+            ui.printUsage("I couldn't write to the archive, so nothing was archived.");
+            return;
+        }
+        ui.printArchived(archived.size(), tasks.size());
+    }
+}
@@ -1,6 +1,7 @@
 package duke.command;
 
 import duke.task.Deadline;
+import duke.task.DescriptionInterner;
 import duke.task.TaskList;
 import duke.ui.Ui;
 
@@ -42,7 +43,7 @@ public class DeadlineCommand implements Command {
             return;
         }
         try {
-            Deadline d = new Deadline(description.trim(), byInput.trim());
+            Deadline d = new Deadline(DescriptionInterner.intern(description.trim()), byInput.trim());
             tasks.add(d);
             ui.printAdded(d, tasks.size());
         } catch (IllegalArgumentException ex) {
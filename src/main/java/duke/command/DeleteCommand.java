@@ -2,18 +2,25 @@ package duke.command;
 
 import duke.task.Task;
 import duke.task.TaskList;
+import duke.task.TaskSelector;
 import duke.ui.Ui;
 
 /**
- * Represents a command to delete a task from the task list by its index. The task is permanently
- * removed from the list.
+ * Represents a command to delete tasks from the task list, either a single task by its index or,
+ * for bulk forms such as "delete 3-900" or "delete done", every selected task in one compacting
+ * pass with a single save.
  */
 public class DeleteCommand implements Command {
     /**
-     * The 1-based index of the task to delete
+     * The 1-based index of the task to delete, used when no selector is given
      */
     private final int index;
 
+    /**
+     * The tasks to delete in bulk, or null for a single-task command
+     */
+    private final TaskSelector selector;
+
     /**
      * Constructs a DeleteCommand with the specified task index.
      *
@@ -21,17 +28,32 @@ public class DeleteCommand implements Command {
      */
     public DeleteCommand(int index) {
         this.index = index;
+        this.selector = null;
     }
 
     /**
-     * Executes the delete command by removing the task at the specified index. If the index is out
-     * of bounds, shows an error message.
+     * Constructs a DeleteCommand that removes every selected task.
+     *
+     * @param selector The tasks to delete
+     */
+    public DeleteCommand(TaskSelector selector) {
+        this.index = -1;
+        this.selector = selector;
+    }
+
+    /**
+     * Executes the delete command by removing the selected task(s). If the index is out of bounds
+     * or nothing is selected, shows an error message.
      *
      * @param tasks The task list to remove the task from
      * @param ui    The user interface for displaying results and errors
      */
     @Override
     public void execute(TaskList tasks, Ui ui) {
+        if (selector != null) {
+            executeBulk(tasks, ui);
+            return;
+        }
         if (index < 1 || index > tasks.size()) {
             ui.printUsage("Please use a duke.task number between 1 and " + tasks.size() + ".");
             return;
@@ -39,4 +61,23 @@ public class DeleteCommand implements Command {
         Task removed = tasks.remove(index - 1);
         ui.printDelete(removed, tasks.size());
     }
+
+    private void executeBulk(TaskList tasks, Ui ui) {
+        int[] positions;
+        try {
+            positions = selector.resolve(tasks);
+        } catch (IndexOutOfBoundsException ex) {
+            ui.printUsage("Please use task numbers between 1 and " + tasks.size() + ".");
+            return;
+        } catch (IllegalArgumentException ex) {
+            ui.printUsage("I couldn't read that query: " + ex.getMessage());
+            return;
+        }
+        if (positions.length == 0) {
+            ui.printUsage("No tasks matched.");
+            return;
+        }
+        int removed = tasks.removeAll(positions);
+        ui.printBulkDeleted(removed, tasks.size());
+    }
 }
@@ -1,6 +1,8 @@
 package duke.command;
 
+import duke.task.DescriptionInterner;
 import duke.task.Event;
+import duke.task.Recurrence;
 import duke.task.TaskList;
 import duke.ui.Ui;
 
@@ -24,6 +26,11 @@ public class EventCommand implements Command {
      */
     private final String toInput;
 
+    /**
+     * The recurrence keyword given after "/every", or null for a one-off event
+     */
+    private final String everyInput;
+
     /**
      * Constructs an EventCommand with the specified description and time range.
      *
@@ -32,9 +39,22 @@ public class EventCommand implements Command {
      * @param toInput     The end time string
      */
     public EventCommand(String description, String fromInput, String toInput) {
+        this(description, fromInput, toInput, null);
+    }
+
+    /**
+     * Constructs an EventCommand for an event that may repeat.
+     *
+     * @param description The description of the event
+     * @param fromInput   The start time string of the first occurrence
+     * @param toInput     The end time string of the first occurrence
+     * @param everyInput  The recurrence keyword, e.g. "week", or null for a one-off event
+     */
+    public EventCommand(String description, String fromInput, String toInput, String everyInput) {
         this.description = description;
         this.fromInput = fromInput;
         this.toInput = toInput;
+        this.everyInput = everyInput;
     }
 
     /**
@@ -50,8 +70,17 @@ public class EventCommand implements Command {
             ui.printEventFormat();
             return;
         }
+        Recurrence recurrence = null;
+        if (everyInput != null) {
+            recurrence = Recurrence.fromKeyword(everyInput);
+            if (recurrence == null) {
+                ui.printUsage("I can only repeat events every day, week or month.");
+                return;
+            }
+        }
         try {
-            Event e = new Event(description.trim(), fromInput.trim(), toInput.trim());
+            String shared = DescriptionInterner.intern(description.trim());
+            Event e = new Event(shared, fromInput.trim(), toInput.trim(), recurrence);
             tasks.add(e);
             ui.printAdded(e, tasks.size());
         } catch (IllegalArgumentException ex) {
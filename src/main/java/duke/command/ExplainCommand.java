@@ -0,0 +1,57 @@
+package duke.command;
+
+import java.time.LocalDateTime;
+
+import duke.task.QueryPlan;
+import duke.task.TaskList;
+import duke.task.TaskQuery;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to show how a {@code find} query is answered: which index supplies the
+ * candidates, which filters run on them, and how many tasks and how much time each step took.
+ */
+public class ExplainCommand implements Command {
+    private static final String FIND_PREFIX = "find ";
+
+    /**
+     * The query to explain, with or without a leading "find"
+     */
+    private final String queryInput;
+
+    /**
+     * Constructs an ExplainCommand for the specified query.
+     *
+     * @param queryInput The query to explain, e.g. "report done:no" or "find report done:no"
+     */
+    public ExplainCommand(String queryInput) {
+        this.queryInput = queryInput;
+    }
+
+    /**
+     * Executes the explain command by planning and running the query, then printing the plan. If
+     * the query is empty or cannot be read, shows usage information instead.
+     *
+     * @param tasks The task list to run the query against
+     * @param ui    The user interface for displaying the plan
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String input = queryInput == null ? "" : queryInput.trim();
+        if (input.toLowerCase().startsWith(FIND_PREFIX)) {
+            input = input.substring(FIND_PREFIX.length()).trim();
+        }
+        if (input.isEmpty()) {
+            ui.printUsage("Usage: explain <find query>");
+            return;
+        }
+
+        try {
+            QueryPlan plan = tasks.plan(TaskQuery.parse(input), LocalDateTime.now());
+            plan.execute();
+            ui.printQueryPlan(input, plan.describe());
+        } catch (IllegalArgumentException ex) {
+            ui.printUsage("I couldn't read that query: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package duke.command;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.transfer.TaskWriter;
+import duke.transfer.TransferFormat;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to write every task in the list to a file in another format, e.g.
+ * "export csv tasks.csv". Tasks are written one at a time from a snapshot of the list, so the file
+ * holds one version of it even if the list changes meanwhile.
+ */
+public class ExportCommand implements Command {
+
+    /**
+     * The format and path input string provided by the user
+     */
+    private final String input;
+
+    /**
+     * Constructs an ExportCommand.
+     *
+     * @param input The format keyword followed by the path to write, e.g. "ics calendar.ics"
+     */
+    public ExportCommand(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Executes the export command. If the format or path is missing or not recognised, shows usage
+     * information, and if the file cannot be written, says so.
+     *
+     * @param tasks The task list to export
+     * @param ui    The user interface for displaying results
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String[] parts = input == null ? new String[0] : input.trim().split("\\s+", 2);
+        TransferFormat format = parts.length == 2 ? TransferFormat.fromKeyword(parts[0]) : null;
+        Path path;
+        try {
+            path = format == null ? null : Paths.get(parts[1]);
+        } catch (InvalidPathException ex) {
+            path = null;
+        }
+        if (path == null) {
+            ui.printExportFormat();
+            return;
+        }
+
+        List<Task> snapshot = tasks.snapshot();
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            TaskWriter writer = format.newWriter(out);
+            writer.begin();
+            for (Task t : snapshot) {
+                writer.write(t);
+            }
+            writer.end();
+        } catch (NoSuchFileException ex) {
+            ui.printUsage("I couldn't write to " + path + " because its folder does not exist.");
+            return;
+        } catch (IOException ex) {
+            ui.printUsage("I couldn't write to " + path + ": " + ex.getMessage());
+            return;
+        }
+        ui.printExported(snapshot.size(), path.toString());
+    }
+}
@@ -1,16 +1,26 @@
 package duke.command;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import duke.task.Task;
 import duke.task.TaskList;
+import duke.task.TaskQuery;
 import duke.ui.Ui;
 
 /**
- * Represents a command to find tasks that contain a specific keyword in their description. Shows
- * all matching tasks as a numbered list.
+ * Represents a command to find tasks matching a query of words and filters, such as
+ * {@code find report type:deadline done:no due<2025-12-01}. Shows matching tasks as a numbered
+ * list, best match first when the query has words; see {@link TaskQuery}. With a leading
+ * {@code --all}, archived tasks that match are shown as well.
  */
 public class FindCommand implements Command {
+    /**
+     * Flag that extends the search to the archive
+     */
+    private static final String ALL_FLAG = "--all";
+
     /**
      * The keyword to search for in task descriptions
      */
@@ -26,20 +36,41 @@ public class FindCommand implements Command {
     }
 
     /**
-     * Executes the find command by searching for tasks containing the keyword. If the keyword is
-     * empty, shows usage information.
+     * Executes the find command by running the query against the task list. If the query is empty,
+     * shows usage information, and if a filter cannot be read, says which.
      *
      * @param tasks The task list to search through
      * @param ui    The user interface for displaying results
      */
     @Override
     public void execute(TaskList tasks, Ui ui) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            ui.printUsage("Usage: find <keyword>");
+        String text = keyword == null ? "" : keyword.trim();
+        boolean includeArchive = text.equals(ALL_FLAG) || text.startsWith(ALL_FLAG + " ");
+        if (includeArchive) {
+            text = text.substring(ALL_FLAG.length()).trim();
+        }
+        if (text.isEmpty()) {
+            ui.printUsage("Usage: find [--all] <keyword>");
             return;
         }
 
-        List<Task> matches = tasks.findByKeyword(keyword.trim());
-        ui.printFindResults(keyword.trim(), matches);
+        TaskQuery query;
+        try {
+            query = TaskQuery.parse(text);
+        } catch (IllegalArgumentException ex) {
+            ui.printUsage("I couldn't read that query: " + ex.getMessage());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int[] positions = tasks.query(query, now);
+        List<Task> matches = new ArrayList<>(positions.length);
+        for (int idx : positions) {
+            matches.add(tasks.get(idx));
+        }
+        ui.printFindResults(text, matches);
+        if (includeArchive) {
+            ui.printArchiveFindResults(tasks.searchArchive(query, now));
+        }
     }
 }
@@ -0,0 +1,123 @@
+package duke.command;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.transfer.TaskReader;
+import duke.transfer.TransferFormat;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to add the tasks in a file of another format to the end of the list, e.g.
+ * "import csv tasks.csv". The file is read one record at a time and tasks are added, and saved,
+ * in batches, so importing a file of any size holds no more than one batch in memory beyond the
+ * list itself. Records that cannot be read are skipped and counted.
+ */
+public class ImportCommand implements Command {
+    /**
+     * Number of tasks added and saved together
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    /**
+     * The format and path input string provided by the user
+     */
+    private final String input;
+
+    /**
+     * The number of tasks added and saved together
+     */
+    private final int batchSize;
+
+    /**
+     * Constructs an ImportCommand with the default batch size.
+     *
+     * @param input The format keyword followed by the path to read, e.g. "csv tasks.csv"
+     */
+    public ImportCommand(String input) {
+        this(input, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an ImportCommand with the given batch size.
+     *
+     * @param input     The format keyword followed by the path to read
+     * @param batchSize The number of tasks added and saved together
+     */
+    public ImportCommand(String input, int batchSize) {
+        assert batchSize > 0 : "Batch size must be positive";
+        this.input = input;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Executes the import command. If the format or path is missing or not recognised, shows usage
+     * information. If the file cannot be read part-way through, the tasks before that point stay
+     * imported and the problem is reported.
+     *
+     * @param tasks The task list to add to
+     * @param ui    The user interface for displaying results
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String[] parts = input == null ? new String[0] : input.trim().split("\\s+", 2);
+        TransferFormat format = parts.length == 2 ? TransferFormat.fromKeyword(parts[0]) : null;
+        Path path;
+        try {
+            path = format == null ? null : Paths.get(parts[1]);
+        } catch (InvalidPathException ex) {
+            path = null;
+        }
+        if (path == null) {
+            ui.printImportFormat();
+            return;
+        }
+
+        List<Task> batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+        int imported = 0;
+        int skipped = 0;
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            TaskReader reader = format.newReader(in);
+            while (true) {
+                Task task;
+                try {
+                    task = reader.next();
+                } catch (IllegalArgumentException ex) {
+                    skipped++;
+                    continue;
+                }
+                if (task == null) {
+                    break;
+                }
+                batch.add(task);
+                if (batch.size() == batchSize) {
+                    tasks.addAll(batch);
+                    imported += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (NoSuchFileException ex) {
+            ui.printUsage("I couldn't find " + path + ".");
+            return;
+        } catch (IOException ex) {
+            tasks.addAll(batch);
+            imported += batch.size();
+            ui.printUsage("I couldn't finish reading " + path + " (" + ex.getMessage() + "), so I stopped after "
+                + imported + " task(s).");
+            return;
+        }
+        tasks.addAll(batch);
+        imported += batch.size();
+        ui.printImported(imported, skipped, tasks.size());
+    }
+}
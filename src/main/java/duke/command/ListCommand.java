@@ -1,21 +1,67 @@
 package duke.command;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import duke.task.SortOrder;
+import duke.task.Task;
 import duke.task.TaskList;
 import duke.ui.Ui;
 
 /**
  * Represents a command to display all tasks in the task list. Shows the current tasks with their
- * indices and completion status.
+ * indices and completion status, either in insertion order or, for "list /sort due", in one of the
+ * orders maintained by the task list.
  */
 public class ListCommand implements Command {
+
+    /**
+     * The requested sort keyword, or null to list in insertion order
+     */
+    private final String sortKeyword;
+
+    /**
+     * Constructs a ListCommand that lists tasks in insertion order.
+     */
+    public ListCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructs a ListCommand that lists tasks in a sorted order.
+     *
+     * @param sortKeyword The keyword given after "/sort", e.g. "due"
+     */
+    public ListCommand(String sortKeyword) {
+        this.sortKeyword = sortKeyword;
+    }
+
     /**
-     * Executes the list command by displaying all tasks in the task list.
+     * Executes the list command by displaying all tasks in the task list. An unknown sort keyword
+     * shows usage information instead.
      *
      * @param tasks The task list to display
      * @param ui    The user interface for displaying the task list
      */
     @Override
     public void execute(TaskList tasks, Ui ui) {
-        ui.printList(tasks.asUnmodifiable());
+        if (sortKeyword == null) {
+            ui.printList(tasks.asUnmodifiable());
+            return;
+        }
+
+        SortOrder order = SortOrder.fromKeyword(sortKeyword);
+        if (order == null) {
+            ui.printListFormat();
+            return;
+        }
+
+        int[] positions = tasks.positionsSortedBy(order, LocalDateTime.now());
+        List<Task> sorted = new ArrayList<>(positions.length);
+        for (int idx : positions) {
+            sorted.add(tasks.get(idx));
+        }
+        ui.printSortedList(order, sorted, positions);
     }
 }
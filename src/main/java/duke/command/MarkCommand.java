@@ -2,18 +2,25 @@ package duke.command;
 
 import duke.task.Task;
 import duke.task.TaskList;
+import duke.task.TaskSelector;
 import duke.ui.Ui;
 
 /**
- * Represents a command to mark or unmark a task as completed. Changes the completion status of the
- * specified task.
+ * Represents a command to mark or unmark tasks as completed. Changes the completion status of
+ * either a single task or, for bulk forms such as "mark 1,5,9-20" or "unmark done", every selected
+ * task in one pass with a single save.
  */
 public class MarkCommand implements Command {
     /**
-     * The 1-based index of the task to mark/unmark
+     * The 1-based index of the task to mark/unmark, used when no selector is given
      */
     private final int index;
 
+    /**
+     * The tasks to mark/unmark in bulk, or null for a single-task command
+     */
+    private final TaskSelector selector;
+
     /**
      * Whether to mark (true) or unmark (false) the task
      */
@@ -27,28 +34,60 @@ public class MarkCommand implements Command {
      */
     public MarkCommand(int index, boolean mark) {
         this.index = index;
+        this.selector = null;
+        this.mark = mark;
+    }
+
+    /**
+     * Constructs a MarkCommand that changes the status of every selected task.
+     *
+     * @param selector The tasks to mark/unmark
+     * @param mark     true to mark as completed, false to unmark
+     */
+    public MarkCommand(TaskSelector selector, boolean mark) {
+        this.index = -1;
+        this.selector = selector;
         this.mark = mark;
     }
 
     /**
-     * Executes the mark command by changing the completion status of the specified task. If the
-     * index is out of bounds, shows an error message.
+     * Executes the mark command by changing the completion status of the specified task(s). If
+     * the index is out of bounds or nothing is selected, shows an error message.
      *
      * @param tasks The task list containing the task to mark/unmark
      * @param ui    The user interface for displaying results and errors
      */
     @Override
     public void execute(TaskList tasks, Ui ui) {
+        if (selector != null) {
+            executeBulk(tasks, ui);
+            return;
+        }
         if (index < 1 || index > tasks.size()) {
             ui.printUsage("Please use a duke.task number between 1 and " + tasks.size() + ".");
             return;
         }
-        if (mark) {
-            tasks.mark(index - 1);
-        } else {
-            tasks.unmark(index - 1);
-        }
-        Task t = tasks.get(index - 1);
+        // Another instance may have moved the task, so show it as returned rather than by its number
+        Task t = mark ? tasks.mark(index - 1) : tasks.unmark(index - 1);
         ui.printMarked(t, mark);
     }
+
+    private void executeBulk(TaskList tasks, Ui ui) {
+        int[] positions;
+        try {
+            positions = selector.resolve(tasks);
+        } catch (IndexOutOfBoundsException ex) {
+            ui.printUsage("Please use task numbers between 1 and " + tasks.size() + ".");
+            return;
+        } catch (IllegalArgumentException ex) {
+            ui.printUsage("I couldn't read that query: " + ex.getMessage());
+            return;
+        }
+        if (positions.length == 0) {
+            ui.printUsage("No tasks matched.");
+            return;
+        }
+        tasks.markAll(positions, mark);
+        ui.printBulkMarked(positions.length, mark);
+    }
 }
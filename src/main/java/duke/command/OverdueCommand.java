@@ -0,0 +1,53 @@
+package duke.command;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to display incomplete deadlines that are past due, earliest first.
+ */
+public class OverdueCommand implements Command {
+
+    /**
+     * The clock that supplies the current time
+     */
+    private final Clock clock;
+
+    /**
+     * Constructs an OverdueCommand using the system clock.
+     */
+    public OverdueCommand() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an OverdueCommand using the given clock.
+     *
+     * @param clock The clock that supplies the current time
+     */
+    public OverdueCommand(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the overdue command by listing the overdue deadlines from the task list's time index.
+     *
+     * @param tasks The task list to query
+     * @param ui    The user interface for displaying results
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        int[] positions = tasks.positionsOverdue(LocalDateTime.now(clock));
+        List<Task> overdue = new ArrayList<>(positions.length);
+        for (int idx : positions) {
+            overdue.add(tasks.get(idx));
+        }
+        ui.printOverdue(overdue, positions);
+    }
+}
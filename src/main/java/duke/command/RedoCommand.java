@@ -0,0 +1,26 @@
+package duke.command;
+
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to re-apply the most recently undone change to the task list. The redo
+ * history is discarded as soon as a new change is made.
+ */
+public class RedoCommand implements Command {
+    /**
+     * Executes the redo command. If there is nothing to redo, informs the user instead.
+     *
+     * @param tasks The task list whose history is replayed
+     * @param ui    The user interface for displaying the result
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String action = tasks.redo();
+        if (action == null) {
+            ui.printUsage("Nothing to redo.");
+            return;
+        }
+        ui.printRedone(action, tasks.size());
+    }
+}
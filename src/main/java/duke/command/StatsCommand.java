@@ -0,0 +1,22 @@
+package duke.command;
+
+import duke.metrics.MetricsRegistry;
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to display runtime statistics: command latencies, storage save/load timings,
+ * bytes written, and the current task count.
+ */
+public class StatsCommand implements Command {
+    /**
+     * Executes the stats command by displaying a summary of the global metrics registry.
+     *
+     * @param tasks The task list (not used in this command)
+     * @param ui    The user interface for displaying the statistics
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        ui.printStats(MetricsRegistry.global().summaryLines());
+    }
+}
@@ -1,5 +1,6 @@
 package duke.command;
 
+import duke.task.DescriptionInterner;
 import duke.task.Task;
 import duke.task.TaskList;
 import duke.task.Todo;
@@ -39,7 +40,7 @@ public class TodoCommand implements Command {
             return;
         }
 
-        Task t = new Todo(description.trim());
+        Task t = new Todo(DescriptionInterner.intern(description.trim()));
         tasks.add(t);
         ui.printAdded(t, tasks.size());
     }
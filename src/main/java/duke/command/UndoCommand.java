@@ -0,0 +1,26 @@
+package duke.command;
+
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to revert the most recent change to the task list, such as an add, delete,
+ * mark or update. Can be repeated to step further back through the history.
+ */
+public class UndoCommand implements Command {
+    /**
+     * Executes the undo command. If there is nothing to undo, informs the user instead.
+     *
+     * @param tasks The task list whose history is replayed
+     * @param ui    The user interface for displaying the result
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        String action = tasks.undo();
+        if (action == null) {
+            ui.printUsage("Nothing to undo.");
+            return;
+        }
+        ui.printUndone(action, tasks.size());
+    }
+}
@@ -0,0 +1,84 @@
+package duke.command;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import duke.task.ScheduledTask;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.ui.Ui;
+
+/**
+ * Represents a command to display incomplete deadlines due, and events starting, within the next
+ * few days, e.g. "upcoming 7". Without a number it looks a week ahead.
+ */
+public class UpcomingCommand implements Command {
+
+    /**
+     * Number of days to look ahead when none is given
+     */
+    public static final int DEFAULT_DAYS = 7;
+
+    /**
+     * The number of days input string provided by the user
+     */
+    private final String daysInput;
+
+    /**
+     * The clock that supplies the current time
+     */
+    private final Clock clock;
+
+    /**
+     * Constructs an UpcomingCommand using the system clock.
+     *
+     * @param daysInput The number of days to look ahead, or an empty string for the default
+     */
+    public UpcomingCommand(String daysInput) {
+        this(daysInput, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an UpcomingCommand using the given clock.
+     *
+     * @param daysInput The number of days to look ahead, or an empty string for the default
+     * @param clock     The clock that supplies the current time
+     */
+    public UpcomingCommand(String daysInput, Clock clock) {
+        this.daysInput = daysInput;
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the upcoming command by listing matching tasks from the task list's time index. If
+     * the number of days is not a non-negative integer, shows usage information.
+     *
+     * @param tasks The task list to query
+     * @param ui    The user interface for displaying results
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui) {
+        int days;
+        try {
+            String trimmed = daysInput == null ? "" : daysInput.trim();
+            days = trimmed.isEmpty() ? DEFAULT_DAYS : Integer.parseInt(trimmed);
+        } catch (NumberFormatException ex) {
+            days = -1;
+        }
+        if (days < 0) {
+            ui.printUpcomingFormat();
+            return;
+        }
+
+        List<ScheduledTask> scheduled = tasks.upcoming(LocalDateTime.now(clock), days);
+        List<Task> upcoming = new ArrayList<>(scheduled.size());
+        int[] positions = new int[scheduled.size()];
+        for (int i = 0; i < positions.length; i++) {
+            upcoming.add(scheduled.get(i).getTask());
+            positions[i] = scheduled.get(i).getPosition();
+        }
+        ui.printUpcoming(days, upcoming, positions);
+    }
+}
@@ -1,56 +1,75 @@
 package duke.gui;
 
-import java.io.IOException;
-import java.util.Collections;
+import java.util.Objects;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face and a label
- * containing text from the speaker.
+ * containing text from the speaker. The node tree is built in code rather than loaded from FXML so
+ * that each chat message only pays for creating a handful of nodes, not for parsing and reflecting
+ * over a template.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    /**
+     * Stylesheet shared by every dialog box, resolved once per class load
+     */
+    private static final String STYLESHEET =
+        Objects.requireNonNull(DialogBox.class.getResource("/css/dialog-box.css")).toExternalForm();
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader =
-                new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static final double PREF_WIDTH = 400.0;
+    private static final double LABEL_MAX_WIDTH = 200.0;
+    private static final double LABEL_MIN_WIDTH = 50.0;
+    private static final double PICTURE_SIZE = 60.0;
+
+    private static final Insets BOX_PADDING = new Insets(5.0);
+    private static final Insets LABEL_MARGIN = new Insets(5.0, -15.0, 30.0, -6.0);
+    private static final Insets LABEL_PADDING = new Insets(8.0, 10.0, 8.0, 10.0);
+    private static final Insets PICTURE_MARGIN = new Insets(0.0, 2.0, 2.0, 2.0);
 
-        dialog.setText(text);
+    private final Label dialog;
+    private final ImageView displayPicture;
+
+    private DialogBox(String text, Image img) {
+        dialog = new Label(text);
+        dialog.getStylesheets().add(STYLESHEET);
+        dialog.setAlignment(Pos.TOP_LEFT);
+        dialog.setContentDisplay(ContentDisplay.TEXT_ONLY);
+        dialog.setPadding(LABEL_PADDING);
         dialog.setWrapText(true);
-        dialog.setMaxWidth(200.0);
+        dialog.setMaxWidth(LABEL_MAX_WIDTH);
         dialog.setPrefWidth(Region.USE_COMPUTED_SIZE);
-        dialog.setMinWidth(50.0);
+        dialog.setMinWidth(LABEL_MIN_WIDTH);
         dialog.setMaxHeight(Double.MAX_VALUE);
         dialog.setPrefHeight(Region.USE_COMPUTED_SIZE);
         dialog.setMinHeight(Region.USE_PREF_SIZE);
+        HBox.setHgrow(dialog, Priority.NEVER);
+        HBox.setMargin(dialog, LABEL_MARGIN);
 
+        displayPicture = new ImageView(img);
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+        HBox.setMargin(displayPicture, PICTURE_MARGIN);
+
+        this.getStylesheets().add(STYLESHEET);
+        this.setPadding(BOX_PADDING);
+        this.setPrefWidth(PREF_WIDTH);
         this.setMaxWidth(Double.MAX_VALUE);
         this.setMaxHeight(Double.MAX_VALUE);
         this.setFillHeight(true);
         this.setAlignment(Pos.BOTTOM_RIGHT);
-
-        displayPicture.setImage(img);
+        this.getChildren().setAll(dialog, displayPicture);
     }
 
     /**
@@ -73,9 +92,7 @@ public class DialogBox extends HBox {
      * Flips the dialog box such that the ImageView is on the left and text on the right.
      */
     private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
+        getChildren().setAll(displayPicture, dialog);
         setAlignment(Pos.BOTTOM_LEFT);
         dialog.getStyleClass().add("reply-label");
     }
@@ -1,19 +1,35 @@
 package duke.gui;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 import duke.MrMoon;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 
 /**
- * A GUI for MrMoon using FXML.
+ * A GUI for MrMoon using FXML. The window is shown before the task file is read; MrMoon itself is
+ * constructed on a background thread and handed to the controller once loading finishes.
  */
 public class Main extends Application {
-    private MrMoon mrMoon = new MrMoon("./data/duke.txt");
+    private static final String DATA_FILE = "./data/duke.txt";
+
+    /**
+     * When set, prints startup milestones (relative to JVM start) to standard error
+     */
+    private static final String STARTUP_TIMING_PROPERTY = "mrmoon.startupTiming";
+
+    /**
+     * When set, exits as soon as tasks are loaded; used for AppCDS training runs
+     */
+    private static final String EXIT_AFTER_STARTUP_PROPERTY = "mrmoon.exitAfterStartup";
+
+    private MainWindow controller;
 
     @Override
     public void start(Stage stage) {
@@ -24,10 +40,64 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setResizable(false);
-            fxmlLoader.<MainWindow>getController().setMrMoon(mrMoon);
             stage.show();
+            logStartup("window shown");
+
+            controller = fxmlLoader.getController();
+            loadMrMoonInBackground(controller);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Shuts MrMoon down as the window closes, writing its final metrics.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    /**
+     * Constructs MrMoon (which reads the task file) off the FX application thread and injects it
+     * into the controller when ready.
+     *
+     * @param controller The main window controller awaiting the MrMoon instance
+     */
+    private void loadMrMoonInBackground(MainWindow controller) {
+        Task<MrMoon> loadTask = new Task<>() {
+            @Override
+            protected MrMoon call() {
+                return new MrMoon(DATA_FILE);
+            }
+        };
+
+        loadTask.setOnSucceeded(event -> {
+            controller.setMrMoon(loadTask.getValue());
+            logStartup("tasks loaded");
+            if (Boolean.getBoolean(EXIT_AFTER_STARTUP_PROPERTY)) {
+                Platform.exit();
+            }
+        });
+        loadTask.setOnFailed(event -> controller.showLoadFailure(loadTask.getException()));
+
+        Thread loader = new Thread(loadTask, "mrmoon-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Prints a startup milestone with the elapsed time since JVM start, if timing is enabled.
+     *
+     * @param milestone Short description of the milestone reached
+     */
+    private static void logStartup(String milestone) {
+        if (!Boolean.getBoolean(STARTUP_TIMING_PROPERTY)) {
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("[INFO] Startup: " + milestone + " after " + elapsed + " ms");
+    }
 }
@@ -3,6 +3,8 @@ package duke.gui;
 import java.util.Objects;
 
 import duke.MrMoon;
+import duke.task.Task;
+import duke.ui.GuiUi;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -20,15 +22,16 @@ import javafx.util.Duration;
  * functionality and welcome message display.
  */
 public class MainWindow extends AnchorPane {
-    private final Image userImage =
-        new Image(
-            Objects.requireNonNull(
-                this.getClass()
-                    .getResourceAsStream("/images/icons8-male-user-480.png")));
-    private final Image mrMoonImage =
-        new Image(
-            Objects.requireNonNull(
-                this.getClass().getResourceAsStream("/images/icons8-user-480.png")));
+    /**
+     * Size at which the avatar icons are decoded; matches the dialog box picture size
+     */
+    private static final double ICON_SIZE = 60.0;
+
+    private static final String LOADING_PROMPT = "Loading your tasks...";
+    private static final String READY_PROMPT = "Enter command here...";
+
+    private final Image userImage = loadIcon("/images/icons8-male-user-480.png");
+    private final Image mrMoonImage = loadIcon("/images/icons8-user-480.png");
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -39,6 +42,7 @@ public class MainWindow extends AnchorPane {
     private Button sendButton;
     private MrMoon mrMoon;
     private boolean isExited = false;
+    private boolean isShutDown = false;
 
     private boolean waitingForClearConfirmation = false;
 
@@ -48,16 +52,77 @@ public class MainWindow extends AnchorPane {
     @FXML
     public void initialize() {
         scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        setInputEnabled(false);
+        userInput.setPromptText(LOADING_PROMPT);
+    }
+
+    /**
+     * Decodes an icon resource at display size in the background instead of at its full 480px
+     * resolution on the FX application thread.
+     *
+     * @param resource The classpath location of the image
+     * @return The image, which may still be loading when returned
+     */
+    private static Image loadIcon(String resource) {
+        String url = Objects.requireNonNull(MainWindow.class.getResource(resource)).toExternalForm();
+        return new Image(url, ICON_SIZE, ICON_SIZE, true, true, true);
     }
 
     /**
-     * Injects the MrMoon instance into this controller.
+     * Injects the MrMoon instance into this controller and enables user input.
      *
      * @param m The MrMoon chatbot instance to use
      */
     public void setMrMoon(MrMoon m) {
         mrMoon = m;
+        userInput.setPromptText(READY_PROMPT);
+        setInputEnabled(true);
+        userInput.requestFocus();
         showWelcomeMessage();
+        m.startReminders(task -> Platform.runLater(() -> showReminder(task)));
+        m.startWatching(() -> Platform.runLater(this::showReload));
+    }
+
+    /**
+     * Reloads the list if another program changed the data file, and says so in the chat. Waits
+     * for the next command instead while a clear is waiting to be confirmed. Must be called on the
+     * FX application thread.
+     */
+    private void showReload() {
+        if (isExited || waitingForClearConfirmation) {
+            return;
+        }
+        GuiUi reloadUi = new GuiUi();
+        if (mrMoon.reloadIfChanged(reloadUi)) {
+            dialogContainer.getChildren().add(DialogBox.getMrMoonDialog(reloadUi.getResponse(), mrMoonImage));
+        }
+    }
+
+    /**
+     * Shows a reminder from MrMoon in the chat. Must be called on the FX application thread.
+     */
+    private void showReminder(Task task) {
+        GuiUi reminderUi = new GuiUi();
+        reminderUi.printReminder(task);
+        dialogContainer.getChildren().add(DialogBox.getMrMoonDialog(reminderUi.getResponse(), mrMoonImage));
+    }
+
+    /**
+     * Reports that MrMoon could not be started. Input stays disabled.
+     *
+     * @param cause The exception raised while loading, may be null
+     */
+    public void showLoadFailure(Throwable cause) {
+        String reason = cause == null ? "unknown error" : cause.getMessage();
+        userInput.setPromptText("Unable to start");
+        dialogContainer
+            .getChildren()
+            .add(DialogBox.getMrMoonDialog("Sorry, I couldn't start up: " + reason, mrMoonImage));
+    }
+
+    private void setInputEnabled(boolean enabled) {
+        userInput.setDisable(!enabled);
+        sendButton.setDisable(!enabled);
     }
 
     /**
@@ -75,7 +140,7 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     private void handleUserInput() {
-        if (isExited) {
+        if (isExited || mrMoon == null) {
             return;
         }
 
@@ -117,6 +182,7 @@ public class MainWindow extends AnchorPane {
             PauseTransition delay = new PauseTransition(Duration.seconds(5));
             delay.setOnFinished(
                 event -> {
+                    shutdown(); // System.exit below stops the JVM before Main.stop would run
                     Platform.exit();
                     System.exit(0);
                 });
@@ -124,6 +190,17 @@ public class MainWindow extends AnchorPane {
         }
     }
 
+    /**
+     * Shuts MrMoon down, if it has finished loading, so that its final metrics are written. Only
+     * the first call has any effect. Must be called on the FX application thread.
+     */
+    public void shutdown() {
+        if (mrMoon != null && !isShutDown) {
+            isShutDown = true;
+            mrMoon.shutdown();
+        }
+    }
+
     /**
      * Handles user responses to clear confirmation prompts. Processes "yes" to clear tasks, "no" to
      * cancel, and asks for clarification otherwise.
@@ -0,0 +1,26 @@
+package duke.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted around every {@code Command.execute} call. The event's duration
+ * is the command's execution time.
+ */
+@Name("duke.CommandExecuted")
+@Label("Command Executed")
+@Category("MrMoon")
+@Description("Execution of a single user command")
+@StackTrace(false)
+public final class CommandExecutedEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+}
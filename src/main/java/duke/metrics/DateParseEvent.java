@@ -0,0 +1,59 @@
+package duke.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for lenient date/time parsing. Only one in every {@link #SAMPLE_INTERVAL}
+ * enabled parses is committed, so bulk operations that parse many dates do not flood a recording.
+ */
+@Name("duke.DateParse")
+@Label("Date Parse")
+@Category("MrMoon")
+@Description("Sampled parse of a user-supplied date/time string")
+@StackTrace(false)
+public final class DateParseEvent extends Event {
+    /**
+     * Commit one event per this many parses
+     */
+    static final int SAMPLE_INTERVAL = 16;
+
+    private static final AtomicLong PARSE_COUNTER = new AtomicLong();
+
+    @Label("Input")
+    private String input;
+
+    @Label("Has Time")
+    private boolean hasTime;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Returns whether the current parse falls on the sampling interval. Only called once the
+     * event is known to be enabled, so the counter is not touched when recording is off.
+     *
+     * @return true if this parse should be committed
+     */
+    public static boolean isSampled() {
+        return PARSE_COUNTER.getAndIncrement() % SAMPLE_INTERVAL == 0;
+    }
+
+    public void setInput(String input) {
+        this.input = input;
+    }
+
+    public void setHasTime(boolean hasTime) {
+        this.hasTime = hasTime;
+    }
+
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,105 @@
+package duke.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-bucket latency histogram. Recording is lock-free and allocation-free, so it is cheap
+ * enough to wrap every command execution and storage operation. Buckets follow the Prometheus
+ * convention of cumulative upper bounds in seconds.
+ */
+public final class Histogram {
+    /**
+     * Upper bounds of the buckets, in seconds; an implicit +Inf bucket follows the last one
+     */
+    private static final double[] BUCKET_BOUNDS_SECONDS = {
+        0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5
+    };
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_SECONDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS_SECONDS[i] * NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * Non-cumulative count per bucket; the last slot is the +Inf bucket
+     */
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_NANOS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one observation.
+     *
+     * @param nanos The observed duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        long value = Math.max(0, nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && value > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        count.increment();
+        sumNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of recorded observations.
+     *
+     * @return The observation count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of all observations in milliseconds, or 0 if nothing was recorded.
+     *
+     * @return The mean duration in milliseconds
+     */
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumNanos.sum() / NANOS_PER_MILLI / n;
+    }
+
+    /**
+     * Returns the largest observation in milliseconds.
+     *
+     * @return The maximum duration in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Appends this histogram's samples in Prometheus text exposition format.
+     *
+     * @param sb     The buffer to append to
+     * @param name   The metric family name, without the _bucket/_sum/_count suffix
+     * @param labels Extra labels already formatted as {@code key="value"}, or an empty string
+     */
+    void writePrometheus(StringBuilder sb, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i <= BUCKET_BOUNDS_SECONDS.length; i++) {
+            cumulative += bucketCounts.get(i);
+            String le = i < BUCKET_BOUNDS_SECONDS.length ? Double.toString(BUCKET_BOUNDS_SECONDS[i]) : "+Inf";
+            sb.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ")
+                .append(cumulative).append('\n');
+        }
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        sb.append(name).append("_sum").append(braces).append(' ')
+            .append(sumNanos.sum() / NANOS_PER_SECOND).append('\n');
+        sb.append(name).append("_count").append(braces).append(' ').append(count.sum()).append('\n');
+    }
+}
@@ -0,0 +1,73 @@
+package duke.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a {@link MetricsRegistry} to a local file in the Prometheus text format, so
+ * that it can be scraped by a node-exporter textfile collector or inspected by hand. Runs on a
+ * single daemon thread and replaces the file atomically on every export.
+ */
+public class MetricsExporter implements AutoCloseable {
+    private final MetricsRegistry registry;
+    private final Path target;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an exporter that is not yet running.
+     *
+     * @param registry The registry to export
+     * @param target   The file to write, e.g. "data/metrics.prom"
+     */
+    public MetricsExporter(MetricsRegistry registry, Path target) {
+        assert registry != null && target != null : "Registry and target must be provided";
+
+        this.registry = registry;
+        this.target = target;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mrmoon-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts exporting at a fixed interval. A non-positive interval disables periodic export.
+     *
+     * @param intervalSeconds The number of seconds between exports
+     */
+    public void start(long intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        scheduler.scheduleAtFixedRate(this::export, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the current metrics to the target file immediately.
+     */
+    public void export() {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.writeString(tmp, registry.toPrometheusText(), StandardCharsets.UTF_8);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to export metrics: " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Stops the periodic export and writes one final snapshot.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        export();
+    }
+}
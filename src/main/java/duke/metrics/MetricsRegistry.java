@@ -0,0 +1,164 @@
+package duke.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the application's runtime metrics: per-command latency, storage save/load timings and
+ * sizes, date parsing cost, and the current task count. A single process-wide instance is exposed
+ * through {@link #global()}; separate instances can be created for tests.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Histogram> commandLatency = new ConcurrentHashMap<>();
+    private final Histogram saveLatency = new Histogram();
+    private final Histogram loadLatency = new Histogram();
+    private final Histogram dateParseLatency = new Histogram();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final AtomicLong lastSaveBytes = new AtomicLong();
+    private final AtomicLong taskCount = new AtomicLong();
+    private final LongAdder descriptionHits = new LongAdder();
+    private final LongAdder descriptionMisses = new LongAdder();
+
+    /**
+     * Returns the process-wide registry.
+     *
+     * @return The shared MetricsRegistry
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records the time taken by one command execution.
+     *
+     * @param commandName The command type, e.g. "TodoCommand"
+     * @param nanos       The execution time in nanoseconds
+     */
+    public void recordCommand(String commandName, long nanos) {
+        commandLatency.computeIfAbsent(commandName, k -> new Histogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Records a completed save of the task file.
+     *
+     * @param bytes     The number of bytes written
+     * @param nanos     The time taken in nanoseconds
+     * @param taskCount The number of tasks saved
+     */
+    public void recordSave(long bytes, long nanos, int taskCount) {
+        saveLatency.recordNanos(nanos);
+        bytesWritten.add(bytes);
+        lastSaveBytes.set(bytes);
+        this.taskCount.set(taskCount);
+    }
+
+    /**
+     * Records a completed load of the task file.
+     *
+     * @param nanos     The time taken in nanoseconds
+     * @param taskCount The number of tasks loaded
+     */
+    public void recordLoad(long nanos, int taskCount) {
+        loadLatency.recordNanos(nanos);
+        this.taskCount.set(taskCount);
+    }
+
+    /**
+     * Records the time taken to parse one user-supplied date/time string.
+     *
+     * @param nanos The time taken in nanoseconds
+     */
+    public void recordDateParse(long nanos) {
+        dateParseLatency.recordNanos(nanos);
+    }
+
+    /**
+     * Records one lookup in the description dedup pool.
+     *
+     * @param hit true if an equal description was already pooled
+     */
+    public void recordDescriptionLookup(boolean hit) {
+        (hit ? descriptionHits : descriptionMisses).increment();
+    }
+
+    /**
+     * Returns a short human-readable summary suitable for the {@code stats} command.
+     *
+     * @return The summary, one entry per line
+     */
+    public List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Tasks: " + taskCount.get());
+        lines.add("Commands:");
+        Map<String, Histogram> commands = new TreeMap<>(commandLatency);
+        if (commands.isEmpty()) {
+            lines.add("  (none yet)");
+        }
+        commands.forEach((name, h) -> lines.add("  " + name + ": " + describe(h)));
+        lines.add("Saves: " + describe(saveLatency) + ", " + bytesWritten.sum() + " bytes written"
+            + " (last " + lastSaveBytes.get() + ")");
+        lines.add("Loads: " + describe(loadLatency));
+        lines.add("Date parses: " + describe(dateParseLatency));
+        long hits = descriptionHits.sum();
+        long lookups = hits + descriptionMisses.sum();
+        lines.add(String.format(Locale.ROOT, "Description pool: %d of %d lookups shared (%.1f%% hit ratio)",
+            hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups));
+        return lines;
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format.
+     *
+     * @return The metrics as Prometheus-compatible text
+     */
+    public String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+
+        header(sb, "mrmoon_command_duration_seconds", "Time spent in Command.execute.", "histogram");
+        new TreeMap<>(commandLatency).forEach((name, h) ->
+            h.writePrometheus(sb, "mrmoon_command_duration_seconds", "command=\"" + name + "\""));
+
+        header(sb, "mrmoon_storage_save_duration_seconds", "Time taken by Storage.save.", "histogram");
+        saveLatency.writePrometheus(sb, "mrmoon_storage_save_duration_seconds", "");
+
+        header(sb, "mrmoon_storage_load_duration_seconds", "Time taken by Storage.load.", "histogram");
+        loadLatency.writePrometheus(sb, "mrmoon_storage_load_duration_seconds", "");
+
+        header(sb, "mrmoon_date_parse_duration_seconds", "Time taken to parse date/time input.", "histogram");
+        dateParseLatency.writePrometheus(sb, "mrmoon_date_parse_duration_seconds", "");
+
+        header(sb, "mrmoon_storage_written_bytes_total", "Bytes written by Storage.save.", "counter");
+        sb.append("mrmoon_storage_written_bytes_total ").append(bytesWritten.sum()).append('\n');
+
+        header(sb, "mrmoon_storage_last_save_bytes", "Size of the most recent save.", "gauge");
+        sb.append("mrmoon_storage_last_save_bytes ").append(lastSaveBytes.get()).append('\n');
+
+        header(sb, "mrmoon_description_pool_lookups_total", "Description dedup pool lookups.", "counter");
+        sb.append("mrmoon_description_pool_lookups_total{result=\"hit\"} ").append(descriptionHits.sum()).append('\n');
+        sb.append("mrmoon_description_pool_lookups_total{result=\"miss\"} ").append(descriptionMisses.sum())
+            .append('\n');
+
+        header(sb, "mrmoon_tasks", "Number of tasks in the list.", "gauge");
+        sb.append("mrmoon_tasks ").append(taskCount.get()).append('\n');
+
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String describe(Histogram h) {
+        return String.format(Locale.ROOT, "%d calls, avg %.2f ms, max %.2f ms",
+            h.getCount(), h.getMeanMillis(), h.getMaxMillis());
+    }
+}
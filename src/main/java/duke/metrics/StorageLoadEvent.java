@@ -0,0 +1,42 @@
+package duke.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for every successful {@code Storage.load}. The event's duration
+ * covers reading and parsing the task file.
+ */
+@Name("duke.StorageLoad")
+@Label("Storage Load")
+@Category("MrMoon")
+@Description("Read and parse of the task file")
+@StackTrace(false)
+public final class StorageLoadEvent extends Event {
+    @Label("Bytes Read")
+    @DataAmount
+    private long bytes;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Quarantined Records")
+    private int quarantinedCount;
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public void setQuarantinedCount(int quarantinedCount) {
+        this.quarantinedCount = quarantinedCount;
+    }
+}
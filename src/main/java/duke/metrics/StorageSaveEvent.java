@@ -0,0 +1,44 @@
+package duke.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for every {@code Storage.save}. The event's duration covers
+ * encoding, writing the temporary file and the final move, or just the positioned writes when the
+ * save patched records in place.
+ */
+@Name("duke.StorageSave")
+@Label("Storage Save")
+@Category("MrMoon")
+@Description("Write of the task file, whole or patched in place")
+@StackTrace(false)
+public final class StorageSaveEvent extends Event {
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytes;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Records Patched")
+    @Description("Records rewritten in place, or 0 for a rewrite of the whole file")
+    private int patchedRecords;
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    public void setPatchedRecords(int patchedRecords) {
+        this.patchedRecords = patchedRecords;
+    }
+}
@@ -1,6 +1,10 @@
 package duke.parser;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import duke.command.AgendaCommand;
+import duke.command.ArchiveCommand;
 import duke.command.ClearCommand;
 import duke.command.Command;
 import duke.command.DeadlineCommand;
@@ -8,12 +12,22 @@ import duke.command.DeleteCommand;
 import duke.command.EmptyCommand;
 import duke.command.EventCommand;
 import duke.command.ExitCommand;
+import duke.command.ExplainCommand;
+import duke.command.ExportCommand;
 import duke.command.FindCommand;
+import duke.command.ImportCommand;
 import duke.command.ListCommand;
 import duke.command.MarkCommand;
+import duke.command.OverdueCommand;
+import duke.command.RedoCommand;
+import duke.command.StatsCommand;
 import duke.command.TodoCommand;
+import duke.command.UndoCommand;
 import duke.command.UnknownCommand;
+import duke.command.UpcomingCommand;
 import duke.command.UpdateCommand;
+import duke.task.TaskSelector;
+import duke.util.DateTimeUtil;
 
 /**
  * Parses user input strings into Command objects. Uses constants instead of magic numbers and
@@ -30,6 +44,17 @@ public class Parser {
     private static final int BY_OFFSET = 3; // "/by".length()
     private static final int FROM_OFFSET = 5; // "/from".length()
     private static final int TO_OFFSET = 3; // "/to".length()
+    private static final String EVERY_DELIMITER = "/every";
+    private static final int EVERY_OFFSET = 6; // "/every".length()
+
+    // List options
+    private static final String SORT_FLAG = "/sort";
+
+    // Bulk selection keywords
+    private static final String SELECT_DONE = "done";
+    private static final String SELECT_BEFORE = "before ";
+    private static final String SELECT_LIST_SEPARATOR = ",";
+    private static final String SELECT_RANGE_SEPARATOR = "-";
 
     // Command names
     private static final String CMD_EMPTY = "";
@@ -44,7 +69,16 @@ public class Parser {
     private static final String CMD_ON = "on";
     private static final String CMD_CLEAR = "clear";
     private static final String CMD_FIND = "find";
+    private static final String CMD_EXPLAIN = "explain";
     private static final String CMD_UPDATE = "update";
+    private static final String CMD_STATS = "stats";
+    private static final String CMD_UNDO = "undo";
+    private static final String CMD_REDO = "redo";
+    private static final String CMD_OVERDUE = "overdue";
+    private static final String CMD_UPCOMING = "upcoming";
+    private static final String CMD_ARCHIVE = "archive";
+    private static final String CMD_EXPORT = "export";
+    private static final String CMD_IMPORT = "import";
 
     /**
      * Validates multiple string parts to ensure none are null or empty. Uses varargs to accept any
@@ -87,7 +121,7 @@ public class Parser {
         case CMD_BYE:
             return new ExitCommand();
         case CMD_LIST:
-            return new ListCommand();
+            return parseListCommand(args);
         case CMD_TODO:
             return parseTodoCommand(args, line);
         case CMD_DEADLINE:
@@ -95,24 +129,53 @@ public class Parser {
         case CMD_EVENT:
             return parseEventCommand(args, line);
         case CMD_MARK:
-            return new MarkCommand(parseOneBasedIndex(args), true);
+            return parseMarkCommand(args, true);
         case CMD_UNMARK:
-            return new MarkCommand(parseOneBasedIndex(args), false);
+            return parseMarkCommand(args, false);
         case CMD_DELETE:
-            return new DeleteCommand(parseOneBasedIndex(args));
+            return parseDeleteCommand(args);
         case CMD_ON:
             return new AgendaCommand(args);
         case CMD_CLEAR:
             return new ClearCommand();
         case CMD_FIND:
             return new FindCommand(args);
+        case CMD_EXPLAIN:
+            return new ExplainCommand(args);
         case CMD_UPDATE:
             return parseUpdateCommand(args, line);
+        case CMD_STATS:
+            return new StatsCommand();
+        case CMD_UNDO:
+            return new UndoCommand();
+        case CMD_REDO:
+            return new RedoCommand();
+        case CMD_OVERDUE:
+            return new OverdueCommand();
+        case CMD_UPCOMING:
+            return new UpcomingCommand(args);
+        case CMD_ARCHIVE:
+            return new ArchiveCommand(args);
+        case CMD_EXPORT:
+            return new ExportCommand(args);
+        case CMD_IMPORT:
+            return new ImportCommand(args);
         default:
             return new UnknownCommand(line);
         }
     }
 
+    /**
+     * Parses list command, e.g. "list" or "list /sort due". Other arguments are ignored as before.
+     */
+    private Command parseListCommand(String args) {
+        String trimmed = args.trim();
+        if (!trimmed.startsWith(SORT_FLAG)) {
+            return new ListCommand();
+        }
+        return new ListCommand(trimmed.substring(SORT_FLAG.length()));
+    }
+
     /**
      * Parses todo command with error handling.
      */
@@ -138,17 +201,45 @@ public class Parser {
     }
 
     /**
-     * Parses event command with error handling.
+     * Parses event command with error handling. A trailing "/every &lt;day|week|month&gt;" makes the
+     * event recurring.
      */
     private Command parseEventCommand(String args, String originalLine) {
         try {
-            String[] parts = parseEventArgs(args == null ? "" : args);
-            return new EventCommand(parts[0], parts[1], parts[2]);
+            String eventArgs = args == null ? "" : args;
+            String every = null;
+            int k = eventArgs.lastIndexOf(EVERY_DELIMITER);
+            if (k >= 0 && k > eventArgs.lastIndexOf(TO_DELIMITER)) {
+                every = eventArgs.substring(k + EVERY_OFFSET).trim();
+                eventArgs = eventArgs.substring(0, k);
+            }
+            String[] parts = parseEventArgs(eventArgs);
+            return new EventCommand(parts[0], parts[1], parts[2], every);
         } catch (IllegalArgumentException ex) {
             return new UnknownCommand(originalLine);
         }
     }
 
+    /**
+     * Parses mark/unmark with either a single index or a bulk selection.
+     */
+    private Command parseMarkCommand(String args, boolean mark) {
+        TaskSelector selector = parseBulkSelector(args);
+        return selector == null
+            ? new MarkCommand(parseOneBasedIndex(args), mark)
+            : new MarkCommand(selector, mark);
+    }
+
+    /**
+     * Parses delete with either a single index or a bulk selection.
+     */
+    private Command parseDeleteCommand(String args) {
+        TaskSelector selector = parseBulkSelector(args);
+        return selector == null
+            ? new DeleteCommand(parseOneBasedIndex(args))
+            : new DeleteCommand(selector);
+    }
+
     /**
      * Parses update command with error handling.
      */
@@ -250,6 +341,49 @@ public class Parser {
         return new String[]{desc, fromRaw, toRaw};
     }
 
+    /**
+     * Parses a bulk task selection: "done", "before &lt;date&gt;", or a comma-separated list of
+     * 1-based numbers and inclusive ranges such as "1,5,9-20". A plain single number is not a bulk
+     * selection, so that single-task commands keep their existing behaviour. A "before" whose date
+     * cannot be read gives a selector that reports the date, as {@code find} does.
+     *
+     * @param args The argument string following mark, unmark or delete
+     * @return The selector, or null if the arguments are not a valid bulk selection
+     */
+    public TaskSelector parseBulkSelector(String args) {
+        String s = args == null ? "" : args.trim();
+        String lower = s.toLowerCase();
+        if (lower.equals(SELECT_DONE)) {
+            return TaskSelector.done();
+        }
+        try {
+            if (lower.startsWith(SELECT_BEFORE)) {
+                String dateRaw = s.substring(SELECT_BEFORE.length());
+                try {
+                    return TaskSelector.before(DateTimeUtil.parseLenientResult(dateRaw).dt.toLocalDate());
+                } catch (IllegalArgumentException ex) {
+                    return TaskSelector.unreadable(ex.getMessage());
+                }
+            }
+            if (!s.contains(SELECT_LIST_SEPARATOR) && !s.contains(SELECT_RANGE_SEPARATOR)) {
+                return null;
+            }
+            List<int[]> ranges = new ArrayList<>();
+            for (String part : s.split(SELECT_LIST_SEPARATOR)) {
+                String[] bounds = part.trim().split(SELECT_RANGE_SEPARATOR, -1);
+                if (bounds.length > 2) {
+                    return null;
+                }
+                int start = Integer.parseInt(bounds[0].trim());
+                int end = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : start;
+                ranges.add(new int[]{start, end});
+            }
+            return TaskSelector.numbers(ranges);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
     /**
      * Parses a one-based index from the argument string. Returns -1 if parsing fails or the string
      * is invalid.
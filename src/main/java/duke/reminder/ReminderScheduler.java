@@ -0,0 +1,209 @@
+package duke.reminder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.task.TaskIndex;
+
+/**
+ * Delivers a reminder when a deadline falls due or an event starts. Keeps its own time-ordered
+ * queue of pending reminders, updated as tasks are added, updated, marked or deleted, and schedules
+ * a single wake-up for the head of the queue instead of polling the whole list. Date-only tasks are
+ * reminded at the start of their day, and tasks that are already past due are never reminded. A
+ * recurring event has one queue entry, for its next occurrence, which is re-queued as it fires.
+ *
+ * <p>Queue updates arrive on the thread that mutates the task list while reminders fire on the
+ * scheduler's own thread, so all queue access is synchronized. The sink is called on the scheduler
+ * thread; GUI callers should hand the reminder over to the FX thread themselves.
+ */
+public class ReminderScheduler implements TaskIndex, AutoCloseable {
+    private static final Comparator<Reminder> ORDER =
+        Comparator.comparingLong(Reminder::dueMillis).thenComparingLong(Reminder::id);
+
+    private final Clock clock;
+    private final ScheduledExecutorService executor;
+    private final Consumer<Task> sink;
+    private final NavigableSet<Reminder> queue = new TreeSet<>(ORDER);
+    private final Map<Long, Reminder> remindersById = new HashMap<>();
+
+    private ScheduledFuture<?> wakeUp;
+    private long scheduledFor = Long.MAX_VALUE;
+    private boolean started;
+
+    /**
+     * Creates a scheduler that runs on its own daemon thread.
+     *
+     * @param clock The clock that supplies the current time
+     * @param sink  Receives each task as its reminder falls due
+     */
+    public ReminderScheduler(Clock clock, Consumer<Task> sink) {
+        this(clock, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mrmoon-reminders");
+            t.setDaemon(true);
+            return t;
+        }), sink);
+    }
+
+    /**
+     * Creates a scheduler that runs on the given executor.
+     *
+     * @param clock    The clock that supplies the current time
+     * @param executor The executor used for the single pending wake-up
+     * @param sink     Receives each task as its reminder falls due
+     */
+    public ReminderScheduler(Clock clock, ScheduledExecutorService executor, Consumer<Task> sink) {
+        assert clock != null && executor != null && sink != null : "Clock, executor and sink must be provided";
+
+        this.clock = clock;
+        this.executor = executor;
+        this.sink = sink;
+    }
+
+    /**
+     * Starts delivering reminders. Reminders that fell due before now are dropped rather than
+     * delivered all at once.
+     */
+    public synchronized void start() {
+        started = true;
+        long now = clock.millis();
+        while (!queue.isEmpty() && queue.first().dueMillis() <= now) {
+            Reminder r = queue.pollFirst();
+            remindersById.remove(r.id());
+            enqueue(r.id(), r.task(), now);
+        }
+        reschedule();
+    }
+
+    @Override
+    public synchronized void added(long id, Task task) {
+        if (task.isDone()) {
+            return;
+        }
+        enqueue(id, task, started ? clock.millis() : Long.MIN_VALUE);
+        reschedule();
+    }
+
+    /**
+     * Queues the reminder for a task if it falls due after the given time. A recurring event is
+     * queued at its first occurrence after that time.
+     */
+    private void enqueue(long id, Task task, long afterMillis) {
+        Task shown = task;
+        LocalDateTime due;
+        if (task instanceof Deadline d) {
+            due = d.getByDateTime();
+        } else if (task instanceof Event e) {
+            if (e.isRecurring() && afterMillis != Long.MIN_VALUE) {
+                shown = e.occurrenceStartingFrom(toLocal(afterMillis + 1));
+            }
+            due = ((Event) shown).getFromDateTime();
+        } else {
+            return;
+        }
+
+        // Date-only values are held at the start of their day, which is when they are reminded
+        long dueMillis = due.atZone(clock.getZone()).toInstant().toEpochMilli();
+        if (dueMillis <= afterMillis) {
+            return; // already past; overdue tasks are listed by the overdue command instead
+        }
+        Reminder reminder = new Reminder(dueMillis, id, task, shown);
+        queue.add(reminder);
+        remindersById.put(id, reminder);
+    }
+
+    @Override
+    public synchronized void removed(long id) {
+        Reminder reminder = remindersById.remove(id);
+        if (reminder != null) {
+            queue.remove(reminder);
+            reschedule();
+        }
+    }
+
+    /**
+     * Delivers every reminder that is due by now and schedules the next wake-up. Called by the
+     * executor; tests with a controllable clock can call it directly.
+     */
+    public void fireDue() {
+        List<Task> due = new ArrayList<>();
+        synchronized (this) {
+            scheduledFor = Long.MAX_VALUE;
+            long now = clock.millis();
+            while (!queue.isEmpty() && queue.first().dueMillis() <= now) {
+                Reminder r = queue.pollFirst();
+                remindersById.remove(r.id());
+                due.add(r.shown());
+                enqueue(r.id(), r.task(), now);
+            }
+            reschedule();
+        }
+        due.forEach(sink);
+    }
+
+    /**
+     * Returns when the next reminder is due.
+     *
+     * @return The due time in epoch milliseconds, or {@link Long#MAX_VALUE} if nothing is pending
+     */
+    public synchronized long nextDueMillis() {
+        return queue.isEmpty() ? Long.MAX_VALUE : queue.first().dueMillis();
+    }
+
+    /**
+     * Stops the scheduler thread. Pending reminders are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        started = false;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Keeps exactly one wake-up pending, for the head of the queue, replacing it only when the head
+     * has changed.
+     */
+    private void reschedule() {
+        if (!started) {
+            return;
+        }
+        long next = nextDueMillis();
+        if (next == scheduledFor) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        scheduledFor = next;
+        if (next != Long.MAX_VALUE) {
+            long delay = Math.max(0, next - clock.millis());
+            wakeUp = executor.schedule(this::fireDue, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+    }
+
+    /**
+     * A pending reminder for the task in a slot; for a recurring event, shown is the occurrence
+     */
+    private record Reminder(long dueMillis, long id, Task task, Task shown) {
+    }
+}
@@ -0,0 +1,142 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import duke.task.Task;
+
+/**
+ * The compressed file that completed tasks are moved to, e.g. duke-archive.txt.gz next to
+ * duke.txt. Each append adds one more gzip member holding records in the storage format, so
+ * nothing already archived is rewritten, and the archive is read back one record at a time.
+ * Appends share Storage's encoder, so Storage serialises them.
+ */
+final class Archive {
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final String ARCHIVE_SUFFIX = "-archive.txt.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Path file;
+    private final RecordEncoder encoder;
+
+    /**
+     * Creates the archive that goes with a data file.
+     *
+     * @param directory    The directory holding the data file
+     * @param dataFileName The data file's name, e.g. duke.txt
+     * @param encoder      The encoder that turns tasks into records
+     */
+    Archive(Path directory, String dataFileName, RecordEncoder encoder) {
+        String name = dataFileName;
+        if (name.endsWith(COMPRESSED_SUFFIX)) {
+            name = name.substring(0, name.length() - COMPRESSED_SUFFIX.length());
+        }
+        int dot = name.lastIndexOf('.');
+        this.directory = directory;
+        this.file = directory.resolve((dot > 0 ? name.substring(0, dot) : name) + ARCHIVE_SUFFIX);
+        this.encoder = encoder;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Appends tasks as one more gzip member. Since the caller then drops the tasks from the list,
+     * the archive is forced to disk before returning under every durability policy except none.
+     * If writing fails, the archive is cut back to its previous length.
+     *
+     * @param tasks  The tasks to archive
+     * @param policy How much of the append to force to disk
+     * @return true if the tasks are in the archive; false, after printing a warning, if not
+     */
+    boolean append(List<Task> tasks, DurabilityPolicy policy) {
+        boolean created = !Files.exists(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            long length = channel.size();
+            channel.position(length);
+            try {
+                GZIPOutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                for (Task t : tasks) {
+                    ByteBuffer record = encoder.encode(t);
+                    out.write(record.array(), 0, record.limit());
+                }
+                out.finish(); // not close, which would close the channel before it is forced
+                if (policy != DurabilityPolicy.NONE) {
+                    channel.force(false);
+                }
+            } catch (IOException ioe) {
+                channel.truncate(length);
+                throw ioe;
+            }
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to archive tasks: " + ioe.getMessage());
+            return false;
+        }
+        if (created && policy != DurabilityPolicy.NONE) {
+            StorageFiles.forceDirectory(directory);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the archive one record at a time, without holding it in memory, and passes each task
+     * to the consumer in the order they were archived. Records that fail their checksum are
+     * skipped with a warning; so is the rest of an archive whose last append was cut short.
+     *
+     * @param consumer Receives each archived task
+     */
+    void read(Consumer<Task> consumer) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        CRC32C crc = new CRC32C();
+        byte[] chunk = new byte[BUFFER_SIZE];
+        byte[] line = new byte[256];
+        int length = 0;
+        int skipped = 0;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (chunk[i] != '\n') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length * 2);
+                        }
+                        line[length++] = chunk[i];
+                        continue;
+                    }
+                    int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+                    try {
+                        Task t = RecordDecoder.parseRecord(line, 0, end, crc);
+                        if (t != null) {
+                            consumer.accept(t);
+                        }
+                    } catch (IllegalArgumentException | DateTimeParseException ex) {
+                        skipped++;
+                    }
+                    length = 0;
+                }
+            }
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Stopped reading archive " + file + " early: " + ioe.getMessage());
+        }
+        if (skipped > 0) {
+            System.err.println("[WARN] Skipped " + skipped + " corrupt record(s) in archive " + file);
+        }
+    }
+}
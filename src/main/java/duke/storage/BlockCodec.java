@@ -0,0 +1,304 @@
+package duke.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import duke.task.Task;
+
+/**
+ * The compressed storage format: records are gathered into blocks of about a fixed size, and each
+ * block is compressed on its own as a gzip member. A compressed file is therefore an ordinary
+ * gzip file that gunzip and zcat can read, but each member also records its own length in a gzip
+ * extra field, so that a reader can find every block without inflating the ones before it. Blocks
+ * are inflated in parallel, and a damaged block costs only the records in it, since no record
+ * spans two blocks.
+ *
+ * <p>Files compressed by other tools lack the length field and are read sequentially instead.
+ */
+final class BlockCodec {
+    /**
+     * Default amount of record data gathered into each block before it is compressed
+     */
+    static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int FLAG_EXTRA = 0x04;
+    private static final int HEADER_SIZE = 20;
+    private static final int TRAILER_SIZE = 8;
+
+    /**
+     * Gzip header of a block: deflate, extra field present, no time, unknown OS, then an extra field
+     * holding one "MB" subfield whose four bytes are filled in with the member's length
+     */
+    private static final byte[] HEADER = {
+        GZIP_MAGIC_1, (byte) GZIP_MAGIC_2, 8, FLAG_EXTRA, 0, 0, 0, 0, 0, (byte) 255,
+        8, 0, 'M', 'B', 4, 0, 0, 0, 0, 0
+    };
+
+    private BlockCodec() {
+    }
+
+    /**
+     * Returns whether data starts like a gzip file.
+     *
+     * @param data The contents of a file
+     * @return true if the data is compressed
+     */
+    static boolean isCompressed(byte[] data) {
+        return data.length >= 2 && (data[0] & 0xff) == GZIP_MAGIC_1 && (data[1] & 0xff) == GZIP_MAGIC_2;
+    }
+
+    /**
+     * Inflates a compressed file, one block per task in parallel. Blocks that fail to inflate or
+     * fail their CRC are left out and counted; if the block structure itself is damaged, the rest
+     * of the file counts as one damaged block.
+     *
+     * @param data The compressed file
+     * @return The records of every intact block, in order, and the number of damaged blocks
+     * @throws IOException if the file was compressed by another tool and cannot be inflated
+     */
+    static Decoded decode(byte[] data) throws IOException {
+        List<int[]> blocks = new ArrayList<>();
+        int damaged = 0;
+        int at = 0;
+        while (at < data.length) {
+            int length = memberLength(data, at);
+            if (length < 0) {
+                if (blocks.isEmpty()) {
+                    return new Decoded(inflateSequentially(data), 0);
+                }
+                damaged++;
+                break;
+            }
+            blocks.add(new int[] {at, length});
+            at += length;
+        }
+
+        byte[][] inflated = new byte[blocks.size()][];
+        IntStream.range(0, inflated.length).parallel().forEach(i -> {
+            int[] block = blocks.get(i);
+            inflated[i] = inflateBlock(data, block[0], block[1]);
+        });
+        int total = 0;
+        for (byte[] block : inflated) {
+            if (block == null) {
+                damaged++;
+            } else {
+                total += block.length;
+            }
+        }
+        byte[] out = new byte[total];
+        int written = 0;
+        for (byte[] block : inflated) {
+            if (block != null) {
+                System.arraycopy(block, 0, out, written, block.length);
+                written += block.length;
+            }
+        }
+        return new Decoded(out, damaged);
+    }
+
+    /**
+     * Returns the length of the block starting at an offset, as recorded in its header, or -1 if
+     * there is no well-formed block header there.
+     */
+    private static int memberLength(byte[] data, int at) {
+        if (data.length - at < HEADER_SIZE + TRAILER_SIZE) {
+            return -1;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (data[at + i] != HEADER[i]) {
+                return -1;
+            }
+        }
+        for (int i = 10; i < 16; i++) {
+            if (data[at + i] != HEADER[i]) {
+                return -1;
+            }
+        }
+        int length = readInt(data, at + 16);
+        return length >= HEADER_SIZE + TRAILER_SIZE && length <= data.length - at ? length : -1;
+    }
+
+    /**
+     * Inflates one block and checks it against its trailer.
+     *
+     * @return The block's records, or null if the block is damaged
+     */
+    private static byte[] inflateBlock(byte[] data, int at, int length) {
+        int trailer = at + length - TRAILER_SIZE;
+        int size = readInt(data, trailer + 4);
+        if (size < 0) {
+            return null;
+        }
+        byte[] out = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, at + HEADER_SIZE, length - HEADER_SIZE - TRAILER_SIZE);
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int read = inflater.inflate(out, n, size - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null;
+                }
+                n += read;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(out, 0, n);
+            return n == size && (int) crc.getValue() == readInt(data, trailer) ? out : null;
+        } catch (DataFormatException ex) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] inflateSequentially(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static int readInt(byte[] data, int at) {
+        return (data[at] & 0xff) | (data[at + 1] & 0xff) << 8
+            | (data[at + 2] & 0xff) << 16 | (data[at + 3] & 0xff) << 24;
+    }
+
+    private static void putInt(byte[] data, int at, int value) {
+        for (int i = 0; i < 4; i++) {
+            data[at + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * Writes tasks to a channel in compressed blocks.
+     *
+     * @param tasks     The tasks to write
+     * @param encoder   The encoder that turns tasks into records
+     * @param level     The deflate level, from 1 (fastest) to 9 (smallest)
+     * @param blockSize The amount of record data per block, in bytes
+     * @param channel   The channel to write to
+     * @throws IOException if writing a block fails
+     */
+    static void write(List<Task> tasks, RecordEncoder encoder, int level, int blockSize, WritableByteChannel channel)
+            throws IOException {
+        Writer writer = new Writer(encoder, level, blockSize);
+        for (Task t : tasks) {
+            writer.write(t, channel);
+        }
+        writer.finish(channel);
+    }
+
+    /**
+     * The records of a compressed file, and how many of its blocks could not be read.
+     */
+    record Decoded(byte[] data, int damagedBlocks) {
+    }
+
+    /**
+     * Gathers encoded records into blocks and writes each block compressed. Not thread-safe.
+     */
+    static final class Writer {
+        private final RecordEncoder encoder;
+        private final Deflater deflater;
+        private final int blockSize;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer block;
+        private byte[] compressed;
+
+        /**
+         * Creates a writer.
+         *
+         * @param encoder   The encoder that turns tasks into records
+         * @param level     The deflate level, from 1 (fastest) to 9 (smallest)
+         * @param blockSize The amount of record data per block, in bytes
+         */
+        Writer(RecordEncoder encoder, int level, int blockSize) {
+            this.encoder = encoder;
+            this.deflater = new Deflater(level, true);
+            this.blockSize = blockSize;
+            this.block = ByteBuffer.allocate(blockSize);
+            this.compressed = new byte[blockSize / 2 + HEADER_SIZE + TRAILER_SIZE];
+        }
+
+        /**
+         * Adds one record, first writing out the current block if the record does not fit in it.
+         * A record larger than a whole block gets a block of its own.
+         *
+         * @param task    The task to encode
+         * @param channel The channel to write blocks to
+         * @throws IOException if writing a block fails
+         */
+        void write(Task task, WritableByteChannel channel) throws IOException {
+            int bound = RecordEncoder.maxLength(task);
+            if (block.remaining() < bound) {
+                writeBlock(channel);
+                if (bound > block.capacity()) {
+                    block = ByteBuffer.allocate(bound);
+                }
+            }
+            encoder.encode(task, block);
+        }
+
+        /**
+         * Writes out the last block and releases the compressor.
+         *
+         * @param channel The channel to write to
+         * @throws IOException if the write fails
+         */
+        void finish(WritableByteChannel channel) throws IOException {
+            try {
+                writeBlock(channel);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private void writeBlock(WritableByteChannel channel) throws IOException {
+            int size = block.position();
+            if (size == 0) {
+                return;
+            }
+            deflater.reset();
+            deflater.setInput(block.array(), 0, size);
+            deflater.finish();
+            int n = HEADER_SIZE;
+            while (!deflater.finished()) {
+                if (n == compressed.length - TRAILER_SIZE) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                n += deflater.deflate(compressed, n, compressed.length - TRAILER_SIZE - n);
+            }
+            crc.reset();
+            crc.update(block.array(), 0, size);
+
+            System.arraycopy(HEADER, 0, compressed, 0, HEADER_SIZE);
+            putInt(compressed, 16, n + TRAILER_SIZE);
+            putInt(compressed, n, (int) crc.getValue());
+            putInt(compressed, n + 4, size);
+            ByteBuffer out = ByteBuffer.wrap(compressed, 0, n + TRAILER_SIZE);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+
+            if (block.capacity() > blockSize) {
+                block = ByteBuffer.allocate(blockSize);
+            } else {
+                block.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package duke.storage;
+
+/**
+ * Describes how a list of tasks changed since it was last loaded or saved, so that
+ * {@link Storage#save(java.util.List, Change)} can rewrite only what the change touched. Positions
+ * are 0-based and strictly ascending.
+ */
+public final class Change {
+    /**
+     * The kinds of change a save can take advantage of.
+     */
+    public enum Kind {
+        /** Tasks at the positions were replaced or edited; nothing moved */
+        IN_PLACE,
+        /** Tasks were inserted; positions are in the list after the insertion */
+        INSERTED,
+        /** Tasks were removed; positions are in the list before the removal */
+        REMOVED
+    }
+
+    private final Kind kind;
+    private final int[] positions;
+
+    private Change(Kind kind, int[] positions) {
+        assert positions != null : "Positions cannot be null";
+        this.kind = kind;
+        this.positions = positions;
+    }
+
+    /**
+     * Creates a change that edited tasks without moving any.
+     *
+     * @param positions The positions of the edited tasks
+     * @return The change
+     */
+    public static Change inPlace(int... positions) {
+        return new Change(Kind.IN_PLACE, positions);
+    }
+
+    /**
+     * Creates a change that inserted tasks.
+     *
+     * @param positions The positions of the new tasks in the list after the insertion
+     * @return The change
+     */
+    public static Change inserted(int... positions) {
+        return new Change(Kind.INSERTED, positions);
+    }
+
+    /**
+     * Creates a change that removed tasks.
+     *
+     * @param positions The positions the removed tasks had before the removal
+     * @return The change
+     */
+    public static Change removed(int... positions) {
+        return new Change(Kind.REMOVED, positions);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int[] getPositions() {
+        return positions;
+    }
+}
@@ -0,0 +1,115 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Watches the data file for changes, such as those made by another program or a sync tool. The
+ * watcher only raises a flag and calls a listener on its own thread; the list is brought up to
+ * date by whoever owns it, with {@link duke.task.TaskList#reload()}, at a point where that is safe.
+ *
+ * <p>Saves made by this program raise the flag too, since the watcher cannot tell them apart. They
+ * cost one check of the file's size and modification time, after which the reload finds nothing
+ * to do.
+ */
+public class DataFileWatcher implements AutoCloseable {
+    private final Path file;
+    private final Runnable listener;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private WatchService service;
+
+    /**
+     * Creates a watcher.
+     *
+     * @param file     The data file to watch
+     * @param listener Called on the watcher's thread each time the file may have changed
+     */
+    public DataFileWatcher(Path file, Runnable listener) {
+        assert file != null && listener != null : "File and listener must be provided";
+
+        this.file = file.toAbsolutePath();
+        this.listener = listener;
+    }
+
+    /**
+     * Starts watching the directory the data file is in, on a daemon thread. Calling it again has
+     * no effect.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (service != null) {
+            return;
+        }
+        Path directory = file.getParent();
+        service = directory.getFileSystem().newWatchService();
+        try {
+            // A save by rename shows up as a create of the data file, an edit in place as a modify
+            directory.register(
+                service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException ioe) {
+            service.close();
+            service = null;
+            throw ioe;
+        }
+        WatchService watching = service;
+        Thread thread = new Thread(() -> watch(watching), "mrmoon-file-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch(WatchService watching) {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watching.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Events were lost on overflow, so any of them may have been the data file's
+                    relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+                }
+                boolean valid = key.reset();
+                if (relevant) {
+                    changed.set(true);
+                    listener.run();
+                }
+                if (!valid) {
+                    return; // the directory is gone
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Closed
+        }
+    }
+
+    /**
+     * Returns whether the data file may have changed since the last call, and clears the flag.
+     *
+     * @return true if the file may have changed
+     */
+    public boolean takeChange() {
+        return changed.getAndSet(false);
+    }
+
+    /**
+     * Stops watching.
+     */
+    @Override
+    public synchronized void close() {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException ioe) {
+            // Nothing left to release
+        }
+        service = null;
+    }
+}
@@ -0,0 +1,66 @@
+package duke.storage;
+
+import java.util.Locale;
+
+/**
+ * How much work {@link Storage#save(java.util.List)} does to make a save survive a power loss, as
+ * opposed to just a crash of the application. Each save writes a temporary file and renames it over
+ * the data file; the policies differ in which of those steps are forced to disk before save returns.
+ */
+public enum DurabilityPolicy {
+    /**
+     * Nothing is forced; the operating system writes the data back when it chooses. After a power
+     * loss the data file can be empty or hold an older list. This is the default.
+     */
+    NONE("none"),
+
+    /**
+     * The temporary file is forced before the rename, so the renamed file is never empty or
+     * partly written, but the rename itself may be lost, leaving the previous save in place.
+     */
+    FSYNC_FILE("fsync-file"),
+
+    /**
+     * The temporary file and the directory holding it are forced before the rename, and the
+     * directory again after it, so a save that has returned survives a power loss.
+     */
+    FSYNC_FILE_AND_DIR("fsync-file-and-dir"),
+
+    /**
+     * Saves return without forcing anything, and a background thread forces the data file and
+     * directory at a fixed interval if there was a save since the last time. Up to one interval of
+     * changes can be lost.
+     */
+    GROUP_FSYNC("group-fsync");
+
+    private final String keyword;
+
+    DurabilityPolicy(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword used to choose this policy.
+     *
+     * @return The keyword, e.g. "fsync-file"
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up a policy by its keyword, ignoring case and surrounding whitespace.
+     *
+     * @param keyword The keyword, e.g. from a system property
+     * @return The matching policy, or null if there is none
+     */
+    public static DurabilityPolicy fromKeyword(String keyword) {
+        String k = keyword.trim().toLowerCase(Locale.ROOT);
+        for (DurabilityPolicy policy : values()) {
+            if (policy.keyword.equals(k)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package duke.storage;
+
+import java.util.List;
+
+import duke.task.Task;
+
+/**
+ * Describes how the data file differs from the task list after another program changed it, as
+ * found by {@link Storage#reload(List)}: a run of tasks starting at one position was replaced by
+ * another run. Tasks before and after the run are unchanged, and were not reparsed.
+ */
+public final class ExternalChange {
+    private final int from;
+    private final int removed;
+    private final List<Task> inserted;
+    private final int reparsed;
+    private final int quarantined;
+
+    /**
+     * Creates a change.
+     *
+     * @param from        The position of the first task that differs
+     * @param removed     How many tasks of the list, from that position, are no longer in the file
+     * @param inserted    The tasks the file has in their place
+     * @param reparsed    How many of the inserted tasks had to be parsed from the file
+     * @param quarantined How many changed records could not be read and were quarantined
+     */
+    ExternalChange(int from, int removed, List<Task> inserted, int reparsed, int quarantined) {
+        this.from = from;
+        this.removed = removed;
+        this.inserted = inserted;
+        this.reparsed = reparsed;
+        this.quarantined = quarantined;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+    public List<Task> getInserted() {
+        return inserted;
+    }
+
+    public int getReparsed() {
+        return reparsed;
+    }
+
+    public int getQuarantined() {
+        return quarantined;
+    }
+
+    /**
+     * Returns whether the file holds the same tasks as the list, as after a touch or a save that
+     * changed nothing.
+     *
+     * @return true if there is nothing to apply
+     */
+    public boolean isEmpty() {
+        return removed == 0 && inserted.isEmpty();
+    }
+}
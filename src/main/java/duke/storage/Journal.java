@@ -0,0 +1,374 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The file that instances of MrMoon sharing a data file coordinate through, e.g. duke.txt.journal.
+ * Its lock is held for every write, and it starts with a header holding the generation, a count of
+ * saves that every save increments. After the header come the most recent changes, one entry per
+ * generation, so that an instance that finds the generation moved on can apply just the changes
+ * it missed rather than read the whole list again.
+ *
+ * <p>Each entry is a line "@generation, kind, positions, record count" followed by the records of
+ * the tasks the change put in place or inserted, exactly as in the data file. A save whose change
+ * is unknown is entered as kind F, and whoever missed it has to compare the data file instead. The
+ * journal is compacted back to its header once it grows past a limit, after which the entries
+ * before that point are gone too.
+ *
+ * <p>The journal is not forced to disk. After a crash it can be behind the data file, which the
+ * other instances notice by the data file's size and modification time instead.
+ */
+final class Journal {
+    /**
+     * Size past which the journal is compacted before the next entry is added
+     */
+    static final int MAX_BYTES = 1024 * 1024;
+
+    private static final String MAGIC = "MRMOON-JOURNAL";
+    private static final int HEADER_LENGTH = MAGIC.length() + 1 + 19 + 1 + 19 + 1;
+    private static final char IN_PLACE = 'P';
+    private static final char INSERTED = 'I';
+    private static final char REMOVED = 'R';
+    private static final char UNKNOWN = 'F';
+
+    private final Path file;
+    private FileChannel channel;
+    private FileLock lock;
+
+    Journal(Path file) {
+        this.file = file;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Opens the journal, creating it if needed, and waits for its exclusive lock. The lock is
+     * advisory: it keeps out other instances of MrMoon, not other programs.
+     *
+     * @throws IOException if the journal cannot be opened or locked
+     */
+    void lock() throws IOException {
+        channel = FileChannel.open(
+            file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            lock = channel.lock();
+        } catch (IOException | OverlappingFileLockException ex) {
+            channel.close();
+            channel = null;
+            throw ex instanceof IOException ioe ? ioe : new IOException("already locked in this process", ex);
+        }
+    }
+
+    /**
+     * Releases the lock and closes the journal.
+     */
+    void unlock() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ioe) {
+            // Closing the channel releases the lock regardless
+        }
+        lock = null;
+        channel = null;
+    }
+
+    /**
+     * Returns the current generation, or 0 for a journal that is empty or unreadable.
+     *
+     * @throws IOException if the journal cannot be read
+     */
+    long generation() throws IOException {
+        long[] header = readHeader();
+        return header == null ? 0 : header[0];
+    }
+
+    /**
+     * Adds the entry for a new generation and makes it current.
+     *
+     * @param generation The new generation, one past the current one
+     * @param change     What the save changed, or null if unknown
+     * @param records    The records of the tasks the change put in place or inserted, in order
+     * @throws IOException if the journal cannot be written
+     */
+    void append(long generation, Change change, List<ByteBuffer> records) throws IOException {
+        long[] header = readHeader();
+        long base = header == null ? generation - 1 : header[1];
+        long size = channel.size();
+        if (header == null || size > MAX_BYTES || header[0] != generation - 1) {
+            // Entries before this one are dropped, or were never written
+            base = generation - 1;
+            size = HEADER_LENGTH;
+            channel.truncate(size);
+        }
+
+        StringBuilder line = new StringBuilder().append('@').append(generation).append('\t');
+        if (change == null) {
+            line.append(UNKNOWN).append("\t-\t0");
+        } else {
+            line.append(kindOf(change)).append('\t')
+                .append(ranges(change.getPositions())).append('\t')
+                .append(records.size());
+        }
+        line.append('\n');
+        ByteBuffer[] out = new ByteBuffer[records.size() + 1];
+        out[0] = ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < records.size(); i++) {
+            out[i + 1] = records.get(i).duplicate();
+        }
+        channel.position(size);
+        while (out[out.length - 1].hasRemaining()) {
+            channel.write(out);
+        }
+        writeHeader(generation, base);
+    }
+
+    /**
+     * Reads the entries after a generation, up to the current one.
+     *
+     * @param after The last generation already applied
+     * @return The entries in order, or null if some of them are no longer in the journal, one of
+     *     them changed the list in an unknown way, or the journal is damaged
+     * @throws IOException if the journal cannot be read
+     */
+    List<Entry> readSince(long after) throws IOException {
+        long[] header = readHeader();
+        if (header == null || header[1] > after) {
+            return null;
+        }
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size - HEADER_LENGTH);
+        while (buffer.hasRemaining() && channel.read(buffer, HEADER_LENGTH + buffer.position()) >= 0) {
+            // keep reading
+        }
+        byte[] data = buffer.array();
+
+        List<Entry> entries = new ArrayList<>();
+        int at = 0;
+        long expected = header[1] + 1;
+        while (expected <= header[0]) {
+            int end = lineEnd(data, at);
+            if (end < 0) {
+                return null;
+            }
+            String[] parts = new String(data, at, end - at, StandardCharsets.UTF_8).split("\t");
+            Entry entry;
+            try {
+                entry = parseEntry(parts, expected);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+            at = end + 1;
+            int[][] records = new int[entry.recordCount][];
+            for (int i = 0; i < records.length; i++) {
+                end = lineEnd(data, at);
+                if (end < 0) {
+                    return null;
+                }
+                records[i] = new int[] {at, end};
+                at = end + 1;
+            }
+            if (expected > after) {
+                if (entry.change == null) {
+                    return null;
+                }
+                entries.add(new Entry(entry.change, data, records));
+            }
+            expected++;
+        }
+        return entries;
+    }
+
+    private static Entry parseEntry(String[] parts, long expected) {
+        if (parts.length != 4 || !parts[0].equals("@" + expected) || parts[1].length() != 1) {
+            throw new IllegalArgumentException("malformed entry");
+        }
+        int count = Integer.parseInt(parts[3]);
+        if (count < 0) {
+            throw new IllegalArgumentException("negative record count");
+        }
+        Change change;
+        switch (parts[1].charAt(0)) {
+        case IN_PLACE:
+            change = Change.inPlace(positions(parts[2]));
+            break;
+        case INSERTED:
+            change = Change.inserted(positions(parts[2]));
+            break;
+        case REMOVED:
+            change = Change.removed(positions(parts[2]));
+            break;
+        case UNKNOWN:
+            change = null;
+            break;
+        default:
+            throw new IllegalArgumentException("unknown kind " + parts[1]);
+        }
+        return new Entry(change, null, new int[count][]);
+    }
+
+    private static char kindOf(Change change) {
+        switch (change.getKind()) {
+        case IN_PLACE:
+            return IN_PLACE;
+        case INSERTED:
+            return INSERTED;
+        default:
+            return REMOVED;
+        }
+    }
+
+    private static int lineEnd(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes ascending positions as ranges, e.g. "0-2,7".
+     */
+    static String ranges(int[] positions) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < positions.length; i++) {
+            int start = positions[i];
+            while (i + 1 < positions.length && positions[i + 1] == positions[i] + 1) {
+                i++;
+            }
+            if (out.length() > 0) {
+                out.append(',');
+            }
+            out.append(start);
+            if (positions[i] != start) {
+                out.append('-').append(positions[i]);
+            }
+        }
+        return out.length() == 0 ? "-" : out.toString();
+    }
+
+    /**
+     * Reads positions written by {@link #ranges(int[])}.
+     *
+     * @throws IllegalArgumentException if they are malformed or not ascending
+     */
+    static int[] positions(String ranges) {
+        if (ranges.equals("-")) {
+            return new int[0];
+        }
+        int[] out = new int[16];
+        int count = 0;
+        int previous = -1;
+        for (String range : ranges.split(",")) {
+            int dash = range.indexOf('-');
+            int start = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+            int end = dash < 0 ? start : Integer.parseInt(range.substring(dash + 1));
+            if (start <= previous || end < start) {
+                throw new IllegalArgumentException("positions out of order");
+            }
+            for (int p = start; p <= end; p++) {
+                if (count == out.length) {
+                    out = Arrays.copyOf(out, count * 2);
+                }
+                out[count++] = p;
+            }
+            previous = end;
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Returns the generation and the last generation no longer in the journal, or null if there is
+     * no valid header.
+     */
+    private long[] readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // keep reading
+        }
+        if (header.hasRemaining()) {
+            return null;
+        }
+        String[] parts = new String(header.array(), StandardCharsets.US_ASCII).trim().split("\t");
+        try {
+            if (parts.length == 3 && parts[0].equals(MAGIC)) {
+                return new long[] {Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+            }
+        } catch (NumberFormatException ex) {
+            // Not a header
+        }
+        return null;
+    }
+
+    private void writeHeader(long generation, long base) throws IOException {
+        String header = String.format("%s\t%019d\t%019d\n", MAGIC, generation, base);
+        ByteBuffer out = ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII));
+        while (out.hasRemaining()) {
+            channel.write(out, out.position());
+        }
+    }
+
+    /**
+     * A change read back from the journal, with the records of the tasks it put in place or
+     * inserted.
+     */
+    static final class Entry {
+        private final Change change;
+        private final byte[] data;
+        private final int[][] records;
+        private final int recordCount;
+
+        private Entry(Change change, byte[] data, int[][] records) {
+            this.change = change;
+            this.data = data;
+            this.records = records;
+            this.recordCount = records.length;
+        }
+
+        Change change() {
+            return change;
+        }
+
+        int recordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Returns where a record starts in {@link #data()}.
+         */
+        int recordStart(int i) {
+            return records[i][0];
+        }
+
+        /**
+         * Returns where a record ends in {@link #data()}, before its newline.
+         */
+        int recordEnd(int i) {
+            return records[i][1];
+        }
+
+        byte[] data() {
+            return data;
+        }
+    }
+}
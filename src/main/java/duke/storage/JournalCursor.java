@@ -0,0 +1,213 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import duke.task.Task;
+
+/**
+ * Where one Storage stands in the {@link Journal} it shares with other instances of MrMoon: the
+ * generation its list is at, and whether it holds the journal's lock. Saves made under the lock
+ * are entered at the next generation, and the entries other instances made since are turned back
+ * into the changes that catch the list up with them.
+ *
+ * <p>Not thread-safe; Storage calls it only while synchronized on itself.
+ */
+final class JournalCursor {
+    private final Journal journal;
+    private final RecordEncoder encoder;
+
+    /**
+     * The generation of the list as last loaded, saved or caught up, or -1 before any of those
+     */
+    private long generation = -1;
+
+    /**
+     * How many locks are held, and whether the outermost one got the journal's lock
+     */
+    private int lockDepth;
+    private boolean journalLocked;
+    private boolean lockWarned;
+
+    JournalCursor(Journal journal, RecordEncoder encoder) {
+        this.journal = journal;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Takes the journal's lock, unless it is already held, waiting for any save by another
+     * instance to finish. Locks nest. If the journal cannot be locked, e.g. in a read-only
+     * directory, a warning is printed once and saves go ahead unlocked.
+     */
+    void lock() {
+        if (lockDepth++ > 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(journal.getFile().toAbsolutePath().getParent());
+            journal.lock();
+            journalLocked = true;
+        } catch (IOException | RuntimeException ex) {
+            if (!lockWarned) {
+                lockWarned = true;
+                System.err.println("[WARN] Cannot lock " + journal.getFile() + ", so saves by other instances of"
+                    + " MrMoon may be overwritten: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Releases a lock taken by {@link #lock()}, and the journal's lock with the outermost one.
+     */
+    void unlock() {
+        if (--lockDepth == 0 && journalLocked) {
+            journal.unlock();
+            journalLocked = false;
+        }
+    }
+
+    /**
+     * Returns the generation of the list as last loaded, saved or caught up.
+     *
+     * @return The generation, or -1 before any of those
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Records that the list is now at a generation, as after loading or catching up.
+     *
+     * @param generation The list's generation
+     */
+    void moveTo(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the generation in the journal, or the list's own if the journal is not locked or
+     * cannot be read, so that saves go ahead without it.
+     *
+     * @return The latest generation
+     */
+    long latest() {
+        if (!journalLocked) {
+            return generation;
+        }
+        try {
+            return journal.generation();
+        } catch (IOException ioe) {
+            return generation;
+        }
+    }
+
+    /**
+     * Makes a save the next generation and enters it in the journal, with the records of the tasks
+     * it put in place or inserted.
+     *
+     * @param next   The new generation
+     * @param change The change saved, or null if unknown
+     * @param tasks  The list as saved
+     */
+    void enter(long next, Change change, List<Task> tasks) {
+        generation = next;
+        if (!journalLocked) {
+            return;
+        }
+        List<ByteBuffer> records = new ArrayList<>();
+        if (change != null && change.getKind() != Change.Kind.REMOVED) {
+            for (int p : change.getPositions()) {
+                records.add(encoder.encode(tasks.get(p)));
+            }
+        }
+        try {
+            journal.append(next, change, records);
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to update " + journal.getFile() + ": " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Reads what other instances entered since the list's generation and turns it into the changes
+     * that bring the list up to date. The list's generation is left alone.
+     *
+     * @param latest The generation in the journal, as returned by {@link #latest()}
+     * @param size   The size of the list at its generation
+     * @return The changes in the order to apply them, each to the list as left by the one before;
+     *     null if the journal no longer covers them, holds a save whose change is unknown, or
+     *     cannot be read
+     */
+    List<ExternalChange> missed(long latest, int size) {
+        try {
+            List<Journal.Entry> entries = latest > generation ? journal.readSince(generation) : null;
+            return entries == null ? null : replay(entries, size);
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    /**
+     * Turns journal entries into runs of the list to replace, parsing the records they carry.
+     *
+     * @param size The size of the list before the first entry
+     * @return The runs in the order to apply them, or null if an entry does not fit the list or
+     *     has a record that cannot be read
+     */
+    private static List<ExternalChange> replay(List<Journal.Entry> entries, int size) {
+        List<ExternalChange> changes = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        for (Journal.Entry entry : entries) {
+            Change.Kind kind = entry.change().getKind();
+            int[] positions = entry.change().getPositions();
+            List<Task> records = new ArrayList<>(entry.recordCount());
+            for (int i = 0; i < entry.recordCount(); i++) {
+                Task t;
+                try {
+                    t = RecordDecoder.parseRecord(entry.data(), entry.recordStart(i), entry.recordEnd(i), crc);
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    return null;
+                }
+                if (t == null) {
+                    return null;
+                }
+                records.add(t);
+            }
+            int limit = kind == Change.Kind.INSERTED ? size + positions.length : size;
+            if (kind != Change.Kind.REMOVED && records.size() != positions.length
+                    || positions.length > 0 && positions[positions.length - 1] >= limit) {
+                return null;
+            }
+
+            // Removals are applied from the end, so each run's position is still valid when it is reached
+            int insertAt = changes.size();
+            int runStart = 0;
+            for (int i = 1; i <= positions.length; i++) {
+                if (i < positions.length && positions[i] == positions[i - 1] + 1) {
+                    continue;
+                }
+                int from = positions[runStart];
+                int length = i - runStart;
+                List<Task> run = records.isEmpty() ? List.of() : records.subList(runStart, i);
+                if (kind == Change.Kind.IN_PLACE) {
+                    changes.add(new ExternalChange(from, length, run, length, 0));
+                } else if (kind == Change.Kind.INSERTED) {
+                    changes.add(new ExternalChange(from, 0, run, length, 0));
+                } else {
+                    changes.add(insertAt, new ExternalChange(from, length, run, 0, 0));
+                }
+                runStart = i;
+            }
+            if (kind == Change.Kind.INSERTED) {
+                size += positions.length;
+            } else if (kind == Change.Kind.REMOVED) {
+                size -= positions.length;
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,371 @@
+package duke.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import duke.task.Deadline;
+import duke.task.DescriptionInterner;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.TaskType;
+import duke.task.Todo;
+
+/**
+ * Turns records in the storage format back into tasks, the reverse of {@link RecordEncoder}. Every
+ * file Storage reads goes through it: the data file, segments, the archive and journal entries.
+ *
+ * <p>A record is one line, prefixed with the CRC32C of its bytes as eight hex digits and a tab.
+ * Lines without a checksum, as written by older versions, are accepted as they are.
+ */
+final class RecordDecoder {
+    /**
+     * Length of a record's checksum: eight lower-case hex digits, followed by a tab
+     */
+    static final int CHECKSUM_DIGITS = 8;
+    static final int CHECKSUM_PREFIX_LENGTH = CHECKSUM_DIGITS + 1;
+
+    // Constants for magic numbers
+    private static final int MINIMUM_PARTS_COUNT = 3;
+    private static final int DEADLINE_PARTS_COUNT = 4;
+    private static final int EVENT_PARTS_COUNT = 5;
+    private static final String DONE_FLAG = "1";
+    private static final String NOT_DONE_FLAG = "0";
+
+    // Date/time format constants
+    private static final DateTimeFormatter STORAGE_DATETIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final DateTimeFormatter STORAGE_DATE_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String TIME_INDICATOR = "T";
+
+    private RecordDecoder() {
+    }
+
+    /**
+     * Parses the records of one file, noting where each task's record is and collecting the
+     * records that have to be quarantined.
+     *
+     * @param data  The file's contents
+     * @param label The name to give the file in quarantine notes, or null for the data file
+     * @return The tasks and quarantined records
+     */
+    static Parsed parse(byte[] data, String label) {
+        Parsed parsed = new Parsed(data.length);
+        CRC32C crc = new CRC32C();
+        int lineNumber = 0;
+        int lineStart = 0;
+        while (lineStart < data.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < data.length && data[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && data[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            lineNumber++;
+
+            String problem = null;
+            try {
+                Task t = parseRecord(data, lineStart, lineEnd, crc);
+                if (t != null) {
+                    parsed.add(t, lineStart, lineEnd - lineStart);
+                    parsed.checksummed &= hasChecksum(data, lineStart, lineEnd);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                problem = ex.getMessage();
+            }
+            if (problem != null) {
+                String where = label == null ? "line " : label + " line ";
+                String note = "# " + where + lineNumber + ": " + problem + "\n";
+                parsed.quarantined.writeBytes(note.getBytes(StandardCharsets.UTF_8));
+                parsed.quarantined.write(data, lineStart, lineEnd - lineStart);
+                parsed.quarantined.write('\n');
+                parsed.quarantinedCount++;
+            }
+            lineStart = next;
+        }
+        return parsed;
+    }
+
+    /**
+     * Verifies and parses one record.
+     *
+     * @param data  The bytes holding the record
+     * @param start Where the record starts
+     * @param end   Where it ends, before its line terminator
+     * @param crc   A checksum to reuse
+     * @return The task, or null for a blank line
+     * @throws IllegalArgumentException if the checksum does not match or the record is malformed
+     */
+    static Task parseRecord(byte[] data, int start, int end, CRC32C crc) {
+        int recordStart = start;
+        if (hasChecksum(data, start, end)) {
+            recordStart = start + CHECKSUM_PREFIX_LENGTH;
+            crc.reset();
+            crc.update(data, recordStart, end - recordStart);
+            if ((int) crc.getValue() != readChecksum(data, start)) {
+                throw new IllegalArgumentException("checksum mismatch");
+            }
+        }
+        String line = new String(data, recordStart, end - recordStart, StandardCharsets.UTF_8);
+        if (line.isBlank()) {
+            return null;
+        }
+        return parseLine(line);
+    }
+
+    /**
+     * Returns whether a line starts with a checksum prefix. Older records start with a one-letter
+     * type code and a tab, so they never match.
+     *
+     * @param data  The bytes holding the line
+     * @param start Where the line starts
+     * @param end   Where it ends, before its line terminator
+     * @return true if the line has a checksum
+     */
+    static boolean hasChecksum(byte[] data, int start, int end) {
+        if (end - start < CHECKSUM_PREFIX_LENGTH || data[start + CHECKSUM_DIGITS] != '\t') {
+            return false;
+        }
+        for (int i = start; i < start + CHECKSUM_DIGITS; i++) {
+            if (Character.digit(data[i], 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readChecksum(byte[] data, int start) {
+        int checksum = 0;
+        for (int i = start; i < start + CHECKSUM_DIGITS; i++) {
+            checksum = (checksum << 4) | Character.digit(data[i], 16);
+        }
+        return checksum;
+    }
+
+    /**
+     * Parses a line from the storage file into a Task object. Uses TaskType enum for type safety
+     * instead of magic strings.
+     *
+     * @param line The tab-separated string from the storage file
+     * @return The corresponding Task object
+     * @throws IllegalArgumentException if the line format is invalid
+     */
+    private static Task parseLine(String line) {
+        assert line != null : "Line cannot be null";
+        assert !line.trim().isEmpty() : "Line cannot be empty";
+
+        String[] parts = line.split("\t");
+        validateLineParts(parts, line);
+
+        String typeCode = parts[0].trim();
+        boolean done = isDoneFromString(parts[1].trim());
+        String desc = DescriptionInterner.intern(parts[2]);
+
+        TaskType taskType = TaskType.fromStorageCode(typeCode);
+        Task task = createTaskByType(taskType, desc, parts, line);
+
+        if (done) {
+            task.mark();
+        }
+
+        assert task != null : "Created task should not be null";
+        return task;
+    }
+
+    /**
+     * Validates that line parts meet minimum requirements.
+     *
+     * @param parts        The split line parts
+     * @param originalLine The original line for error reporting
+     * @throws IllegalArgumentException if validation fails
+     */
+    private static void validateLineParts(String[] parts, String originalLine) {
+        if (parts.length < MINIMUM_PARTS_COUNT) {
+            throw new IllegalArgumentException("Malformed line: " + originalLine);
+        }
+    }
+
+    /**
+     * Converts done flag string to boolean.
+     *
+     * @param doneStr The done flag string
+     * @return true if task is done, false otherwise
+     * @throws IllegalArgumentException if the flag is neither 0 nor 1
+     */
+    private static boolean isDoneFromString(String doneStr) {
+        if (!DONE_FLAG.equals(doneStr) && !NOT_DONE_FLAG.equals(doneStr)) {
+            throw new IllegalArgumentException("Done flag must be 0 or 1");
+        }
+        return DONE_FLAG.equals(doneStr);
+    }
+
+    /**
+     * Creates a task based on the TaskType enum.
+     *
+     * @param type         The TaskType enum value
+     * @param desc         The task description
+     * @param parts        The parsed line parts
+     * @param originalLine The original line for error reporting
+     * @return The created Task object
+     */
+    private static Task createTaskByType(TaskType type, String desc, String[] parts, String originalLine) {
+        switch (type) {
+        case TODO:
+            return new Todo(desc);
+        case DEADLINE:
+            return createDeadlineTask(desc, parts, originalLine);
+        case EVENT:
+            return createEventTask(desc, parts, originalLine);
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Creates a Deadline task from parsed parts.
+     */
+    private static Task createDeadlineTask(String desc, String[] parts, String originalLine) {
+        if (parts.length < DEADLINE_PARTS_COUNT) {
+            throw new IllegalArgumentException("Missing deadline date: " + originalLine);
+        }
+
+        String byRaw = parts[3].trim();
+        LocalDateTime by = parseStorageDateTime(byRaw);
+        boolean hasTime = hasTimeComponent(byRaw);
+
+        return new Deadline(desc, by, hasTime);
+    }
+
+    /**
+     * Creates an Event task from parsed parts.
+     */
+    private static Task createEventTask(String desc, String[] parts, String originalLine) {
+        if (parts.length < EVENT_PARTS_COUNT) {
+            throw new IllegalArgumentException("Missing event dates: " + originalLine);
+        }
+
+        String fromRaw = parts[3].trim();
+        String toRaw = parts[4].trim();
+
+        LocalDateTime from = parseStorageDateTime(fromRaw);
+        LocalDateTime to = parseStorageDateTime(toRaw);
+        boolean fromHasTime = hasTimeComponent(fromRaw);
+        boolean toHasTime = hasTimeComponent(toRaw);
+
+        Recurrence recurrence = null;
+        if (parts.length > EVENT_PARTS_COUNT && !parts[EVENT_PARTS_COUNT].isBlank()) {
+            recurrence = Recurrence.fromKeyword(parts[EVENT_PARTS_COUNT]);
+            if (recurrence == null) {
+                throw new IllegalArgumentException("Unknown recurrence: " + originalLine);
+            }
+        }
+
+        return new Event(desc, from, fromHasTime, to, toHasTime, recurrence);
+    }
+
+    /**
+     * Parses a date/time string from storage format.
+     *
+     * @param dateTimeStr The date/time string
+     * @return Parsed LocalDateTime
+     */
+    private static LocalDateTime parseStorageDateTime(String dateTimeStr) {
+        boolean hasTime = hasTimeComponent(dateTimeStr);
+        if (hasTime) {
+            return LocalDateTime.parse(dateTimeStr, STORAGE_DATETIME_FORMAT);
+        } else {
+            return LocalDate.parse(dateTimeStr, STORAGE_DATE_FORMAT).atStartOfDay();
+        }
+    }
+
+    /**
+     * Checks if a date/time string includes time component.
+     *
+     * @param dateTimeStr The date/time string
+     * @return true if includes time, false otherwise
+     */
+    private static boolean hasTimeComponent(String dateTimeStr) {
+        return dateTimeStr.contains(TIME_INDICATOR);
+    }
+
+    /**
+     * The tasks parsed from one file, where each one's record is, and the records that have to be
+     * quarantined.
+     */
+    static final class Parsed {
+        private final List<Task> tasks = new ArrayList<>();
+        private final ByteArrayOutputStream quarantined = new ByteArrayOutputStream();
+        private final long bytes;
+        private long[] starts;
+        private int[] lengths;
+        private int quarantinedCount;
+
+        /**
+         * Whether every task's record has a checksum
+         */
+        private boolean checksummed = true;
+
+        private Parsed(long bytes) {
+            this.bytes = bytes;
+            this.starts = new long[(int) Math.max(16, bytes / 32)];
+            this.lengths = new int[starts.length];
+        }
+
+        private void add(Task task, long start, int length) {
+            int i = tasks.size();
+            if (i == starts.length) {
+                starts = Arrays.copyOf(starts, i * 2);
+                lengths = Arrays.copyOf(lengths, starts.length);
+            }
+            starts[i] = start;
+            lengths[i] = length;
+            tasks.add(task);
+        }
+
+        List<Task> tasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the size of the file the tasks were parsed from.
+         */
+        long bytes() {
+            return bytes;
+        }
+
+        long[] starts() {
+            return Arrays.copyOf(starts, tasks.size());
+        }
+
+        int[] lengths() {
+            return Arrays.copyOf(lengths, tasks.size());
+        }
+
+        boolean isChecksummed() {
+            return checksummed;
+        }
+
+        /**
+         * Returns the records that could not be read, each after a comment giving its line and
+         * problem, ready to be appended to the quarantine file.
+         */
+        byte[] quarantined() {
+            return quarantined.toByteArray();
+        }
+
+        int quarantinedCount() {
+            return quarantinedCount;
+        }
+    }
+}
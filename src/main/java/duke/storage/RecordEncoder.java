@@ -0,0 +1,282 @@
+package duke.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32C;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.util.DateTimeUtil;
+
+/**
+ * Encodes tasks in the storage format into reusable direct buffers, without building a String per
+ * task or going through a charset encoder. Each record is put together in a scratch array, where
+ * stores are plain array writes: descriptions are encoded to UTF-8 by hand, dates are formatted two
+ * digits at a time, and the CRC32C is computed over the array before the record is copied into a
+ * buffer in one piece. Full buffers are drained to the file with one gathering write.
+ *
+ * <p>The output is byte-for-byte what encoding each record as a String and writing it as UTF-8
+ * would produce: eight hex digits of checksum, a tab, the tab-separated fields and a newline.
+ * Instances are not thread-safe; {@link Storage} serialises its saves.
+ */
+final class RecordEncoder {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNK_COUNT = 4;
+    private static final int CHECKSUM_DIGITS = 8;
+
+    /**
+     * Room for the checksum, type, flag, three dates, a recurrence keyword, separators and newline
+     */
+    private static final int FIXED_RECORD_BYTES = 96;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte TAB = '\t';
+
+    private final ByteBuffer[] chunks = new ByteBuffer[CHUNK_COUNT];
+    private final CRC32C crc = new CRC32C();
+    private final byte[] scratch = new byte[CHUNK_SIZE];
+    private int current;
+    private long written;
+
+    RecordEncoder() {
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Appends one record, draining the buffers to the channel first if they are full.
+     *
+     * @param task    The task to encode
+     * @param channel The channel to drain to
+     * @throws IOException if draining fails
+     */
+    void write(Task task, FileChannel channel) throws IOException {
+        String description = task.getDescription();
+        int bound = maxLength(task);
+        if (bound > CHUNK_SIZE) {
+            flush(channel);
+            ByteBuffer large = ByteBuffer.allocateDirect(bound);
+            encode(task, description, large);
+            large.flip();
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+            return;
+        }
+        if (chunks[current].remaining() < bound) {
+            if (current == CHUNK_COUNT - 1) {
+                flush(channel);
+            } else {
+                current++;
+            }
+        }
+        encode(task, description, chunks[current]);
+    }
+
+    /**
+     * Encodes one record, newline included, into a buffer of its own.
+     *
+     * @param task The task to encode
+     * @return The record, ready to be read
+     */
+    ByteBuffer encode(Task task) {
+        String description = task.getDescription();
+        ByteBuffer out = ByteBuffer.allocate(maxLength(task));
+        encode(task, description, out);
+        return out.flip();
+    }
+
+    /**
+     * Encodes one record, newline included, at the position of a buffer that has at least
+     * {@link #maxLength(Task)} bytes remaining.
+     *
+     * @param task The task to encode
+     * @param out  The buffer to encode into
+     */
+    void encode(Task task, ByteBuffer out) {
+        encode(task, task.getDescription(), out);
+    }
+
+    /**
+     * Returns the most bytes a task's record can take, newline included.
+     *
+     * @param task The task
+     * @return An upper bound on the record's length
+     */
+    static int maxLength(Task task) {
+        return FIXED_RECORD_BYTES + task.getDescription().length() * 3;
+    }
+
+    /**
+     * Returns the number of bytes encoded so far, counting every record passed to either write or
+     * encode. Differences between two calls give the offsets of records within a file.
+     *
+     * @return The running total of encoded bytes
+     */
+    long written() {
+        return written;
+    }
+
+    /**
+     * Appends records copied as they are from another file, followed by a newline. They are counted
+     * in {@link #written()} like encoded ones.
+     *
+     * @param source   The file to copy from
+     * @param position Where the records start in it
+     * @param length   How many bytes to copy, without the last record's line terminator
+     * @param channel  The channel to append to
+     * @throws IOException if reading or writing fails, or the file ends before length bytes
+     */
+    void copy(FileChannel source, long position, long length, FileChannel channel) throws IOException {
+        flush(channel);
+        for (long done = 0; done < length; ) {
+            long n = source.transferTo(position + done, length - done, channel);
+            if (n <= 0) {
+                throw new EOFException("Records end " + (length - done) + " bytes early");
+            }
+            done += n;
+        }
+        chunks[current].put((byte) '\n');
+        written += length + 1;
+    }
+
+    /**
+     * Writes everything buffered so far to the channel with gathering writes.
+     *
+     * @param channel The channel to drain to
+     * @throws IOException if the write fails
+     */
+    void flush(FileChannel channel) throws IOException {
+        for (int i = 0; i <= current; i++) {
+            chunks[i].flip();
+        }
+        while (chunks[current].hasRemaining()) {
+            channel.write(chunks, 0, current + 1);
+        }
+        for (int i = 0; i <= current; i++) {
+            chunks[i].clear();
+        }
+        current = 0;
+    }
+
+    private void encode(Task task, String description, ByteBuffer out) {
+        int bound = maxLength(task);
+        byte[] buf = bound <= scratch.length ? scratch : new byte[bound];
+        int length = encode(task, description, buf);
+        out.put(buf, 0, length);
+        written += length;
+    }
+
+    /**
+     * Encodes one record into the start of an array, returning its length with the newline.
+     */
+    private int encode(Task task, String description, byte[] buf) {
+        int at = CHECKSUM_DIGITS;
+        buf[at++] = TAB;
+        int recordStart = at;
+
+        buf[at++] = (byte) task.getTaskType().getStorageCode().charAt(0);
+        buf[at++] = TAB;
+        buf[at++] = (byte) (task.isDone() ? '1' : '0');
+        buf[at++] = TAB;
+        at = putUtf8(description, buf, at);
+        if (task instanceof Deadline d) {
+            buf[at++] = TAB;
+            at = putDateTime(d.getByDateTime(), d.hasTime(), buf, at);
+        } else if (task instanceof Event e) {
+            buf[at++] = TAB;
+            at = putDateTime(e.getFromDateTime(), e.fromHasTime(), buf, at);
+            buf[at++] = TAB;
+            at = putDateTime(e.getToDateTime(), e.toHasTime(), buf, at);
+            if (e.isRecurring()) {
+                buf[at++] = TAB;
+                at = putAscii(e.getRecurrence().getKeyword(), buf, at);
+            }
+        }
+
+        crc.reset();
+        crc.update(buf, recordStart, at - recordStart);
+        int checksum = (int) crc.getValue();
+        for (int i = CHECKSUM_DIGITS - 1; i >= 0; i--) {
+            buf[i] = HEX_DIGITS[checksum & 0xf];
+            checksum >>>= 4;
+        }
+        buf[at++] = '\n';
+        return at;
+    }
+
+    /**
+     * Encodes UTF-16 text as UTF-8. Unpaired surrogates become '?', as String.getBytes does.
+     */
+    private static int putUtf8(String s, byte[] buf, int at) {
+        int n = s.length();
+        int i = 0;
+        for (char c; i < n && (c = s.charAt(i)) < 0x80; i++) {
+            buf[at++] = (byte) c;
+        }
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[at++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[at++] = (byte) (0xc0 | (c >> 6));
+                buf[at++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[at++] = (byte) (0xf0 | (cp >> 18));
+                buf[at++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buf[at++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buf[at++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                buf[at++] = '?';
+            } else {
+                buf[at++] = (byte) (0xe0 | (c >> 12));
+                buf[at++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[at++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return at;
+    }
+
+    private static int putAscii(String s, byte[] buf, int at) {
+        for (int i = 0; i < s.length(); i++) {
+            buf[at++] = (byte) s.charAt(i);
+        }
+        return at;
+    }
+
+    /**
+     * Writes yyyy-MM-dd, or yyyy-MM-dd'T'HH:mm when the value has a time. Years outside 1-9999 are
+     * rare enough to go through the formatter, which writes them as years of era with a sign.
+     */
+    private static int putDateTime(LocalDateTime dt, boolean hasTime, byte[] buf, int at) {
+        int year = dt.getYear();
+        if (year < 1 || year > 9999) {
+            return putAscii(DateTimeUtil.toStorageString(dt, hasTime), buf, at);
+        }
+        at = putTwoDigits(year / 100, buf, at);
+        at = putTwoDigits(year % 100, buf, at);
+        buf[at++] = '-';
+        at = putTwoDigits(dt.getMonthValue(), buf, at);
+        buf[at++] = '-';
+        at = putTwoDigits(dt.getDayOfMonth(), buf, at);
+        if (hasTime) {
+            buf[at++] = 'T';
+            at = putTwoDigits(dt.getHour(), buf, at);
+            buf[at++] = ':';
+            at = putTwoDigits(dt.getMinute(), buf, at);
+        }
+        return at;
+    }
+
+    private static int putTwoDigits(int value, byte[] buf, int at) {
+        buf[at] = (byte) ('0' + value / 10);
+        buf[at + 1] = (byte) ('0' + value % 10);
+        return at + 2;
+    }
+}
@@ -0,0 +1,192 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The list of segment files that together hold the tasks, in list order, with the number of tasks
+ * in each. A task's position maps to a segment and an offset within it by walking the counts.
+ *
+ * <p>On disk the manifest is a small text file: a header line, a line giving the number to use for
+ * the next segment file, and one line per segment with its file name and task count, separated by
+ * a tab. Segment files are never rewritten under the same name, so a manifest always refers to
+ * complete files and replacing the manifest commits a save.
+ */
+final class SegmentManifest {
+    static final String HEADER = "mrmoon-segments 1";
+    private static final String NEXT_PREFIX = "next ";
+
+    private final List<Segment> segments;
+    private final long nextId;
+
+    SegmentManifest(List<Segment> segments, long nextId) {
+        this.segments = segments;
+        this.nextId = nextId;
+    }
+
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Returns the total number of tasks across all segments.
+     */
+    int taskCount() {
+        int total = 0;
+        for (Segment s : segments) {
+            total += s.count();
+        }
+        return total;
+    }
+
+    /**
+     * Splits a list into new segments of the given size, none of them written yet.
+     *
+     * @param taskCount   The number of tasks
+     * @param segmentSize The number of tasks per segment
+     * @param nextId      The number of the next segment file
+     * @return The manifest, with every segment's file null
+     */
+    static SegmentManifest split(int taskCount, int segmentSize, long nextId) {
+        List<Segment> segments = new ArrayList<>();
+        for (int start = 0; start < taskCount; start += segmentSize) {
+            segments.add(new Segment(null, Math.min(segmentSize, taskCount - start)));
+        }
+        return new SegmentManifest(segments, nextId);
+    }
+
+    /**
+     * Works out the segments after a change to the list. Segments the change touched lose their
+     * file, meaning they have to be written; the rest keep theirs. Tasks inserted at the end go
+     * into the last segment until it is full and then start a new one, a segment that grows past
+     * twice the segment size is split, and segments left empty are dropped.
+     *
+     * @param change      The change since this manifest was written
+     * @param taskCount   The number of tasks after the change
+     * @param segmentSize The number of tasks per segment
+     * @return The updated manifest, or null if the change does not fit this manifest
+     */
+    SegmentManifest update(Change change, int taskCount, int segmentSize) {
+        int n = segments.size();
+        int[] counts = new int[n + change.getPositions().length];
+        boolean[] dirty = new boolean[counts.length];
+        for (int i = 0; i < n; i++) {
+            counts[i] = segments.get(i).count();
+        }
+
+        int k = 0;
+        int start = 0;
+        for (int p : change.getPositions()) {
+            if (change.getKind() == Change.Kind.INSERTED) {
+                while (k < n - 1 && p >= start + counts[k]) {
+                    start += counts[k++];
+                }
+                if (n == 0 || p > start + counts[k]) {
+                    if (n > 0 || p != 0) {
+                        return null;
+                    }
+                    n = 1;
+                } else if (k == n - 1 && p == start + counts[k] && counts[k] >= segmentSize) {
+                    start += counts[k];
+                    k = n++;
+                }
+                counts[k]++;
+            } else {
+                while (k < n && p >= start + counts[k]) {
+                    start += counts[k++];
+                }
+                if (k == n) {
+                    return null;
+                }
+            }
+            dirty[k] = true;
+        }
+        if (change.getKind() == Change.Kind.REMOVED) {
+            // Counts only change once every position has been placed against the old list
+            int[] removed = new int[n];
+            k = 0;
+            start = 0;
+            for (int p : change.getPositions()) {
+                while (p >= start + counts[k]) {
+                    start += counts[k++];
+                }
+                removed[k]++;
+            }
+            for (int i = 0; i < n; i++) {
+                counts[i] -= removed[i];
+            }
+        }
+
+        List<Segment> updated = new ArrayList<>(n);
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            total += counts[i];
+            if (!dirty[i]) {
+                updated.add(segments.get(i));
+            } else if (counts[i] > 2 * segmentSize) {
+                for (int from = 0; from < counts[i]; from += segmentSize) {
+                    updated.add(new Segment(null, Math.min(segmentSize, counts[i] - from)));
+                }
+            } else if (counts[i] > 0) {
+                updated.add(new Segment(null, counts[i]));
+            }
+        }
+        return total == taskCount ? new SegmentManifest(updated, nextId) : null;
+    }
+
+    /**
+     * Reads a manifest.
+     *
+     * @param file The manifest file
+     * @return The manifest
+     * @throws IOException if the file cannot be read or is not a manifest
+     */
+    static SegmentManifest read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.size() < 2 || !HEADER.equals(lines.get(0)) || !lines.get(1).startsWith(NEXT_PREFIX)) {
+            throw new IOException("Not a segment manifest: " + file);
+        }
+        try {
+            long nextId = Long.parseLong(lines.get(1).substring(NEXT_PREFIX.length()));
+            List<Segment> segments = new ArrayList<>();
+            for (String line : lines.subList(2, lines.size())) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    throw new IOException("Malformed segment entry: " + line);
+                }
+                segments.add(new Segment(line.substring(0, tab), Integer.parseInt(line.substring(tab + 1))));
+            }
+            return new SegmentManifest(segments, nextId);
+        } catch (NumberFormatException ex) {
+            throw new IOException("Malformed segment manifest: " + file, ex);
+        }
+    }
+
+    /**
+     * Returns the manifest as it is written to disk. Every segment must have a file.
+     */
+    byte[] toBytes() {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        sb.append(NEXT_PREFIX).append(nextId).append('\n');
+        for (Segment s : segments) {
+            assert s.file() != null : "Every segment must be written before the manifest";
+            sb.append(s.file()).append('\t').append(s.count()).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One segment file and the number of tasks in it. The file is null for a segment that has not
+     * been written yet.
+     */
+    record Segment(String file, int count) {
+    }
+}
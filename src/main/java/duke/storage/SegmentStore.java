@@ -0,0 +1,384 @@
+package duke.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import duke.task.Task;
+
+/**
+ * The segment files a large list is split across, in a directory next to the data file, e.g.
+ * duke.txt.segments, listed in order by a small {@link SegmentManifest}. Segment files are never
+ * rewritten: a save writes the segments holding changed tasks as new files and then replaces the
+ * manifest, so until then the previous save stays intact on disk. Segments load in parallel, and
+ * one that cannot be read costs only its own tasks.
+ *
+ * <p>Saves share Storage's encoder, so Storage serialises them, along with every other use of the
+ * manifest it remembers.
+ */
+final class SegmentStore {
+    private static final String MANIFEST_FILE_NAME = "manifest";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".txt";
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.txt(\\.gz)?");
+
+    private final Path directory;
+    private final Path quarantineFile;
+    private final RecordEncoder encoder;
+
+    /**
+     * The segments on disk as of the last load or save, or null if unknown or not segmented
+     */
+    private SegmentManifest manifest;
+
+    /**
+     * Creates the store for a segment directory.
+     *
+     * @param directory      The directory holding the manifest and segment files
+     * @param quarantineFile The file that records which cannot be read are appended to
+     * @param encoder        The encoder that turns tasks into records
+     */
+    SegmentStore(Path directory, Path quarantineFile, RecordEncoder encoder) {
+        this.directory = directory;
+        this.quarantineFile = quarantineFile;
+        this.encoder = encoder;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    Path getManifestFile() {
+        return directory.resolve(MANIFEST_FILE_NAME);
+    }
+
+    /**
+     * Returns whether a manifest is on disk, that is, whether tasks are split across segments.
+     *
+     * @return true if the manifest exists
+     */
+    boolean exists() {
+        return Files.exists(getManifestFile());
+    }
+
+    /**
+     * Reads the manifest again, as after another instance saved, or forgets it if it cannot be
+     * read, so that the next save writes every segment.
+     */
+    void rereadManifest() {
+        try {
+            manifest = SegmentManifest.read(getManifestFile());
+        } catch (IOException ioe) {
+            manifest = null;
+        }
+    }
+
+    /**
+     * Remembers the segments on disk, once they are known to match the list.
+     *
+     * @param current The manifest as loaded
+     */
+    void remember(SegmentManifest current) {
+        manifest = current;
+    }
+
+    /**
+     * Loads every segment named in the manifest, in parallel. Records that cannot be read are
+     * quarantined; a segment that cannot be read at all is backed up and its tasks are lost. Reads
+     * only files, so it needs no lock; the caller decides what to remember of the result.
+     *
+     * @return What was loaded, or null if the manifest cannot be read, after backing it up
+     */
+    Loaded load() {
+        Path manifestFile = getManifestFile();
+        SegmentManifest stored;
+        try {
+            stored = SegmentManifest.read(manifestFile);
+        } catch (IOException ex) {
+            StorageFiles.backupCorruptFile(manifestFile, ex);
+            return null;
+        }
+
+        List<SegmentManifest.Segment> segments = stored.getSegments();
+        RecordDecoder.Parsed[] parsed = new RecordDecoder.Parsed[segments.size()];
+        IntStream.range(0, parsed.length).parallel().forEach(i -> parsed[i] = loadSegment(segments.get(i).file()));
+
+        List<Task> tasks = new ArrayList<>(stored.taskCount());
+        List<SegmentManifest.Segment> loaded = new ArrayList<>(segments.size());
+        List<Path> damaged = new ArrayList<>();
+        boolean rewrite = false;
+        ByteArrayOutputStream quarantined = new ByteArrayOutputStream();
+        int quarantinedCount = 0;
+        long bytes = 0;
+        for (int i = 0; i < parsed.length; i++) {
+            SegmentManifest.Segment segment = segments.get(i);
+            RecordDecoder.Parsed p = parsed[i];
+            if (p == null) {
+                rewrite = true; // backed up by loadSegment; its tasks are gone
+                continue;
+            }
+            tasks.addAll(p.tasks());
+            bytes += p.bytes();
+            if (p.quarantinedCount() > 0) {
+                quarantined.writeBytes(p.quarantined());
+                quarantinedCount += p.quarantinedCount();
+                damaged.add(directory.resolve(segment.file()));
+            }
+            if (p.quarantinedCount() > 0 || p.tasks().size() != segment.count()) {
+                rewrite = true;
+                if (!p.tasks().isEmpty()) {
+                    loaded.add(new SegmentManifest.Segment(null, p.tasks().size()));
+                }
+            } else {
+                loaded.add(segment);
+            }
+        }
+
+        if (quarantinedCount > 0) {
+            try {
+                StorageFiles.quarantine(
+                    quarantineFile, quarantined.toByteArray(), quarantinedCount, damaged.toString());
+            } catch (IOException ioe) {
+                for (Path segment : damaged) {
+                    StorageFiles.backupCorruptFile(segment, ioe);
+                }
+            }
+        }
+        SegmentManifest current = new SegmentManifest(loaded, stored.getNextId());
+        return new Loaded(tasks, current, rewrite, bytes, quarantinedCount);
+    }
+
+    /**
+     * Reads and parses one segment file, backing it up if it cannot be read. A compressed segment
+     * with damaged blocks is backed up too, and comes back short of those blocks' tasks.
+     *
+     * @return The parsed segment, or null if it could not be read
+     */
+    private RecordDecoder.Parsed loadSegment(String name) {
+        Path file = directory.resolve(name);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (!BlockCodec.isCompressed(data)) {
+                return RecordDecoder.parse(data, name);
+            }
+            BlockCodec.Decoded decoded = BlockCodec.decode(data);
+            if (decoded.damagedBlocks() > 0) {
+                StorageFiles.backupCorruptFile(file, StorageFiles.damagedBlocksException(decoded.damagedBlocks()));
+            }
+            return RecordDecoder.parse(decoded.data(), name);
+        } catch (IOException ex) {
+            StorageFiles.backupCorruptFile(file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Works out which segments a save has to write: only those the change touched, or without a
+     * change, or if it does not fit what was last loaded or saved, every segment.
+     *
+     * @param size        The number of tasks in the list
+     * @param change      How the list changed since it was last loaded or saved, or null if unknown
+     * @param segmentSize The number of tasks per segment
+     * @return The manifest to write, naming no file for each segment to write
+     */
+    SegmentManifest plan(int size, Change change, int segmentSize) {
+        SegmentManifest previous = manifest;
+        SegmentManifest plan = previous == null || change == null
+            ? null
+            : previous.update(change, size, segmentSize);
+        return plan != null ? plan : SegmentManifest.split(size, segmentSize, nextSegmentId(previous));
+    }
+
+    /**
+     * Writes every segment of the plan that has no file yet, then replaces the manifest and
+     * deletes segment files it no longer names.
+     *
+     * @param tasks            The list
+     * @param plan             The manifest to write, naming no file for each segment to write
+     * @param policy           How much of the save to force to disk before returning
+     * @param compressionLevel The deflate level for new segments, or 0 to write them uncompressed
+     * @param blockSize        The amount of record data per compressed block, in bytes
+     * @return The files written, manifest included, or null if the new manifest is not in place
+     */
+    Written write(List<Task> tasks, SegmentManifest plan, DurabilityPolicy policy, int compressionLevel,
+            int blockSize) {
+        manifest = null; // out of date until the new manifest is in place
+        boolean forceFiles = policy == DurabilityPolicy.FSYNC_FILE || policy == DurabilityPolicy.FSYNC_FILE_AND_DIR;
+        List<SegmentManifest.Segment> written = new ArrayList<>(plan.getSegments().size());
+        List<Path> newFiles = new ArrayList<>();
+        long nextId = plan.getNextId();
+        long bytes = 0;
+        int from = 0;
+        try {
+            Files.createDirectories(directory);
+            for (SegmentManifest.Segment segment : plan.getSegments()) {
+                if (segment.file() != null) {
+                    written.add(segment);
+                    from += segment.count();
+                    continue;
+                }
+                String name = segmentFileName(nextId++, compressionLevel > 0);
+                Path file = directory.resolve(name);
+                try (FileChannel channel = FileChannel.open(
+                         file, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                    if (compressionLevel > 0) {
+                        BlockCodec.write(tasks.subList(from, from + segment.count()), encoder, compressionLevel,
+                            blockSize, channel);
+                    } else {
+                        for (int i = from; i < from + segment.count(); i++) {
+                            encoder.write(tasks.get(i), channel);
+                        }
+                        encoder.flush(channel);
+                    }
+                    if (forceFiles) {
+                        channel.force(false);
+                    }
+                    bytes += channel.size();
+                }
+                newFiles.add(file);
+                written.add(new SegmentManifest.Segment(name, segment.count()));
+                from += segment.count();
+            }
+            if (policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+                StorageFiles.forceDirectory(directory); // the new segments' names before the manifest naming them
+            }
+
+            SegmentManifest next = new SegmentManifest(written, nextId);
+            Path manifestFile = getManifestFile();
+            Path tmp = directory.resolve(MANIFEST_FILE_NAME + ".tmp");
+            try (FileChannel channel = FileChannel.open(
+                     tmp,
+                     StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer content = ByteBuffer.wrap(next.toBytes());
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+                if (forceFiles) {
+                    channel.force(false);
+                }
+            }
+            StorageFiles.moveIntoPlace(tmp, manifestFile);
+            manifest = next;
+            newFiles.add(manifestFile);
+        } catch (IOException ioe) {
+            // Files written so far are not in any manifest and go with the next successful save
+            System.err.println("[WARN] Failed to save tasks: " + ioe.getMessage());
+            return null;
+        }
+
+        if (policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+            StorageFiles.forceDirectory(directory);
+        }
+        deleteUnlistedSegments(manifest);
+        return new Written(newFiles, bytes);
+    }
+
+    /**
+     * Deletes the manifest and every segment file, once tasks are kept in one file again. The
+     * manifest goes first, so an interrupted deletion never leaves it naming missing segments.
+     */
+    void deleteAll() {
+        Path manifestFile = getManifestFile();
+        if (!Files.exists(manifestFile)) {
+            return;
+        }
+        manifest = null;
+        try {
+            Files.delete(manifestFile);
+            for (Path file : listSegmentFiles()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to remove old segments: " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number to give the next segment file: past every number the previous manifest
+     * used and every segment file on disk, so that no name is ever reused.
+     */
+    private long nextSegmentId(SegmentManifest previous) {
+        long next = previous == null ? 0 : previous.getNextId();
+        for (Path file : listSegmentFiles()) {
+            Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+            if (matcher.matches()) {
+                next = Math.max(next, Long.parseLong(matcher.group(1)) + 1);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Deletes segment files the manifest does not name, left by earlier saves or by saves that
+     * failed before replacing the manifest.
+     */
+    private void deleteUnlistedSegments(SegmentManifest current) {
+        Set<String> listed = new HashSet<>();
+        for (SegmentManifest.Segment segment : current.getSegments()) {
+            listed.add(segment.file());
+        }
+        for (Path file : listSegmentFiles()) {
+            if (!listed.contains(file.getFileName().toString())) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ioe) {
+                    System.err.println("[WARN] Failed to remove old segment " + file + ": " + ioe.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the segment files in the segment directory, whether the manifest names them or not.
+     */
+    private List<Path> listSegmentFiles() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (SEGMENT_NAME.matcher(file.getFileName().toString()).matches()) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to list segments: " + ioe.getMessage());
+        }
+        return files;
+    }
+
+    private static String segmentFileName(long id, boolean compressed) {
+        String suffix = compressed ? SEGMENT_SUFFIX + COMPRESSED_SUFFIX : SEGMENT_SUFFIX;
+        return String.format("%s%06d%s", SEGMENT_PREFIX, id, suffix);
+    }
+
+    /**
+     * The tasks of every segment that could be read, and the manifest of the segments they came
+     * from. If some segments could not be read in full, the manifest names no file for them and
+     * the segments have to be rewritten.
+     */
+    record Loaded(List<Task> tasks, SegmentManifest manifest, boolean rewrite, long bytes, int quarantinedCount) {
+    }
+
+    /**
+     * The files a save wrote, manifest last, and how many bytes of segments that came to.
+     */
+    record Written(List<Path> files, long bytes) {
+    }
+}
@@ -1,48 +1,162 @@
 package duke.storage;
 
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 
-import duke.task.Deadline;
-import duke.task.Event;
+import duke.metrics.MetricsRegistry;
+import duke.metrics.StorageLoadEvent;
+import duke.metrics.StorageSaveEvent;
 import duke.task.Task;
-import duke.task.TaskType;
-import duke.task.Todo;
 
 /**
- * Handles persistent storage of tasks to and from the file system. Uses TaskType enum for type
- * safety instead of magic strings. Manages encoding tasks to text format and decoding them back to
- * objects. Provides error handling for corrupted files and atomic save operations.
+ * Handles persistent storage of tasks to and from the file system. Tasks are encoded to text by
+ * {@link RecordEncoder} and decoded back to objects by {@link RecordDecoder}. Provides error
+ * handling for corrupted files and atomic save operations.
+ *
+ * <p>Each record is one line, prefixed with the CRC32C of its bytes as eight hex digits and a tab.
+ * A record that fails its checksum or cannot be parsed is moved to a quarantine file next to the
+ * data file, and every other record still loads. Lines without a checksum, as written by older
+ * versions, are accepted as they are and gain one on the next save.
+ *
+ * <p>How much of a save is forced to disk before it returns is set by a {@link DurabilityPolicy}.
+ *
+ * <p>Storage remembers where each record sits in the file after a load or save. A save that names
+ * the records it changed rewrites just those bytes in place when each new record is as long as the
+ * old one, which is always the case for marking and unmarking, and rewrites the whole file
+ * otherwise. Likewise, a save of tasks added at the end of the list appends their records.
+ *
+ * <p>Large lists can instead be split across segment files of a fixed number of tasks, listed in
+ * order by a small manifest (see {@link #setSegmentSize(int)}). A save then writes only the
+ * segments holding changed tasks, segments load in parallel, and a segment that cannot be read
+ * costs only its own tasks.
+ *
+ * <p>Completed tasks can be moved to a compressed archive next to the data file, which is only
+ * appended to and is read back one record at a time.
+ *
+ * <p>Saves can be compressed (see {@link #setCompression(int, int)}), and are by default when the
+ * data file's name ends in .gz. Records are then compressed in independent blocks, so a compressed
+ * file, or segment, still loads in parallel and is still an ordinary gzip file. Compressed files
+ * are always rewritten in full rather than patched. Load reads either format whatever the setting.
+ *
+ * <p>Storage also remembers the data file's size, modification time and identity as of the last
+ * load or save. When another program changes the file, {@link #reload(List)} works out how it
+ * differs from the list by parsing only the records that changed, and a save that would overwrite
+ * a change nobody reloaded first keeps a copy of the other program's version.
+ *
+ * <p>Instances of MrMoon sharing a data file take turns through a journal next to it (see
+ * {@link #lock()}). Every save holds its lock, increments the generation it keeps, and enters what
+ * changed, so that another instance can catch up with {@link #catchUp(List)} by applying just
+ * those changes. A save made without catching up first is treated like one over another
+ * program's change.
  */
 public class Storage {
-    // Constants for magic numbers
-    private static final int MINIMUM_PARTS_COUNT = 3;
-    private static final int DEADLINE_PARTS_COUNT = 4;
-    private static final int EVENT_PARTS_COUNT = 5;
-    private static final String DONE_FLAG = "1";
-    private static final String NOT_DONE_FLAG = "0";
-
-    // Date/time format constants
-    private static final DateTimeFormatter STORAGE_DATETIME_FORMAT =
-        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
-    private static final DateTimeFormatter STORAGE_DATE_FORMAT =
-        DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final String TIME_INDICATOR = "T";
+    private static final String QUARANTINE_SUFFIX = ".quarantine";
+    private static final String CONFLICT_SUFFIX = ".conflict-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private static final String SEGMENT_DIR_SUFFIX = ".segments";
+
+    // Compressed saves: records in independently compressed gzip blocks
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    /**
+     * Default interval between background forces under {@link DurabilityPolicy#GROUP_FSYNC}
+     */
+    public static final long DEFAULT_GROUP_FSYNC_MILLIS = 100;
+
+    /**
+     * Compression level used when the data file's name ends in .gz and no level is set
+     */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+    /**
+     * Default amount of record data compressed together in one block, in bytes
+     */
+    public static final int DEFAULT_COMPRESSION_BLOCK_SIZE = BlockCodec.DEFAULT_BLOCK_SIZE;
 
     private final Path dataFile;
     private final Path dataDir;
 
+    private DurabilityPolicy durability = DurabilityPolicy.NONE;
+    private long groupFsyncMillis = DEFAULT_GROUP_FSYNC_MILLIS;
+    private ScheduledExecutorService groupFlusher;
+
+    /**
+     * Files written by saves under group fsync and not yet forced by the background flusher
+     */
+    private final Set<Path> unflushed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of tasks per segment file, or 0 to keep all tasks in the data file
+     */
+    private int segmentSize;
+
+    /**
+     * Deflate level for saves, from 1 (fastest) to 9 (smallest), or 0 to save uncompressed
+     */
+    private int compressionLevel;
+    private int compressionBlockSize = DEFAULT_COMPRESSION_BLOCK_SIZE;
+
+    /**
+     * Reused by every save, which is why saves are synchronized
+     */
+    private final RecordEncoder encoder = new RecordEncoder();
+
+    /**
+     * Where each record of the data file is, as of the last load or save, or null if unknown
+     */
+    private volatile Layout layout;
+
+    /**
+     * What the data file looked like when it was last loaded or saved, to notice changes made by
+     * other programs, or null while tasks are split across segments
+     */
+    private volatile Signature seen;
+
+    /**
+     * The segment files tasks are split across when segmentSize is set
+     */
+    private final SegmentStore segments;
+
+    /**
+     * The compressed file completed tasks are moved to
+     */
+    private final Archive archive;
+
+    /**
+     * Where the list stands in the journal that saves by instances sharing the data file are
+     * locked, counted and entered in
+     */
+    private final JournalCursor cursor;
+
     /**
      * Creates a Storage instance backed by the specified file path.
      * <p>
@@ -59,6 +173,13 @@ public class Storage {
         this.dataFile = Paths.get(filePath);
         Path parent = dataFile.getParent();
         this.dataDir = (parent != null) ? parent : Paths.get(".");
+        this.segments = new SegmentStore(
+            dataDir.resolve(dataFile.getFileName() + SEGMENT_DIR_SUFFIX), getQuarantineFile(), encoder);
+        this.archive = new Archive(dataDir, dataFile.getFileName().toString(), encoder);
+        this.cursor = new JournalCursor(new Journal(dataDir.resolve(dataFile.getFileName() + JOURNAL_SUFFIX)), encoder);
+        if (dataFile.getFileName().toString().endsWith(COMPRESSED_SUFFIX)) {
+            this.compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+        }
     }
 
     /**
@@ -69,34 +190,515 @@ public class Storage {
     }
 
     /**
-     * Loads tasks from the storage file. Creates an empty list if the file doesn't exist. Handles
-     * corrupted files by backing them up and returning empty list.
+     * Sets how much of each save is forced to disk. The default is {@link DurabilityPolicy#NONE},
+     * so interactive changes wait on no forces unless a stronger policy is chosen.
+     *
+     * @param policy           The durability policy
+     * @param groupFsyncMillis The interval between background forces, used by
+     *                         {@link DurabilityPolicy#GROUP_FSYNC} only
+     */
+    public synchronized void setDurability(DurabilityPolicy policy, long groupFsyncMillis) {
+        assert policy != null : "Durability policy cannot be null";
+        assert groupFsyncMillis > 0 : "Group fsync interval must be positive";
+
+        if (groupFlusher != null) {
+            groupFlusher.shutdown();
+            groupFlusher = null;
+            flushIfUnflushed();
+        }
+        this.durability = policy;
+        this.groupFsyncMillis = groupFsyncMillis;
+    }
+
+    /**
+     * Returns the current durability policy.
+     *
+     * @return The policy used by save
+     */
+    public synchronized DurabilityPolicy getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets whether tasks are kept in one file or split across segment files, and how many tasks go
+     * in each segment. The next save converts between the two layouts.
+     *
+     * @param segmentSize The number of tasks per segment, or 0 to keep everything in one file
+     */
+    public synchronized void setSegmentSize(int segmentSize) {
+        assert segmentSize >= 0 : "Segment size must be non-negative";
+
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the number of tasks per segment.
+     *
+     * @return The segment size, or 0 if tasks are kept in one file
+     */
+    public synchronized int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets whether saves are compressed, and how. Higher levels make smaller files but slower saves;
+     * larger blocks compress a little better but give a parallel load fewer pieces to work on. The
+     * next save converts the file, or each segment as it is written, to the new format.
+     *
+     * @param level     The deflate level, from 1 (fastest) to 9 (smallest), or 0 for no compression
+     * @param blockSize The amount of record data compressed together in one block, in bytes
+     */
+    public synchronized void setCompression(int level, int blockSize) {
+        assert level >= 0 && level <= 9 : "Compression level must be between 0 and 9";
+        assert blockSize > 0 : "Compression block size must be positive";
+
+        this.compressionLevel = level;
+        this.compressionBlockSize = blockSize;
+        this.layout = null; // so the next save writes the whole file in the new format
+    }
+
+    /**
+     * Returns the compression level used by saves.
+     *
+     * @return The deflate level, or 0 if saves are not compressed
+     */
+    public synchronized int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Takes the lock that keeps other instances of MrMoon sharing the data file from saving, waiting
+     * for any save of theirs to finish. Every save takes it too, so a caller need only take it to
+     * keep it across catching up with {@link #catchUp(List)} and the save that follows. Locks taken
+     * through the same Storage nest. If the journal cannot be locked, e.g. in a read-only
+     * directory, a warning is printed once and saves go ahead unlocked.
+     *
+     * @return The lock, to be closed once the save is done
+     */
+    public synchronized WriteLock lock() {
+        cursor.lock();
+        return new WriteLock();
+    }
+
+    private synchronized void unlock() {
+        cursor.unlock();
+    }
+
+    /**
+     * Loads tasks from the storage file. Creates an empty list if the file doesn't exist. Records
+     * that fail their checksum or cannot be parsed are skipped and appended to the quarantine file,
+     * so one damaged line does not cost the rest of the list. If the file cannot be read at all,
+     * it is backed up and an empty list is returned.
+     *
+     * <p>If tasks are split across segments, the segments are loaded in parallel and a segment that
+     * cannot be read is backed up on its own, so only its tasks are lost. When both layouts are on
+     * disk, after a save that converted between them was interrupted, the one being converted to
+     * is loaded.
+     *
+     * <p>A compressed file that has damaged blocks is backed up as it is, since the records in
+     * those blocks cannot be quarantined one by one, and the rest of its tasks are saved again.
      *
      * @return List of loaded Task objects
      */
+    @SuppressWarnings("try")
     public List<Task> load() {
         ensureDataDir();
+        try (WriteLock lock = lock()) {
+            synchronized (this) {
+                cursor.moveTo(cursor.latest());
+            }
+            return loadUnlocked();
+        }
+    }
+
+    private List<Task> loadUnlocked() {
+        boolean segmented = getSegmentSize() > 0;
+        if (segments.exists() && (segmented || !Files.exists(dataFile))) {
+            return loadSegments();
+        }
         if (!Files.exists(dataFile)) {
+            seen = Signature.ABSENT;
             return new ArrayList<>();
         }
 
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        byte[] data;
+        BasicFileAttributes attributes;
         try {
-            List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
-            List<Task> tasks = new ArrayList<>();
-            for (String line : lines) {
-                if (line == null || line.isBlank()) {
-                    continue;
-                }
+            attributes = Files.readAttributes(dataFile, BasicFileAttributes.class);
+            data = Files.readAllBytes(dataFile);
+        } catch (IOException ex) {
+            StorageFiles.backupCorruptFile(dataFile, ex);
+            seen = Signature.ABSENT;
+            return new ArrayList<>();
+        }
+        seen = Signature.of(attributes); // replaced by any save below
 
-                Task t = parseLine(line);
-                tasks.add(t);
+        BlockCodec.Decoded decoded = null;
+        if (BlockCodec.isCompressed(data)) {
+            try {
+                decoded = BlockCodec.decode(data);
+            } catch (IOException ex) {
+                StorageFiles.backupCorruptFile(dataFile, ex);
+                seen = Signature.ABSENT;
+                return new ArrayList<>();
+            }
+        }
+
+        RecordDecoder.Parsed parsed = RecordDecoder.parse(decoded == null ? data : decoded.data(), null);
+        List<Task> tasks = parsed.tasks();
+        int damagedBlocks = decoded == null ? 0 : decoded.damagedBlocks();
+        if (damagedBlocks > 0) {
+            StorageFiles.backupCorruptFile(dataFile, StorageFiles.damagedBlocksException(damagedBlocks));
+        }
+        if (parsed.quarantinedCount() > 0) {
+            try {
+                StorageFiles.quarantine(
+                    getQuarantineFile(), parsed.quarantined(), parsed.quarantinedCount(), dataFile.toString());
+                save(tasks); // drop the quarantined records so they are not reported again
+            } catch (IOException ioe) {
+                StorageFiles.backupCorruptFile(dataFile, ioe);
             }
+        } else if (damagedBlocks > 0) {
+            save(tasks);
+        } else if (decoded == null && attributes.size() == data.length) {
+            layout = new Layout(parsed.starts(), parsed.lengths(), tasks.size(), data.length,
+                attributes.lastModifiedTime(), parsed.isChecksummed());
+        } else {
+            layout = null;
+        }
+
+        recordLoad(event, start, data.length, tasks.size(), parsed.quarantinedCount());
+        return tasks;
+    }
 
-            return tasks;
-        } catch (Exception ex) {
-            backupCorruptFile(ex);
+    /**
+     * Loads every segment named in the manifest, in parallel. Segments that could not be read, or
+     * had records quarantined, are rewritten from what was loaded.
+     */
+    private List<Task> loadSegments() {
+        seen = null;
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        SegmentStore.Loaded loaded = segments.load();
+        if (loaded == null) {
             return new ArrayList<>();
         }
+
+        List<Task> tasks = loaded.tasks();
+        synchronized (this) {
+            if (loaded.rewrite() && writeSegments(tasks, loaded.manifest(), getDurability())) {
+                cursor.enter(cursor.generation() + 1, null, tasks); // dropped what could not be loaded
+            } else if (!loaded.rewrite()) {
+                segments.remember(loaded.manifest());
+            }
+        }
+
+        recordLoad(event, start, loaded.bytes(), tasks.size(), loaded.quarantinedCount());
+        return tasks;
+    }
+
+    private static void recordLoad(StorageLoadEvent event, long start, long bytes, int taskCount, int quarantined) {
+        MetricsRegistry.global().recordLoad(System.nanoTime() - start, taskCount);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBytes(bytes);
+            event.setTaskCount(taskCount);
+            event.setQuarantinedCount(quarantined);
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns whether the data file has changed since it was last loaded, saved or reloaded,
+     * judging by its size, modification time and identity. A data file that has been deleted does
+     * not count as changed, since the next save recreates it. Always false while tasks are split
+     * across segments.
+     *
+     * @return true if another program changed the data file
+     */
+    public boolean isChangedExternally() {
+        Signature expected = seen;
+        if (expected == null) {
+            return false;
+        }
+        Signature actual = Signature.of(dataFile);
+        return actual != Signature.ABSENT && !actual.equals(expected);
+    }
+
+    /**
+     * Returns whether the data file was changed in a way the journal does not account for, as by
+     * another program, rather than by saves other instances of MrMoon entered there. Those are
+     * better left to {@link #catchUp(List)} as the list next changes, which can move that change
+     * to fit them, whereas applying them earlier would shift the task numbers the user is reading.
+     *
+     * @return true if the data file needs to be compared with the list
+     */
+    @SuppressWarnings("try")
+    public synchronized boolean isChangedOutsideJournal() {
+        try (WriteLock lock = lock()) {
+            return cursor.latest() == cursor.generation() && isChangedExternally();
+        }
+    }
+
+    /**
+     * Reads the data file again after another program changed it, and works out how it differs from
+     * the list, which must be the one last loaded or saved. Records are compared byte for byte with
+     * the list's own encoding of its tasks, working in from both ends, so that a typical edit leaves
+     * one short run of records in the middle that differ. Only records in that run are parsed, and
+     * not even those that match a task the run replaces, as when lines are reordered. A changed
+     * record that cannot be read is quarantined, as on load, and left out.
+     *
+     * <p>Afterwards Storage describes the file as it now is, so the change must be applied to the
+     * list before it is next saved. If records were quarantined, the list should then be saved, to
+     * drop them from the file.
+     *
+     * @param current The list as last loaded or saved
+     * @return How the file differs from the list, or null if it has not changed, is split across
+     *     segments, or cannot be read
+     */
+    @SuppressWarnings("try")
+    public synchronized ExternalChange reload(List<Task> current) {
+        try (WriteLock lock = lock()) {
+            long latest = cursor.latest();
+            ExternalChange change = compare(current);
+            if (change != null) {
+                cursor.moveTo(latest);
+            }
+            return change;
+        }
+    }
+
+    /**
+     * Compares the changed data file with the list, for {@link #reload(List)}.
+     */
+    private ExternalChange compare(List<Task> current) {
+        if (!isChangedExternally()) {
+            return null;
+        }
+        BasicFileAttributes attributes;
+        byte[] data;
+        try {
+            attributes = Files.readAttributes(dataFile, BasicFileAttributes.class);
+            data = Files.readAllBytes(dataFile);
+            if (BlockCodec.isCompressed(data)) {
+                BlockCodec.Decoded decoded = BlockCodec.decode(data);
+                if (decoded.damagedBlocks() > 0) {
+                    throw StorageFiles.damagedBlocksException(decoded.damagedBlocks());
+                }
+                data = decoded.data();
+            }
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ioe) {
+            // Still counts as changed, so the next save keeps a copy rather than overwrite it
+            System.err.println("[WARN] Failed to reload tasks from " + dataFile + ": " + ioe.getMessage());
+            return null;
+        }
+
+        Lines lines = Lines.of(data);
+        int prefix = 0;
+        ByteBuffer scratch = ByteBuffer.allocate(256);
+        int common = Math.min(current.size(), lines.count);
+        while (prefix < common) {
+            scratch = encodeInto(current.get(prefix), scratch);
+            if (!lines.matches(prefix, scratch)) {
+                break;
+            }
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix) {
+            scratch = encodeInto(current.get(current.size() - 1 - suffix), scratch);
+            if (!lines.matches(lines.count - 1 - suffix, scratch)) {
+                break;
+            }
+            suffix++;
+        }
+
+        // Tasks of the run being replaced, by record, so that lines merely moved are not parsed again
+        Map<ByteBuffer, Deque<Task>> replaced = new HashMap<>();
+        for (int i = prefix; i < current.size() - suffix; i++) {
+            Task t = current.get(i);
+            ByteBuffer record = encoder.encode(t);
+            record.position(RecordDecoder.CHECKSUM_PREFIX_LENGTH).limit(record.limit() - 1);
+            replaced.computeIfAbsent(record, r -> new ArrayDeque<>()).add(t);
+        }
+        List<Task> inserted = new ArrayList<>();
+        int[] kept = new int[lines.count];
+        int keptCount = 0;
+        for (int i = 0; i < prefix; i++) {
+            kept[keptCount++] = i;
+        }
+        CRC32C crc = new CRC32C();
+        ByteArrayOutputStream quarantined = new ByteArrayOutputStream();
+        int quarantinedCount = 0;
+        int reparsed = 0;
+        for (int i = prefix; i < lines.count - suffix; i++) {
+            Deque<Task> same = replaced.get(lines.content(i));
+            Task t = null;
+            if (same != null && !same.isEmpty()) {
+                scratch = encodeInto(same.peek(), scratch);
+                t = lines.matches(i, scratch) ? same.poll() : null;
+            }
+            try {
+                if (t == null) {
+                    reparsed++;
+                    t = RecordDecoder.parseRecord(data, lines.starts[i], lines.ends[i], crc);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                String note = "# line " + lines.numbers[i] + ": " + ex.getMessage() + "\n";
+                quarantined.writeBytes(note.getBytes(StandardCharsets.UTF_8));
+                quarantined.write(data, lines.starts[i], lines.ends[i] - lines.starts[i]);
+                quarantined.write('\n');
+                quarantinedCount++;
+            }
+            if (t != null) {
+                inserted.add(t);
+                kept[keptCount++] = i;
+            }
+        }
+        for (int i = lines.count - suffix; i < lines.count; i++) {
+            kept[keptCount++] = i;
+        }
+
+        seen = Signature.of(attributes);
+        if (quarantinedCount > 0) {
+            layout = null;
+            try {
+                StorageFiles.quarantine(getQuarantineFile(), quarantined.toByteArray(), quarantinedCount,
+                    dataFile.toString());
+            } catch (IOException ioe) {
+                StorageFiles.backupCorruptFile(dataFile, ioe);
+            }
+        } else if (compressionLevel == 0 && attributes.size() == data.length) {
+            long[] starts = new long[keptCount];
+            int[] lengths = new int[keptCount];
+            boolean checksummed = true;
+            for (int k = 0; k < keptCount; k++) {
+                starts[k] = lines.starts[kept[k]];
+                lengths[k] = lines.ends[kept[k]] - lines.starts[kept[k]];
+                checksummed &= RecordDecoder.hasChecksum(data, lines.starts[kept[k]], lines.ends[kept[k]]);
+            }
+            layout = new Layout(starts, lengths, keptCount, data.length, attributes.lastModifiedTime(), checksummed);
+        } else {
+            layout = null;
+        }
+        return new ExternalChange(prefix, current.size() - suffix - prefix, inserted, reparsed, quarantinedCount);
+    }
+
+    /**
+     * Brings a list up to date with what was saved since it was last loaded, saved or caught up.
+     * Saves by other instances of MrMoon are applied from their journal entries, so only the
+     * records of the tasks they changed are parsed and the data file is not read at all. Where the
+     * journal no longer covers them, or another program changed the data file, the file is compared
+     * with the list as by {@link #reload(List)}, or with segments, loaded again.
+     *
+     * <p>Call it while holding {@link #lock()}, and apply the changes before releasing it, so that
+     * no other instance saves in between; this is what makes a save a compare-and-swap on the
+     * generation.
+     *
+     * @param current The list as last loaded, saved or caught up
+     * @return The changes to apply to the list, in order, each to the list as left by the one
+     *     before; empty if there are none
+     */
+    @SuppressWarnings("try")
+    public synchronized List<ExternalChange> catchUp(List<Task> current) {
+        try (WriteLock lock = lock()) {
+            long latest = cursor.latest();
+            if (latest == cursor.generation()) {
+                ExternalChange change = compare(current);
+                return change == null ? List.of() : List.of(change);
+            }
+
+            List<ExternalChange> changes = cursor.missed(latest, current.size());
+            cursor.moveTo(latest);
+            if (changes == null) {
+                ExternalChange change = segmentSize > 0 ? reloadSegments(current) : compare(current);
+                return change == null ? List.of() : List.of(change);
+            }
+            if (segmentSize > 0) {
+                segments.rereadManifest();
+            } else {
+                seen = Signature.of(dataFile);
+                layout = null; // the other instance may have rewritten the file
+            }
+            return changes;
+        }
+    }
+
+    /**
+     * Loads every segment again, as a change that replaces the whole list.
+     */
+    private ExternalChange reloadSegments(List<Task> current) {
+        List<Task> loaded = loadSegments();
+        return new ExternalChange(0, current.size(), loaded, loaded.size(), 0);
+    }
+
+    /**
+     * Encodes a task's record, without its newline, into a reusable buffer, growing it if needed.
+     *
+     * @return The buffer holding the record, ready to be read
+     */
+    private ByteBuffer encodeInto(Task task, ByteBuffer buffer) {
+        int bound = RecordEncoder.maxLength(task);
+        ByteBuffer out = buffer.capacity() < bound
+            ? ByteBuffer.allocate(Math.max(bound, buffer.capacity() * 2))
+            : buffer;
+        out.clear();
+        encoder.encode(task, out);
+        out.flip();
+        out.limit(out.limit() - 1);
+        return out;
+    }
+
+    /**
+     * Returns the file that records skipped during loading are appended to.
+     *
+     * @return The quarantine file next to the data file
+     */
+    public Path getQuarantineFile() {
+        return dataDir.resolve(dataFile.getFileName() + QUARANTINE_SUFFIX);
+    }
+
+    /**
+     * Returns the compressed file that archived tasks are appended to, e.g. duke-archive.txt.gz
+     * next to duke.txt.
+     *
+     * @return The archive file
+     */
+    public Path getArchiveFile() {
+        return archive.getFile();
+    }
+
+    /**
+     * Appends tasks to the archive, in the storage format, as one more gzip member so that
+     * nothing already archived is rewritten. Since the caller then drops the tasks from the list,
+     * the archive is forced to disk before returning under every durability policy except none.
+     * If writing fails, the archive is cut back to its previous length.
+     *
+     * @param tasks The tasks to archive
+     * @return true if the tasks are in the archive; false, after printing a warning, if not
+     */
+    public synchronized boolean appendToArchive(List<Task> tasks) {
+        assert tasks != null : "Task list cannot be null";
+
+        ensureDataDir();
+        return archive.append(tasks, getDurability());
+    }
+
+    /**
+     * Reads the archive one record at a time, without holding it in memory, and passes each task
+     * to the consumer in the order they were archived. Records that fail their checksum are
+     * skipped with a warning; so is the rest of an archive whose last append was cut short.
+     *
+     * @param consumer Receives each archived task
+     */
+    public void readArchive(Consumer<Task> consumer) {
+        archive.read(consumer);
     }
 
     /**
@@ -106,246 +708,616 @@ public class Storage {
      * @param tasks The list of Task objects to save
      */
     public void save(List<Task> tasks) {
+        save(tasks, null);
+    }
+
+    /**
+     * Saves the list of tasks, writing only what the given change touched where possible. The list
+     * must be the one last loaded or saved, changed only as described.
+     *
+     * <p>In one file, tasks edited in place are patched where they are if the file is untouched by
+     * anything else since and each new record is as long as the one it replaces; otherwise the
+     * whole file is rewritten as by {@link #save(List)}, except that the records of tasks the
+     * change did not touch are copied from the old file rather than encoded again. Tasks inserted
+     * at the end of the list are appended to the file under the same conditions. A patch or append
+     * is not atomic the way a full save is: a crash part-way through can leave a record half
+     * written. Its checksum then fails on the next load and it is quarantined.
+     *
+     * <p>Split across segments, only the segments holding changed tasks are written, as new files,
+     * and the manifest is then replaced to point at them.
+     *
+     * <p>Compressed saves always write whole files, or whole segments.
+     *
+     * <p>If another program, or another instance that was not caught up with, changed the data file
+     * since it was last loaded, saved or reloaded, its version is first copied aside with a
+     * warning, so that the save does not lose it, and the whole list is written. If the copy cannot
+     * be made, nothing is saved.
+     *
+     * @param tasks  The list of Task objects to save
+     * @param change How the list changed since it was last loaded or saved, or null if unknown
+     */
+    @SuppressWarnings("try")
+    public synchronized void save(List<Task> tasks, Change change) {
         assert tasks != null : "Task list cannot be null";
 
+        try (WriteLock lock = lock()) {
+            long latest = cursor.latest();
+            Change entered = change;
+            if (cursor.generation() >= 0 && latest != cursor.generation() || isChangedExternally()) {
+                if (!keepConflictCopy()) {
+                    return;
+                }
+                entered = null; // relative to a list the other instances do not have
+            }
+            if (write(tasks, entered)) {
+                cursor.enter(latest + 1, entered, tasks);
+            }
+        }
+    }
+
+    /**
+     * Writes the list in whichever way the settings and the change allow.
+     *
+     * @return true if the list was written
+     */
+    private boolean write(List<Task> tasks, Change change) {
+        if (segmentSize > 0) {
+            return writeSegments(tasks, segments.plan(tasks.size(), change, segmentSize), getDurability());
+        }
+        if (change != null && change.getKind() == Change.Kind.IN_PLACE && patch(tasks, change.getPositions())) {
+            return true;
+        }
+        if (change != null && change.getKind() == Change.Kind.INSERTED && append(tasks, change.getPositions())) {
+            return true;
+        }
+        Layout old = layout;
+        int[] sources = change == null ? null : unchangedRecords(old, tasks.size(), change);
+        layout = null; // describes the old file until the new one is in place
+
         ensureDataDir();
 
         assert Files.exists(dataDir) : "Data directory should exist after ensureDataDir()";
 
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        DurabilityPolicy policy = getDurability();
         Path tmp = dataDir.resolve(dataFile.getFileName() + ".tmp");
-        try (BufferedWriter w =
-                 Files.newBufferedWriter(
-                     tmp,
-                     StandardCharsets.UTF_8,
-                     StandardOpenOption.CREATE,
-                     StandardOpenOption.TRUNCATE_EXISTING)) {
-            for (Task t : tasks) {
-                w.write(encode(t));
-                w.newLine();
+        long[] starts = new long[tasks.size()];
+        int[] lengths = new int[starts.length];
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(
+                 tmp,
+                 StandardOpenOption.WRITE,
+                 StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel oldFile = sources == null ? null : FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            if (compressionLevel > 0) {
+                BlockCodec.write(tasks, encoder, compressionLevel, compressionBlockSize, channel);
+            } else {
+                long base = encoder.written();
+                // Old records to copy, runFrom to runTo, which follow one another in the old file
+                int runFrom = -1;
+                int runTo = -1;
+                long runStart = 0;
+                for (Task t : tasks) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, Math.max(16, count * 2));
+                        lengths = Arrays.copyOf(lengths, starts.length);
+                    }
+                    int source = sources == null || count >= sources.length ? -1 : sources[count];
+                    if (runFrom >= 0 && (source != runTo + 1 || !old.follows(runTo))) {
+                        encoder.copy(oldFile, old.starts()[runFrom], old.end(runTo) - old.starts()[runFrom], channel);
+                        runFrom = -1;
+                    }
+                    if (source >= 0) {
+                        if (runFrom < 0) {
+                            runFrom = source;
+                            runStart = encoder.written() - base;
+                        }
+                        runTo = source;
+                        starts[count] = runStart + old.starts()[source] - old.starts()[runFrom];
+                        lengths[count] = old.lengths()[source];
+                    } else {
+                        starts[count] = encoder.written() - base;
+                        encoder.write(t, channel);
+                        lengths[count] = (int) (encoder.written() - base - starts[count]) - 1; // without the newline
+                    }
+                    count++;
+                }
+                if (runFrom >= 0) {
+                    encoder.copy(oldFile, old.starts()[runFrom], old.end(runTo) - old.starts()[runFrom], channel);
+                }
+                encoder.flush(channel);
+            }
+            if (policy == DurabilityPolicy.FSYNC_FILE || policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+                // Data only: the length, which is all that is needed to read the file back, is included
+                channel.force(false);
             }
 
         } catch (IOException ioe) {
             System.err.println("[WARN] Failed to save tasks: " + ioe.getMessage());
-            return;
+            return false;
+        }
+        if (policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+            StorageFiles.forceDirectory(dataDir); // the temporary file's name, before the rename that replaces it
         }
 
+        long bytes = StorageFiles.sizeOf(tmp);
+
         try {
-            Files.move(
-                tmp,
-                dataFile,
-                StandardCopyOption.REPLACE_EXISTING,
-                StandardCopyOption.ATOMIC_MOVE);
+            StorageFiles.moveIntoPlace(tmp, dataFile);
         } catch (IOException ioe) {
-            try {
-                Files.move(tmp, dataFile, StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException ioe2) {
-                System.err.println("[WARN] Failed to finalise save: " + ioe2.getMessage());
+            System.err.println("[WARN] Failed to finalise save: " + ioe.getMessage());
+            return false;
+        }
+
+        if (policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+            StorageFiles.forceDirectory(dataDir);
+        } else if (policy == DurabilityPolicy.GROUP_FSYNC) {
+            unflushed.add(dataFile);
+            startGroupFlusher();
+        }
+        seen = Signature.of(dataFile);
+        FileTime modified = StorageFiles.modifiedTime(dataFile);
+        if (modified != null && compressionLevel == 0) {
+            layout = new Layout(starts, lengths, count, bytes, modified, true);
+        }
+        segments.deleteAll(); // converted from segments, which are now out of date
+
+        recordSave(event, start, bytes, tasks.size(), 0);
+        return true;
+    }
+
+    /**
+     * Works out which record of the data file each task of a changed list had, so that a full save
+     * can copy the records the change did not touch instead of encoding their tasks again.
+     *
+     * @return For each position in the list, the index of its task's record in the data file, or -1
+     *     for a task to encode; null if the data file's records cannot be copied
+     */
+    private int[] unchangedRecords(Layout old, int size, Change change) {
+        if (old == null || !old.checksummed() || compressionLevel > 0 || !old.describes(dataFile)) {
+            return null;
+        }
+        boolean removal = change.getKind() == Change.Kind.REMOVED;
+        int[] positions = change.getPositions();
+        int[] sources = new int[size];
+        int next = 0; // the next of the change's positions
+        int record = 0;
+        for (int i = 0; i <= size; i++) {
+            // Removed positions count records of the old list, the others positions of the new one
+            while (removal && next < positions.length && positions[next] == record) {
+                next++;
+                record++;
+            }
+            if (i == size) {
+                break;
+            }
+            if (!removal && next < positions.length && positions[next] == i) {
+                next++;
+                sources[i] = -1;
+                record += change.getKind() == Change.Kind.IN_PLACE ? 1 : 0;
+            } else {
+                sources[i] = record++;
             }
         }
+        // Otherwise the change does not describe how the file's list became this one
+        return next == positions.length && record == old.count() ? sources : null;
     }
 
     /**
-     * Ensures the data directory exists, creating it if necessary.
+     * Saves the list across segment files as planned, then removes the data file, in case the list
+     * was kept in one file until now.
      *
-     * @throws RuntimeException if the directory cannot be created
+     * @return true if the new manifest is in place
      */
-    private void ensureDataDir() {
+    private boolean writeSegments(List<Task> tasks, SegmentManifest plan, DurabilityPolicy policy) {
+        layout = null;
+        seen = null;
+        ensureDataDir();
+
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        SegmentStore.Written written = segments.write(tasks, plan, policy, compressionLevel, compressionBlockSize);
+        if (written == null) {
+            return false;
+        }
+        if (policy == DurabilityPolicy.GROUP_FSYNC) {
+            unflushed.addAll(written.files());
+            startGroupFlusher();
+        }
         try {
-            if (!Files.exists(dataDir)) {
-                Files.createDirectories(dataDir);
-            }
+            Files.deleteIfExists(dataFile); // converted from one file, which is now out of date
         } catch (IOException ioe) {
-            throw new RuntimeException("Unable to create data directory: " + dataDir, ioe);
+            System.err.println("[WARN] Failed to remove " + dataFile + ": " + ioe.getMessage());
         }
+
+        recordSave(event, start, written.bytes(), tasks.size(), 0);
+        return true;
     }
 
     /**
-     * Encodes a Task object into a tab-separated string for file storage. Uses TaskType enum for
-     * type safety instead of magic strings.
+     * Returns the directory holding the manifest and segment files when tasks are split across
+     * segments.
      *
-     * @param t The Task to encode
-     * @return Tab-separated string representation of the task
+     * @return The segment directory next to the data file
      */
-    private String encode(Task t) {
-        assert t != null : "Task cannot be null";
+    public Path getSegmentDir() {
+        return segments.getDirectory();
+    }
 
-        String done = t.isDone() ? DONE_FLAG : NOT_DONE_FLAG;
-        TaskType type = t.getTaskType();
+    /**
+     * Rewrites the records at the given positions where they are. Every record is encoded and
+     * checked against the length of the one it replaces before anything is written, so a patch
+     * that cannot be done leaves the file as it was.
+     *
+     * @return true if the records were patched; false if the whole file has to be rewritten
+     */
+    private boolean patch(List<Task> tasks, int[] changed) {
+        Layout current = layout;
+        if (current == null || current.count() != tasks.size() || !current.describes(dataFile)) {
+            return false;
+        }
 
-        switch (type) {
-        case TODO:
-            return String.join("\t", type.getStorageCode(), done, t.getDescription());
-        case DEADLINE:
-            Deadline d = (Deadline) t;
-            return String.join("\t", type.getStorageCode(), done, d.getDescription(), d.getBy());
-        case EVENT:
-            Event e = (Event) t;
-            return String.join(
-                "\t",
-                type.getStorageCode(),
-                done,
-                e.getDescription(),
-                e.getFrom(),
-                e.getTo());
-        default:
-            throw new IllegalArgumentException();
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ByteBuffer[] records = new ByteBuffer[changed.length];
+        for (int i = 0; i < changed.length; i++) {
+            ByteBuffer record = encoder.encode(tasks.get(changed[i]));
+            record.limit(record.limit() - 1); // keep the line terminator already in the file
+            if (record.remaining() != current.lengths()[changed[i]]) {
+                return false;
+            }
+            records[i] = record;
+        }
+
+        DurabilityPolicy policy = getDurability();
+        long bytes = 0;
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < changed.length; i++) {
+                long at = current.starts()[changed[i]];
+                while (records[i].hasRemaining()) {
+                    at += channel.write(records[i], at);
+                }
+                bytes += current.lengths()[changed[i]];
+            }
+            if (policy == DurabilityPolicy.FSYNC_FILE || policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+                // No rename, so the directory needs no force
+                channel.force(false);
+            }
+        } catch (IOException ioe) {
+            return false; // the full save that follows rewrites anything written so far
+        }
+        if (policy == DurabilityPolicy.GROUP_FSYNC) {
+            unflushed.add(dataFile);
+            startGroupFlusher();
         }
+        seen = Signature.of(dataFile);
+        FileTime modified = StorageFiles.modifiedTime(dataFile);
+        layout = modified == null
+            ? null
+            : new Layout(current.starts(), current.lengths(), current.count(), current.size(), modified,
+                current.checksummed());
+
+        recordSave(event, start, bytes, tasks.size(), changed.length);
+        return true;
     }
 
     /**
-     * Parses a line from the storage file into a Task object. Uses TaskType enum for type safety
-     * instead of magic strings.
+     * Appends the records of tasks added at the end of the list to the end of the file. Like a
+     * patch, an append is not atomic: a crash part-way through can leave the last record half
+     * written, to be quarantined on the next load.
      *
-     * @param line The tab-separated string from the storage file
-     * @return The corresponding Task object
-     * @throws IllegalArgumentException if the line format is invalid
+     * @return true if the records were appended; false if the whole file has to be rewritten
      */
-    private Task parseLine(String line) {
-        assert line != null : "Line cannot be null";
-        assert !line.trim().isEmpty() : "Line cannot be empty";
+    private boolean append(List<Task> tasks, int[] added) {
+        Layout current = layout;
+        if (current == null || added.length == 0 || added[0] != current.count()
+                || current.count() + added.length != tasks.size() || !current.describes(dataFile)) {
+            return false;
+        }
 
-        String[] parts = line.split("\t");
-        validateLineParts(parts, line);
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long[] starts = current.starts();
+        int[] lengths = current.lengths();
+        if (tasks.size() > starts.length) {
+            // Grown geometrically, so a long run of appends does not copy the layout each time
+            starts = Arrays.copyOf(starts, Math.max(tasks.size(), starts.length + (starts.length >> 1)));
+            lengths = Arrays.copyOf(lengths, starts.length);
+        }
 
-        String typeCode = parts[0].trim();
-        boolean done = isDoneFromString(parts[1].trim());
-        String desc = parts[2];
+        DurabilityPolicy policy = getDurability();
+        long base = encoder.written();
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            if (current.size() > 0) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                if (channel.read(last, current.size() - 1) != 1 || last.get(0) != '\n') {
+                    return false; // the last line has no terminator to append after
+                }
+            }
+            channel.position(current.size());
+            for (int i = current.count(); i < tasks.size(); i++) {
+                starts[i] = current.size() + encoder.written() - base;
+                encoder.write(tasks.get(i), channel);
+                lengths[i] = (int) (current.size() + encoder.written() - base - starts[i]) - 1;
+            }
+            encoder.flush(channel);
+            if (policy == DurabilityPolicy.FSYNC_FILE || policy == DurabilityPolicy.FSYNC_FILE_AND_DIR) {
+                channel.force(false);
+            }
+        } catch (IOException ioe) {
+            return false; // the full save that follows rewrites anything written so far
+        }
+        if (policy == DurabilityPolicy.GROUP_FSYNC) {
+            unflushed.add(dataFile);
+            startGroupFlusher();
+        }
+        long bytes = encoder.written() - base;
+        seen = Signature.of(dataFile);
+        FileTime modified = StorageFiles.modifiedTime(dataFile);
+        layout = modified == null
+            ? null
+            : new Layout(starts, lengths, tasks.size(), current.size() + bytes, modified, current.checksummed());
 
-        TaskType taskType = TaskType.fromStorageCode(typeCode);
-        Task task = createTaskByType(taskType, desc, parts, line);
+        recordSave(event, start, bytes, tasks.size(), 0);
+        return true;
+    }
 
-        if (done) {
-            task.mark();
+    private static void recordSave(StorageSaveEvent event, long start, long bytes, int taskCount, int patched) {
+        MetricsRegistry.global().recordSave(bytes, System.nanoTime() - start, taskCount);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBytes(bytes);
+            event.setTaskCount(taskCount);
+            event.setPatchedRecords(patched);
+            event.commit();
         }
-
-        assert task != null : "Created task should not be null";
-        return task;
     }
 
     /**
-     * Validates that line parts meet minimum requirements.
-     *
-     * @param parts        The split line parts
-     * @param originalLine The original line for error reporting
-     * @throws IllegalArgumentException if validation fails
+     * Starts the background thread that forces saves under group fsync, if it is not running yet.
      */
-    private void validateLineParts(String[] parts, String originalLine) {
-        if (parts.length < MINIMUM_PARTS_COUNT) {
-            throw new IllegalArgumentException("Malformed line: " + originalLine);
+    private synchronized void startGroupFlusher() {
+        if (groupFlusher != null || durability != DurabilityPolicy.GROUP_FSYNC) {
+            return;
         }
+        groupFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mrmoon-group-fsync");
+            t.setDaemon(true);
+            return t;
+        });
+        groupFlusher.scheduleAtFixedRate(
+            this::flushIfUnflushed, groupFsyncMillis, groupFsyncMillis, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Converts done flag string to boolean.
-     *
-     * @param doneStr The done flag string
-     * @return true if task is done, false otherwise
+     * Forces every file saved since the last force, and the directories they are in. Files that
+     * a later save has already replaced are skipped.
      */
-    private boolean isDoneFromString(String doneStr) {
-        assert DONE_FLAG.equals(doneStr) || NOT_DONE_FLAG.equals(doneStr)
-            : "Done flag must be 0 or 1";
-        return DONE_FLAG.equals(doneStr);
+    private void flushIfUnflushed() {
+        Set<Path> directories = new HashSet<>();
+        for (Iterator<Path> it = unflushed.iterator(); it.hasNext(); ) {
+            Path file = it.next();
+            it.remove();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.force(false);
+            } catch (NoSuchFileException ex) {
+                continue;
+            } catch (IOException ioe) {
+                System.err.println("[WARN] Failed to force saved tasks to disk: " + ioe.getMessage());
+            }
+            directories.add(file.getParent());
+        }
+        for (Path directory : directories) {
+            StorageFiles.forceDirectory(directory);
+        }
     }
 
     /**
-     * Creates a task based on the TaskType enum.
+     * Ensures the data directory exists, creating it if necessary.
      *
-     * @param type         The TaskType enum value
-     * @param desc         The task description
-     * @param parts        The parsed line parts
-     * @param originalLine The original line for error reporting
-     * @return The created Task object
+     * @throws RuntimeException if the directory cannot be created
      */
-    private Task createTaskByType(TaskType type, String desc, String[] parts, String originalLine) {
-        switch (type) {
-        case TODO:
-            return new Todo(desc);
-        case DEADLINE:
-            return createDeadlineTask(desc, parts, originalLine);
-        case EVENT:
-            return createEventTask(desc, parts, originalLine);
-        default:
-            throw new IllegalArgumentException();
+    private void ensureDataDir() {
+        try {
+            if (!Files.exists(dataDir)) {
+                Files.createDirectories(dataDir);
+            }
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to create data directory: " + dataDir, ioe);
         }
     }
 
     /**
-     * Creates a Deadline task from parsed parts.
+     * Copies the data file, as another program left it, aside before a save replaces it, and warns
+     * that it was changed.
+     *
+     * @return true if the copy was made, or the file is gone; false if it must not be overwritten
      */
-    private Task createDeadlineTask(String desc, String[] parts, String originalLine) {
-        if (parts.length < DEADLINE_PARTS_COUNT) {
-            throw new IllegalArgumentException("Missing deadline date: " + originalLine);
+    private boolean keepConflictCopy() {
+        Path copy = dataFile.resolveSibling(dataFile.getFileName() + CONFLICT_SUFFIX + System.currentTimeMillis());
+        try {
+            Files.copy(dataFile, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException ex) {
+            return true;
+        } catch (IOException ioe) {
+            System.err.println("[WARN] " + dataFile + " was changed by another program and could not be copied ("
+                + ioe.getMessage() + "); not saving over it");
+            return false;
         }
-
-        String byRaw = parts[3].trim();
-        LocalDateTime by = parseStorageDateTime(byRaw);
-        boolean hasTime = hasTimeComponent(byRaw);
-
-        return new Deadline(desc, by, hasTime);
+        System.err.println(
+            "[WARN] " + dataFile + " was changed by another program since it was last read; kept that version in "
+                + copy);
+        return true;
     }
 
     /**
-     * Creates an Event task from parsed parts.
+     * Where each of the first count records starts in the data file and how long it is without its
+     * line terminator, with the size and modification time the file had then. The arrays can be
+     * longer than count. A layout is checksummed when every record has a checksum, as saves write
+     * them, so that records a change did not touch can be copied into the next file as they are.
      */
-    private Task createEventTask(String desc, String[] parts, String originalLine) {
-        if (parts.length < EVENT_PARTS_COUNT) {
-            throw new IllegalArgumentException("Missing event dates: " + originalLine);
-        }
+    private record Layout(long[] starts, int[] lengths, int count, long size, FileTime modified, boolean checksummed) {
 
-        String fromRaw = parts[3].trim();
-        String toRaw = parts[4].trim();
+        /**
+         * Returns whether the file still has the size and modification time this layout was taken
+         * at. This is a cheap check for changes made by other programs, not a guarantee.
+         */
+        boolean describes(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return attributes.size() == size && modified.equals(attributes.lastModifiedTime());
+            } catch (IOException ioe) {
+                return false;
+            }
+        }
 
-        LocalDateTime from = parseStorageDateTime(fromRaw);
-        LocalDateTime to = parseStorageDateTime(toRaw);
-        boolean fromHasTime = hasTimeComponent(fromRaw);
-        boolean toHasTime = hasTimeComponent(toRaw);
+        /**
+         * Returns where a record ends, before its line terminator.
+         */
+        long end(int i) {
+            return starts[i] + lengths[i];
+        }
 
-        return new Event(desc, from, fromHasTime, to, toHasTime);
+        /**
+         * Returns whether the next record starts right after a record's newline, so that the two
+         * can be copied as one piece.
+         */
+        boolean follows(int i) {
+            return i + 1 < count && starts[i + 1] == end(i) + 1;
+        }
     }
 
     /**
-     * Parses a date/time string from storage format.
-     *
-     * @param dateTimeStr The date/time string
-     * @return Parsed LocalDateTime
+     * The size, modification time and identity (an inode number, where there is one) of the data
+     * file at some moment. Like {@link Layout#describes(Path)}, a cheap check for changes rather
+     * than a guarantee, though a program that saves by rename changes the identity even if the
+     * rest stays the same.
      */
-    private LocalDateTime parseStorageDateTime(String dateTimeStr) {
-        boolean hasTime = hasTimeComponent(dateTimeStr);
-        if (hasTime) {
-            return LocalDateTime.parse(dateTimeStr, STORAGE_DATETIME_FORMAT);
-        } else {
-            return LocalDate.parse(dateTimeStr, STORAGE_DATE_FORMAT).atStartOfDay();
+    private record Signature(long size, FileTime modified, Object fileKey) {
+        /** The data file did not exist */
+        static final Signature ABSENT = new Signature(-1, null, null);
+
+        static Signature of(BasicFileAttributes attributes) {
+            return new Signature(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey());
+        }
+
+        static Signature of(Path file) {
+            try {
+                return of(Files.readAttributes(file, BasicFileAttributes.class));
+            } catch (IOException ioe) {
+                return ABSENT;
+            }
         }
     }
 
     /**
-     * Checks if a date/time string includes time component.
-     *
-     * @param dateTimeStr The date/time string
-     * @return true if includes time, false otherwise
+     * The non-blank lines of a file's records: where each starts and ends, without its terminator,
+     * and its line number in the file.
      */
-    private boolean hasTimeComponent(String dateTimeStr) {
-        return dateTimeStr.contains(TIME_INDICATOR);
+    private static final class Lines {
+        private final byte[] data;
+        private int[] starts;
+        private int[] ends;
+        private int[] numbers;
+        private int count;
+
+        private Lines(byte[] data) {
+            this.data = data;
+            this.starts = new int[Math.max(16, data.length / 32)];
+            this.ends = new int[starts.length];
+            this.numbers = new int[starts.length];
+        }
+
+        static Lines of(byte[] data) {
+            Lines lines = new Lines(data);
+            int lineNumber = 0;
+            int lineStart = 0;
+            while (lineStart < data.length) {
+                int lineEnd = lineStart;
+                while (lineEnd < data.length && data[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                int next = lineEnd + 1;
+                if (lineEnd > lineStart && data[lineEnd - 1] == '\r') {
+                    lineEnd--;
+                }
+                lineNumber++;
+                if (!isBlank(data, lineStart, lineEnd)) {
+                    lines.add(lineStart, lineEnd, lineNumber);
+                }
+                lineStart = next;
+            }
+            return lines;
+        }
+
+        private static boolean isBlank(byte[] data, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (data[i] != ' ' && data[i] != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(int start, int end, int number) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, starts.length);
+                numbers = Arrays.copyOf(numbers, starts.length);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            numbers[count] = number;
+            count++;
+        }
+
+        /**
+         * Returns whether a line is the given record, checksum included, or for a line written
+         * without a checksum, the record's content.
+         */
+        boolean matches(int i, ByteBuffer record) {
+            int from = record.position();
+            if (!RecordDecoder.hasChecksum(data, starts[i], ends[i])) {
+                from += RecordDecoder.CHECKSUM_PREFIX_LENGTH;
+            }
+            return Arrays.equals(data, starts[i], ends[i], record.array(), from, record.limit());
+        }
+
+        /**
+         * Returns a line's content, after any checksum, as a buffer that equals and hashes like the
+         * same content encoded.
+         */
+        ByteBuffer content(int i) {
+            int from = RecordDecoder.hasChecksum(data, starts[i], ends[i])
+                ? starts[i] + RecordDecoder.CHECKSUM_PREFIX_LENGTH
+                : starts[i];
+            return ByteBuffer.wrap(data, from, ends[i] - from);
+        }
     }
 
     /**
-     * Backs up a corrupted data file by renaming it with a timestamp. Prints warning messages to
-     * standard error.
-     *
-     * @param ex The exception that indicated file corruption
+     * Holds the lock taken by {@link #lock()} until closed. It is meant for try-with-resources,
+     * whose block never reads it, so methods holding one suppress javac's "try" lint. A mock
+     * Storage returns null from {@link #lock()}, which try-with-resources does not close.
      */
-    private void backupCorruptFile(Exception ex) {
-        try {
-            String suffix = ".corrupt-" + System.currentTimeMillis();
-            Path backup = dataDir.resolve(dataFile.getFileName() + suffix);
-            Files.move(dataFile, backup, StandardCopyOption.REPLACE_EXISTING);
-            System.err.println(
-                "[WARN] Data file appears corrupted: "
-                    + ex.getClass().getSimpleName()
-                    + ". Backed up to "
-                    + backup);
-        } catch (IOException ioe) {
-            System.err.println("[WARN] Failed to back up corrupt file: " + ioe.getMessage());
+    public final class WriteLock implements AutoCloseable {
+        private boolean closed;
+
+        private WriteLock() {
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                unlock();
+            }
         }
     }
 }
@@ -0,0 +1,107 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * File operations shared by Storage and the collaborators that write its files: replacing a file
+ * by rename, forcing a directory, and putting aside what could not be read.
+ */
+final class StorageFiles {
+    private StorageFiles() {
+    }
+
+    /**
+     * Moves a finished temporary file over the file it replaces, atomically where the file system
+     * supports it.
+     */
+    static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioe) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces a directory, so that the renames and new files in it survive a power loss. Platforms
+     * that cannot open a directory (Windows) make renames durable on their own, so a failure to
+     * open it is ignored.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ioe) {
+            // Directory not openable on this platform
+        }
+    }
+
+    /**
+     * Appends quarantined records, each after a comment giving its line and problem, to the
+     * quarantine file.
+     *
+     * @param sidecar The quarantine file
+     * @param source  Where the records came from, for the warning
+     * @throws IOException if the quarantine file cannot be written; the caller should then back up
+     *                     the records' file so that nothing is lost when the list is next saved
+     */
+    static void quarantine(Path sidecar, byte[] records, int count, String source) throws IOException {
+        Files.write(sidecar, records, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.err.println(
+            "[WARN] Skipped " + count + " corrupt record(s) in " + source + "; kept them in " + sidecar);
+    }
+
+    /**
+     * Backs up a corrupted file by renaming it with a timestamp. This is the data file, or with
+     * segments, the manifest or just the one segment that could not be read. Prints warning
+     * messages to standard error.
+     *
+     * @param file The file to back up
+     * @param ex   The exception that indicated file corruption
+     */
+    static void backupCorruptFile(Path file, Exception ex) {
+        try {
+            String suffix = ".corrupt-" + System.currentTimeMillis();
+            Path backup = file.resolveSibling(file.getFileName() + suffix);
+            Files.move(file, backup, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println(
+                "[WARN] Data file appears corrupted: "
+                    + ex.getClass().getSimpleName()
+                    + ". Backed up to "
+                    + backup);
+        } catch (IOException ioe) {
+            System.err.println("[WARN] Failed to back up corrupt file: " + ioe.getMessage());
+        }
+    }
+
+    static IOException damagedBlocksException(int count) {
+        return new IOException(count + " compressed block(s) could not be read");
+    }
+
+    /**
+     * Returns when a file was last modified, or null if that cannot be determined.
+     */
+    static FileTime modifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ioe) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the size of a file in bytes, or 0 if it cannot be determined.
+     */
+    static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ioe) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package duke.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A compact, column-oriented backing list for {@link TaskList}. Instead of one object graph per
+ * task (a Task, its description String and up to two LocalDateTime objects), each task occupies a
+ * type byte, a bit in a done bitset, two longs of epoch-minutes and an id into a shared
+ * {@link DescriptionPool}. Task objects are materialized on every {@link #get(int)}, so callers
+ * must not rely on object identity and must write changes back through {@link #set(int, Task)}.
+ */
+final class ColumnarTaskStore extends AbstractList<Task> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Layout of the per-task kind byte: task type ordinal in the low bits, then has-time flags,
+    // then the recurrence ordinal + 1 (0 for a one-off task)
+    private static final int TYPE_MASK = 0b11;
+    private static final int FIRST_HAS_TIME = 0b100;
+    private static final int SECOND_HAS_TIME = 0b1000;
+    private static final int RECURRENCE_SHIFT = 4;
+    private static final int RECURRENCE_MASK = 0b11;
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Recurrence[] RECURRENCES = Recurrence.values();
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private final BitSet done = new BitSet();
+
+    /**
+     * Deadline "by" or event "from", in minutes since the epoch (UTC, no zone conversion)
+     */
+    private long[] first = new long[INITIAL_CAPACITY];
+
+    /**
+     * Event "to", in minutes since the epoch
+     */
+    private long[] second = new long[INITIAL_CAPACITY];
+
+    private int[] descriptionIds = new int[INITIAL_CAPACITY];
+    private final DescriptionPool descriptions = new DescriptionPool();
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+
+        int kind = kinds[index];
+        String description = descriptions.get(descriptionIds[index]);
+        Task task;
+        switch (TYPES[kind & TYPE_MASK]) {
+        case TODO:
+            task = new Todo(description);
+            break;
+        case DEADLINE:
+            task = new Deadline(description, fromMinutes(first[index]), (kind & FIRST_HAS_TIME) != 0);
+            break;
+        case EVENT:
+            int recurrence = (kind >> RECURRENCE_SHIFT) & RECURRENCE_MASK;
+            task = new Event(description,
+                fromMinutes(first[index]), (kind & FIRST_HAS_TIME) != 0,
+                fromMinutes(second[index]), (kind & SECOND_HAS_TIME) != 0,
+                recurrence == 0 ? null : RECURRENCES[recurrence - 1]);
+            break;
+        default:
+            throw new IllegalStateException("Unknown task type");
+        }
+        if (done.get(index)) {
+            task.mark();
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        int oldDescription = descriptionIds[index];
+        write(index, task);
+        descriptions.release(oldDescription);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+
+        ensureCapacity(size + 1);
+        int tail = size - index;
+        System.arraycopy(kinds, index, kinds, index + 1, tail);
+        System.arraycopy(first, index, first, index + 1, tail);
+        System.arraycopy(second, index, second, index + 1, tail);
+        System.arraycopy(descriptionIds, index, descriptionIds, index + 1, tail);
+        for (int i = size; i > index; i--) {
+            done.set(i, done.get(i - 1));
+        }
+        size++;
+        modCount++;
+        write(index, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            descriptions.release(descriptionIds[i]);
+        }
+        int tail = size - toIndex;
+        int removed = toIndex - fromIndex;
+        System.arraycopy(kinds, toIndex, kinds, fromIndex, tail);
+        System.arraycopy(first, toIndex, first, fromIndex, tail);
+        System.arraycopy(second, toIndex, second, fromIndex, tail);
+        System.arraycopy(descriptionIds, toIndex, descriptionIds, fromIndex, tail);
+        for (int i = fromIndex; i < fromIndex + tail; i++) {
+            done.set(i, done.get(i + removed));
+        }
+        done.clear(size - removed, size);
+        size -= removed;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of distinct descriptions held by the store.
+     *
+     * @return The number of pooled descriptions
+     */
+    int distinctDescriptions() {
+        return descriptions.distinctCount();
+    }
+
+    /**
+     * Encodes a task into the columns at the given slot, taking a new description reference.
+     */
+    private void write(int index, Task task) {
+        int kind = task.getTaskType().ordinal();
+        long firstValue = NO_TIME;
+        long secondValue = NO_TIME;
+        if (task instanceof Deadline d) {
+            firstValue = toMinutes(d.getByDateTime());
+            kind |= d.hasTime() ? FIRST_HAS_TIME : 0;
+        } else if (task instanceof Event e) {
+            firstValue = toMinutes(e.getFromDateTime());
+            secondValue = toMinutes(e.getToDateTime());
+            kind |= e.fromHasTime() ? FIRST_HAS_TIME : 0;
+            kind |= e.toHasTime() ? SECOND_HAS_TIME : 0;
+            kind |= e.isRecurring() ? (e.getRecurrence().ordinal() + 1) << RECURRENCE_SHIFT : 0;
+        }
+        kinds[index] = (byte) kind;
+        first[index] = firstValue;
+        second[index] = secondValue;
+        descriptionIds[index] = descriptions.acquire(task.getDescription());
+        done.set(index, task.isDone());
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= kinds.length) {
+            return;
+        }
+        int capacity = Math.max(required, kinds.length + (kinds.length >> 1));
+        kinds = Arrays.copyOf(kinds, capacity);
+        first = Arrays.copyOf(first, capacity);
+        second = Arrays.copyOf(second, capacity);
+        descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+    }
+
+    private static long toMinutes(LocalDateTime dt) {
+        return Math.floorDiv(dt.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
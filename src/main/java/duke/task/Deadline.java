@@ -57,6 +57,15 @@ public class Deadline extends Task {
         return by;
     }
 
+    /**
+     * Returns whether the due date/time includes a specific time of day.
+     *
+     * @return true if a time was given, false for a date-only deadline
+     */
+    public boolean hasTime() {
+        return hasTime;
+    }
+
     /**
      * Returns the due date/time formatted for storage.
      *
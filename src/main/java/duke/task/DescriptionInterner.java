@@ -0,0 +1,54 @@
+package duke.task;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import duke.metrics.MetricsRegistry;
+
+/**
+ * Deduplicates task descriptions so that recurring tasks ("standup", "weekly report") share one
+ * String instance instead of each holding its own copy. Entries are weakly referenced, so a
+ * description is collected once the last task using it is deleted.
+ *
+ * <p>Only descriptions entering the list, as it is loaded or as tasks are added, go through the
+ * pool. Tasks built from ones already in it, such as done copies and the occurrences of a
+ * recurring event, reuse their instance and take no lock.
+ */
+public final class DescriptionInterner {
+    private static final Map<String, WeakReference<String>> POOL = new WeakHashMap<>();
+
+    private DescriptionInterner() {
+    }
+
+    /**
+     * Returns the canonical instance of the given description, adding it to the pool if it is not
+     * already present. Every lookup is counted towards the pool hit ratio shown by {@code stats}.
+     *
+     * @param description The description to deduplicate
+     * @return An equal String, shared with every other task holding the same description
+     */
+    public static String intern(String description) {
+        String canonical;
+        synchronized (POOL) {
+            WeakReference<String> ref = POOL.get(description);
+            canonical = ref == null ? null : ref.get();
+            if (canonical == null) {
+                POOL.put(description, new WeakReference<>(description));
+            }
+        }
+        MetricsRegistry.global().recordDescriptionLookup(canonical != null);
+        return canonical != null ? canonical : description;
+    }
+
+    /**
+     * Returns the number of descriptions currently held by the pool.
+     *
+     * @return The number of pooled descriptions that have not been collected
+     */
+    public static int size() {
+        synchronized (POOL) {
+            return POOL.size();
+        }
+    }
+}
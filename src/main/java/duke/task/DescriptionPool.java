@@ -0,0 +1,217 @@
+package duke.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reference-counted pool of task descriptions stored as UTF-8 bytes in one shared arena. Equal
+ * descriptions share a single id, so a recurring description costs only an int per task. Ids stay
+ * stable for as long as they are referenced; released ids are reused and the arena is compacted
+ * once more than half of it is dead.
+ */
+final class DescriptionPool {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_COMPACTION_BYTES = 4096;
+
+    private byte[] arena = new byte[INITIAL_CAPACITY * 16];
+    private int arenaUsed;
+    private int deadBytes;
+
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] refCounts = new int[INITIAL_CAPACITY];
+    private int idCount;
+
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    /**
+     * Open-addressing table of id + 1, keyed by the hash of the description bytes
+     */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int tableOccupied;
+
+    /**
+     * Returns the id for the given description, adding it to the pool if needed, and takes one
+     * reference on it.
+     *
+     * @param description The description to intern
+     * @return The pool id of the description
+     */
+    int acquire(String description) {
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int slot = find(bytes, hash);
+        if (slot >= 0) {
+            int id = table[slot] - 1;
+            refCounts[id]++;
+            return id;
+        }
+
+        int id = allocateId();
+        offsets[id] = append(bytes);
+        lengths[id] = bytes.length;
+        insert(id, hash);
+        refCounts[id] = 1;
+        return id;
+    }
+
+    /**
+     * Drops one reference on the given id, releasing the description when none remain.
+     *
+     * @param id The pool id to release
+     */
+    void release(int id) {
+        if (--refCounts[id] > 0) {
+            return;
+        }
+        int hash = hash(arena, offsets[id], lengths[id]);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (table[slot] == id + 1) {
+                table[slot] = TOMBSTONE;
+                break;
+            }
+        }
+        deadBytes += lengths[id];
+        lengths[id] = 0;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        if (deadBytes > MIN_COMPACTION_BYTES && deadBytes * 2 > arenaUsed) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the description for the given id.
+     *
+     * @param id The pool id
+     * @return A newly decoded String
+     */
+    String get(int id) {
+        return new String(arena, offsets[id], lengths[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of distinct descriptions currently referenced.
+     *
+     * @return The number of live ids
+     */
+    int distinctCount() {
+        return idCount - freeCount;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if (idCount == offsets.length) {
+            int capacity = idCount * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            refCounts = Arrays.copyOf(refCounts, capacity);
+        }
+        return idCount++;
+    }
+
+    private int append(byte[] bytes) {
+        if (arenaUsed + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaUsed + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, arenaUsed, bytes.length);
+        int offset = arenaUsed;
+        arenaUsed += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Returns the table slot holding a description equal to the given bytes, or -1.
+     */
+    private int find(byte[] bytes, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry > 0 && matches(entry - 1, bytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int id, byte[] bytes) {
+        int offset = offsets[id];
+        return lengths[id] == bytes.length
+            && Arrays.equals(arena, offset, offset + bytes.length, bytes, 0, bytes.length);
+    }
+
+    private void insert(int id, int hash) {
+        if ((tableOccupied + 1) * 2 > table.length) {
+            rehash();
+        }
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == EMPTY) {
+            tableOccupied++;
+        }
+        table[slot] = id + 1;
+    }
+
+    /**
+     * Rebuilds the hash table without tombstones, growing it if the live entries need more room.
+     */
+    private void rehash() {
+        int live = distinctCount() + 1;
+        int capacity = INITIAL_CAPACITY * 2;
+        while (capacity < live * 4) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        tableOccupied = 0;
+        int mask = capacity - 1;
+        for (int id = 0; id < idCount; id++) {
+            if (refCounts[id] == 0) {
+                continue;
+            }
+            int slot = hash(arena, offsets[id], lengths[id]) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+            tableOccupied++;
+        }
+    }
+
+    /**
+     * Copies the live descriptions into a fresh arena. Ids and hashes are unchanged.
+     */
+    private void compact() {
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY * 16, (arenaUsed - deadBytes) * 2)];
+        int used = 0;
+        for (int id = 0; id < idCount; id++) {
+            if (refCounts[id] == 0) {
+                continue;
+            }
+            System.arraycopy(arena, offsets[id], compacted, used, lengths[id]);
+            offsets[id] = used;
+            used += lengths[id];
+        }
+        arena = compacted;
+        arenaUsed = used;
+        deadBytes = 0;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
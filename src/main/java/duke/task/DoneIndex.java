@@ -0,0 +1,71 @@
+package duke.task;
+
+import java.util.BitSet;
+
+/**
+ * Keeps one bit per slot of an {@link IndexedTaskStore} saying whether its task is done, and one
+ * saying whether the slot is in use. Slot ids are small numbers that are reused once freed, so the
+ * bits stay about as many as the list is long. Counting either side takes O(1), and listing one
+ * reads the bits in words of 64.
+ */
+final class DoneIndex implements TaskIndex {
+    private final BitSet live = new BitSet();
+    private final BitSet done = new BitSet();
+    private int liveCount;
+    private int doneCount;
+
+    @Override
+    public void added(long id, Task task) {
+        live.set((int) id);
+        liveCount++;
+        if (task.isDone()) {
+            done.set((int) id);
+            doneCount++;
+        }
+    }
+
+    @Override
+    public void removed(long id) {
+        if (live.get((int) id)) {
+            live.clear((int) id);
+            liveCount--;
+            if (done.get((int) id)) {
+                done.clear((int) id);
+                doneCount--;
+            }
+        }
+    }
+
+    /**
+     * Counts the tasks that are done, or the ones that are not.
+     *
+     * @param isDone Which tasks to count
+     * @return The number of those tasks
+     */
+    int count(boolean isDone) {
+        return isDone ? doneCount : liveCount - doneCount;
+    }
+
+    /**
+     * Returns the slot ids of the tasks that are done, or of the ones that are not.
+     *
+     * @param isDone Which tasks to return
+     * @return The ids, smallest first
+     */
+    long[] ids(boolean isDone) {
+        long[] ids = new long[count(isDone)];
+        int i = 0;
+        if (isDone) {
+            for (int id = done.nextSetBit(0); id >= 0; id = done.nextSetBit(id + 1)) {
+                ids[i++] = id;
+            }
+        } else {
+            for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                if (!done.get(id)) {
+                    ids[i++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+}
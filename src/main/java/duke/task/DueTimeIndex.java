@@ -0,0 +1,180 @@
+package duke.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Orders incomplete deadlines by due time and incomplete events by start time, so that overdue and
+ * upcoming queries read only the k matching entries (O(log n + k)) instead of scanning every task.
+ * Completed tasks and todos are not indexed; marking or unmarking a task replaces it in the store,
+ * which moves it in or out of the index.
+ *
+ * <p>A date without a time of day counts as the last minute of that day: a date-only deadline is
+ * not overdue until the day has passed, and a date-only event still counts as upcoming on its day.
+ *
+ * <p>Recurring events are kept aside as rules, ordered by their next occurrence as of the last
+ * query. A query first moves the rules whose occurrence has since started on to their next one,
+ * then expands every occurrence in its window of the rules that fall in it, so it reads only the
+ * rules it returns and those that moved. A rule stays indexed when marked done: its status covers
+ * the occurrences that have started, and the occurrences still to come are listed as not done.
+ */
+final class DueTimeIndex implements TaskIndex {
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparingLong(Entry::minute).thenComparingLong(Entry::id);
+
+    private final TreeSet<Entry> deadlines = new TreeSet<>(ORDER);
+    private final TreeSet<Entry> events = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    /**
+     * Recurring events, by the minute of their next occurrence as of the last query, or of their
+     * first occurrence if they have not been queried since they were added
+     */
+    private final TreeSet<Entry> rules = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> rulesById = new HashMap<>();
+    private final Map<Long, Event> recurring = new HashMap<>();
+
+    @Override
+    public void added(long id, Task task) {
+        if (task instanceof Event e && e.isRecurring()) {
+            Entry entry = new Entry(toMinute(e.getFromDateTime(), e.fromHasTime()), id, false);
+            rules.add(entry);
+            rulesById.put(id, entry);
+            recurring.put(id, e);
+            return;
+        }
+        if (task.isDone()) {
+            return;
+        }
+        if (task instanceof Deadline d) {
+            index(deadlines, new Entry(toMinute(d.getByDateTime(), d.hasTime()), id, true));
+        } else if (task instanceof Event e) {
+            index(events, new Entry(toMinute(e.getFromDateTime(), e.fromHasTime()), id, false));
+        }
+    }
+
+    @Override
+    public void removed(long id) {
+        if (recurring.remove(id) != null) {
+            rules.remove(rulesById.remove(id));
+            return;
+        }
+        Entry entry = entriesById.remove(id);
+        if (entry != null) {
+            (entry.deadline() ? deadlines : events).remove(entry);
+        }
+    }
+
+    /**
+     * Returns the incomplete deadlines due strictly before the given time, earliest first.
+     *
+     * @param now The current time
+     * @return The slot ids of overdue deadlines
+     */
+    long[] overdueIds(LocalDateTime now) {
+        NavigableSet<Entry> overdue = deadlines.headSet(bound(toMinute(now, true)), false);
+        long[] ids = new long[overdue.size()];
+        int i = 0;
+        for (Entry e : overdue) {
+            ids[i++] = e.id();
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the incomplete deadlines and events due or starting from now until the end of the
+     * day that is the given number of days from now, earliest first. Each occurrence of a
+     * recurring event in the window is listed on its own.
+     *
+     * @param now  The current time
+     * @param days The number of days to look ahead; 0 means the rest of today
+     * @return The upcoming tasks by slot id, with the occurrence for a recurring event
+     */
+    List<Due> upcoming(LocalDateTime now, int days) {
+        long nowMinute = toMinute(now, true);
+        Entry from = bound(nowMinute);
+        Entry to = bound(toMinute(now.toLocalDate().plusDays(days + 1L).atStartOfDay(), true));
+
+        advanceRules(now, from);
+        List<Due> matches = new ArrayList<>();
+        for (Entry e : deadlines.subSet(from, true, to, false)) {
+            matches.add(new Due(e.minute(), e.id(), null));
+        }
+        for (Entry e : events.subSet(from, true, to, false)) {
+            matches.add(new Due(e.minute(), e.id(), null));
+        }
+        for (Entry rule : rules.subSet(from, true, to, false)) {
+            Event event = recurring.get(rule.id());
+            for (long n = event.occurrenceNumberStartingFrom(start(now, event)); ; n++) {
+                Event occurrence = event.occurrence(n);
+                long minute = toMinute(occurrence.getFromDateTime(), occurrence.fromHasTime());
+                if (minute >= to.minute()) {
+                    break;
+                }
+                occurrence.unmark(); // still to come, whatever the rule's status
+                matches.add(new Due(minute, rule.id(), occurrence));
+            }
+        }
+        matches.sort(Comparator.comparingLong(Due::minute).thenComparingLong(Due::id));
+        return matches;
+    }
+
+    /**
+     * Moves the rules whose occurrence started before now on to their next occurrence.
+     */
+    private void advanceRules(LocalDateTime now, Entry from) {
+        NavigableSet<Entry> started = rules.headSet(from, false);
+        if (started.isEmpty()) {
+            return;
+        }
+        List<Entry> moved = new ArrayList<>(started);
+        started.clear();
+        for (Entry rule : moved) {
+            Event next = recurring.get(rule.id()).nextOccurrence(now);
+            Entry entry = new Entry(toMinute(next.getFromDateTime(), next.fromHasTime()), rule.id(), false);
+            rules.add(entry);
+            rulesById.put(rule.id(), entry);
+        }
+    }
+
+    /**
+     * Returns the time from which an occurrence of the event counts as upcoming: now, or the start
+     * of today for an event without a time of day, which still counts on its own day.
+     */
+    private static LocalDateTime start(LocalDateTime now, Event event) {
+        return event.fromHasTime() ? now : now.toLocalDate().atStartOfDay();
+    }
+
+    private void index(TreeSet<Entry> set, Entry entry) {
+        set.add(entry);
+        entriesById.put(entry.id(), entry);
+    }
+
+    private static Entry bound(long minute) {
+        return new Entry(minute, Long.MIN_VALUE, false);
+    }
+
+    private static long toMinute(LocalDateTime dt, boolean hasTime) {
+        LocalDateTime effective = hasTime ? dt : LocalDate.from(dt).atTime(LocalTime.of(23, 59));
+        return Math.floorDiv(effective.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private record Entry(long minute, long id, boolean deadline) {
+    }
+
+    /**
+     * An upcoming task by slot id, with the occurrence that falls in the window if it is a
+     * recurring event, or null otherwise.
+     */
+    record Due(long minute, long id, Event occurrence) {
+    }
+}
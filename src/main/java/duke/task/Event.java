@@ -1,5 +1,6 @@
 package duke.task;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import duke.util.DateTimeUtil;
@@ -7,6 +8,8 @@ import duke.util.DateTimeUtil;
 /**
  * Represents an event task with start and end date/time. An event task has a description and occurs
  * during a specific time period. Extends the Task class with start and end date/time functionality.
+ * A recurring event holds its first occurrence and a {@link Recurrence}; later occurrences are
+ * computed on demand rather than stored.
  */
 public class Event extends Task {
 
@@ -30,6 +33,11 @@ public class Event extends Task {
      */
     private final boolean toHasTime;
 
+    /**
+     * How often the event repeats, or null for a one-off event
+     */
+    private final Recurrence recurrence;
+
     /**
      * Constructs an Event task with specified description and start/end times.
      *
@@ -45,11 +53,32 @@ public class Event extends Task {
         boolean fromHasTime,
         LocalDateTime to,
         boolean toHasTime) {
+        this(description, from, fromHasTime, to, toHasTime, null);
+    }
+
+    /**
+     * Constructs a possibly recurring Event task whose first occurrence has the given start/end times.
+     *
+     * @param description The event description
+     * @param from        The start date and time of the first occurrence
+     * @param fromHasTime true if start includes specific time, false for date only
+     * @param to          The end date and time of the first occurrence
+     * @param toHasTime   true if end includes specific time, false for date only
+     * @param recurrence  How often the event repeats, or null for a one-off event
+     */
+    public Event(
+        String description,
+        LocalDateTime from,
+        boolean fromHasTime,
+        LocalDateTime to,
+        boolean toHasTime,
+        Recurrence recurrence) {
         super(description);
         this.from = from;
         this.to = to;
         this.fromHasTime = fromHasTime;
         this.toHasTime = toHasTime;
+        this.recurrence = recurrence;
     }
 
     /**
@@ -62,6 +91,20 @@ public class Event extends Task {
      * @throws IllegalArgumentException if either date/time string cannot be parsed
      */
     public Event(String description, String fromString, String toString) {
+        this(description, fromString, toString, null);
+    }
+
+    /**
+     * Constructs a possibly recurring Event task by parsing the start and end of its first
+     * occurrence.
+     *
+     * @param description The event description
+     * @param fromString  The start date/time as a string to be parsed
+     * @param toString    The end date/time as a string to be parsed
+     * @param recurrence  How often the event repeats, or null for a one-off event
+     * @throws IllegalArgumentException if either date/time string cannot be parsed
+     */
+    public Event(String description, String fromString, String toString, Recurrence recurrence) {
         super(description);
         DateTimeUtil.ParseResult fromResult = DateTimeUtil.parseLenientResult(fromString);
         DateTimeUtil.ParseResult toResult = DateTimeUtil.parseLenientResult(toString);
@@ -69,6 +112,7 @@ public class Event extends Task {
         this.to = toResult.dt;
         this.fromHasTime = fromResult.hasTime;
         this.toHasTime = toResult.hasTime;
+        this.recurrence = recurrence;
     }
 
     /**
@@ -89,6 +133,24 @@ public class Event extends Task {
         return to;
     }
 
+    /**
+     * Returns whether the start includes a specific time of day.
+     *
+     * @return true if a start time was given, false for a date-only start
+     */
+    public boolean fromHasTime() {
+        return fromHasTime;
+    }
+
+    /**
+     * Returns whether the end includes a specific time of day.
+     *
+     * @return true if an end time was given, false for a date-only end
+     */
+    public boolean toHasTime() {
+        return toHasTime;
+    }
+
     /**
      * Returns the start date/time formatted for storage.
      *
@@ -107,6 +169,107 @@ public class Event extends Task {
         return DateTimeUtil.toStorageString(to, toHasTime);
     }
 
+    /**
+     * Returns how often the event repeats.
+     *
+     * @return The recurrence rule, or null for a one-off event
+     */
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    /**
+     * Returns whether the event repeats.
+     *
+     * @return true if the event has a recurrence rule
+     */
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Returns the n-th occurrence of this event as a one-off event with the same description and
+     * completion status. The first occurrence is number 0.
+     *
+     * @param n The occurrence number
+     * @return The occurrence; this event itself if it does not repeat
+     */
+    public Event occurrence(long n) {
+        if (recurrence == null) {
+            return this;
+        }
+        Event e = new Event(description,
+            recurrence.advance(from, n), fromHasTime, recurrence.advance(to, n), toHasTime);
+        if (isDone) {
+            e.mark();
+        }
+        return e;
+    }
+
+    /**
+     * Returns the occurrence that takes place on the given date, expanding only the occurrences
+     * near that date.
+     *
+     * @param date The date of interest
+     * @return The occurrence spanning the date, or null if there is none
+     */
+    public Event occurrenceOn(LocalDate date) {
+        if (date.isBefore(from.toLocalDate())) {
+            return null;
+        }
+        long n = recurrence == null ? 0 : recurrence.periodsBetween(from.toLocalDate(), date) + 1;
+        for (; n >= 0; n--) {
+            Event e = occurrence(n);
+            if (e.from.toLocalDate().isAfter(date)) {
+                continue;
+            }
+            // Earlier occurrences end no later than this one, so stop at the first that has ended
+            return e.to.toLocalDate().isBefore(date) ? null : e;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first occurrence that starts at or after the given time.
+     *
+     * @param time The earliest start time of interest
+     * @return The occurrence, or null if this is a one-off event that starts earlier
+     */
+    public Event occurrenceStartingFrom(LocalDateTime time) {
+        if (recurrence == null) {
+            return from.isBefore(time) ? null : this;
+        }
+        return occurrence(occurrenceNumberStartingFrom(time));
+    }
+
+    /**
+     * Returns the number of the first occurrence that starts at or after the given time, as taken
+     * by {@link #occurrence(long)}. Only meaningful for a recurring event.
+     *
+     * @param time The earliest start time of interest
+     * @return The occurrence number
+     */
+    long occurrenceNumberStartingFrom(LocalDateTime time) {
+        long n = from.isBefore(time)
+            ? Math.max(0, recurrence.periodsBetween(from.toLocalDate(), time.toLocalDate()) - 1)
+            : 0;
+        while (recurrence.advance(from, n).isBefore(time)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the next occurrence as seen at the given time. An occurrence without a start time
+     * still counts as next on its own day.
+     *
+     * @param now The current time
+     * @return The occurrence, or null if this is a one-off event that has already started
+     */
+    public Event nextOccurrence(LocalDateTime now) {
+        return occurrenceStartingFrom(fromHasTime ? now : now.toLocalDate().atStartOfDay());
+    }
+
     @Override
     public TaskType getTaskType() {
         return TaskType.EVENT;
@@ -130,6 +293,7 @@ public class Event extends Task {
             + fromStr
             + ", to: "
             + toStr
+            + (recurrence == null ? "" : ", every " + recurrence.getKeyword())
             + ")";
     }
 }
@@ -0,0 +1,225 @@
+package duke.task;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Wraps the backing list of a {@link TaskList} and keeps any registered {@link TaskIndex} in step
+ * with every insert, removal and replacement. Each inserted slot is given an id that survives
+ * replacement of its task, and indexes refer to tasks only by that id. Indexes are registered
+ * lazily, so a list that never asks for a sorted or filtered view pays nothing beyond the id
+ * bookkeeping. Ids are kept in a {@link SlotOrder}, so an index's k results are turned back into
+ * positions in O(k log n) time.
+ */
+final class IndexedTaskStore extends AbstractList<Task> implements RandomAccess {
+    /**
+     * Runs of positions past which one pass over the backing list beats shifting it once per run
+     */
+    private static final int SHIFT_LIMIT = 8;
+
+    private final List<Task> backing;
+    private final List<TaskIndex> indexes = new ArrayList<>();
+    private final SlotOrder order = new SlotOrder();
+
+    IndexedTaskStore(List<Task> backing) {
+        assert backing.isEmpty() : "Backing list must start empty";
+        this.backing = backing;
+    }
+
+    @Override
+    public int size() {
+        return backing.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return backing.get(index);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = backing.set(index, task);
+        long id = order.idAt(index);
+        notifyRemoved(id);
+        notifyAdded(id, task);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        backing.add(index, task);
+        long id = order.insert(index);
+        modCount++;
+        notifyAdded(id, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = backing.get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        backing.subList(fromIndex, toIndex).clear();
+        order.remove(fromIndex, toIndex, this::notifyRemoved);
+        modCount++;
+    }
+
+    /**
+     * Inserts tasks so that, afterwards, each sits at its position. Only the inserted tasks are
+     * given ids and fed to the indexes; the slots already there keep theirs.
+     *
+     * @param positions Strictly ascending positions in the grown list
+     * @param inserted  The task for each position
+     */
+    void insertAll(int[] positions, Task[] inserted) {
+        int size = backing.size();
+        int newSize = size + inserted.length;
+        if (runs(positions) <= SHIFT_LIMIT) {
+            int start = 0;
+            for (int i = 1; i <= positions.length; i++) {
+                if (i == positions.length || positions[i] != positions[i - 1] + 1) {
+                    backing.addAll(positions[start], Arrays.asList(inserted).subList(start, i));
+                    start = i;
+                }
+            }
+        } else {
+            List<Task> merged = new ArrayList<>(newSize);
+            int next = 0;
+            int source = 0;
+            for (int i = 0; i < newSize; i++) {
+                merged.add(next < positions.length && positions[next] == i ? inserted[next++] : backing.get(source++));
+            }
+            backing.clear();
+            backing.addAll(merged);
+        }
+
+        // In ascending order, each slot goes in where the ones before it have already made room
+        for (int i = 0; i < positions.length; i++) {
+            notifyAdded(order.insert(positions[i]), inserted[i]);
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes the tasks at the given positions. Only the removed slots are taken out of the
+     * indexes; the slots that stay keep their ids.
+     *
+     * @param positions Strictly ascending positions in the list
+     * @return The removed tasks, in order
+     */
+    Task[] removeAll(int[] positions) {
+        int size = backing.size();
+        Task[] removed = new Task[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            removed[i] = backing.get(positions[i]);
+        }
+        if (runs(positions) <= SHIFT_LIMIT) {
+            // From the last run, so that the positions still to remove do not move
+            int end = positions.length;
+            for (int i = positions.length - 1; i >= 0; i--) {
+                if (i == 0 || positions[i - 1] != positions[i] - 1) {
+                    backing.subList(positions[i], positions[end - 1] + 1).clear();
+                    end = i;
+                }
+            }
+        } else {
+            int next = 0;
+            int write = 0;
+            for (int read = 0; read < size; read++) {
+                if (next < positions.length && positions[next] == read) {
+                    next++;
+                } else {
+                    backing.set(write++, backing.get(read));
+                }
+            }
+            backing.subList(write, size).clear();
+        }
+
+        int end = positions.length;
+        for (int i = positions.length - 1; i >= 0; i--) {
+            if (i == 0 || positions[i - 1] != positions[i] - 1) {
+                order.remove(positions[i], positions[end - 1] + 1, this::notifyRemoved);
+                end = i;
+            }
+        }
+        modCount++;
+        return removed;
+    }
+
+    private static int runs(int[] positions) {
+        int runs = positions.length == 0 ? 0 : 1;
+        for (int i = 1; i < positions.length; i++) {
+            if (positions[i] != positions[i - 1] + 1) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Registers an index and feeds it every task currently in the store.
+     *
+     * @param index The index to keep up to date from now on
+     */
+    void register(TaskIndex index) {
+        long[] ids = ids();
+        for (int i = 0; i < ids.length; i++) {
+            index.added(ids[i], backing.get(i));
+        }
+        indexes.add(index);
+    }
+
+    /**
+     * Translates slot ids into current positions.
+     *
+     * @param slotIds Ids of occupied slots, e.g. in the order an index reports them
+     * @return The 0-based position of each id, in the same order
+     */
+    int[] positionsOf(long[] slotIds) {
+        int[] out = new int[slotIds.length];
+        for (int i = 0; i < slotIds.length; i++) {
+            out[i] = order.positionOf(slotIds[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the id of every slot, in list order.
+     *
+     * @return The slot ids
+     */
+    long[] ids() {
+        long[] ids = new long[order.size()];
+        int[] next = new int[1];
+        order.forEach(id -> ids[next[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Returns the tasks as they are now, in O(1) if the backing list is persistent.
+     *
+     * @return A list that does not change with the store, or null if the backing list cannot
+     *     take one without copying
+     */
+    List<Task> snapshot() {
+        return backing instanceof PersistentTaskVector vector ? vector.snapshot() : null;
+    }
+
+    private void notifyAdded(long id, Task task) {
+        for (TaskIndex index : indexes) {
+            index.added(id, task);
+        }
+    }
+
+    private void notifyRemoved(long id) {
+        for (TaskIndex index : indexes) {
+            index.removed(id);
+        }
+    }
+}
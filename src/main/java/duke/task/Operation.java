@@ -0,0 +1,243 @@
+package duke.task;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import duke.storage.Change;
+import duke.storage.ExternalChange;
+
+/**
+ * A reversible mutation of the task list. Applying an operation returns its inverse, so the undo
+ * history only stores the few indices and task references each change touched rather than copies
+ * of the whole list. Positions are always 0-based and, where there are several, strictly ascending.
+ */
+abstract class Operation {
+
+    /**
+     * Applies this operation to the given store.
+     *
+     * @param tasks The store to mutate
+     * @return The operation that reverts this one
+     * @throws IndexOutOfBoundsException if a position is out of range
+     */
+    abstract Operation apply(IndexedTaskStore tasks);
+
+    /**
+     * Describes what this operation changed once it has been applied, so that a save can rewrite
+     * only that.
+     *
+     * @return The change to the list
+     */
+    abstract Change change();
+
+    /**
+     * Moves this operation, not yet applied, to fit the list after another instance replaced a run
+     * of it, so that it still affects the same tasks.
+     *
+     * @param other The run another instance replaced
+     * @return The moved operation, or null if it touches a task in that run
+     */
+    abstract Operation rebase(ExternalChange other);
+
+    /**
+     * Returns where the task at a position is after another instance replaced a run of the list,
+     * or -1 if it was in the run.
+     */
+    static int rebase(int position, ExternalChange other) {
+        int end = other.getFrom() + other.getRemoved();
+        if (position < other.getFrom()) {
+            return position;
+        }
+        return position >= end ? position - other.getRemoved() + other.getInserted().size() : -1;
+    }
+
+    /**
+     * Moves positions as {@link #rebase(int, ExternalChange)} does.
+     *
+     * @return The moved positions, or null if any was in the run
+     */
+    static int[] rebase(int[] positions, ExternalChange other) {
+        int[] moved = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            moved[i] = rebase(positions[i], other);
+            if (moved[i] < 0) {
+                return null;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Inserts tasks so that, afterwards, each task sits at its corresponding position.
+     */
+    static final class Insert extends Operation {
+        private final int[] positions;
+        private final Task[] inserted;
+
+        Insert(int[] positions, Task[] inserted) {
+            assert positions.length == inserted.length : "Each inserted task needs a position";
+            this.positions = positions;
+            this.inserted = inserted;
+        }
+
+        Task[] inserted() {
+            return inserted;
+        }
+
+        @Override
+        Operation apply(IndexedTaskStore tasks) {
+            int newSize = tasks.size() + inserted.length;
+            for (int pos : positions) {
+                Objects.checkIndex(pos, newSize);
+            }
+
+            if (inserted.length == 1) {
+                tasks.add(positions[0], inserted[0]);
+            } else {
+                tasks.insertAll(positions, inserted);
+            }
+            return new Remove(positions);
+        }
+
+        @Override
+        Change change() {
+            return Change.inserted(positions);
+        }
+
+        @Override
+        Operation rebase(ExternalChange other) {
+            int from = other.getFrom();
+            int end = from + other.getRemoved();
+            int[] moved = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                // How many of the list's tasks go before it, counted again after the run is replaced.
+                // Inserted at the same place as the other instance's tasks, it goes after them.
+                int before = positions[i] - i;
+                if (before > from || before == from && other.getRemoved() == 0) {
+                    before = before >= end ? before - other.getRemoved() : from;
+                    before += other.getInserted().size();
+                }
+                moved[i] = before + i;
+            }
+            return new Insert(moved, inserted);
+        }
+    }
+
+    /**
+     * Removes the tasks at the given positions, taking only those tasks out of the indexes.
+     */
+    static final class Remove extends Operation {
+        private final int[] positions;
+
+        Remove(int[] positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        Operation apply(IndexedTaskStore tasks) {
+            int size = tasks.size();
+            for (int pos : positions) {
+                Objects.checkIndex(pos, size);
+            }
+
+            if (positions.length == 1) {
+                return new Insert(positions, new Task[] {tasks.remove(positions[0])});
+            }
+            return new Insert(positions, tasks.removeAll(positions));
+        }
+
+        @Override
+        Change change() {
+            return Change.removed(positions);
+        }
+
+        @Override
+        Operation rebase(ExternalChange other) {
+            int[] moved = rebase(positions, other);
+            return moved == null ? null : new Remove(moved);
+        }
+    }
+
+    /**
+     * Sets the completion status of the tasks at the given positions.
+     */
+    static final class SetDone extends Operation {
+        private final int[] positions;
+        private final boolean[] done;
+
+        SetDone(int[] positions, boolean[] done) {
+            assert positions.length == done.length : "Each position needs a status";
+            this.positions = positions;
+            this.done = done;
+        }
+
+        SetDone(int[] positions, boolean done) {
+            this(positions, filled(positions.length, done));
+        }
+
+        private static boolean[] filled(int length, boolean value) {
+            boolean[] values = new boolean[length];
+            Arrays.fill(values, value);
+            return values;
+        }
+
+        @Override
+        Operation apply(IndexedTaskStore tasks) {
+            boolean[] previous = new boolean[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                Task t = tasks.get(positions[i]);
+                previous[i] = t.isDone();
+                if (previous[i] != done[i]) {
+                    // A copy, as snapshots of the list may still hold the task
+                    tasks.set(positions[i], t.withDone(done[i]));
+                }
+            }
+            return new SetDone(positions, previous);
+        }
+
+        @Override
+        Change change() {
+            return Change.inPlace(positions);
+        }
+
+        @Override
+        Operation rebase(ExternalChange other) {
+            int[] moved = rebase(positions, other);
+            return moved == null ? null : new SetDone(moved, done);
+        }
+    }
+
+    /**
+     * Swaps the task at one position for another task.
+     */
+    static final class Replace extends Operation {
+        private final int position;
+        private final Task replacement;
+
+        Replace(int position, Task replacement) {
+            this.position = position;
+            this.replacement = replacement;
+        }
+
+        Task replacement() {
+            return replacement;
+        }
+
+        @Override
+        Operation apply(IndexedTaskStore tasks) {
+            Task previous = tasks.set(position, replacement);
+            return new Replace(position, previous);
+        }
+
+        @Override
+        Change change() {
+            return Change.inPlace(position);
+        }
+
+        @Override
+        Operation rebase(ExternalChange other) {
+            int moved = rebase(position, other);
+            return moved < 0 ? null : new Replace(moved, replacement);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package duke.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A persistent backing list for {@link TaskList}, kept as a tree of small arrays of tasks, each
+ * branch recording how many tasks are under each of its children. A {@link #snapshot()} takes
+ * O(1): it keeps the current root, and no node reachable from it is changed again. The list goes
+ * on changing by copying the nodes on the path to a change the first time that path changes after
+ * a snapshot, and changes those copies in place until the next one. Between snapshots it costs
+ * about what an array list would, apart from a lookup of O(log n) through nodes of up to
+ * {@value #WIDTH} entries.
+ *
+ * <p>Full nodes are split, and empty ones dropped, but nodes are not merged, so a list that
+ * shrinks a lot keeps its depth until it is cleared.
+ */
+final class PersistentTaskVector extends AbstractList<Task> implements RandomAccess {
+    /**
+     * Most tasks in a leaf, and most children of a branch
+     */
+    static final int WIDTH = 32;
+
+    private Node root;
+    private int size;
+
+    /**
+     * Marks the nodes created since the last snapshot, which no snapshot can reach and so may be
+     * changed in place
+     */
+    private Object edit = new Object();
+
+    /**
+     * The last snapshot, handed out again while nothing has changed
+     */
+    private Snapshot last;
+
+    /**
+     * The leaf last read from, so that reading in order does not descend the tree for every task
+     */
+    private Cursor cursor;
+
+    PersistentTaskVector() {
+        root = new Leaf(edit);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        Cursor at = cursor;
+        if (at == null || !at.covers(index)) {
+            at = Cursor.locate(root, index);
+            cursor = at;
+        }
+        return at.leaf.tasks[index - at.start];
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.checkIndex(index, size);
+        cursor = null;
+        root = editable(root);
+        Node node = root;
+        while (node instanceof Branch branch) {
+            int i = 0;
+            while (index >= branch.sizes[i]) {
+                index -= branch.sizes[i];
+                i++;
+            }
+            node = editable(branch.children[i]);
+            branch.children[i] = node;
+        }
+        Leaf leaf = (Leaf) node;
+        Task previous = leaf.tasks[index];
+        leaf.tasks[index] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        cursor = null;
+        root = editable(root);
+        Node split = insert(root, index, task);
+        if (split != null) {
+            Branch grown = new Branch(edit);
+            grown.insert(0, root);
+            grown.insert(1, split);
+            root = grown;
+        }
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts a task under a node that may be changed in place.
+     *
+     * @return The node's new right sibling if it had to be split, or null
+     */
+    private Node insert(Node node, int index, Task task) {
+        if (node instanceof Leaf leaf) {
+            return leaf.insert(edit, index, task);
+        }
+        Branch branch = (Branch) node;
+        int i = 0;
+        // At a boundary, the task goes at the end of the earlier child, so appends stay on the right
+        while (i < branch.count - 1 && index > branch.sizes[i]) {
+            index -= branch.sizes[i];
+            i++;
+        }
+        Node child = editable(branch.children[i]);
+        branch.children[i] = child;
+        Node split = insert(child, index, task);
+        if (split == null) {
+            branch.sizes[i]++;
+            branch.total++;
+            return null;
+        }
+        branch.sizes[i] = child.size();
+        branch.total -= split.size() - 1; // added back as the sibling is inserted
+        return branch.insert(edit, i + 1, split);
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        cursor = null;
+        if (fromIndex == 0 && toIndex == size) {
+            root = new Leaf(edit);
+        } else {
+            // From the end, so that the positions still to remove do not move
+            for (int index = toIndex - 1; index >= fromIndex; index--) {
+                root = editable(root);
+                delete(root, index);
+                if (root instanceof Branch branch && branch.count == 1) {
+                    root = branch.children[0];
+                }
+            }
+        }
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * Deletes a task under a node that may be changed in place.
+     */
+    private void delete(Node node, int index) {
+        if (node instanceof Leaf leaf) {
+            leaf.delete(index);
+            return;
+        }
+        Branch branch = (Branch) node;
+        int i = 0;
+        while (index >= branch.sizes[i]) {
+            index -= branch.sizes[i];
+            i++;
+        }
+        Node child = editable(branch.children[i]);
+        branch.children[i] = child;
+        delete(child, index);
+        branch.sizes[i]--;
+        branch.total--;
+        if (branch.sizes[i] == 0) {
+            branch.delete(i);
+        }
+    }
+
+    /**
+     * Returns the list as it is now, in O(1). The snapshot does not change however this list
+     * changes afterwards, so once safely published it can be read from any thread.
+     *
+     * @return An unmodifiable list of the tasks
+     */
+    List<Task> snapshot() {
+        if (last == null || last.root != root) {
+            edit = new Object(); // freezes every node the snapshot can reach
+            last = new Snapshot(root, size);
+        }
+        return last;
+    }
+
+    private Node editable(Node node) {
+        return node.edit == edit ? node : node.copy(edit);
+    }
+
+    private abstract static class Node {
+        final Object edit;
+        int count;
+
+        Node(Object edit, int count) {
+            this.edit = edit;
+            this.count = count;
+        }
+
+        abstract int size();
+
+        abstract Node copy(Object edit);
+    }
+
+    private static final class Leaf extends Node {
+        final Task[] tasks;
+
+        Leaf(Object edit) {
+            this(edit, new Task[WIDTH], 0);
+        }
+
+        Leaf(Object edit, Task[] tasks, int count) {
+            super(edit, count);
+            this.tasks = tasks;
+        }
+
+        @Override
+        int size() {
+            return count;
+        }
+
+        @Override
+        Node copy(Object edit) {
+            return new Leaf(edit, tasks.clone(), count);
+        }
+
+        /**
+         * Inserts a task, splitting the leaf first if it is full.
+         *
+         * @return The new right sibling if the leaf was split, or null
+         */
+        Leaf insert(Object edit, int index, Task task) {
+            if (count < WIDTH) {
+                System.arraycopy(tasks, index, tasks, index + 1, count - index);
+                tasks[index] = task;
+                count++;
+                return null;
+            }
+            // Appending leaves this leaf full and starts the next, so a list built in order is dense
+            int keep = index == WIDTH ? WIDTH : WIDTH / 2;
+            Leaf right = new Leaf(edit);
+            System.arraycopy(tasks, keep, right.tasks, 0, WIDTH - keep);
+            Arrays.fill(tasks, keep, WIDTH, null);
+            right.count = WIDTH - keep;
+            count = keep;
+            if (index > keep || keep == WIDTH) {
+                right.insert(edit, index - keep, task);
+            } else {
+                insert(edit, index, task);
+            }
+            return right;
+        }
+
+        void delete(int index) {
+            System.arraycopy(tasks, index + 1, tasks, index, count - index - 1);
+            tasks[--count] = null;
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node[] children;
+        final int[] sizes;
+        int total;
+
+        Branch(Object edit) {
+            this(edit, new Node[WIDTH], new int[WIDTH], 0, 0);
+        }
+
+        Branch(Object edit, Node[] children, int[] sizes, int count, int total) {
+            super(edit, count);
+            this.children = children;
+            this.sizes = sizes;
+            this.total = total;
+        }
+
+        @Override
+        int size() {
+            return total;
+        }
+
+        @Override
+        Node copy(Object edit) {
+            return new Branch(edit, children.clone(), sizes.clone(), count, total);
+        }
+
+        /**
+         * Inserts a child, splitting the branch first if it is full.
+         *
+         * @return The new right sibling if the branch was split, or null
+         */
+        Branch insert(Object edit, int index, Node child) {
+            if (count < WIDTH) {
+                insert(index, child);
+                return null;
+            }
+            int keep = index == WIDTH ? WIDTH : WIDTH / 2;
+            Branch right = new Branch(edit);
+            for (int i = keep; i < WIDTH; i++) {
+                right.insert(i - keep, children[i]);
+                total -= sizes[i];
+                children[i] = null;
+                sizes[i] = 0;
+            }
+            count = keep;
+            if (index > keep || keep == WIDTH) {
+                right.insert(index - keep, child);
+            } else {
+                insert(index, child);
+            }
+            return right;
+        }
+
+        private void insert(int index, Node child) {
+            System.arraycopy(children, index, children, index + 1, count - index);
+            System.arraycopy(sizes, index, sizes, index + 1, count - index);
+            children[index] = child;
+            sizes[index] = child.size();
+            total += sizes[index];
+            count++;
+        }
+
+        void delete(int index) {
+            System.arraycopy(children, index + 1, children, index, count - index - 1);
+            System.arraycopy(sizes, index + 1, sizes, index, count - index - 1);
+            count--;
+            children[count] = null;
+            sizes[count] = 0;
+        }
+    }
+
+    /**
+     * A leaf and the position of its first task. A cursor is never changed, so one shared by
+     * readers of a snapshot on different threads is always whole.
+     */
+    private static final class Cursor {
+        final Leaf leaf;
+        final int start;
+
+        private Cursor(Leaf leaf, int start) {
+            this.leaf = leaf;
+            this.start = start;
+        }
+
+        static Cursor locate(Node node, int index) {
+            int start = 0;
+            while (node instanceof Branch branch) {
+                int i = 0;
+                while (index - start >= branch.sizes[i]) {
+                    start += branch.sizes[i];
+                    i++;
+                }
+                node = branch.children[i];
+            }
+            return new Cursor((Leaf) node, start);
+        }
+
+        boolean covers(int index) {
+            return index >= start && index - start < leaf.count;
+        }
+    }
+
+    /**
+     * The list as it was when {@link #snapshot()} was called.
+     */
+    private static final class Snapshot extends AbstractList<Task> implements RandomAccess {
+        private final Node root;
+        private final int size;
+        private Cursor cursor;
+
+        Snapshot(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            Cursor at = cursor;
+            if (at == null || !at.covers(index)) {
+                at = Cursor.locate(root, index);
+                cursor = at;
+            }
+            return at.leaf.tasks[index - at.start];
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package duke.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * How a {@link TaskQuery} is answered: one source that produces candidate tasks, usually the most
+ * selective index available, followed by filters that check the remaining conditions on each
+ * candidate. Executing the plan records how many tasks each step produced and how long it took, so
+ * {@link #describe()} shows where a slow query spends its time.
+ *
+ * <p>Results are ranked by relevance when the query has search words, and are in list order
+ * otherwise. A query of words alone that matches no whole word falls back to substring matching.
+ */
+public final class QueryPlan {
+    private final IndexedTaskStore tasks;
+    private final Source source;
+    private final List<Filter> filters;
+    private final List<Source> rejected;
+    private final ToDoubleFunction<Long> scorer;
+    private final String substringFallback;
+
+    private final int[] counts;
+    private final long[] nanos;
+    private boolean executed;
+    private boolean fellBack;
+
+    /**
+     * Creates a plan.
+     *
+     * @param tasks             The store to resolve positions against
+     * @param source            The step producing candidates
+     * @param filters           The checks applied to candidates, in order
+     * @param rejected          The other sources that were considered, for explaining the choice
+     * @param scorer            Relevance of a candidate by slot id, or null to keep list order
+     * @param substringFallback Text to match as a substring if nothing else matches, or null
+     */
+    QueryPlan(IndexedTaskStore tasks, Source source, List<Filter> filters, List<Source> rejected,
+            ToDoubleFunction<Long> scorer, String substringFallback) {
+        this.tasks = tasks;
+        this.source = source;
+        this.filters = filters;
+        this.rejected = rejected;
+        this.scorer = scorer;
+        this.substringFallback = substringFallback;
+        this.counts = new int[filters.size() + 1];
+        this.nanos = new long[filters.size() + 1];
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @return The 0-based positions of matching tasks, ranked if the query has words
+     */
+    public int[] execute() {
+        long start = System.nanoTime();
+        long[] ids;
+        int[] positions;
+        if (source.ids() == null) {
+            ids = tasks.ids();
+            positions = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                positions[i] = i;
+            }
+        } else {
+            ids = source.ids().get();
+            positions = tasks.positionsOf(ids);
+        }
+        int count = ids.length;
+        record(0, count, start);
+
+        for (int f = 0; f < filters.size(); f++) {
+            start = System.nanoTime();
+            Check check = filters.get(f).check();
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (check.test(ids[i], positions[i])) {
+                    ids[kept] = ids[i];
+                    positions[kept] = positions[i];
+                    kept++;
+                }
+            }
+            count = kept;
+            record(f + 1, count, start);
+        }
+        executed = true;
+
+        fellBack = count == 0 && substringFallback != null;
+        if (fellBack) {
+            String lower = substringFallback.toLowerCase();
+            positions = new int[tasks.size()];
+            for (int i = 0; i < positions.length; i++) {
+                if (tasks.get(i).getDescription().toLowerCase().contains(lower)) {
+                    positions[count++] = i;
+                }
+            }
+            return Arrays.copyOf(positions, count);
+        }
+        return order(ids, positions, count);
+    }
+
+    private int[] order(long[] ids, int[] positions, int count) {
+        if (scorer == null) {
+            int[] out = Arrays.copyOf(positions, count);
+            Arrays.sort(out);
+            return out;
+        }
+        List<Ranked> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranked.add(new Ranked(positions[i], scorer.applyAsDouble(ids[i])));
+        }
+        ranked.sort(Comparator.comparingDouble(Ranked::score).reversed().thenComparingInt(Ranked::position));
+        int[] out = new int[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = ranked.get(i).position();
+        }
+        return out;
+    }
+
+    private void record(int step, int count, long start) {
+        counts[step] = count;
+        nanos[step] = System.nanoTime() - start;
+    }
+
+    /**
+     * Describes the plan one step per line, with the number of tasks each step produced and its
+     * time once the plan has been executed.
+     *
+     * @return The lines of the description
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add("1. " + source.description() + " (estimate " + source.estimate() + ")" + result(0));
+        for (int f = 0; f < filters.size(); f++) {
+            lines.add((f + 2) + ". filter " + filters.get(f).description() + result(f + 1));
+        }
+        lines.add("Order: " + (scorer == null ? "list order" : "by relevance"));
+        if (fellBack) {
+            lines.add("No whole-word matches, so matched '" + substringFallback + "' as a substring instead");
+        }
+        if (!rejected.isEmpty()) {
+            List<String> others = new ArrayList<>();
+            for (Source s : rejected) {
+                others.add(s.description() + " (estimate " + s.estimate() + ")");
+            }
+            lines.add("Also considered: " + String.join("; ", others));
+        }
+        return lines;
+    }
+
+    private String result(int step) {
+        if (!executed) {
+            return "";
+        }
+        return String.format(" -> %d task(s) in %.2f ms", counts[step], nanos[step] / 1e6);
+    }
+
+    /**
+     * Tests one candidate, given its slot id and current position.
+     */
+    @FunctionalInterface
+    interface Check {
+        boolean test(long id, int position);
+    }
+
+    /**
+     * A way of producing candidates; ids is null for a scan of the whole list.
+     */
+    record Source(String description, int estimate, Supplier<long[]> ids) {
+    }
+
+    /**
+     * A condition checked on each candidate; cheaper filters run first.
+     */
+    record Filter(String description, int cost, Check check) {
+    }
+
+    private record Ranked(int position, double score) {
+    }
+}
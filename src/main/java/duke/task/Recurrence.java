@@ -0,0 +1,73 @@
+package duke.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * How often a recurring event repeats. A recurring event is stored once, as its first occurrence
+ * plus one of these rules, and later occurrences are computed only when a query needs them.
+ */
+public enum Recurrence {
+    DAILY("day", ChronoUnit.DAYS),
+    WEEKLY("week", ChronoUnit.WEEKS),
+    MONTHLY("month", ChronoUnit.MONTHS);
+
+    private final String keyword;
+    private final ChronoUnit unit;
+
+    Recurrence(String keyword, ChronoUnit unit) {
+        this.keyword = keyword;
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the keyword used after {@code /every} and in storage, e.g. "week".
+     *
+     * @return The keyword
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up a rule by its keyword, ignoring case and surrounding whitespace.
+     *
+     * @param keyword The keyword typed by the user or read from storage
+     * @return The matching rule, or null if there is none
+     */
+    public static Recurrence fromKeyword(String keyword) {
+        String k = keyword.trim().toLowerCase(Locale.ROOT);
+        for (Recurrence r : values()) {
+            if (r.keyword.equals(k)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the date/time of the n-th repetition of the given first occurrence. Monthly rules keep
+     * the original day of month where possible, e.g. the 31st falls on the 30th in shorter months.
+     *
+     * @param first The first occurrence
+     * @param n     The number of periods to advance, 0 for the first occurrence itself
+     * @return The shifted date/time
+     */
+    public LocalDateTime advance(LocalDateTime first, long n) {
+        return first.plus(n, unit);
+    }
+
+    /**
+     * Returns the number of whole periods from the first date to the second. This is an estimate of
+     * which occurrence falls near a date; callers check the neighbouring occurrences as well.
+     *
+     * @param first The date of the first occurrence
+     * @param date  The date of interest, not before the first
+     * @return The number of whole periods in between
+     */
+    long periodsBetween(LocalDate first, LocalDate date) {
+        return unit.between(first, date);
+    }
+}
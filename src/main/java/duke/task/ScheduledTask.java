@@ -0,0 +1,35 @@
+package duke.task;
+
+/**
+ * A task as it falls in a window of time, as returned by {@link TaskList#upcoming}: a deadline or
+ * one-off event itself, or one occurrence of a recurring event, together with the position of the
+ * task in the list.
+ */
+public final class ScheduledTask {
+    private final int position;
+    private final Task task;
+
+    ScheduledTask(int position, Task task) {
+        this.position = position;
+        this.task = task;
+    }
+
+    /**
+     * Returns the position in the list of the task, or of the recurring event the occurrence is
+     * part of.
+     *
+     * @return The 0-based position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the task, or for a recurring event the occurrence that falls in the window.
+     *
+     * @return The task or occurrence
+     */
+    public Task getTask() {
+        return task;
+    }
+}
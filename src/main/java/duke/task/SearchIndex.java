@@ -0,0 +1,418 @@
+package duke.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A full-text index over task descriptions. Descriptions are split into lower-case words and kept
+ * in an inverted index with per-task term frequencies, which answers queries without looking at
+ * tasks that share no word with the query. Each query word may be exact, a prefix ("rep*") or, for
+ * longer words, a near miss within a small edit distance. Results are ranked with BM25.
+ *
+ * <p>A task matches only if every query word matches one of its words. Exact matches count in
+ * full; prefix and fuzzy expansions are discounted so that they rank below exact hits.
+ */
+final class SearchIndex implements TaskIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final String PREFIX_MARKER = "*";
+
+    /**
+     * Term dictionary, sorted so that prefix queries are a range scan
+     */
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final BkTree fuzzyTerms = new BkTree();
+    private long totalLength;
+
+    @Override
+    public void added(long id, Task task) {
+        List<String> tokens = tokenize(task.getDescription());
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> e : frequencies.entrySet()) {
+            Map<Long, Integer> docs = postings.get(e.getKey());
+            if (docs == null) {
+                docs = new HashMap<>();
+                postings.put(e.getKey(), docs);
+                if (maxEditDistance(e.getKey()) > 0) {
+                    fuzzyTerms.add(e.getKey());
+                }
+            }
+            docs.put(id, e.getValue());
+        }
+        documents.put(id, new Document(frequencies.keySet().toArray(new String[0]), tokens.size()));
+        totalLength += tokens.size();
+    }
+
+    @Override
+    public void removed(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Integer> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+        if (fuzzyTerms.size() > 2 * postings.size() + 64) {
+            fuzzyTerms.rebuild(postings.keySet().stream().filter(t -> maxEditDistance(t) > 0).toList());
+        }
+    }
+
+    /**
+     * Returns the ids of tasks matching every word of the query, best match first.
+     *
+     * @param query The search words; a trailing "*" makes a word a prefix
+     * @return Matching slot ids with their scores, highest score first
+     */
+    List<Hit> search(String query) {
+        List<Word> words = parseWords(query);
+        if (words.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        for (Word word : words) {
+            Map<Long, Double> wordScores = scoreWord(word.term(), word.prefix());
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Long, Double> both = new HashMap<>();
+                for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                    Double s = wordScores.get(e.getKey());
+                    if (s != null) {
+                        both.put(e.getKey(), e.getValue() + s);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id));
+        return hits;
+    }
+
+    /**
+     * Estimates how many tasks can match the query from the sizes of its posting lists, without
+     * reading them. Words that would be matched by typo tolerance are assumed to match anything.
+     *
+     * @param query The search words
+     * @return An upper bound on the number of matching tasks
+     */
+    int estimate(String query) {
+        int best = documents.size();
+        for (Word word : parseWords(query)) {
+            Map<Long, Integer> exact = postings.get(word.term());
+            if (exact == null && maxEditDistance(word.term()) > 0) {
+                continue;
+            }
+            int count = exact == null ? 0 : exact.size();
+            if (word.prefix()) {
+                SortedMap<String, Map<Long, Integer>> range =
+                    postings.subMap(word.term(), word.term() + Character.MAX_VALUE);
+                for (Map<Long, Integer> docs : range.values()) {
+                    count += docs.size();
+                    if (count >= best) {
+                        break;
+                    }
+                }
+            }
+            best = Math.min(best, count);
+        }
+        return best;
+    }
+
+    /**
+     * Scores a single task against the query using only that task's own words, so that a handful of
+     * candidates found through another index can be checked without reading whole posting lists.
+     * Gives the same score as {@link #search(String)} would.
+     *
+     * @param id    The slot id of the task
+     * @param query The search words
+     * @return The task's score, or 0 if it does not match every word
+     */
+    double score(long id, String query) {
+        Document document = documents.get(id);
+        if (document == null) {
+            return 0;
+        }
+        double total = 0;
+        for (Word word : parseWords(query)) {
+            boolean fuzzy = !postings.containsKey(word.term());
+            int maxDistance = maxEditDistance(word.term());
+            double best = 0;
+            for (String term : document.terms()) {
+                double weight = 0;
+                if (term.equals(word.term())) {
+                    weight = 1.0;
+                } else if (word.prefix() && term.startsWith(word.term())) {
+                    weight = PREFIX_WEIGHT;
+                } else if (fuzzy && maxEditDistance(term) > 0 && editDistance(word.term(), term) <= maxDistance) {
+                    weight = FUZZY_WEIGHT;
+                }
+                if (weight > 0) {
+                    Map<Long, Integer> docs = postings.get(term);
+                    best = Math.max(best, termScore(weight, docs.size(), docs.get(id), document.length()));
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Splits a query into words, remembering which were written with a trailing "*".
+     */
+    private static List<Word> parseWords(String query) {
+        List<Word> words = new ArrayList<>();
+        for (String raw : query.trim().split("\\s+")) {
+            List<String> tokens = tokenize(raw);
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                words.add(new Word(tokens.get(i), last && raw.endsWith(PREFIX_MARKER)));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Scores every task containing the word or one of its expansions, keeping each task's best.
+     */
+    private Map<Long, Double> scoreWord(String word, boolean prefix) {
+        Map<Long, Double> best = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(word);
+        if (exact != null) {
+            addScores(best, exact, 1.0);
+        }
+        if (prefix) {
+            SortedMap<String, Map<Long, Integer>> range = postings.subMap(word, word + Character.MAX_VALUE);
+            for (Map.Entry<String, Map<Long, Integer>> e : range.entrySet()) {
+                if (!e.getKey().equals(word)) {
+                    addScores(best, e.getValue(), PREFIX_WEIGHT);
+                }
+            }
+        }
+        int maxDistance = maxEditDistance(word);
+        if (exact == null && maxDistance > 0) {
+            for (String term : fuzzyTerms.within(word, maxDistance)) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    addScores(best, docs, FUZZY_WEIGHT);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void addScores(Map<Long, Double> best, Map<Long, Integer> docs, double weight) {
+        for (Map.Entry<Long, Integer> e : docs.entrySet()) {
+            int length = documents.get(e.getKey()).length();
+            best.merge(e.getKey(), termScore(weight, docs.size(), e.getValue(), length), Math::max);
+        }
+    }
+
+    /**
+     * BM25 contribution of one term to one task.
+     */
+    private double termScore(double weight, int documentFrequency, int tf, int length) {
+        double n = documents.size();
+        double idf = Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        double avgLength = Math.max(1.0, (double) totalLength / n);
+        return weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    /**
+     * Returns whether every word of a query matches a word of the text, exactly, as a prefix or
+     * with a small typo, without building an index. Used for tasks that are not in the index, one
+     * at a time.
+     *
+     * @param query The search words
+     * @param text  The text to match against
+     * @return true if every query word matches
+     */
+    static boolean matches(String query, String text) {
+        List<String> tokens = tokenize(text);
+        for (Word word : parseWords(query)) {
+            String term = word.term();
+            int maxDistance = maxEditDistance(term);
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.equals(term) || word.prefix() && token.startsWith(term)
+                        || maxDistance > 0 && maxEditDistance(token) > 0 && editDistance(term, token) <= maxDistance) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     *
+     * @param text The text to split
+     * @return The words in order, possibly repeated
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Short words get no typo tolerance, since one edit already turns them into unrelated words, and
+     * neither do words with digits: "q3" and "q4", or two room numbers, are not typos of each other.
+     */
+    private static int maxEditDistance(String word) {
+        if (word.length() < 4 || word.chars().anyMatch(Character::isDigit)) {
+            return 0;
+        }
+        return word.length() < 8 ? 1 : 2;
+    }
+
+    static int editDistance(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] t = prev;
+            prev = curr;
+            curr = t;
+        }
+        return prev[b.length()];
+    }
+
+    /**
+     * The distinct terms and word count of one indexed description, kept for removal and scoring.
+     */
+    private record Document(String[] terms, int length) {
+    }
+
+    /**
+     * One query word; a prefix word also matches longer words starting with it.
+     */
+    private record Word(String term, boolean prefix) {
+    }
+
+    /**
+     * A match for a search, identified by slot id.
+     */
+    record Hit(long id, double score) {
+    }
+
+    /**
+     * A BK-tree of terms for edit-distance lookups. Removed terms stay in the tree until the next
+     * rebuild; callers skip terms that no longer have postings.
+     */
+    private static final class BkTree {
+        private Node root;
+        private int size;
+
+        void add(String term) {
+            if (root == null) {
+                root = new Node(term);
+                size++;
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int d = editDistance(term, node.term);
+                if (d == 0) {
+                    return;
+                }
+                Node child = node.children.get(d);
+                if (child == null) {
+                    node.children.put(d, new Node(term));
+                    size++;
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        List<String> within(String term, int maxDistance) {
+            List<String> out = new ArrayList<>();
+            List<Node> pending = new ArrayList<>();
+            if (root != null) {
+                pending.add(root);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                int d = editDistance(term, node.term);
+                if (d <= maxDistance) {
+                    out.add(node.term);
+                }
+                for (Map.Entry<Integer, Node> e : node.children.entrySet()) {
+                    if (Math.abs(e.getKey() - d) <= maxDistance) {
+                        pending.add(e.getValue());
+                    }
+                }
+            }
+            return out;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void rebuild(Iterable<String> terms) {
+            root = null;
+            size = 0;
+            for (String term : terms) {
+                add(term);
+            }
+        }
+
+        private static final class Node {
+            private final String term;
+            private final Map<Integer, Node> children = new HashMap<>(4);
+
+            Node(String term) {
+                this.term = term;
+            }
+        }
+    }
+}
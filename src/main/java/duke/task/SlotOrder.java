@@ -0,0 +1,255 @@
+package duke.task;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * The order of the slots of an {@link IndexedTaskStore}: a treap without keys, in which a slot's
+ * place in an in-order walk is its position in the list. Every node counts the nodes under it, so
+ * finding the slot at a position, finding the position of a slot, and inserting or removing one
+ * each take O(log n) expected time, however far the list shifts.
+ *
+ * <p>A slot id is the number of its node in parallel arrays of links, counts and priorities, about
+ * 20 bytes a slot. The ids of removed slots are reused, after their removal has been reported.
+ */
+final class SlotOrder {
+    private static final int NONE = -1;
+
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int[] parent = new int[16];
+    private int[] size = new int[16];
+    private int[] priority = new int[16];
+    private int root = NONE;
+
+    /**
+     * Removed nodes to reuse, linked through {@link #right}
+     */
+    private int free = NONE;
+    private int allocated;
+    private int seed = 0x2545F491;
+
+    /**
+     * Results of the last {@link #split(int, int)}
+     */
+    private int splitLeft;
+    private int splitRight;
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the id of the slot at a position.
+     */
+    long idAt(int position) {
+        int t = root;
+        while (true) {
+            int before = sizeOf(left[t]);
+            if (position < before) {
+                t = left[t];
+            } else if (position == before) {
+                return t;
+            } else {
+                position -= before + 1;
+                t = right[t];
+            }
+        }
+    }
+
+    /**
+     * Returns the position of a slot.
+     */
+    int positionOf(long id) {
+        int t = (int) id;
+        int position = sizeOf(left[t]);
+        for (int p = parent[t]; p != NONE; t = p, p = parent[p]) {
+            if (right[p] == t) {
+                position += sizeOf(left[p]) + 1;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Inserts a new slot at a position.
+     *
+     * @return The id of the new slot
+     */
+    long insert(int position) {
+        int node = allocate();
+        split(root, position);
+        int after = splitRight;
+        root = merge(merge(splitLeft, node), after);
+        parent[root] = NONE;
+        return node;
+    }
+
+    /**
+     * Removes the slots from one position up to another, passing their ids in order to a consumer
+     * before they can be reused.
+     */
+    void remove(int from, int to, LongConsumer removed) {
+        split(root, to);
+        int after = splitRight;
+        split(splitLeft, from);
+        int before = splitLeft;
+        int middle = splitRight;
+        root = merge(before, after);
+        if (root != NONE) {
+            parent[root] = NONE;
+        }
+        forEach(middle, removed);
+        release(middle);
+    }
+
+    /**
+     * Passes the id of every slot to a consumer, in list order.
+     */
+    void forEach(LongConsumer action) {
+        forEach(root, action);
+    }
+
+    private void forEach(int t, LongConsumer action) {
+        // Down the left spine, then back up through parents, so no stack is needed
+        if (t == NONE) {
+            return;
+        }
+        int top = parent[t];
+        while (left[t] != NONE) {
+            t = left[t];
+        }
+        while (t != top) {
+            action.accept(t);
+            if (right[t] != NONE) {
+                t = right[t];
+                while (left[t] != NONE) {
+                    t = left[t];
+                }
+            } else {
+                int child = t;
+                t = parent[t];
+                while (t != top && right[t] == child) {
+                    child = t;
+                    t = parent[t];
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits a subtree into its first k nodes and the rest, left in {@link #splitLeft} and
+     * {@link #splitRight}.
+     */
+    private void split(int t, int k) {
+        if (t == NONE) {
+            splitLeft = NONE;
+            splitRight = NONE;
+            return;
+        }
+        int before = sizeOf(left[t]);
+        if (k <= before) {
+            split(left[t], k);
+            setLeft(t, splitRight);
+            splitRight = t;
+        } else {
+            split(right[t], k - before - 1);
+            setRight(t, splitLeft);
+            splitLeft = t;
+        }
+        size[t] = 1 + sizeOf(left[t]) + sizeOf(right[t]);
+        parent[t] = NONE;
+    }
+
+    /**
+     * Joins two subtrees, all of the first before all of the second.
+     */
+    private int merge(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            setRight(a, merge(right[a], b));
+            size[a] = 1 + sizeOf(left[a]) + sizeOf(right[a]);
+            return a;
+        }
+        setLeft(b, merge(a, left[b]));
+        size[b] = 1 + sizeOf(left[b]) + sizeOf(right[b]);
+        return b;
+    }
+
+    private void setLeft(int t, int child) {
+        left[t] = child;
+        if (child != NONE) {
+            parent[child] = t;
+        }
+    }
+
+    private void setRight(int t, int child) {
+        right[t] = child;
+        if (child != NONE) {
+            parent[child] = t;
+        }
+    }
+
+    private int sizeOf(int t) {
+        return t == NONE ? 0 : size[t];
+    }
+
+    private int allocate() {
+        int node;
+        if (free != NONE) {
+            node = free;
+            free = right[node];
+        } else {
+            if (allocated == left.length) {
+                int capacity = allocated + (allocated >> 1);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                size = Arrays.copyOf(size, capacity);
+                priority = Arrays.copyOf(priority, capacity);
+            }
+            node = allocated++;
+        }
+        // xorshift, so that the shape, and the ids handed out, are the same from run to run
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        priority[node] = seed;
+        left[node] = NONE;
+        right[node] = NONE;
+        parent[node] = NONE;
+        size[node] = 1;
+        return node;
+    }
+
+    /**
+     * Puts every node of a detached subtree on the free list.
+     */
+    private void release(int t) {
+        if (t == NONE) {
+            return;
+        }
+        int[] stack = new int[64];
+        int depth = 0;
+        stack[depth++] = t;
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (depth + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (left[node] != NONE) {
+                stack[depth++] = left[node];
+            }
+            if (right[node] != NONE) {
+                stack[depth++] = right[node];
+            }
+            right[node] = free;
+            free = node;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package duke.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * The orderings available to {@code list /sort}. Tasks without the relevant date (such as todos
+ * when sorting by due date) are listed last, in the order they were added. A recurring event is
+ * placed by its next occurrence, as {@code upcoming} lists it, so its key changes with time.
+ */
+public enum SortOrder {
+    /**
+     * By deadline due date, or event end
+     */
+    DUE("due"),
+
+    /**
+     * By event start, or deadline due date
+     */
+    START("start"),
+
+    /**
+     * Incomplete tasks first, then completed ones
+     */
+    DONE("done");
+
+    private final String keyword;
+
+    SortOrder(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword used for this order after {@code /sort}.
+     *
+     * @return The keyword, e.g. "due"
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up an order by its keyword, ignoring case and surrounding whitespace.
+     *
+     * @param keyword The keyword typed by the user
+     * @return The matching order, or null if there is none
+     */
+    public static SortOrder fromKeyword(String keyword) {
+        String k = keyword.trim().toLowerCase(Locale.ROOT);
+        for (SortOrder order : values()) {
+            if (order.keyword.equals(k)) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the sort key of a task under this order; smaller keys are listed first.
+     */
+    long keyOf(Task t) {
+        switch (this) {
+        case DUE:
+            if (t instanceof Deadline d) {
+                return epochMinutes(d.getByDateTime().toEpochSecond(ZoneOffset.UTC));
+            } else if (t instanceof Event e) {
+                return epochMinutes(e.getToDateTime().toEpochSecond(ZoneOffset.UTC));
+            }
+            return Long.MAX_VALUE;
+        case START:
+            if (t instanceof Deadline d) {
+                return epochMinutes(d.getByDateTime().toEpochSecond(ZoneOffset.UTC));
+            } else if (t instanceof Event e) {
+                return epochMinutes(e.getFromDateTime().toEpochSecond(ZoneOffset.UTC));
+            }
+            return Long.MAX_VALUE;
+        case DONE:
+            return t.isDone() ? 1 : 0;
+        default:
+            throw new IllegalStateException("Unknown sort order");
+        }
+    }
+
+    /**
+     * Returns the sort key of a task as seen at the given time: under DUE and START, a recurring
+     * event is keyed by its next occurrence; every other key is the same whatever the time.
+     */
+    long keyOf(Task t, LocalDateTime now) {
+        return movesWithTime(t) ? keyOf(((Event) t).nextOccurrence(now)) : keyOf(t);
+    }
+
+    /**
+     * Returns whether a task's key under this order depends on the time it is asked for.
+     */
+    boolean movesWithTime(Task t) {
+        return this != DONE && t instanceof Event e && e.isRecurring();
+    }
+
+    /**
+     * Returns the key that a task due at the given time would have under DUE or START.
+     */
+    static long keyOf(LocalDateTime dateTime) {
+        return epochMinutes(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static long epochMinutes(long epochSeconds) {
+        return Math.floorDiv(epochSeconds, 60);
+    }
+}
@@ -0,0 +1,138 @@
+package duke.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the tasks of an {@link IndexedTaskStore} ordered by a {@link SortOrder}. Entries are keyed
+ * by (sort key, slot id), so ties fall back to the order in which tasks were added, and each
+ * insert or removal costs O(log n) instead of re-sorting the whole list for every listing.
+ *
+ * <p>Tasks whose key changes with time, i.e. recurring events under a date order, are kept aside
+ * and keyed afresh by each query, which merges them in; a list holds few of them.
+ */
+final class SortedTaskIndex implements TaskIndex {
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparingLong(Entry::key).thenComparingLong(Entry::id);
+
+    private final SortOrder order;
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<Long, Long> keysById = new HashMap<>();
+    private final Map<Long, Task> moving = new TreeMap<>();
+
+    SortedTaskIndex(SortOrder order) {
+        this.order = order;
+    }
+
+    @Override
+    public void added(long id, Task task) {
+        if (order.movesWithTime(task)) {
+            moving.put(id, task);
+            return;
+        }
+        long key = order.keyOf(task);
+        entries.add(new Entry(key, id));
+        keysById.put(id, key);
+    }
+
+    @Override
+    public void removed(long id) {
+        if (moving.remove(id) != null) {
+            return;
+        }
+        Long key = keysById.remove(id);
+        if (key != null) {
+            entries.remove(new Entry(key, id));
+        }
+    }
+
+    /**
+     * Returns the slot ids of all tasks in sorted order.
+     *
+     * @param now The time at which keys that change with time are taken
+     * @return The ids, smallest key first
+     */
+    long[] orderedIds(LocalDateTime now) {
+        return merge(entries, movingBetween(Long.MIN_VALUE, Long.MAX_VALUE, now));
+    }
+
+    /**
+     * Returns the slot ids of tasks whose key is at least fromKey and below toKey, in sorted order.
+     *
+     * @param fromKey The inclusive lower bound
+     * @param toKey   The exclusive upper bound
+     * @param now     The time at which keys that change with time are taken
+     * @return The ids, smallest key first
+     */
+    long[] idsBetween(long fromKey, long toKey, LocalDateTime now) {
+        return merge(range(fromKey, toKey), movingBetween(fromKey, toKey, now));
+    }
+
+    /**
+     * Counts the tasks whose key is at least fromKey and below toKey, giving up once the count
+     * reaches the limit.
+     *
+     * @param fromKey The inclusive lower bound
+     * @param toKey   The exclusive upper bound
+     * @param limit   The count at which to stop
+     * @param now     The time at which keys that change with time are taken
+     * @return The number of tasks in the range, or the limit if there are at least that many
+     */
+    int countBetween(long fromKey, long toKey, int limit, LocalDateTime now) {
+        int count = movingBetween(fromKey, toKey, now).size();
+        for (Iterator<Entry> it = range(fromKey, toKey).iterator(); it.hasNext() && count < limit; it.next()) {
+            count++;
+        }
+        return Math.min(count, limit);
+    }
+
+    /**
+     * Returns the tasks kept aside whose key, taken now, is in the range, in sorted order.
+     */
+    private List<Entry> movingBetween(long fromKey, long toKey, LocalDateTime now) {
+        List<Entry> matches = new ArrayList<>();
+        for (Map.Entry<Long, Task> m : moving.entrySet()) {
+            long key = order.keyOf(m.getValue(), now);
+            if (key >= fromKey && key < toKey) {
+                matches.add(new Entry(key, m.getKey()));
+            }
+        }
+        matches.sort(ORDER);
+        return matches;
+    }
+
+    private static long[] merge(NavigableSet<Entry> indexed, List<Entry> moving) {
+        long[] ids = new long[indexed.size() + moving.size()];
+        int i = 0;
+        int m = 0;
+        for (Entry e : indexed) {
+            while (m < moving.size() && ORDER.compare(moving.get(m), e) < 0) {
+                ids[i++] = moving.get(m++).id();
+            }
+            ids[i++] = e.id();
+        }
+        while (m < moving.size()) {
+            ids[i++] = moving.get(m++).id();
+        }
+        return ids;
+    }
+
+    private NavigableSet<Entry> range(long fromKey, long toKey) {
+        if (fromKey >= toKey) {
+            return Collections.emptyNavigableSet();
+        }
+        return entries.subSet(new Entry(fromKey, Long.MIN_VALUE), true, new Entry(toKey, Long.MIN_VALUE), false);
+    }
+
+    private record Entry(long key, long id) {
+    }
+}
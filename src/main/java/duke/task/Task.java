@@ -8,7 +8,7 @@ package duke.task;
  * @author Your Name
  * @version 1.0
  */
-public abstract class Task {
+public abstract class Task implements Cloneable {
 
     /**
      * The description of the task
@@ -22,6 +22,8 @@ public abstract class Task {
 
     /**
      * Constructs a Task with the specified description. The task is initially marked as not done.
+     * Descriptions that are read or typed in should be passed through {@link DescriptionInterner}
+     * first; copies of a task pass on the instance it already holds.
      *
      * @param description The description of the task
      */
@@ -65,6 +67,24 @@ public abstract class Task {
         isDone = false;
     }
 
+    /**
+     * Returns a copy of this task with the given completion status, leaving this one as it is, so
+     * that snapshots of a list holding it do not see the change.
+     *
+     * @param done Whether the copy is marked as completed
+     * @return The copy
+     */
+    Task withDone(boolean done) {
+        Task copy;
+        try {
+            copy = (Task) clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new AssertionError(ex);
+        }
+        copy.isDone = done;
+        return copy;
+    }
+
     /**
      * Returns a status icon representing the completion status.
      *
@@ -0,0 +1,26 @@
+package duke.task;
+
+/**
+ * A secondary index over the tasks of a {@link TaskList}. Every slot in the list carries an id that
+ * never changes while the slot exists, so an index can track tasks by id without caring how
+ * positions shift as other tasks are inserted or removed. Callbacks arrive on the thread that
+ * mutates the list.
+ */
+public interface TaskIndex {
+
+    /**
+     * Called after a task has been placed in a slot.
+     *
+     * @param id   The id of the new slot
+     * @param task The task now held in it
+     */
+    void added(long id, Task task);
+
+    /**
+     * Called after the task in a slot has been removed, or just before a replacement task is
+     * reported for the same id.
+     *
+     * @param id The id of the slot
+     */
+    void removed(long id);
+}
@@ -1,27 +1,85 @@
 package duke.task;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
+import duke.storage.ExternalChange;
 import duke.storage.Storage;
 
 /**
  * Represents the collection of tasks in the Duke application. Manages a list of tasks and handles
  * persistence through Storage. Provides methods for adding, removing, marking, and querying tasks.
+ * Every mutation is recorded as its inverse {@link Operation} so it can be undone and redone.
  */
 public class TaskList {
+    /**
+     * Default number of mutations that can be undone
+     */
+    public static final int DEFAULT_HISTORY_DEPTH = 50;
+
+    /**
+     * The list of tasks managed by this TaskList, over either a PersistentTaskVector or a
+     * ColumnarTaskStore
+     */
+    private final IndexedTaskStore tasks;
+
+    /**
+     * A snapshot of the list as of the last completed change, or null if the store cannot take one
+     * without copying
+     */
+    private volatile List<Task> published;
 
     /**
-     * The list of tasks managed by this TaskList
+     * Sorted views, created the first time each order is requested and then kept up to date
      */
-    private final List<Task> tasks = new ArrayList<>();
+    private final Map<SortOrder, SortedTaskIndex> sortIndexes = new EnumMap<>(SortOrder.class);
+
+    /**
+     * Time index of incomplete deadlines and events, created on the first overdue/upcoming query
+     */
+    private DueTimeIndex dueIndex;
+
+    /**
+     * Bits for which tasks are done, created on the first query filtering on completion
+     */
+    private DoneIndex doneIndex;
+
+    /**
+     * Full-text index of descriptions, created on the first search
+     */
+    private SearchIndex searchIndex;
 
     /**
      * The storage system for persisting tasks
      */
     private final Storage storage;
 
+    /**
+     * Inverse operations of recent mutations, most recent first
+     */
+    private final Deque<HistoryEntry> undoHistory = new ArrayDeque<>();
+
+    /**
+     * Inverse operations of recently undone mutations, most recent first
+     */
+    private final Deque<HistoryEntry> redoHistory = new ArrayDeque<>();
+
+    /**
+     * Maximum number of entries kept in each history
+     */
+    private int historyDepth = DEFAULT_HISTORY_DEPTH;
+
     /**
      * Constructs a TaskList with the specified storage and optional initial tasks.
      *
@@ -29,10 +87,26 @@ public class TaskList {
      * @param initial An optional list of initial tasks, can be null
      */
     public TaskList(Storage storage, List<Task> initial) {
+        this(storage, initial, false);
+    }
+
+    /**
+     * Constructs a TaskList, optionally backed by a compact columnar store. The columnar store
+     * uses far less memory for large lists but materializes a new Task object on every access,
+     * so tasks returned from it are snapshots rather than live references. It cannot share its
+     * arrays with a {@link #snapshot()}, which is then a copy.
+     *
+     * @param storage  The Storage object used for saving and loading tasks
+     * @param initial  An optional list of initial tasks, can be null
+     * @param columnar true to keep tasks in a ColumnarTaskStore instead of a PersistentTaskVector
+     */
+    public TaskList(Storage storage, List<Task> initial, boolean columnar) {
         this.storage = storage;
+        this.tasks = new IndexedTaskStore(columnar ? new ColumnarTaskStore() : new PersistentTaskVector());
         if (initial != null) {
             tasks.addAll(initial);
         }
+        published = tasks.snapshot();
     }
 
     /**
@@ -62,10 +136,26 @@ public class TaskList {
      * Returns an unmodifiable view of the task list. Changes to the returned list will not affect
      * the original task list.
      *
-     * @return An unmodifiable copy of the task list
+     * @return An unmodifiable snapshot of the task list
      */
     public List<Task> asUnmodifiable() {
-        return List.copyOf(tasks);
+        return snapshot();
+    }
+
+    /**
+     * Returns the list as of the last completed change, for a reader such as a long list or an
+     * export that must see one consistent version. The snapshot is taken in O(1) and shares its
+     * structure with the list, which goes on changing without waiting for readers; the snapshot
+     * itself never changes, and can be read from any thread. Tasks are not changed in place once
+     * in the list, so the tasks in a snapshot do not change either.
+     *
+     * <p>A columnar list cannot share its arrays, so its snapshot is a copy, made by the caller.
+     *
+     * @return An unmodifiable snapshot of the task list
+     */
+    public List<Task> snapshot() {
+        List<Task> snapshot = published;
+        return snapshot != null ? snapshot : List.copyOf(tasks);
     }
 
     /**
@@ -76,8 +166,7 @@ public class TaskList {
     public void add(Task t) {
         assert t != null : "Task cannot be null";
 
-        tasks.add(t);
-        storage.save(tasks);
+        apply(new Operation.Insert(new int[]{tasks.size()}, new Task[]{t}), "add");
     }
 
     /**
@@ -89,8 +178,39 @@ public class TaskList {
     public void add(int idx, Task task) {
         assert task != null : "Task cannot be null";
         assert idx >= 0 && idx <= tasks.size() : "Index must be within bounds";
-        tasks.add(idx, task);
-        storage.save(tasks);
+        apply(new Operation.Insert(new int[]{idx}, new Task[]{task}), "add");
+    }
+
+    /**
+     * Appends several tasks to the end of the list in a single step and saves once, e.g. one batch
+     * of an import. Undo removes the whole batch.
+     *
+     * @param batch The tasks to append, in order
+     */
+    public void addAll(List<Task> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] positions = new int[batch.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = tasks.size() + i;
+        }
+        apply(new Operation.Insert(positions, batch.toArray(new Task[0])), "import");
+    }
+
+    /**
+     * Replaces the task at the specified index in a single step, saving once.
+     *
+     * @param idx  The index of the task to replace (0-based)
+     * @param task The replacement task
+     * @return The task that was replaced
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Task replace(int idx, Task task) {
+        assert task != null : "Task cannot be null";
+
+        Operation.Replace inverse = (Operation.Replace) apply(new Operation.Replace(idx, task), "update");
+        return inverse.replacement();
     }
 
     /**
@@ -101,31 +221,178 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if the index is out of range
      */
     public Task remove(int idx) {
-        Task removed = tasks.remove(idx);
-        storage.save(tasks);
-        return removed;
+        Operation.Insert inverse = (Operation.Insert) apply(new Operation.Remove(new int[]{idx}), "delete");
+        return inverse.inserted()[0];
     }
 
     /**
      * Marks the task at the specified index as completed and saves changes.
      *
      * @param idx The index of the task to mark (0-based)
+     * @return The marked task
      * @throws IndexOutOfBoundsException if the index is out of range
      */
-    public void mark(int idx) {
-        tasks.get(idx).mark();
-        storage.save(tasks);
+    public Task mark(int idx) {
+        Operation inverse = apply(new Operation.SetDone(new int[]{idx}, true), "mark");
+        return tasks.get(inverse.change().getPositions()[0]); // moved if another instance saved first
     }
 
     /**
      * Marks the task at the specified index as not completed and saves changes.
      *
      * @param idx The index of the task to unmark (0-based)
+     * @return The unmarked task
      * @throws IndexOutOfBoundsException if the index is out of range
      */
-    public void unmark(int idx) {
-        tasks.get(idx).unmark();
-        storage.save(tasks);
+    public Task unmark(int idx) {
+        Operation inverse = apply(new Operation.SetDone(new int[]{idx}, false), "unmark");
+        return tasks.get(inverse.change().getPositions()[0]);
+    }
+
+    /**
+     * Sets the completion status of several tasks in one pass and saves once.
+     *
+     * @param positions The 0-based positions to update, ascending and without duplicates
+     * @param done      true to mark the tasks as completed, false to unmark them
+     * @throws IndexOutOfBoundsException if a position is out of range
+     */
+    public void markAll(int[] positions, boolean done) {
+        if (positions.length == 0) {
+            return;
+        }
+        apply(new Operation.SetDone(positions, done), done ? "mark" : "unmark");
+    }
+
+    /**
+     * Removes several tasks in a single compacting pass and saves once.
+     *
+     * @param positions The 0-based positions to remove, ascending and without duplicates
+     * @return The number of tasks removed
+     * @throws IndexOutOfBoundsException if a position is out of range
+     */
+    public int removeAll(int[] positions) {
+        if (positions.length == 0) {
+            return 0;
+        }
+        apply(new Operation.Remove(positions), "delete");
+        return positions.length;
+    }
+
+    /**
+     * Returns the positions of all tasks satisfying the predicate.
+     *
+     * @param predicate The condition to test each task against
+     * @return The matching 0-based positions in ascending order
+     */
+    int[] positionsMatching(Predicate<Task> predicate) {
+        int[] matches = new int[tasks.size()];
+        int count = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (predicate.test(tasks.get(i))) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Returns the positions of all tasks in the given order. The order is maintained incrementally
+     * as tasks change, so only the first request for each order sorts the whole list. Under the
+     * date orders a recurring event is placed by its next occurrence.
+     *
+     * @param order The order to list tasks in
+     * @param now   The current time
+     * @return Every 0-based position in the list, arranged by the order
+     */
+    public int[] positionsSortedBy(SortOrder order, LocalDateTime now) {
+        return tasks.positionsOf(sortIndex(order).orderedIds(now));
+    }
+
+    /**
+     * Returns the positions of incomplete deadlines that are past due, earliest first.
+     *
+     * @param now The current time
+     * @return The 0-based positions of overdue deadlines
+     */
+    public int[] positionsOverdue(LocalDateTime now) {
+        return tasks.positionsOf(dueIndex().overdueIds(now));
+    }
+
+    /**
+     * Returns the positions of incomplete deadlines due, and events starting, between now and the
+     * end of the day the given number of days ahead, earliest first. A recurring event's position
+     * is listed once for each of its occurrences in that time.
+     *
+     * @param now  The current time
+     * @param days The number of days to look ahead
+     * @return The 0-based positions of upcoming tasks
+     */
+    public int[] positionsUpcoming(LocalDateTime now, int days) {
+        return upcoming(now, days).stream().mapToInt(ScheduledTask::getPosition).toArray();
+    }
+
+    /**
+     * Returns the incomplete deadlines due, and events starting, between now and the end of the
+     * day the given number of days ahead, earliest first. Each occurrence of a recurring event in
+     * that time is listed on its own, and as not done, since it has not started yet.
+     *
+     * @param now  The current time
+     * @param days The number of days to look ahead
+     * @return The upcoming tasks and occurrences, with their positions
+     */
+    public List<ScheduledTask> upcoming(LocalDateTime now, int days) {
+        List<DueTimeIndex.Due> due = dueIndex().upcoming(now, days);
+        int[] positions = tasks.positionsOf(due.stream().mapToLong(DueTimeIndex.Due::id).toArray());
+        List<ScheduledTask> out = new ArrayList<>(due.size());
+        for (int i = 0; i < positions.length; i++) {
+            DueTimeIndex.Due d = due.get(i);
+            out.add(new ScheduledTask(positions[i], d.occurrence() != null ? d.occurrence() : tasks.get(positions[i])));
+        }
+        return out;
+    }
+
+    /**
+     * Registers an index that is kept up to date with every change to this list, starting with
+     * every task currently in it.
+     *
+     * @param index The index to register
+     */
+    public void addIndex(TaskIndex index) {
+        tasks.register(index);
+    }
+
+    private SortedTaskIndex sortIndex(SortOrder order) {
+        SortedTaskIndex index = sortIndexes.get(order);
+        if (index == null) {
+            index = new SortedTaskIndex(order);
+            tasks.register(index);
+            sortIndexes.put(order, index);
+        }
+        return index;
+    }
+
+    private SearchIndex searchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex();
+            tasks.register(searchIndex);
+        }
+        return searchIndex;
+    }
+
+    private DoneIndex doneIndex() {
+        if (doneIndex == null) {
+            doneIndex = new DoneIndex();
+            tasks.register(doneIndex);
+        }
+        return doneIndex;
+    }
+
+    private DueTimeIndex dueIndex() {
+        if (dueIndex == null) {
+            dueIndex = new DueTimeIndex();
+            tasks.register(dueIndex);
+        }
+        return dueIndex;
     }
 
     /**
@@ -146,35 +413,398 @@ public class TaskList {
 
     /**
      * Returns a list of tasks that occur on the specified date. For deadlines, matches tasks due on
-     * the date. For events, matches tasks that span or include the date.
+     * the date. For events, matches tasks that span or include the date; a recurring event is
+     * returned as its occurrence on that date.
      *
      * @param date The date to search for tasks
      * @return A list of tasks occurring on the given date
      */
     public List<Task> tasksOn(LocalDate date) {
         List<Task> out = new ArrayList<>();
-        for (Task t : this.tasks) {
+        for (int idx : positionsOn(date)) {
+            Task t = tasks.get(idx);
+            out.add(t instanceof Event e ? e.occurrenceOn(date) : t);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the positions of tasks that occur on the specified date, using the same matching
+     * rules as {@link #tasksOn(LocalDate)}.
+     *
+     * @param date The date to search for tasks
+     * @return The matching 0-based positions in ascending order
+     */
+    public int[] positionsOn(LocalDate date) {
+        return positionsMatching(t -> {
             if (t instanceof Deadline d) {
-                if (d.getByDateTime().toLocalDate().isEqual(date)) {
-                    out.add(t);
-                }
+                return d.getByDateTime().toLocalDate().isEqual(date);
             } else if (t instanceof Event e) {
-                LocalDate from = e.getFromDateTime().toLocalDate();
-                LocalDate to = e.getToDateTime().toLocalDate();
-                if (!(date.isBefore(from) || date.isAfter(to))) {
-                    out.add(t);
-                }
+                return e.occurrenceOn(date) != null;
             }
-        }
-        return out;
+            return false;
+        });
     }
 
     /**
      * Removes all tasks from the list and saves the empty list to storage.
      */
+    @SuppressWarnings("try")
     public void clear() {
-        tasks.clear();
-        storage.save(tasks);
+        try (Storage.WriteLock lock = storage.lock()) {
+            applyExternal(storage.catchUp(tasks)); // including tasks other instances just added
+            if (tasks.isEmpty()) {
+                storage.save(tasks);
+                return;
+            }
+            int[] all = new int[tasks.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            apply(new Operation.Remove(all), "clear");
+        }
+    }
+
+    /**
+     * Moves completed tasks to the archive, so that they no longer weigh on listing, searching and
+     * saving. With a cutoff, only deadlines due and events ended before that day are moved; todos
+     * have no date and recurring events never end, so they are archived only without a cutoff.
+     *
+     * <p>The archive is written before the tasks are removed, so a failure leaves the list as it
+     * was. Archiving cannot be undone, and clears the undo and redo history, whose positions no
+     * longer apply once tasks have left the list.
+     *
+     * @param endedBefore Only archive tasks that ended before this day, or null for every done task
+     * @return The archived tasks, or null if the archive could not be written
+     */
+    @SuppressWarnings("try")
+    public List<Task> archive(LocalDate endedBefore) {
+        try (Storage.WriteLock lock = storage.lock()) {
+            applyExternal(storage.catchUp(tasks)); // so that nothing archived is still changing elsewhere
+            long cutoff = endedBefore == null ? Long.MAX_VALUE : SortOrder.keyOf(endedBefore.atStartOfDay());
+            List<Integer> positions = new ArrayList<>();
+            List<Task> archived = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                Task t = tasks.get(i);
+                boolean recurring = t instanceof Event e && e.isRecurring();
+                if (t.isDone() && (endedBefore == null || !recurring && SortOrder.DUE.keyOf(t) < cutoff)) {
+                    positions.add(i);
+                    archived.add(t);
+                }
+            }
+            if (archived.isEmpty()) {
+                return archived;
+            }
+            if (!storage.appendToArchive(archived)) {
+                return null;
+            }
+
+            commit(new Operation.Remove(positions.stream().mapToInt(Integer::intValue).toArray()));
+            undoHistory.clear();
+            redoHistory.clear();
+            return archived;
+        }
+    }
+
+    /**
+     * Brings the list up to date after another program changed the data file. Only the records of
+     * changed tasks are parsed, and only the runs of tasks they replace are taken out of and put
+     * back into the list, so the indexes are updated for those alone. A reload cannot be undone,
+     * and clears the undo and redo history, whose positions may no longer apply.
+     *
+     * <p>Saves by other instances of MrMoon are left alone here. They are applied as this list
+     * next changes, and that change is moved to fit them, so a task number the user read off the
+     * list still means the same task.
+     *
+     * @return The changes applied, in order; empty if the data file had not changed outside the
+     *     journal or could not be read
+     */
+    @SuppressWarnings("try")
+    public List<ExternalChange> reload() {
+        try (Storage.WriteLock lock = storage.lock()) {
+            if (!storage.isChangedOutsideJournal()) {
+                return List.of();
+            }
+            List<ExternalChange> changes = storage.catchUp(tasks);
+            applyExternal(changes);
+            return changes;
+        }
+    }
+
+    /**
+     * Applies changes from {@link Storage#catchUp(List)} to the list. Any change clears the undo
+     * and redo history, whose positions may no longer apply.
+     */
+    private void applyExternal(List<ExternalChange> changes) {
+        boolean quarantined = false;
+        for (ExternalChange change : changes) {
+            if (!change.isEmpty()) {
+                int from = change.getFrom();
+                tasks.subList(from, from + change.getRemoved()).clear();
+                tasks.addAll(from, change.getInserted());
+                undoHistory.clear();
+                redoHistory.clear();
+            }
+            quarantined |= change.getQuarantined() > 0;
+        }
+        published = tasks.snapshot();
+        if (quarantined) {
+            storage.save(tasks); // drop the quarantined records so they are not reported again
+        }
+    }
+
+    /**
+     * Searches the archive for tasks matching a query, reading it one record at a time so that only
+     * the matches are held in memory. Archived tasks match by the same rules as the list, including
+     * the fallback to substring matching for a query of words alone, and come in the order they
+     * were archived rather than ranked.
+     *
+     * @param query The parsed query
+     * @param now   The current time, which dates recurring events by their next occurrence
+     * @return The matching archived tasks
+     */
+    public List<Task> searchArchive(TaskQuery query, LocalDateTime now) {
+        List<Task> matches = new ArrayList<>();
+        List<Task> substringMatches = new ArrayList<>();
+        boolean fallback = query.hasWords() && !query.hasFilters();
+        String lower = query.getWords().toLowerCase();
+        storage.readArchive(t -> {
+            if (query.matches(t, now)) {
+                matches.add(t);
+            } else if (fallback && matches.isEmpty() && t.getDescription().toLowerCase().contains(lower)) {
+                substringMatches.add(t);
+            }
+        });
+        return matches.isEmpty() ? substringMatches : matches;
+    }
+
+    /**
+     * Reverts the most recent mutation and saves once.
+     *
+     * @return The name of the reverted action (e.g. "delete"), or null if there is nothing to undo
+     */
+    public String undo() {
+        return replay(undoHistory, redoHistory);
+    }
+
+    /**
+     * Re-applies the most recently undone mutation and saves once.
+     *
+     * @return The name of the re-applied action, or null if there is nothing to redo
+     */
+    public String redo() {
+        return replay(redoHistory, undoHistory);
+    }
+
+    /**
+     * Sets how many mutations can be undone. Older entries are discarded immediately if the
+     * history is already longer.
+     *
+     * @param depth The maximum number of undoable mutations; 0 disables undo
+     */
+    public void setHistoryDepth(int depth) {
+        assert depth >= 0 : "History depth must be non-negative";
+
+        historyDepth = depth;
+        trim(undoHistory);
+        trim(redoHistory);
+    }
+
+    /**
+     * Applies a new mutation, records its inverse for undo, and saves once.
+     *
+     * @return The inverse, whose positions are those the mutation was applied at
+     */
+    private Operation apply(Operation op, String action) {
+        Operation inverse = commit(op);
+        redoHistory.clear();
+        push(undoHistory, new HistoryEntry(inverse, action));
+        return inverse;
+    }
+
+    /**
+     * Applies an operation and saves it, holding the storage lock throughout so that no other
+     * instance of MrMoon saves in between. Changes another instance saved since the list last
+     * caught up are applied first, and the operation is moved to fit them; together this makes
+     * the save a compare-and-swap on the storage generation.
+     *
+     * @return The operation that reverts the one applied
+     * @throws ConcurrentModificationException if another instance changed or removed a task the
+     *                                         operation touches; its changes are applied, the
+     *                                         operation is not
+     */
+    @SuppressWarnings("try")
+    private Operation commit(Operation op) {
+        try (Storage.WriteLock lock = storage.lock()) {
+            List<ExternalChange> missed = storage.catchUp(tasks);
+            Operation rebased = op;
+            for (ExternalChange change : missed) {
+                rebased = rebased == null ? null : rebased.rebase(change);
+            }
+            applyExternal(missed);
+            if (rebased == null) {
+                throw new ConcurrentModificationException(
+                    "Another MrMoon changed that task just now, so I left it alone. Check the list and try again.");
+            }
+            Operation inverse = rebased.apply(tasks);
+            published = tasks.snapshot();
+            storage.save(tasks, rebased.change());
+            return inverse;
+        }
+    }
+
+    /**
+     * Pops an entry from one history, applies it, and pushes its inverse onto the other.
+     */
+    private String replay(Deque<HistoryEntry> from, Deque<HistoryEntry> to) {
+        HistoryEntry entry = from.pollFirst();
+        if (entry == null) {
+            return null;
+        }
+        Operation inverse = commit(entry.operation());
+        push(to, new HistoryEntry(inverse, entry.action()));
+        return entry.action();
+    }
+
+    private void push(Deque<HistoryEntry> history, HistoryEntry entry) {
+        history.addFirst(entry);
+        trim(history);
+    }
+
+    private void trim(Deque<HistoryEntry> history) {
+        while (history.size() > historyDepth) {
+            history.removeLast();
+        }
+    }
+
+    /**
+     * Searches task descriptions and returns matching positions, best match first. Every word of
+     * the query must match a word of the description exactly, as a prefix when written "rep*", or
+     * with a small typo for longer words. If nothing matches that way, falls back to
+     * case-insensitive substring matching in list order, so fragments and punctuation still work.
+     *
+     * @param query The search words
+     * @return The 0-based positions of matching tasks, ranked
+     */
+    public int[] search(String query) {
+        assert query != null : "Query cannot be null";
+
+        return query(TaskQuery.ofWords(query), LocalDateTime.now());
+    }
+
+    /**
+     * Returns the positions of tasks matching a query; see {@link #plan(TaskQuery, LocalDateTime)}.
+     *
+     * @param query The parsed query
+     * @param now   The current time, which dates recurring events by their next occurrence
+     * @return The 0-based positions of matching tasks, ranked if the query has words
+     */
+    public int[] query(TaskQuery query, LocalDateTime now) {
+        return plan(query, now).execute();
+    }
+
+    /**
+     * Plans a query. Each part of the query that has an index (words, completion, due date) is
+     * costed by how many tasks the index would produce, counting no further than the best estimate
+     * so far; the cheapest becomes the source of candidates and the other parts are checked on each
+     * candidate, cheapest check first. Without a usable index the whole list is scanned. Indexes
+     * are created on first use and kept up to date from then on.
+     *
+     * @param query The parsed query
+     * @param now   The current time, which dates recurring events by their next occurrence
+     * @return The plan, ready to execute
+     */
+    public QueryPlan plan(TaskQuery query, LocalDateTime now) {
+        List<PlanOption> options = new ArrayList<>();
+        int estimate = tasks.size();
+
+        if (query.hasWords()) {
+            SearchIndex index = searchIndex();
+            String words = query.getWords();
+            int count = index.estimate(words);
+            estimate = Math.min(estimate, count);
+            options.add(new PlanOption(
+                new QueryPlan.Source("search index for '" + words + "'", count, () -> hitIds(index.search(words))),
+                new QueryPlan.Filter("words '" + words + "'", 4, (id, p) -> index.score(id, words) > 0)));
+        }
+        if (query.getDone() != null) {
+            DoneIndex index = doneIndex();
+            boolean done = query.getDone();
+            String name = "done:" + (done ? "yes" : "no");
+            int count = index.count(done);
+            estimate = Math.min(estimate, count);
+            options.add(new PlanOption(
+                new QueryPlan.Source("done bitset for " + name, count, () -> index.ids(done)),
+                new QueryPlan.Filter(name, 1, (id, p) -> tasks.get(p).isDone() == done)));
+        }
+        if (query.hasDueRange()) {
+            SortedTaskIndex index = sortIndex(SortOrder.DUE);
+            long from = dayKey(query.getDueFrom(), Long.MIN_VALUE);
+            long to = dayKey(query.getDueUntil(), Long.MAX_VALUE);
+            String name = query.describeDueRange();
+            int count = index.countBetween(from, to, estimate, now);
+            options.add(new PlanOption(
+                new QueryPlan.Source("date index for " + name, count, () -> index.idsBetween(from, to, now)),
+                new QueryPlan.Filter(name, 2, (id, p) -> {
+                    long key = SortOrder.DUE.keyOf(tasks.get(p), now);
+                    return key >= from && key < to;
+                })));
+        }
+        if (query.getType() != null) {
+            TaskType type = query.getType();
+            String name = "type:" + type.getDisplayName().toLowerCase();
+            options.add(new PlanOption(null,
+                new QueryPlan.Filter(name, 1, (id, p) -> tasks.get(p).getTaskType() == type)));
+        }
+
+        // An index wins ties against the scan, since its own check is then never run
+        PlanOption chosen = null;
+        for (PlanOption o : options) {
+            if (o.source() != null && (chosen == null || o.source().estimate() < chosen.source().estimate())) {
+                chosen = o;
+            }
+        }
+        QueryPlan.Source scan = new QueryPlan.Source("scan of all " + tasks.size() + " task(s)", tasks.size(), null);
+        QueryPlan.Source source = chosen == null ? scan : chosen.source();
+
+        List<QueryPlan.Source> rejected = new ArrayList<>();
+        List<QueryPlan.Filter> filters = new ArrayList<>();
+        for (PlanOption o : options) {
+            if (o != chosen) {
+                filters.add(o.filter());
+                if (o.source() != null) {
+                    rejected.add(o.source());
+                }
+            }
+        }
+        if (chosen != null) {
+            rejected.add(scan);
+        }
+        filters.sort(Comparator.comparingInt(QueryPlan.Filter::cost));
+
+        ToDoubleFunction<Long> scorer = null;
+        if (query.hasWords()) {
+            SearchIndex index = searchIndex();
+            String words = query.getWords();
+            scorer = id -> index.score(id, words);
+        }
+        String fallback = query.hasWords() && !query.hasFilters() ? query.getWords() : null;
+        return new QueryPlan(tasks, source, filters, rejected, scorer, fallback);
+    }
+
+    /**
+     * Returns the sort key of the start of a day, or the given bound if there is no day.
+     */
+    private static long dayKey(LocalDate date, long unbounded) {
+        return date == null ? unbounded : SortOrder.keyOf(date.atStartOfDay());
+    }
+
+    private static long[] hitIds(List<SearchIndex.Hit> hits) {
+        long[] ids = new long[hits.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = hits.get(i).id();
+        }
+        return ids;
     }
 
     /**
@@ -198,4 +828,17 @@ public class TaskList {
 
         return matches;
     }
+
+    /**
+     * One part of a query: the index that could produce its matches, if any, and the check that
+     * tests a single candidate for it.
+     */
+    private record PlanOption(QueryPlan.Source source, QueryPlan.Filter filter) {
+    }
+
+    /**
+     * An inverse operation together with the user-facing name of the action it reverts.
+     */
+    private record HistoryEntry(Operation operation, String action) {
+    }
 }
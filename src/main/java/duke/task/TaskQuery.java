@@ -0,0 +1,246 @@
+package duke.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import duke.util.DateTimeUtil;
+
+/**
+ * A parsed {@code find} query: search words combined with optional filters on task type, completion
+ * and due date, e.g. {@code report type:deadline done:no due<2025-12-01}. Every part must hold for a
+ * task to match. A task's due date is the one {@code list /sort due} orders by: a deadline's due date
+ * or an event's end date, and for a recurring event, the end of its next occurrence. Todos have no
+ * due date.
+ */
+public final class TaskQuery {
+    private static final Pattern TYPE_FILTER = Pattern.compile("(?i)type:(\\S+)");
+    private static final Pattern DONE_FILTER = Pattern.compile("(?i)done:(\\S+)");
+    private static final Pattern DUE_FILTER = Pattern.compile("(?i)due(<=|>=|<|>|:|=)(\\S+)");
+
+    private final String words;
+    private final TaskType type;
+    private final Boolean done;
+    private final LocalDate dueFrom;
+    private final LocalDate dueUntil;
+
+    private TaskQuery(String words, TaskType type, Boolean done, LocalDate dueFrom, LocalDate dueUntil) {
+        this.words = words;
+        this.type = type;
+        this.done = done;
+        this.dueFrom = dueFrom;
+        this.dueUntil = dueUntil;
+    }
+
+    /**
+     * Creates a query made only of search words, without interpreting any filters.
+     *
+     * @param words The search words
+     * @return The query
+     */
+    public static TaskQuery ofWords(String words) {
+        return new TaskQuery(words.trim(), null, null, null, null);
+    }
+
+    /**
+     * Parses a query. Recognised filters are {@code type:todo|deadline|event}, {@code done:yes|no}
+     * and {@code due} followed by one of {@code < <= > >= :} and a date; everything else is a
+     * search word. Repeated due filters narrow the range.
+     *
+     * @param input The query typed by the user
+     * @return The parsed query
+     * @throws IllegalArgumentException if a filter has a value that cannot be understood
+     */
+    public static TaskQuery parse(String input) {
+        List<String> words = new ArrayList<>();
+        TaskType type = null;
+        Boolean done = null;
+        LocalDate from = null;
+        LocalDate until = null;
+
+        for (String token : input.trim().split("\\s+")) {
+            Matcher typeMatch = TYPE_FILTER.matcher(token);
+            Matcher doneMatch = DONE_FILTER.matcher(token);
+            Matcher dueMatch = DUE_FILTER.matcher(token);
+            if (typeMatch.matches()) {
+                type = parseType(typeMatch.group(1));
+            } else if (doneMatch.matches()) {
+                done = parseDone(doneMatch.group(1));
+            } else if (dueMatch.matches()) {
+                LocalDate date = parseDate(dueMatch.group(2));
+                LocalDate lower = null;
+                LocalDate upper = null;
+                switch (dueMatch.group(1)) {
+                case "<":
+                    upper = date;
+                    break;
+                case "<=":
+                    upper = date.plusDays(1);
+                    break;
+                case ">":
+                    lower = date.plusDays(1);
+                    break;
+                case ">=":
+                    lower = date;
+                    break;
+                default:
+                    lower = date;
+                    upper = date.plusDays(1);
+                    break;
+                }
+                if (lower != null && (from == null || lower.isAfter(from))) {
+                    from = lower;
+                }
+                if (upper != null && (until == null || upper.isBefore(until))) {
+                    until = upper;
+                }
+            } else if (!token.isEmpty()) {
+                words.add(token);
+            }
+        }
+        return new TaskQuery(String.join(" ", words), type, done, from, until);
+    }
+
+    private static TaskType parseType(String value) {
+        for (TaskType t : TaskType.values()) {
+            if (t.getDisplayName().equalsIgnoreCase(value)) {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("type must be todo, deadline or event, not '" + value + "'");
+    }
+
+    private static Boolean parseDone(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+        case "yes":
+        case "true":
+            return Boolean.TRUE;
+        case "no":
+        case "false":
+            return Boolean.FALSE;
+        default:
+            throw new IllegalArgumentException("done must be yes or no, not '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return DateTimeUtil.parseLenientResult(value).dt.toLocalDate();
+    }
+
+    /**
+     * Returns the search words.
+     *
+     * @return The words joined by spaces, or an empty string if the query has none
+     */
+    public String getWords() {
+        return words;
+    }
+
+    /**
+     * Returns the required task type.
+     *
+     * @return The type, or null if any type matches
+     */
+    public TaskType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the required completion status.
+     *
+     * @return true or false, or null if either matches
+     */
+    public Boolean getDone() {
+        return done;
+    }
+
+    /**
+     * Returns the earliest due date that matches.
+     *
+     * @return The inclusive lower bound, or null if unbounded
+     */
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    /**
+     * Returns the day after the latest due date that matches.
+     *
+     * @return The exclusive upper bound, or null if unbounded
+     */
+    public LocalDate getDueUntil() {
+        return dueUntil;
+    }
+
+    /**
+     * Returns whether the query has search words.
+     *
+     * @return true if there is at least one word
+     */
+    public boolean hasWords() {
+        return !words.isEmpty();
+    }
+
+    /**
+     * Returns whether the query restricts the due date.
+     *
+     * @return true if there is a lower or upper bound on the due date
+     */
+    public boolean hasDueRange() {
+        return dueFrom != null || dueUntil != null;
+    }
+
+    /**
+     * Returns whether the query has any filter besides its words.
+     *
+     * @return true if a type, completion or due date filter is present
+     */
+    public boolean hasFilters() {
+        return type != null || done != null || hasDueRange();
+    }
+
+    /**
+     * Returns whether one task satisfies every part of the query, checked directly rather than
+     * through indexes. Used for tasks outside the list, such as archived ones.
+     *
+     * @param task The task to check
+     * @param now  The current time, which dates a recurring event by its next occurrence
+     * @return true if the task matches the words and every filter
+     */
+    public boolean matches(Task task, LocalDateTime now) {
+        if (type != null && task.getTaskType() != type) {
+            return false;
+        }
+        if (done != null && task.isDone() != done) {
+            return false;
+        }
+        if (hasDueRange()) {
+            long key = SortOrder.DUE.keyOf(task, now);
+            if (dueFrom != null && key < SortOrder.keyOf(dueFrom.atStartOfDay())
+                    || dueUntil != null && key >= SortOrder.keyOf(dueUntil.atStartOfDay())
+                    || key == Long.MAX_VALUE) {
+                return false;
+            }
+        }
+        return !hasWords() || SearchIndex.matches(words, task.getDescription());
+    }
+
+    /**
+     * Describes the due date range, e.g. "due 2025-11-01 to 2025-11-30".
+     *
+     * @return A short description of the range
+     */
+    String describeDueRange() {
+        if (dueFrom != null && dueUntil != null) {
+            if (dueUntil.equals(dueFrom.plusDays(1))) {
+                return "due on " + dueFrom;
+            }
+            return "due " + dueFrom + " to " + dueUntil.minusDays(1);
+        }
+        return dueFrom != null ? "due on or after " + dueFrom : "due before " + dueUntil;
+    }
+}
@@ -0,0 +1,116 @@
+package duke.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Selects a set of tasks for bulk operations, either by explicit 1-based numbers and ranges
+ * (e.g. "1,5,9-20") or by a predicate such as "done" or "before 2025-01-01". Resolving a selector
+ * yields sorted, de-duplicated 0-based positions that a {@link TaskList} can act on in one pass.
+ */
+public abstract class TaskSelector {
+
+    /**
+     * Resolves this selector against the given list.
+     *
+     * @param tasks The task list to select from
+     * @return The selected 0-based positions in ascending order, without duplicates
+     * @throws IndexOutOfBoundsException if an explicit task number is outside the list
+     * @throws IllegalArgumentException  if the selection could not be read
+     */
+    public abstract int[] resolve(TaskList tasks);
+
+    /**
+     * Creates a selector for explicit task numbers and inclusive ranges.
+     *
+     * @param ranges 1-based {start, end} pairs; a single task is given as {n, n}
+     * @return The selector
+     */
+    public static TaskSelector numbers(List<int[]> ranges) {
+        return new Numbers(ranges);
+    }
+
+    /**
+     * Creates a selector for all tasks that are marked as done.
+     *
+     * @return The selector
+     */
+    public static TaskSelector done() {
+        return new Matching() {
+            @Override
+            boolean matches(Task t) {
+                return t.isDone();
+            }
+        };
+    }
+
+    /**
+     * Creates a selector for deadlines due, and events ending, strictly before the given date.
+     * Todos have no date and recurring events never end, so neither is ever selected.
+     *
+     * @param date The cut-off date; tasks on this date are not selected
+     * @return The selector
+     */
+    public static TaskSelector before(LocalDate date) {
+        LocalDateTime cutoff = date.atStartOfDay();
+        return new Matching() {
+            @Override
+            boolean matches(Task t) {
+                if (t instanceof Deadline d) {
+                    return d.getByDateTime().isBefore(cutoff);
+                } else if (t instanceof Event e) {
+                    return !e.isRecurring() && e.getToDateTime().isBefore(cutoff);
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a selector standing for a selection that could not be read, so that the command
+     * given it reports why instead of treating the arguments as a task number.
+     *
+     * @param reason Why the selection could not be read, e.g. an unrecognised date
+     * @return A selector whose {@link #resolve(TaskList)} throws with that reason
+     */
+    public static TaskSelector unreadable(String reason) {
+        return new TaskSelector() {
+            @Override
+            public int[] resolve(TaskList tasks) {
+                throw new IllegalArgumentException(reason);
+            }
+        };
+    }
+
+    private static final class Numbers extends TaskSelector {
+        private final List<int[]> ranges;
+
+        private Numbers(List<int[]> ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public int[] resolve(TaskList tasks) {
+            int size = tasks.size();
+            BitSet selected = new BitSet(size);
+            for (int[] range : ranges) {
+                if (range[0] < 1 || range[1] > size || range[0] > range[1]) {
+                    throw new IndexOutOfBoundsException("Task numbers must be between 1 and " + size);
+                }
+                selected.set(range[0] - 1, range[1]);
+            }
+            return selected.stream().toArray();
+        }
+    }
+
+    private abstract static class Matching extends TaskSelector {
+        abstract boolean matches(Task t);
+
+        @Override
+        public int[] resolve(TaskList tasks) {
+            return tasks.positionsMatching(this::matches);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import duke.task.Task;
+
+/**
+ * Reads tasks from CSV with a header row. Columns are found by name, so they can come in any order
+ * and columns MrMoon does not know are ignored; only type and description are required. Quoted
+ * fields can hold commas, doubled quotes and line breaks.
+ */
+final class CsvTaskReader implements TaskReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final List<String> record = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private Map<String, Integer> columns;
+
+    CsvTaskReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public Task next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        while (readRecord()) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            return TaskFields.toTask(name -> {
+                Integer i = columns.get(name);
+                return i == null || i >= record.size() ? null : record.get(i);
+            });
+        }
+        return null;
+    }
+
+    private void readHeader() throws IOException {
+        columns = new HashMap<>();
+        if (!readRecord()) {
+            return;
+        }
+        for (int i = 0; i < record.size(); i++) {
+            String name = record.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && !name.isEmpty() && name.charAt(0) == BYTE_ORDER_MARK) {
+                name = name.substring(1);
+            }
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey(TaskFields.TYPE) || !columns.containsKey(TaskFields.DESCRIPTION)) {
+            throw new IOException("The first row must name the columns, including "
+                + TaskFields.TYPE + " and " + TaskFields.DESCRIPTION);
+        }
+    }
+
+    /**
+     * Reads the next record into {@link #record}.
+     *
+     * @return false at the end of the input
+     * @throws IllegalArgumentException if the record is too long or ends inside quotes; it is
+     *                                  skipped
+     */
+    private boolean readRecord() throws IOException {
+        record.clear();
+        field.setLength(0);
+        boolean any = false;
+        boolean quoted = false;
+        boolean tooLong = false;
+        int length = 0;
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                if (!any) {
+                    return false;
+                }
+                if (quoted) {
+                    throw new IllegalArgumentException("quoted field not closed before the end of the file");
+                }
+                break;
+            }
+            any = true;
+            if (++length > LineReader.MAX_LINE_LENGTH) {
+                tooLong = true;
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else if (peek() == '"') {
+                    read();
+                    field.append('"');
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                if (!tooLong) {
+                    record.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                break;
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+        record.add(field.toString());
+        if (tooLong) {
+            throw new IllegalArgumentException("record longer than " + LineReader.MAX_LINE_LENGTH + " characters");
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        return fill() ? buffer[position++] : -1;
+    }
+
+    private int peek() throws IOException {
+        return fill() ? buffer[position] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        return limit > 0;
+    }
+}
@@ -0,0 +1,62 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import duke.task.Task;
+
+/**
+ * Writes tasks as CSV: a header row naming the fields, then one row per task. Fields holding a
+ * comma, quote or line break are quoted, with quotes doubled, and rows end with CRLF, as RFC 4180
+ * asks.
+ */
+final class CsvTaskWriter implements TaskWriter {
+    private final Writer out;
+
+    CsvTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writeRow(TaskFields.NAMES.toArray(new String[0]));
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        writeRow(TaskFields.valuesOf(task));
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    private void writeRow(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values[i] == null ? "" : values[i];
+            if (needsQuotes(value)) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
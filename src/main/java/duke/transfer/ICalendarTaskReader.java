@@ -0,0 +1,303 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import duke.task.Deadline;
+import duke.task.DescriptionInterner;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.Todo;
+
+/**
+ * Reads tasks from an iCalendar file, one VTODO or VEVENT component at a time. A VTODO with a DUE
+ * becomes a deadline and one without becomes a todo; a VEVENT becomes an event, ending at DTEND,
+ * after DURATION, or where it starts. Times in UTC or with a known TZID are converted to local
+ * time, and seconds are dropped. Daily, weekly and monthly RRULEs that set nothing but the
+ * frequency, an interval of 1 or the week start carry over; other rules, such as those with a
+ * COUNT, UNTIL or BYDAY, cannot be represented, and those events import as their first
+ * occurrence. Other components, such as VTIMEZONE, and nested ones, such as VALARM, are skipped.
+ */
+final class ICalendarTaskReader implements TaskReader {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final LineReader lines;
+    private final Map<String, Property> properties = new HashMap<>();
+    private String pending;
+
+    ICalendarTaskReader(Reader in) {
+        this.lines = new LineReader(in);
+    }
+
+    @Override
+    public Task next() throws IOException {
+        String component = null;
+        int depth = 0;
+        String line;
+        while ((line = nextUnfolded()) != null) {
+            int colon = nameEnd(line);
+            if (colon < 0) {
+                continue;
+            }
+            String[] head = line.substring(0, colon).split(";");
+            String name = head[0].trim().toUpperCase(Locale.ROOT);
+            String value = line.substring(colon + 1);
+            if (name.equals("BEGIN")) {
+                String kind = value.trim().toUpperCase(Locale.ROOT);
+                if (component != null) {
+                    depth++;
+                } else if (kind.equals("VTODO") || kind.equals("VEVENT")) {
+                    component = kind;
+                    properties.clear();
+                }
+            } else if (name.equals("END")) {
+                if (depth > 0) {
+                    depth--;
+                } else if (component != null) {
+                    return component.equals("VEVENT") ? toEvent() : toTodo();
+                }
+            } else if (component != null && depth == 0) {
+                properties.putIfAbsent(name, new Property(value, param(head, "VALUE"), param(head, "TZID")));
+            }
+        }
+        if (component != null) {
+            throw new IllegalArgumentException(component + " not closed before the end of the file");
+        }
+        return null;
+    }
+
+    private Task toTodo() {
+        String description = DescriptionInterner.intern(
+            TaskFields.cleanDescription(unescape(required("SUMMARY").value())));
+        Property due = properties.get("DUE");
+        Task task;
+        if (due == null) {
+            task = new Todo(description);
+        } else {
+            Stamp by = parseStamp(due);
+            task = new Deadline(description, by.dt(), by.hasTime());
+        }
+        Property status = properties.get("STATUS");
+        Property percent = properties.get("PERCENT-COMPLETE");
+        if (status != null && status.value().trim().equalsIgnoreCase("COMPLETED")
+                || properties.containsKey("COMPLETED")
+                || percent != null && percent.value().trim().equals("100")) {
+            task.mark();
+        }
+        return task;
+    }
+
+    private Task toEvent() {
+        String description = DescriptionInterner.intern(
+            TaskFields.cleanDescription(unescape(required("SUMMARY").value())));
+        Stamp from = parseStamp(required("DTSTART"));
+        Stamp to = from;
+        Property end = properties.get("DTEND");
+        Property duration = properties.get("DURATION");
+        if (end != null) {
+            to = parseStamp(end);
+            if (!to.hasTime() && to.dt().isAfter(from.dt())) {
+                to = new Stamp(to.dt().minusDays(1), false); // DTEND of an all-day event is exclusive
+            }
+        } else if (duration != null) {
+            LocalDateTime until = from.dt().plus(parseDuration(duration.value()));
+            to = from.hasTime() ? new Stamp(until, true) : new Stamp(until.minusDays(1), false);
+        }
+        Property rule = properties.get("RRULE");
+        Recurrence recurrence = rule == null ? null : recurrence(rule.value());
+        Event event = new Event(description, from.dt(), from.hasTime(), to.dt(), to.hasTime(), recurrence);
+        Property done = properties.get(ICalendarTaskWriter.DONE_PROPERTY);
+        if (done != null && done.value().trim().equalsIgnoreCase("TRUE")) {
+            event.mark();
+        }
+        return event;
+    }
+
+    /**
+     * Returns the next content line, with any continuation lines joined on.
+     */
+    private String nextUnfolded() throws IOException {
+        String current = pending != null ? pending : lines.next();
+        pending = null;
+        if (current == null) {
+            return null;
+        }
+        StringBuilder unfolded = null;
+        while (true) {
+            String following = lines.next();
+            boolean continues = following != null && !following.isEmpty()
+                && (following.charAt(0) == ' ' || following.charAt(0) == '\t');
+            if (!continues) {
+                pending = following;
+                break;
+            }
+            if (unfolded == null) {
+                unfolded = new StringBuilder(current);
+            }
+            if (unfolded.length() + following.length() > LineReader.MAX_LINE_LENGTH) {
+                throw new IllegalArgumentException("line longer than " + LineReader.MAX_LINE_LENGTH + " characters");
+            }
+            unfolded.append(following, 1, following.length());
+        }
+        return unfolded == null ? current : unfolded.toString();
+    }
+
+    /**
+     * Returns the index of the colon ending a content line's name and parameters, skipping colons
+     * in quoted parameter values, or -1 if there is none.
+     */
+    private static int nameEnd(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String param(String[] head, String name) {
+        for (int i = 1; i < head.length; i++) {
+            int eq = head[i].indexOf('=');
+            if (eq > 0 && head[i].substring(0, eq).trim().equalsIgnoreCase(name)) {
+                return head[i].substring(eq + 1).replace("\"", "").trim();
+            }
+        }
+        return null;
+    }
+
+    private Property required(String name) {
+        Property property = properties.get(name);
+        if (property == null || property.value().isBlank()) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        return property;
+    }
+
+    /**
+     * Parses a DATE or DATE-TIME value into local time.
+     */
+    private static Stamp parseStamp(Property property) {
+        String value = property.value().trim();
+        try {
+            if ("DATE".equalsIgnoreCase(property.valueType()) || value.length() == 8) {
+                return new Stamp(LocalDate.parse(value, DATE).atStartOfDay(), false);
+            }
+            boolean utc = value.endsWith("Z") || value.endsWith("z");
+            LocalDateTime dt = LocalDateTime.parse(utc ? value.substring(0, value.length() - 1) : value, DATE_TIME);
+            ZoneId zone = utc ? ZoneOffset.UTC : zoneOf(property.tzid());
+            if (zone != null) {
+                dt = dt.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return new Stamp(dt.truncatedTo(ChronoUnit.MINUTES), true);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("unrecognised date/time \"" + value + "\"", ex);
+        }
+    }
+
+    private static ZoneId zoneOf(String tzid) {
+        if (tzid == null) {
+            return null;
+        }
+        try {
+            return ZoneId.of(tzid);
+        } catch (DateTimeException ex) {
+            return null; // e.g. a name defined only by the file's VTIMEZONE; treat the time as local
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        String v = value.trim().toUpperCase(Locale.ROOT);
+        try {
+            if (v.endsWith("W")) {
+                boolean negative = v.startsWith("-");
+                int start = v.indexOf('P') + 1;
+                long weeks = Long.parseLong(v.substring(start, v.length() - 1));
+                return Duration.ofDays((negative ? -weeks : weeks) * 7);
+            }
+            return Duration.parse(v.startsWith("+") ? v.substring(1) : v);
+        } catch (DateTimeException | NumberFormatException ex) {
+            throw new IllegalArgumentException("unrecognised duration \"" + value + "\"", ex);
+        }
+    }
+
+    /**
+     * Returns the repetition an RRULE describes, or null if MrMoon has no equivalent: any part
+     * besides FREQ, INTERVAL=1 and WKST narrows or spaces out the occurrences.
+     */
+    private static Recurrence recurrence(String rule) {
+        Map<String, String> parts = new HashMap<>();
+        for (String part : rule.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq > 0) {
+                parts.put(part.substring(0, eq).trim().toUpperCase(Locale.ROOT), part.substring(eq + 1).trim());
+            }
+        }
+        for (Map.Entry<String, String> part : parts.entrySet()) {
+            switch (part.getKey()) {
+            case "FREQ":
+            case "WKST":
+                break;
+            case "INTERVAL":
+                if (!part.getValue().equals("1")) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+            }
+        }
+        String freq = parts.getOrDefault("FREQ", "").toUpperCase(Locale.ROOT);
+        for (Recurrence r : Recurrence.values()) {
+            if (r.name().equals(freq)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Undoes the escaping of iCalendar TEXT values.
+     */
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One property of the component being read: its raw value and the parameters that matter.
+     */
+    private record Property(String value, String valueType, String tzid) {
+    }
+
+    /**
+     * A date or date-time, and whether it had a time.
+     */
+    private record Stamp(LocalDateTime dt, boolean hasTime) {
+    }
+}
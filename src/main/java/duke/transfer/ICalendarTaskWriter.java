@@ -0,0 +1,122 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+
+/**
+ * Writes tasks as an iCalendar file (RFC 5545). Todos and deadlines become VTODO components, with
+ * the deadline as DUE, and events become VEVENT components, with their repetition as an RRULE.
+ * Times are floating, i.e. local to whoever opens the file, as they are in MrMoon. An all-day
+ * event's DTEND is the day after its last day, as iCalendar counts it. iCalendar has no completed
+ * state for events, so completed events carry an X-MRMOON-DONE property instead.
+ */
+final class ICalendarTaskWriter implements TaskWriter {
+    static final String DONE_PROPERTY = "X-MRMOON-DONE";
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Writer out;
+    private final String uidPrefix = UUID.randomUUID().toString();
+    private final String stamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME) + "Z";
+    private long count;
+
+    ICalendarTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//MrMoon//Task Export//EN");
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        String component = task instanceof Event ? "VEVENT" : "VTODO";
+        writeLine("BEGIN:" + component);
+        writeLine("UID:" + uidPrefix + "-" + count++ + "@mrmoon");
+        writeLine("DTSTAMP:" + stamp);
+        writeLine("SUMMARY:" + escape(task.getDescription()));
+        if (task instanceof Event e) {
+            writeLine(dateProperty("DTSTART", e.getFromDateTime(), e.fromHasTime()));
+            LocalDateTime end = e.toHasTime() ? e.getToDateTime() : e.getToDateTime().plusDays(1);
+            writeLine(dateProperty("DTEND", end, e.toHasTime()));
+            if (e.isRecurring()) {
+                writeLine("RRULE:FREQ=" + e.getRecurrence().name());
+            }
+            if (e.isDone()) {
+                writeLine(DONE_PROPERTY + ":TRUE");
+            }
+        } else {
+            if (task instanceof Deadline d) {
+                writeLine(dateProperty("DUE", d.getByDateTime(), d.hasTime()));
+            }
+            writeLine("STATUS:" + (task.isDone() ? "COMPLETED" : "NEEDS-ACTION"));
+        }
+        writeLine("END:" + component);
+    }
+
+    @Override
+    public void end() throws IOException {
+        writeLine("END:VCALENDAR");
+        out.flush();
+    }
+
+    private static String dateProperty(String name, LocalDateTime dt, boolean hasTime) {
+        return hasTime ? name + ":" + dt.format(DATE_TIME) : name + ";VALUE=DATE:" + dt.format(DATE);
+    }
+
+    /**
+     * Escapes text as iCalendar TEXT values require.
+     */
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes a content line, folded so that no physical line is longer than 75 octets of UTF-8.
+     * Folds never split a character.
+     */
+    private void writeLine(String line) throws IOException {
+        int octets = 0;
+        int from = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int width = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            if (Character.isLowSurrogate(c)) {
+                continue; // counted with its high surrogate
+            }
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write(line, from, i - from);
+                out.write("\r\n ");
+                from = i;
+                octets = 1;
+            }
+            octets += width;
+        }
+        out.write(line, from, line.length() - from);
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,169 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import duke.task.Task;
+
+/**
+ * Reads tasks from JSON Lines, one object per line with the fields the CSV format has as columns.
+ * Field names are matched ignoring case, unknown fields are ignored, and values can be strings,
+ * numbers, booleans or null; nested objects and arrays make the line malformed. Blank lines are
+ * skipped.
+ */
+final class JsonLinesTaskReader implements TaskReader {
+    private final LineReader lines;
+    private final Map<String, String> fields = new HashMap<>();
+    private final StringBuilder text = new StringBuilder();
+    private String line;
+    private int at;
+
+    JsonLinesTaskReader(Reader in) {
+        this.lines = new LineReader(in);
+    }
+
+    @Override
+    public Task next() throws IOException {
+        while ((line = lines.next()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            parseObject();
+            return TaskFields.toTask(fields::get);
+        }
+        return null;
+    }
+
+    private void parseObject() {
+        fields.clear();
+        at = 0;
+        expect('{');
+        if (peek() == '}') {
+            at++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                String name = parseString().toLowerCase(Locale.ROOT);
+                expect(':');
+                String value = parseValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+                char c = peek();
+                at++;
+                if (c == '}') {
+                    break;
+                } else if (c != ',') {
+                    throw malformed("expected , or }");
+                }
+            }
+        }
+        if (peek() != 0) {
+            throw malformed("unexpected text after the object");
+        }
+    }
+
+    /**
+     * Parses a value, returning strings decoded, other scalars as written and null as null.
+     */
+    private String parseValue() {
+        char c = peek();
+        if (c == '"') {
+            return parseString();
+        }
+        if (c == '{' || c == '[') {
+            throw malformed("nested values are not supported");
+        }
+        int start = at;
+        while (at < line.length() && ",} \t".indexOf(line.charAt(at)) < 0) {
+            at++;
+        }
+        String literal = line.substring(start, at);
+        if (literal.isEmpty()) {
+            throw malformed("missing value");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String parseString() {
+        expect('"');
+        text.setLength(0);
+        while (at < line.length()) {
+            char c = line.charAt(at++);
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (at >= line.length()) {
+                break;
+            }
+            char escaped = line.charAt(at++);
+            switch (escaped) {
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'u':
+                if (at + 4 > line.length()) {
+                    throw malformed("incomplete \\u escape");
+                }
+                try {
+                    text.append((char) Integer.parseInt(line.substring(at, at + 4), 16));
+                } catch (NumberFormatException ex) {
+                    throw malformed("bad \\u escape");
+                }
+                at += 4;
+                break;
+            default:
+                text.append(escaped);
+                break;
+            }
+        }
+        throw malformed("unterminated string");
+    }
+
+    /**
+     * Skips whitespace and consumes the expected character.
+     */
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw malformed("expected " + expected);
+        }
+        at++;
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it, or 0 at the end.
+     */
+    private char peek() {
+        skipWhitespace();
+        return at < line.length() ? line.charAt(at) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (at < line.length() && Character.isWhitespace(line.charAt(at))) {
+            at++;
+        }
+    }
+
+    private IllegalArgumentException malformed(String problem) {
+        return new IllegalArgumentException("malformed JSON (" + problem + ")");
+    }
+}
@@ -0,0 +1,86 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import duke.task.Task;
+
+/**
+ * Writes tasks as JSON Lines: one object per task on a line of its own, e.g.
+ * {"type":"deadline","done":false,"description":"return book","by":"2025-03-12T18:00"}. Fields the
+ * task's type does not have are left out.
+ */
+final class JsonLinesTaskWriter implements TaskWriter {
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder();
+
+    JsonLinesTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin() {
+        // JSON Lines has no header
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        String[] values = TaskFields.valuesOf(task);
+        line.setLength(0);
+        line.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            if (line.length() > 1) {
+                line.append(',');
+            }
+            appendString(TaskFields.NAMES.get(i));
+            line.append(':');
+            if (TaskFields.DONE.equals(TaskFields.NAMES.get(i))) {
+                line.append(values[i]);
+            } else {
+                appendString(values[i]);
+            }
+        }
+        line.append("}\n");
+        out.write(line.toString());
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    private void appendString(String s) {
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                line.append("\\\"");
+                break;
+            case '\\':
+                line.append("\\\\");
+                break;
+            case '\n':
+                line.append("\\n");
+                break;
+            case '\r':
+                line.append("\\r");
+                break;
+            case '\t':
+                line.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    line.append(String.format("\\u%04x", (int) c));
+                } else {
+                    line.append(c);
+                }
+                break;
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,83 @@
+package duke.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines with a cap on their length, so that a file with no line breaks cannot make an
+ * import hold all of it in memory. Lines end at \n, \r\n or \r.
+ */
+final class LineReader {
+    /**
+     * Longest line returned, in chars
+     */
+    static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private final int maxLength;
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+
+    LineReader(Reader in) {
+        this(in, MAX_LINE_LENGTH);
+    }
+
+    LineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next line, without its terminator.
+     *
+     * @return The line, or null at the end of the input
+     * @throws IllegalArgumentException if the line is too long; it is skipped, and the next call
+     *                                  returns the line after it
+     * @throws IOException              if the input cannot be read
+     */
+    String next() throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        boolean any = false;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    break;
+                }
+            }
+            char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            any = true;
+            if (c == '\n' || c == '\r') {
+                skipLineFeed = c == '\r';
+                return finish(tooLong);
+            }
+            if (line.length() < maxLength) {
+                line.append(c);
+            } else {
+                tooLong = true;
+            }
+        }
+        return any ? finish(tooLong) : null;
+    }
+
+    private String finish(boolean tooLong) {
+        if (tooLong) {
+            throw new IllegalArgumentException("line longer than " + maxLength + " characters");
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,142 @@
+package duke.transfer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import duke.task.Deadline;
+import duke.task.DescriptionInterner;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.TaskType;
+import duke.task.Todo;
+import duke.util.DateTimeUtil;
+
+/**
+ * The named fields a task is exported as in the CSV and JSON Lines formats, and the conversion
+ * between tasks and those fields. Dates are written as in storage, e.g. 2025-03-12 or
+ * 2025-03-12T18:00, and read back in any format the date parser accepts.
+ */
+final class TaskFields {
+    static final String TYPE = "type";
+    static final String DONE = "done";
+    static final String DESCRIPTION = "description";
+    static final String BY = "by";
+    static final String FROM = "from";
+    static final String TO = "to";
+    static final String EVERY = "every";
+
+    /**
+     * Every field, in the order they are exported
+     */
+    static final List<String> NAMES = List.of(TYPE, DONE, DESCRIPTION, BY, FROM, TO, EVERY);
+
+    private TaskFields() {
+    }
+
+    /**
+     * Returns a task's value for each field in {@link #NAMES}, with null for the fields its type
+     * does not have.
+     *
+     * @param task The task
+     * @return The values, in the order of NAMES
+     */
+    static String[] valuesOf(Task task) {
+        String[] values = new String[NAMES.size()];
+        values[0] = task.getTaskType().getDisplayName().toLowerCase(Locale.ROOT);
+        values[1] = String.valueOf(task.isDone());
+        values[2] = task.getDescription();
+        if (task instanceof Deadline d) {
+            values[3] = DateTimeUtil.toStorageString(d.getByDateTime(), d.hasTime());
+        } else if (task instanceof Event e) {
+            values[4] = DateTimeUtil.toStorageString(e.getFromDateTime(), e.fromHasTime());
+            values[5] = DateTimeUtil.toStorageString(e.getToDateTime(), e.toHasTime());
+            values[6] = e.isRecurring() ? e.getRecurrence().getKeyword() : null;
+        }
+        return values;
+    }
+
+    /**
+     * Builds a task from named fields. The type is a type name or storage code, done is true, yes,
+     * x or 1 for a completed task, and fields the type does not use are ignored.
+     *
+     * @param field Returns the value of a field by name, or null if the record does not have it
+     * @return The task
+     * @throws IllegalArgumentException if a field the type needs is missing or cannot be parsed
+     */
+    static Task toTask(Function<String, String> field) {
+        TaskType type = typeOf(required(field, TYPE));
+        String description = DescriptionInterner.intern(cleanDescription(required(field, DESCRIPTION)));
+        Task task;
+        switch (type) {
+        case DEADLINE:
+            task = new Deadline(description, required(field, BY));
+            break;
+        case EVENT:
+            String every = field.apply(EVERY);
+            Recurrence recurrence = every == null || every.isBlank() ? null : Recurrence.fromKeyword(every);
+            if (recurrence == null && every != null && !every.isBlank()) {
+                throw new IllegalArgumentException("unknown repetition \"" + every + "\"");
+            }
+            task = new Event(description, required(field, FROM), required(field, TO), recurrence);
+            break;
+        default:
+            task = new Todo(description);
+            break;
+        }
+        if (isDone(field.apply(DONE))) {
+            task.mark();
+        }
+        return task;
+    }
+
+    /**
+     * Turns text from another system into a description that fits on one storage line: tabs and
+     * line breaks become spaces and surrounding whitespace is dropped.
+     *
+     * @param text The imported text
+     * @return The description
+     * @throws IllegalArgumentException if nothing is left
+     */
+    static String cleanDescription(String text) {
+        String cleaned = text.replaceAll("[\\t\\r\\n]+", " ").strip();
+        if (cleaned.isEmpty()) {
+            throw new IllegalArgumentException("empty description");
+        }
+        return cleaned;
+    }
+
+    private static String required(Function<String, String> field, String name) {
+        String value = field.apply(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        return value;
+    }
+
+    private static TaskType typeOf(String value) {
+        String v = value.trim();
+        for (TaskType type : TaskType.values()) {
+            if (type.getDisplayName().equalsIgnoreCase(v) || type.getStorageCode().equalsIgnoreCase(v)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown task type \"" + value + "\"");
+    }
+
+    private static boolean isDone(String value) {
+        if (value == null) {
+            return false;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+        case "true":
+        case "yes":
+        case "x":
+        case "1":
+            return true;
+        default:
+            return false;
+        }
+    }
+}
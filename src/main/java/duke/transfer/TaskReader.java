@@ -0,0 +1,21 @@
+package duke.transfer;
+
+import java.io.IOException;
+
+import duke.task.Task;
+
+/**
+ * Reads tasks in one import format, one record at a time, so that importing holds no more than the
+ * current record in memory however large the file is.
+ */
+public interface TaskReader {
+    /**
+     * Reads the next task. A record that cannot be turned into a task is consumed and reported by
+     * an IllegalArgumentException, and the following call carries on with the next record.
+     *
+     * @return The next task, or null at the end of the input
+     * @throws IllegalArgumentException if the next record is malformed
+     * @throws IOException              if the input cannot be read, or is not in this format at all
+     */
+    Task next() throws IOException;
+}
@@ -0,0 +1,33 @@
+package duke.transfer;
+
+import java.io.IOException;
+
+import duke.task.Task;
+
+/**
+ * Writes tasks in one export format, one at a time, so that exporting holds no more than the
+ * current task in memory.
+ */
+public interface TaskWriter {
+    /**
+     * Writes whatever the format needs before the first task, such as a header.
+     *
+     * @throws IOException if the write fails
+     */
+    void begin() throws IOException;
+
+    /**
+     * Writes one task.
+     *
+     * @param task The task to write
+     * @throws IOException if the write fails
+     */
+    void write(Task task) throws IOException;
+
+    /**
+     * Writes whatever the format needs after the last task and flushes.
+     *
+     * @throws IOException if the write fails
+     */
+    void end() throws IOException;
+}
@@ -0,0 +1,102 @@
+package duke.transfer;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * The file formats tasks can be exported to and imported from.
+ */
+public enum TransferFormat {
+    /**
+     * Comma-separated values with a header row, quoted as in RFC 4180
+     */
+    CSV("csv"),
+
+    /**
+     * One JSON object per line
+     */
+    JSON_LINES("jsonl"),
+
+    /**
+     * iCalendar, with todos and deadlines as VTODO components and events as VEVENT components
+     */
+    ICALENDAR("ics");
+
+    private final String keyword;
+
+    TransferFormat(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the keyword used to choose this format, which is also its usual file extension.
+     *
+     * @return The keyword, e.g. "csv"
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Looks up a format by its keyword, ignoring case and surrounding whitespace. "json" is
+     * accepted for JSON Lines and "ical" for iCalendar.
+     *
+     * @param keyword The keyword typed by the user
+     * @return The matching format, or null if there is none
+     */
+    public static TransferFormat fromKeyword(String keyword) {
+        String k = keyword.trim().toLowerCase(Locale.ROOT);
+        for (TransferFormat format : values()) {
+            if (format.keyword.equals(k)) {
+                return format;
+            }
+        }
+        switch (k) {
+        case "json":
+            return JSON_LINES;
+        case "ical":
+            return ICALENDAR;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Creates a writer of this format.
+     *
+     * @param out Where to write; the caller closes it
+     * @return The writer
+     */
+    public TaskWriter newWriter(Writer out) {
+        switch (this) {
+        case CSV:
+            return new CsvTaskWriter(out);
+        case JSON_LINES:
+            return new JsonLinesTaskWriter(out);
+        case ICALENDAR:
+            return new ICalendarTaskWriter(out);
+        default:
+            throw new AssertionError(this);
+        }
+    }
+
+    /**
+     * Creates a reader of this format.
+     *
+     * @param in Where to read from; the caller closes it
+     * @return The reader
+     */
+    public TaskReader newReader(Reader in) {
+        switch (this) {
+        case CSV:
+            return new CsvTaskReader(in);
+        case JSON_LINES:
+            return new JsonLinesTaskReader(in);
+        case ICALENDAR:
+            return new ICalendarTaskReader(in);
+        default:
+            throw new AssertionError(this);
+        }
+    }
+}
@@ -3,8 +3,8 @@ package duke.ui;
 import java.time.LocalDate;
 import java.util.List;
 
+import duke.task.SortOrder;
 import duke.task.Task;
-import duke.task.TaskList;
 import duke.util.CommandListingUtil;
 import duke.util.DateTimeUtil;
 
@@ -83,6 +83,17 @@ public class GuiUi extends Ui {
         append("Now you have " + newSize + " task(s) in the list.");
     }
 
+    @Override
+    public void printBulkMarked(int count, boolean mark) {
+        append("Nice! I've marked " + count + " task(s) as " + (mark ? "done!" : "not done yet!"));
+    }
+
+    @Override
+    public void printBulkDeleted(int count, int newSize) {
+        append("Noted. I've removed " + count + " task(s).");
+        append("Now you have " + newSize + " task(s) in the list.");
+    }
+
     @Override
     public void printFindResults(String keyword, List<Task> matches) {
         append("Here are the matching tasks for '" + keyword + "':");
@@ -96,7 +107,25 @@ public class GuiUi extends Ui {
     }
 
     @Override
-    public void printAgendaForDate(LocalDate date, List<Task> items, TaskList fullList) {
+    public void printArchiveFindResults(List<Task> matches) {
+        append("And the matching tasks in your archive:");
+        if (matches.isEmpty()) {
+            append("(no matching archived tasks found)");
+        } else {
+            for (int i = 0; i < matches.size(); i++) {
+                append("a" + (i + 1) + ". " + matches.get(i).toString());
+            }
+        }
+    }
+
+    @Override
+    public void printQueryPlan(String query, List<String> lines) {
+        append("Plan for '" + query + "':");
+        lines.forEach(this::append);
+    }
+
+    @Override
+    public void printAgendaForDate(LocalDate date, List<Task> items, int[] positions) {
         append(
             "Tasks on "
                 + date.format(java.time.format.DateTimeFormatter.ofPattern("d MMM yyyy"))
@@ -105,7 +134,7 @@ public class GuiUi extends Ui {
             append("(none)");
         } else {
             for (int i = 0; i < items.size(); i++) {
-                int originalIdx = fullList.indexOf(items.get(i)) + 1;
+                int originalIdx = positions[i] + 1;
                 append((i + 1)
                         + ". "
                         + items.get(i).toString()
@@ -237,6 +266,130 @@ public class GuiUi extends Ui {
         append(task.toString());
     }
 
+    @Override
+    public void printUndone(String action, int newSize) {
+        append("Undone: " + action);
+        append("Now you have " + newSize + " task(s) in the list.");
+    }
+
+    @Override
+    public void printRedone(String action, int newSize) {
+        append("Redone: " + action);
+        append("Now you have " + newSize + " task(s) in the list.");
+    }
+
+    /**
+     * Prints runtime statistics collected by the metrics registry.
+     */
+    @Override
+    public void printStats(List<String> lines) {
+        append("Here are the stats for this session:");
+        lines.forEach(this::append);
+    }
+
+    @Override
+    public void printSortedList(SortOrder order, List<Task> items, int[] positions) {
+        if (items.isEmpty()) {
+            append("You have no tasks in your list!");
+        } else {
+            append("Here are the tasks in your list, sorted by " + order.getKeyword() + ":");
+            for (int i = 0; i < items.size(); i++) {
+                append((i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+    }
+
+    @Override
+    public void printListFormat() {
+        append("Usage: list [/sort due|start|done]");
+        append("Example: list /sort due");
+    }
+
+    @Override
+    public void printOverdue(List<Task> items, int[] positions) {
+        if (items.isEmpty()) {
+            append("Nothing is overdue. Well done!");
+        } else {
+            append("These tasks are overdue:");
+            for (int i = 0; i < items.size(); i++) {
+                append((i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+    }
+
+    @Override
+    public void printUpcoming(int days, List<Task> items, int[] positions) {
+        if (items.isEmpty()) {
+            append("Nothing coming up in the next " + days + " day(s).");
+        } else {
+            append("Coming up in the next " + days + " day(s):");
+            for (int i = 0; i < items.size(); i++) {
+                append((i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+    }
+
+    @Override
+    public void printReminder(Task task) {
+        append("Reminder! This is due now:");
+        append(task.toString());
+    }
+
+    @Override
+    public void printArchived(int count, int newSize) {
+        if (count == 0) {
+            append("There are no completed tasks to archive.");
+        } else {
+            append("Archived " + count + " completed task(s). Find them with find --all.");
+            append("Now you have " + newSize + " task(s) in the list.");
+        }
+    }
+
+    @Override
+    public void printArchiveFormat() {
+        append("Usage: archive [days]");
+        append("Example: archive 30 (completed tasks that ended over 30 days ago)");
+    }
+
+    @Override
+    public void printExported(int count, String path) {
+        append("Exported " + count + " task(s) to " + path + ".");
+    }
+
+    @Override
+    public void printImported(int count, int skipped, int newSize) {
+        append("Imported " + count + " task(s).");
+        if (skipped > 0) {
+            append("Skipped " + skipped + " record(s) I couldn't read.");
+        }
+        append("Now you have " + newSize + " task(s) in the list.");
+    }
+
+    @Override
+    public void printReloaded(int removed, int added, int newSize) {
+        append("Your tasks were changed outside MrMoon, so I reloaded them.");
+        append("Replaced " + removed + " task(s) with " + added + ".");
+        append("Now you have " + newSize + " task(s) in the list.");
+    }
+
+    @Override
+    public void printExportFormat() {
+        append("Usage: export csv|jsonl|ics <file>");
+        append("Example: export ics tasks.ics");
+    }
+
+    @Override
+    public void printImportFormat() {
+        append("Usage: import csv|jsonl|ics <file>");
+        append("Example: import csv tasks.csv");
+    }
+
+    @Override
+    public void printUpcomingFormat() {
+        append("Usage: upcoming [number of days]");
+        append("Example: upcoming 7");
+    }
+
     /**
      * Gets the captured output and clears the buffer
      */
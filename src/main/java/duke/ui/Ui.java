@@ -6,8 +6,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
 
+import duke.task.SortOrder;
 import duke.task.Task;
-import duke.task.TaskList;
 import duke.util.CommandListingUtil;
 import duke.util.DateTimeUtil;
 
@@ -97,10 +97,10 @@ public class Ui {
      * for user reference.
      *
      * @param date     The date to display tasks for
-     * @param items    The list of tasks occurring on the specified date
-     * @param fullList The complete task list for index reference
+     * @param items     The list of tasks occurring on the specified date
+     * @param positions The 0-based main-list position of each item
      */
-    public void printAgendaForDate(LocalDate date, List<Task> items, TaskList fullList) {
+    public void printAgendaForDate(LocalDate date, List<Task> items, int[] positions) {
         printLine();
         out.println("    Tasks on " + date.format(DateTimeFormatter.ofPattern("d MMM uuuu")) + ":");
 
@@ -110,11 +110,9 @@ public class Ui {
             return;
         }
 
-        int i = 1;
-        for (Task t : items) {
-            int originalIdx = fullList.indexOf(t) + 1;
-            out.println("    " + i + ". " + t.toString() + " [#" + originalIdx + " in main list]");
-            i++;
+        for (int i = 0; i < items.size(); i++) {
+            int originalIdx = positions[i] + 1;
+            out.println("    " + (i + 1) + ". " + items.get(i).toString() + " [#" + originalIdx + " in main list]");
         }
 
         printLine();
@@ -204,6 +202,31 @@ public class Ui {
         printLine();
     }
 
+    /**
+     * Prints confirmation that several tasks were marked or unmarked at once.
+     *
+     * @param count The number of tasks changed
+     * @param mark  true if the tasks were marked as done, false if unmarked
+     */
+    public void printBulkMarked(int count, boolean mark) {
+        printLine();
+        out.println("    " + "Nice! I've marked " + count + " task(s) as " + (mark ? "done!" : "not done yet!"));
+        printLine();
+    }
+
+    /**
+     * Prints confirmation that several tasks were deleted at once.
+     *
+     * @param count   The number of tasks removed
+     * @param newSize The number of remaining tasks after deletion
+     */
+    public void printBulkDeleted(int count, int newSize) {
+        printLine();
+        out.println("    " + "Noted. I've removed " + count + " task(s).");
+        out.println("    " + "Now you have " + newSize + " duke.task(s) in the list.");
+        printLine();
+    }
+
     /**
      * Prints a usage message or error to the user.
      *
@@ -283,6 +306,41 @@ public class Ui {
         printLine();
     }
 
+    /**
+     * Prints the tasks in the archive that matched a find query, after those in the list.
+     *
+     * @param matches The archived tasks that matched, in the order they were archived
+     */
+    public void printArchiveFindResults(List<Task> matches) {
+        printLine();
+        out.println("    And the matching tasks in your archive:");
+
+        if (matches.isEmpty()) {
+            out.println("    (no matching archived tasks found)");
+        } else {
+            for (int i = 0; i < matches.size(); i++) {
+                out.println("    a" + (i + 1) + ". " + matches.get(i).toString());
+            }
+        }
+
+        printLine();
+    }
+
+    /**
+     * Prints the plan of a find query, one step per line.
+     *
+     * @param query The query that was explained
+     * @param lines The plan, as described by the query planner
+     */
+    public void printQueryPlan(String query, List<String> lines) {
+        printLine();
+        out.println("    Plan for '" + query + "':");
+        for (String line : lines) {
+            out.println("    " + line);
+        }
+        printLine();
+    }
+
     /**
      * Prints the initial update prompt based on task type.
      */
@@ -373,6 +431,229 @@ public class Ui {
         printLine();
     }
 
+    /**
+     * Prints confirmation that a change was undone.
+     *
+     * @param action  The name of the reverted action, e.g. "delete"
+     * @param newSize The number of tasks after the undo
+     */
+    public void printUndone(String action, int newSize) {
+        printLine();
+        out.println("    " + "Undone: " + action);
+        out.println("    " + "Now you have " + newSize + " duke.task(s) in the list.");
+        printLine();
+    }
+
+    /**
+     * Prints confirmation that an undone change was re-applied.
+     *
+     * @param action  The name of the re-applied action, e.g. "delete"
+     * @param newSize The number of tasks after the redo
+     */
+    public void printRedone(String action, int newSize) {
+        printLine();
+        out.println("    " + "Redone: " + action);
+        out.println("    " + "Now you have " + newSize + " duke.task(s) in the list.");
+        printLine();
+    }
+
+    /**
+     * Prints runtime statistics collected by the metrics registry.
+     *
+     * @param lines The statistics, one entry per line
+     */
+    public void printStats(List<String> lines) {
+        printLine();
+        out.println("    " + "Here are the stats for this session:");
+        for (String line : lines) {
+            out.println("    " + line);
+        }
+        printLine();
+    }
+
+    /**
+     * Prints the task list in a sorted order, with each task's number in the main list so that it
+     * can still be marked or deleted.
+     *
+     * @param order     The order the tasks are listed in
+     * @param items     The tasks in sorted order
+     * @param positions The 0-based main-list position of each item
+     */
+    public void printSortedList(SortOrder order, List<Task> items, int[] positions) {
+        printLine();
+        if (items.isEmpty()) {
+            out.println("    " + "You have no tasks in your list!");
+        } else {
+            out.println("    " + "Here are the tasks in your list, sorted by " + order.getKeyword() + ":");
+            for (int i = 0; i < items.size(); i++) {
+                out.println("    " + (i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+        printLine();
+    }
+
+    /**
+     * Prints usage instructions for the list command.
+     */
+    public void printListFormat() {
+        printLine();
+        out.println("    " + "Usage: list [/sort due|start|done]");
+        out.println("    " + "Example: list /sort due");
+        printLine();
+    }
+
+    /**
+     * Prints incomplete deadlines that are past due, with their main-list numbers.
+     *
+     * @param items     The overdue tasks, earliest first
+     * @param positions The 0-based main-list position of each item
+     */
+    public void printOverdue(List<Task> items, int[] positions) {
+        printLine();
+        if (items.isEmpty()) {
+            out.println("    " + "Nothing is overdue. Well done!");
+        } else {
+            out.println("    " + "These tasks are overdue:");
+            for (int i = 0; i < items.size(); i++) {
+                out.println("    " + (i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+        printLine();
+    }
+
+    /**
+     * Prints incomplete tasks due or starting within the next few days, with their main-list numbers.
+     *
+     * @param days      The number of days looked ahead
+     * @param items     The upcoming tasks, earliest first
+     * @param positions The 0-based main-list position of each item
+     */
+    public void printUpcoming(int days, List<Task> items, int[] positions) {
+        printLine();
+        if (items.isEmpty()) {
+            out.println("    " + "Nothing coming up in the next " + days + " day(s).");
+        } else {
+            out.println("    " + "Coming up in the next " + days + " day(s):");
+            for (int i = 0; i < items.size(); i++) {
+                out.println("    " + (i + 1) + ". " + items.get(i) + " [#" + (positions[i] + 1) + " in main list]");
+            }
+        }
+        printLine();
+    }
+
+    /**
+     * Prints a reminder that a deadline is due or an event is starting.
+     *
+     * @param task The task being reminded about
+     */
+    public void printReminder(Task task) {
+        printLine();
+        out.println("    " + "Reminder! This is due now:");
+        out.println("      " + task);
+        printLine();
+    }
+
+    /**
+     * Prints confirmation that completed tasks were moved to the archive.
+     *
+     * @param count   The number of tasks archived
+     * @param newSize The number of tasks left in the list
+     */
+    public void printArchived(int count, int newSize) {
+        printLine();
+        if (count == 0) {
+            out.println("    " + "There are no completed tasks to archive.");
+        } else {
+            out.println("    " + "Archived " + count + " completed task(s). Find them with find --all.");
+            out.println("    " + "Now you have " + newSize + " task(s) in the list.");
+        }
+        printLine();
+    }
+
+    /**
+     * Prints usage instructions for the archive command.
+     */
+    public void printArchiveFormat() {
+        printLine();
+        out.println("    " + "Usage: archive [days]");
+        out.println("    " + "Example: archive 30 (completed tasks that ended over 30 days ago)");
+        printLine();
+    }
+
+    /**
+     * Prints confirmation that the list was exported.
+     *
+     * @param count The number of tasks written
+     * @param path  The file they were written to
+     */
+    public void printExported(int count, String path) {
+        printLine();
+        out.println("    " + "Exported " + count + " task(s) to " + path + ".");
+        printLine();
+    }
+
+    /**
+     * Prints the result of an import.
+     *
+     * @param count   The number of tasks added
+     * @param skipped The number of records that could not be read
+     * @param newSize The number of tasks now in the list
+     */
+    public void printImported(int count, int skipped, int newSize) {
+        printLine();
+        out.println("    " + "Imported " + count + " task(s).");
+        if (skipped > 0) {
+            out.println("    " + "Skipped " + skipped + " record(s) I couldn't read.");
+        }
+        out.println("    " + "Now you have " + newSize + " task(s) in the list.");
+        printLine();
+    }
+
+    /**
+     * Prints that the list was reloaded after another program changed the data file.
+     *
+     * @param removed The number of tasks taken out of the list, including the old versions of edited tasks
+     * @param added   The number of tasks put in, including the new versions of edited tasks
+     * @param newSize The number of tasks now in the list
+     */
+    public void printReloaded(int removed, int added, int newSize) {
+        printLine();
+        out.println("    " + "Your tasks were changed outside MrMoon, so I reloaded them.");
+        out.println("    " + "Replaced " + removed + " task(s) with " + added + ".");
+        out.println("    " + "Now you have " + newSize + " task(s) in the list.");
+        printLine();
+    }
+
+    /**
+     * Prints usage instructions for the export command.
+     */
+    public void printExportFormat() {
+        printLine();
+        out.println("    " + "Usage: export csv|jsonl|ics <file>");
+        out.println("    " + "Example: export ics tasks.ics");
+        printLine();
+    }
+
+    /**
+     * Prints usage instructions for the import command.
+     */
+    public void printImportFormat() {
+        printLine();
+        out.println("    " + "Usage: import csv|jsonl|ics <file>");
+        out.println("    " + "Example: import csv tasks.csv");
+        printLine();
+    }
+
+    /**
+     * Prints usage instructions for the upcoming command.
+     */
+    public void printUpcomingFormat() {
+        printLine();
+        out.println("    " + "Usage: upcoming [number of days]");
+        out.println("    " + "Example: upcoming 7");
+        printLine();
+    }
+
     public PrintStream out() {
         return out;
     }
@@ -12,14 +12,22 @@ public final class CommandListingUtil {
      * List of available commands with their usage syntax.
      */
     private static final List<String> COMMAND_LIST = List.of(
-        "- list", "- todo <description>",
+        "- list [/sort due|start|done]", "- todo <description>",
         "- deadline <description> /by <date/time>",
-        "- event <description> /from <start> /to <end>", "- mark | unmark <task_number>",
+        "- event <description> /from <start> /to <end> [/every day|week|month]",
+        "- mark | unmark <task_number>",
         "- delete <task_number>",
+        "- mark | unmark | delete <1,5,9-20 | done | before <date>>",
         "- update <task_number>",
         "- on <date>",
+        "- overdue | upcoming [days]",
         "- clear (clear all tasks in list)",
-        "- find <keyword>"
+        "- find [--all] <words> [type:<type>] [done:yes|no] [due<date>] (rep* for prefixes)",
+        "- explain <find query>",
+        "- archive [days] (move completed tasks out of the list)",
+        "- export | import csv|jsonl|ics <file>",
+        "- undo | redo",
+        "- stats"
     );
 
     /**
@@ -9,6 +9,9 @@ import java.time.temporal.ChronoField;
 import java.util.List;
 import java.util.Locale;
 
+import duke.metrics.DateParseEvent;
+import duke.metrics.MetricsRegistry;
+
 /**
  * Utility class for parsing and formatting date/time strings. Supports multiple input formats and
  * provides consistent output formatting. Handles both date-only and date-time parsing with flexible
@@ -122,6 +125,26 @@ public final class DateTimeUtil {
      * @throws IllegalArgumentException if no pattern matches the input
      */
     public static ParseResult parseLenientResult(String raw) {
+        DateParseEvent event = new DateParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ParseResult result = null;
+        try {
+            result = parseLenient(raw);
+            return result;
+        } finally {
+            MetricsRegistry.global().recordDateParse(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit() && DateParseEvent.isSampled()) {
+                event.setInput(raw);
+                event.setSucceeded(result != null);
+                event.setHasTime(result != null && result.hasTime);
+                event.commit();
+            }
+        }
+    }
+
+    private static ParseResult parseLenient(String raw) {
         String s = raw == null ? "" : raw.trim();
         if (s.isEmpty()) {
             throw new IllegalArgumentException("Empty date/time");
@@ -0,0 +1,59 @@
+package duke.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void recordCommand_singleObservation_appearsInSummary() {
+        registry.recordCommand("TodoCommand", 2_000_000);
+
+        List<String> lines = registry.summaryLines();
+        assertTrue(lines.contains("  TodoCommand: 1 calls, avg 2.00 ms, max 2.00 ms"));
+    }
+
+    @Test
+    void toPrometheusText_commandRecorded_writesCumulativeBuckets() {
+        registry.recordCommand("ListCommand", 50_000);
+        registry.recordCommand("ListCommand", 3_000_000);
+
+        String text = registry.toPrometheusText();
+        assertTrue(text.contains("# TYPE mrmoon_command_duration_seconds histogram"));
+        assertTrue(text.contains("mrmoon_command_duration_seconds_bucket{command=\"ListCommand\",le=\"1.0E-4\"} 1"));
+        assertTrue(text.contains("mrmoon_command_duration_seconds_bucket{command=\"ListCommand\",le=\"+Inf\"} 2"));
+        assertTrue(text.contains("mrmoon_command_duration_seconds_count{command=\"ListCommand\"} 2"));
+    }
+
+    @Test
+    void recordSave_bytesAndTasks_updatesCounterAndGauge() {
+        registry.recordSave(100, 1_000, 3);
+        registry.recordSave(40, 1_000, 1);
+
+        String text = registry.toPrometheusText();
+        assertTrue(text.contains("mrmoon_storage_written_bytes_total 140"));
+        assertTrue(text.contains("mrmoon_storage_last_save_bytes 40"));
+        assertTrue(text.contains("mrmoon_tasks 1"));
+    }
+
+    @Test
+    void recordDescriptionLookup_hitsAndMisses_reportsHitRatio() {
+        registry.recordDescriptionLookup(false);
+        registry.recordDescriptionLookup(true);
+        registry.recordDescriptionLookup(true);
+        registry.recordDescriptionLookup(true);
+
+        assertTrue(registry.summaryLines().contains("Description pool: 3 of 4 lookups shared (75.0% hit ratio)"));
+        assertTrue(registry.toPrometheusText().contains("mrmoon_description_pool_lookups_total{result=\"hit\"} 3"));
+    }
+}
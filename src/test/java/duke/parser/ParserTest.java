@@ -2,21 +2,33 @@ package duke.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import duke.command.ArchiveCommand;
 import duke.command.Command;
 import duke.command.DeadlineCommand;
 import duke.command.DeleteCommand;
 import duke.command.EmptyCommand;
 import duke.command.EventCommand;
 import duke.command.ExitCommand;
+import duke.command.ExplainCommand;
+import duke.command.ExportCommand;
+import duke.command.FindCommand;
+import duke.command.ImportCommand;
 import duke.command.ListCommand;
 import duke.command.MarkCommand;
+import duke.command.OverdueCommand;
+import duke.command.StatsCommand;
 import duke.command.TodoCommand;
 import duke.command.UnknownCommand;
+import duke.command.UpcomingCommand;
+import duke.task.TaskSelector;
 
 class ParserTest {
     private Parser parser;
@@ -68,6 +80,12 @@ class ParserTest {
         assertInstanceOf(DeleteCommand.class, command);
     }
 
+    @Test
+    void parseCommand_statsCommand_returnsStatsCommand() {
+        Command command = parser.parseCommand("stats");
+        assertInstanceOf(StatsCommand.class, command);
+    }
+
     @Test
     void parseCommand_emptyString_returnsEmptyCommand() {
         Command command = parser.parseCommand("");
@@ -111,4 +129,57 @@ class ParserTest {
     void parseDeadlineArgs_missingBy_throwsException() {
         assertThrows(IllegalArgumentException.class, () -> parser.parseDeadlineArgs("Submit assignment"));
     }
+
+    @Test
+    void parseBulkSelector_rangesAndLists_returnsSelector() {
+        assertNotNull(parser.parseBulkSelector("3-900"));
+        assertNotNull(parser.parseBulkSelector("1,5,9-20"));
+        assertNotNull(parser.parseBulkSelector("done"));
+        assertNotNull(parser.parseBulkSelector("before 2025-01-01"));
+    }
+
+    @Test
+    void parseBulkSelector_singleNumberOrGarbage_returnsNull() {
+        assertNull(parser.parseBulkSelector("3"));
+        assertNull(parser.parseBulkSelector("1-2-3"));
+        assertNull(parser.parseBulkSelector("a,b"));
+    }
+
+    @Test
+    void parseBulkSelector_beforeUnreadableDate_reportsDate() {
+        TaskSelector selector = parser.parseBulkSelector("before someday");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> selector.resolve(null));
+        assertTrue(ex.getMessage().startsWith("Unrecognised date/time: \"someday\""));
+    }
+
+    @Test
+    void parseCommand_overdueAndUpcoming_returnsTimeQueryCommands() {
+        assertInstanceOf(OverdueCommand.class, parser.parseCommand("overdue"));
+        assertInstanceOf(UpcomingCommand.class, parser.parseCommand("upcoming 3"));
+    }
+
+    @Test
+    void parseCommand_eventWithEvery_returnsEventCommand() {
+        assertInstanceOf(EventCommand.class,
+            parser.parseCommand("event standup /from 2025-03-03 0930 /to 2025-03-03 0945 /every week"));
+    }
+
+    @Test
+    void parseCommand_findAndExplain_returnsQueryCommands() {
+        assertInstanceOf(FindCommand.class, parser.parseCommand("find report done:no due<2025-12-01"));
+        assertInstanceOf(ExplainCommand.class, parser.parseCommand("explain find report done:no"));
+    }
+
+    @Test
+    void parseCommand_archive_returnsArchiveCommand() {
+        assertInstanceOf(ArchiveCommand.class, parser.parseCommand("archive"));
+        assertInstanceOf(ArchiveCommand.class, parser.parseCommand("archive 30"));
+    }
+
+    @Test
+    void parseCommand_exportAndImport_returnTransferCommands() {
+        assertInstanceOf(ExportCommand.class, parser.parseCommand("export csv tasks.csv"));
+        assertInstanceOf(ImportCommand.class, parser.parseCommand("import ics my calendar.ics"));
+    }
 }
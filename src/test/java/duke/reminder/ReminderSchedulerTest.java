@@ -0,0 +1,140 @@
+package duke.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import duke.storage.Storage;
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.TaskList;
+import duke.task.Todo;
+
+class ReminderSchedulerTest {
+    private MutableClock clock;
+    private List<Task> delivered;
+    private ReminderScheduler scheduler;
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(LocalDateTime.of(2025, 3, 10, 12, 0).toInstant(ZoneOffset.UTC));
+        delivered = new ArrayList<>();
+        scheduler = new ReminderScheduler(clock, Executors.newSingleThreadScheduledExecutor(), delivered::add);
+        tasks = new TaskList(Mockito.mock(Storage.class), null);
+        tasks.addIndex(scheduler);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void fireDue_headReached_deliversOnlyDueTasks() {
+        tasks.add(new Deadline("Report", "2025-03-10 1400"));
+        tasks.add(new Event("Meeting", "2025-03-10 1300", "2025-03-10 1500"));
+        tasks.add(new Todo("Undated"));
+
+        clock.set(LocalDateTime.of(2025, 3, 10, 13, 30));
+        scheduler.fireDue();
+
+        assertEquals(1, delivered.size());
+        assertEquals("Meeting", delivered.get(0).getDescription());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 14, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+            scheduler.nextDueMillis());
+    }
+
+    @Test
+    void removedOrMarked_pendingReminder_isNotDelivered() {
+        tasks.add(new Deadline("Deleted", "2025-03-10 1400"));
+        tasks.add(new Deadline("Done", "2025-03-10 1500"));
+        tasks.remove(0);
+        tasks.mark(0);
+
+        clock.set(LocalDateTime.of(2025, 3, 11, 0, 0));
+        scheduler.fireDue();
+
+        assertTrue(delivered.isEmpty());
+        assertEquals(Long.MAX_VALUE, scheduler.nextDueMillis());
+    }
+
+    @Test
+    void start_pastDueTasks_areDroppedAndDateOnlyFiresAtStartOfDay() {
+        TaskList existing = new TaskList(Mockito.mock(Storage.class), null);
+        existing.add(new Deadline("Already late", "2025-03-01"));
+        existing.add(new Deadline("Tomorrow", "2025-03-11"));
+        ReminderScheduler late = new ReminderScheduler(clock, Executors.newSingleThreadScheduledExecutor(),
+            delivered::add);
+        existing.addIndex(late);
+        late.start();
+
+        assertEquals(LocalDateTime.of(2025, 3, 11, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+            late.nextDueMillis());
+        late.close();
+    }
+
+    @Test
+    void added_alreadyPastDue_isNotReminded() {
+        tasks.add(new Deadline("Late", "2025-03-10 0900"));
+
+        scheduler.fireDue();
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    void fireDue_recurringEvent_requeuesNextOccurrence() {
+        tasks.add(new Event("Standup", "2025-03-10 1300", "2025-03-10 1315", Recurrence.DAILY));
+
+        clock.set(LocalDateTime.of(2025, 3, 10, 13, 0));
+        scheduler.fireDue();
+
+        assertEquals(1, delivered.size());
+        assertEquals(LocalDateTime.of(2025, 3, 11, 13, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+            scheduler.nextDueMillis());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(LocalDateTime time) {
+            now = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import duke.task.Deadline;
+import duke.task.Task;
+import duke.task.Todo;
+
+/**
+ * Measures file size and the latency of {@link Storage#save(List)} and {@link Storage#load()} with
+ * no compression and at several compression levels, to pick a level with numbers in hand. Run with
+ * {@code ./gradlew compressionBenchmark}, optionally passing the number of tasks, the number of
+ * timed rounds and the block size, e.g. {@code --args="200000 10 262144"}. Saves are not forced to
+ * disk, so the numbers are encoding and compression costs rather than the disk's.
+ */
+public class CompressionBenchmark {
+    private static final int DEFAULT_TASKS = 200_000;
+    private static final int DEFAULT_ROUNDS = 10;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int[] LEVELS = {0, 1, 6, 9};
+
+    /**
+     * Runs the benchmark and prints one line per level.
+     *
+     * @param args Optional number of tasks, then number of timed rounds, then block size in bytes
+     * @throws IOException if the temporary directory cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : Storage.DEFAULT_COMPRESSION_BLOCK_SIZE;
+
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(i % 2 == 0
+                ? new Todo("task " + i + " review notes")
+                : new Deadline("task " + i + " submit report", "2025-12-01 1800"));
+        }
+
+        System.out.printf("%d task(s), %d round(s), %d-byte blocks%n", taskCount, rounds, blockSize);
+        System.out.printf("%-8s %12s %8s %12s %12s%n", "level", "bytes", "ratio", "save p50 ms", "load p50 ms");
+        long plainBytes = 0;
+        for (int level : LEVELS) {
+            Path dir = Files.createTempDirectory("mrmoon-compression-benchmark");
+            Storage storage = new Storage(dir.resolve("duke.txt").toString());
+            storage.setDurability(DurabilityPolicy.NONE, Storage.DEFAULT_GROUP_FSYNC_MILLIS);
+            storage.setCompression(level, blockSize);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                storage.save(tasks);
+                storage.load();
+            }
+
+            long[] saveNanos = new long[rounds];
+            long[] loadNanos = new long[rounds];
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                storage.save(tasks);
+                saveNanos[i] = System.nanoTime() - start;
+                start = System.nanoTime();
+                int loaded = storage.load().size();
+                loadNanos[i] = System.nanoTime() - start;
+                if (loaded != taskCount) {
+                    throw new IllegalStateException("Loaded " + loaded + " of " + taskCount + " tasks");
+                }
+            }
+            long bytes = Files.size(dir.resolve("duke.txt"));
+            if (level == 0) {
+                plainBytes = bytes;
+            }
+
+            Arrays.sort(saveNanos);
+            Arrays.sort(loadNanos);
+            System.out.printf("%-8s %12d %8.2f %12.1f %12.1f%n",
+                level == 0 ? "none" : String.valueOf(level), bytes, (double) plainBytes / bytes,
+                saveNanos[rounds / 2] / 1e6, loadNanos[rounds / 2] / 1e6);
+        }
+    }
+}
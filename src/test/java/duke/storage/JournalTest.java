@@ -0,0 +1,77 @@
+package duke.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JournalTest {
+
+    @Test
+    void ranges_runsAndSingles_roundTripThroughPositions() {
+        int[] positions = {0, 1, 2, 7, 9, 10};
+
+        assertEquals("0-2,7,9-10", Journal.ranges(positions));
+        assertArrayEquals(positions, Journal.positions("0-2,7,9-10"));
+        assertEquals("-", Journal.ranges(new int[0]));
+        assertArrayEquals(new int[0], Journal.positions("-"));
+    }
+
+    @Test
+    void positions_notAscending_throws() {
+        assertThrows(IllegalArgumentException.class, () -> Journal.positions("3,1"));
+    }
+
+    @Test
+    void readSince_entriesAfterGeneration_returnsThemWithRecords() throws IOException {
+        Journal journal = new Journal(Files.createTempDirectory("journal-test").resolve("duke.txt.journal"));
+        journal.lock();
+        try {
+            journal.append(1, null, List.of());
+            journal.append(2, Change.inPlace(3), List.of(record("first")));
+            journal.append(3, Change.removed(0, 1), List.of());
+
+            List<Journal.Entry> entries = journal.readSince(1);
+
+            assertEquals(3, journal.generation());
+            assertEquals(2, entries.size());
+            Journal.Entry marked = entries.get(0);
+            assertArrayEquals(new int[] {3}, marked.change().getPositions());
+            assertEquals("first", new String(marked.data(), marked.recordStart(0),
+                marked.recordEnd(0) - marked.recordStart(0), StandardCharsets.UTF_8));
+            assertEquals(Change.Kind.REMOVED, entries.get(1).change().getKind());
+            assertNull(journal.readSince(0)); // generation 1 changed the list in an unknown way
+        } finally {
+            journal.unlock();
+        }
+    }
+
+    @Test
+    void append_generationSkipped_dropsOlderEntries() throws IOException {
+        Path file = Files.createTempDirectory("journal-test").resolve("duke.txt.journal");
+        Journal journal = new Journal(file);
+        journal.lock();
+        try {
+            journal.append(1, Change.inserted(0), List.of(record("first")));
+            journal.append(5, Change.inserted(1), List.of(record("second")));
+
+            assertNull(journal.readSince(1));
+            assertEquals(1, journal.readSince(4).size());
+        } finally {
+            journal.unlock();
+        }
+    }
+
+    private static ByteBuffer record(String line) {
+        return ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
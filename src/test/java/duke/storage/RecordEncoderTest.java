@@ -0,0 +1,95 @@
+package duke.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.Todo;
+
+class RecordEncoderTest {
+
+    @Test
+    void write_mixedTasks_matchesStringEncoding() throws IOException {
+        Todo done = new Todo("read book");
+        done.mark();
+        List<Task> tasks = List.of(
+            done,
+            new Todo("café ☕ naïve 日本語 😀 and a lone \uD800 surrogate"),
+            new Deadline("return book", LocalDateTime.of(2025, 3, 12, 18, 5), true),
+            new Deadline("file taxes", LocalDateTime.of(987, 1, 2, 0, 0), false),
+            new Event("camp", LocalDateTime.of(2025, 6, 1, 0, 0), false, LocalDateTime.of(2025, 6, 3, 9, 30), true),
+            new Event("standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.MONTHLY));
+
+        assertArrayEquals(reference(tasks), encode(tasks));
+    }
+
+    @Test
+    void write_manyAndOversizedRecords_matchesStringEncodingAcrossBuffers() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            tasks.add(new Todo("task number " + i));
+        }
+        tasks.add(new Todo("x".repeat(100_000)));
+        tasks.add(new Todo("after the large one"));
+
+        byte[] encoded = encode(tasks);
+        assertEquals(reference(tasks).length, encoded.length);
+        assertArrayEquals(reference(tasks), encoded);
+    }
+
+    private static byte[] encode(List<Task> tasks) throws IOException {
+        Path file = Files.createTempFile("record-encoder", ".txt");
+        RecordEncoder encoder = new RecordEncoder();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (Task t : tasks) {
+                encoder.write(t, channel);
+            }
+            encoder.flush(channel);
+        }
+        return Files.readAllBytes(file);
+    }
+
+    /**
+     * The format as it was written before the encoder: a String per record, encoded as UTF-8.
+     */
+    private static byte[] reference(List<Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CRC32C crc = new CRC32C();
+        for (Task t : tasks) {
+            String done = t.isDone() ? "1" : "0";
+            String line;
+            if (t instanceof Deadline d) {
+                line = String.join("\t", "D", done, d.getDescription(), d.getBy());
+            } else if (t instanceof Event e) {
+                line = String.join("\t", "E", done, e.getDescription(), e.getFrom(), e.getTo());
+                line = e.isRecurring() ? line + "\t" + e.getRecurrence().getKeyword() : line;
+            } else {
+                line = String.join("\t", "T", done, t.getDescription());
+            }
+            byte[] record = line.getBytes(StandardCharsets.UTF_8);
+            crc.reset();
+            crc.update(record);
+            out.writeBytes(String.format("%08x\t", (int) crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+            out.writeBytes(record);
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package duke.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import duke.task.Deadline;
+import duke.task.Task;
+import duke.task.Todo;
+
+/**
+ * Measures the latency of {@link Storage#save(List)} under each {@link DurabilityPolicy}, to choose
+ * between throughput and durability with numbers in hand. Run with {@code ./gradlew saveBenchmark},
+ * optionally passing the number of tasks and saves, e.g. {@code --args="1000 200"}. The data file
+ * is written to a temporary directory, so results reflect the disk that holds it.
+ */
+public class SaveBenchmark {
+    private static final int DEFAULT_TASKS = 1000;
+    private static final int DEFAULT_SAVES = 200;
+    private static final int WARMUP_SAVES = 20;
+
+    /**
+     * Runs the benchmark and prints one line per policy.
+     *
+     * @param args Optional number of tasks in the list, then number of timed saves per policy
+     * @throws IOException if the temporary directory cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        int saves = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAVES;
+
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(i % 2 == 0 ? new Todo("task " + i) : new Deadline("task " + i, "2025-12-01 1800"));
+        }
+
+        System.out.printf("%d task(s), %d save(s) per policy%n", taskCount, saves);
+        System.out.printf("%-20s %10s %10s %10s %12s%n", "policy", "mean ms", "p50 ms", "p99 ms", "saves/s");
+        for (DurabilityPolicy policy : DurabilityPolicy.values()) {
+            Path dir = Files.createTempDirectory("mrmoon-save-benchmark");
+            Storage storage = new Storage(dir.resolve("duke.txt").toString());
+            storage.setDurability(policy, Storage.DEFAULT_GROUP_FSYNC_MILLIS);
+            for (int i = 0; i < WARMUP_SAVES; i++) {
+                storage.save(tasks);
+            }
+
+            long[] nanos = new long[saves];
+            for (int i = 0; i < saves; i++) {
+                long start = System.nanoTime();
+                storage.save(tasks);
+                nanos[i] = System.nanoTime() - start;
+            }
+            // Stop the group flusher before the next policy is measured
+            storage.setDurability(DurabilityPolicy.NONE, Storage.DEFAULT_GROUP_FSYNC_MILLIS);
+
+            Arrays.sort(nanos);
+            double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+            System.out.printf("%-20s %10.3f %10.3f %10.3f %12.0f%n",
+                policy.getKeyword(), mean, nanos[saves / 2] / 1e6, nanos[(int) (saves * 0.99)] / 1e6, 1000 / mean);
+        }
+    }
+}
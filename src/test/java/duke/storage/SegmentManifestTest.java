@@ -0,0 +1,109 @@
+package duke.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SegmentManifestTest {
+
+    @Test
+    void update_inPlace_clearsOnlyTouchedSegments() {
+        SegmentManifest updated = manifest(2, 2, 2).update(Change.inPlace(2, 3), 6, 2);
+
+        assertEquals(List.of("a", "-", "c"), files(updated));
+        assertEquals(List.of(2, 2, 2), counts(updated));
+    }
+
+    @Test
+    void update_insertAtEnd_fillsLastSegmentThenStartsNew() {
+        SegmentManifest updated = manifest(2, 1).update(Change.inserted(3, 4, 5), 6, 2);
+
+        assertEquals(List.of("a", "-", "-"), files(updated));
+        assertEquals(List.of(2, 2, 2), counts(updated));
+    }
+
+    @Test
+    void update_insertAtSegmentStart_goesIntoThatSegment() {
+        SegmentManifest updated = manifest(2, 2).update(Change.inserted(2), 5, 2);
+
+        assertEquals(List.of("a", "-"), files(updated));
+        assertEquals(List.of(2, 3), counts(updated));
+    }
+
+    @Test
+    void update_segmentGrowsPastTwiceSize_isSplit() {
+        SegmentManifest updated = manifest(4, 1).update(Change.inserted(0), 6, 2);
+
+        assertEquals(List.of("-", "-", "-", "b"), files(updated));
+        assertEquals(List.of(2, 2, 1, 1), counts(updated));
+    }
+
+    @Test
+    void update_remove_placesPositionsAgainstOldListAndDropsEmptySegments() {
+        SegmentManifest updated = manifest(2, 2, 2).update(Change.removed(1, 2, 3), 3, 2);
+
+        assertEquals(List.of("-", "c"), files(updated));
+        assertEquals(List.of(1, 2), counts(updated));
+    }
+
+    @Test
+    void update_changeNotMatchingManifest_returnsNull() {
+        assertNull(manifest(2, 2).update(Change.inPlace(4), 4, 2));
+        assertNull(manifest(2, 2).update(Change.inserted(0), 4, 2));
+        assertNull(manifest(2).update(Change.inserted(4), 3, 2));
+    }
+
+    @Test
+    void update_emptyManifest_acceptsFirstInsert() {
+        SegmentManifest updated = new SegmentManifest(List.of(), 0).update(Change.inserted(0), 1, 2);
+
+        assertEquals(List.of(1), counts(updated));
+    }
+
+    @Test
+    void toBytesThenRead_roundTrips() throws IOException {
+        Path file = Files.createTempFile("manifest", "");
+        Files.write(file, manifest(3, 1).toBytes());
+
+        SegmentManifest read = SegmentManifest.read(file);
+
+        assertEquals(List.of("a", "b"), files(read));
+        assertEquals(List.of(3, 1), counts(read));
+        assertEquals(7, read.getNextId());
+        assertEquals(4, read.taskCount());
+    }
+
+    /**
+     * Builds a manifest with segments named a, b, c... holding the given counts.
+     */
+    private static SegmentManifest manifest(int... counts) {
+        List<SegmentManifest.Segment> segments = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            segments.add(new SegmentManifest.Segment(String.valueOf((char) ('a' + i)), counts[i]));
+        }
+        return new SegmentManifest(segments, 7);
+    }
+
+    private static List<String> files(SegmentManifest manifest) {
+        List<String> files = new ArrayList<>();
+        for (SegmentManifest.Segment s : manifest.getSegments()) {
+            files.add(s.file() == null ? "-" : s.file());
+        }
+        return files;
+    }
+
+    private static List<Integer> counts(SegmentManifest manifest) {
+        List<Integer> counts = new ArrayList<>();
+        for (SegmentManifest.Segment s : manifest.getSegments()) {
+            counts.add(s.count());
+        }
+        return counts;
+    }
+}
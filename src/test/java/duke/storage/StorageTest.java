@@ -0,0 +1,562 @@
+package duke.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.Todo;
+
+class StorageTest {
+    private Path dataFile;
+    private Storage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataFile = Files.createTempDirectory("storage-test").resolve("duke.txt");
+        storage = new Storage(dataFile.toString());
+    }
+
+    @Test
+    void saveThenLoad_allTaskTypes_roundTrips() {
+        Todo todo = new Todo("read book");
+        todo.mark();
+        List<Task> tasks = List.of(
+            todo,
+            new Deadline("return book", "2025-03-12 1800"),
+            new Event("standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.WEEKLY));
+
+        storage.save(tasks);
+        List<Task> loaded = storage.load();
+
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+    }
+
+    @Test
+    void save_eachRecord_isPrefixedWithChecksum() throws IOException {
+        storage.save(List.of(new Todo("read book")));
+
+        String line = Files.readAllLines(dataFile, StandardCharsets.UTF_8).get(0);
+        assertTrue(line.matches("[0-9a-f]{8}\tT\t0\tread book"));
+    }
+
+    @Test
+    void load_legacyLinesWithoutChecksum_areAccepted() throws IOException {
+        Files.writeString(dataFile, "T\t0\tread book\nD\t1\treturn book\t2025-03-12\n");
+
+        List<Task> loaded = storage.load();
+
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+        assertFalse(Files.exists(storage.getQuarantineFile()));
+    }
+
+    @Test
+    void load_repeatedDescriptions_shareOneString() throws IOException {
+        Files.writeString(dataFile, "T\t0\tstandup\nD\t1\tstandup\t2025-03-12\n");
+
+        List<Task> loaded = storage.load();
+
+        assertSame(loaded.get(0).getDescription(), loaded.get(1).getDescription());
+    }
+
+    @Test
+    void load_corruptRecords_quarantinesOnlyThose() throws IOException {
+        storage.save(List.of(new Todo("one"), new Todo("two"), new Todo("three")));
+        List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
+        lines.set(1, lines.get(1).replace("two", "tw0"));
+        lines.add("T\t9\tbad flag");
+        Files.write(dataFile, lines, StandardCharsets.UTF_8);
+
+        List<Task> loaded = storage.load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("one", loaded.get(0).getDescription());
+        assertEquals("three", loaded.get(1).getDescription());
+        String quarantined = Files.readString(storage.getQuarantineFile());
+        assertTrue(quarantined.contains("# line 2: checksum mismatch"));
+        assertTrue(quarantined.contains("\tT\t0\ttw0\n"));
+        assertTrue(quarantined.contains("T\t9\tbad flag\n"));
+    }
+
+    @Test
+    void load_afterQuarantine_doesNotReportSameRecordsAgain() throws IOException {
+        Files.writeString(dataFile, "T\t0\tgood\nX\t0\tunknown type\n");
+
+        storage.load();
+        long quarantinedBytes = Files.size(storage.getQuarantineFile());
+        List<Task> reloaded = storage.load();
+
+        assertEquals(1, reloaded.size());
+        assertEquals(quarantinedBytes, Files.size(storage.getQuarantineFile()));
+    }
+
+    @Test
+    void save_everyDurabilityPolicy_roundTrips() {
+        for (DurabilityPolicy policy : DurabilityPolicy.values()) {
+            storage.setDurability(policy, 5);
+            storage.save(List.of(new Todo(policy.getKeyword())));
+
+            assertEquals(policy.getKeyword(), storage.load().get(0).getDescription());
+        }
+        storage.setDurability(DurabilityPolicy.NONE, Storage.DEFAULT_GROUP_FSYNC_MILLIS);
+    }
+
+    @Test
+    void fromKeyword_knownAndUnknown_resolvesOrReturnsNull() {
+        assertEquals(DurabilityPolicy.FSYNC_FILE_AND_DIR, DurabilityPolicy.fromKeyword(" FSYNC-file-and-dir "));
+        assertEquals(DurabilityPolicy.GROUP_FSYNC, DurabilityPolicy.fromKeyword("group-fsync"));
+        assertNull(DurabilityPolicy.fromKeyword("sometimes"));
+    }
+
+    @Test
+    void save_changedRecordsOfSameLength_patchesFileInPlace() throws IOException {
+        List<Task> tasks = new ArrayList<>(List.of(
+            new Todo("one"), new Deadline("two", "2025-03-12 1800"), new Todo("three")));
+        storage.save(tasks);
+        Object fileKey = fileKey();
+
+        tasks.get(1).mark();
+        tasks.set(2, new Todo("four!"));
+        storage.save(tasks, Change.inPlace(1, 2));
+
+        assertEquals(fileKey, fileKey());
+        List<Task> loaded = storage.load();
+        assertTrue(loaded.get(1).isDone());
+        assertEquals("four!", loaded.get(2).getDescription());
+    }
+
+    @Test
+    void save_changedRecordLengthOrFileEditedElsewhere_rewritesWholeFile() throws IOException {
+        List<Task> tasks = new ArrayList<>(List.of(new Todo("one"), new Todo("two")));
+        storage.save(tasks);
+        Object fileKey = fileKey();
+
+        tasks.set(0, new Todo("one, now longer"));
+        storage.save(tasks, Change.inPlace(0));
+        assertNotEquals(fileKey, fileKey());
+
+        Files.writeString(dataFile, Files.readString(dataFile) + "T\t0\tadded elsewhere\n");
+        tasks.get(1).mark();
+        storage.save(tasks, Change.inPlace(1));
+
+        List<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertEquals("one, now longer", loaded.get(0).getDescription());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void load_thenMark_patchesLoadedFile() throws IOException {
+        new Storage(dataFile.toString()).save(List.of(new Todo("one"), new Todo("two")));
+        List<Task> loaded = storage.load();
+        Object fileKey = fileKey();
+
+        loaded.get(0).mark();
+        storage.save(loaded, Change.inPlace(0));
+
+        assertEquals(fileKey, fileKey());
+        assertTrue(storage.load().get(0).isDone());
+    }
+
+    @Test
+    void save_insertedAtEnd_appendsWithoutRewritingEarlierRecords() throws IOException {
+        List<Task> tasks = numberedTodos(3);
+        storage.save(tasks);
+        byte[] before = Files.readAllBytes(dataFile);
+        Object fileKey = fileKey();
+
+        tasks.add(new Todo("task 3"));
+        tasks.add(new Deadline("task 4", "2025-03-12 1800"));
+        storage.save(tasks, Change.inserted(3, 4));
+        tasks.get(4).mark();
+        storage.save(tasks, Change.inPlace(4));
+
+        byte[] after = Files.readAllBytes(dataFile);
+        assertEquals(fileKey, fileKey());
+        assertArrayEquals(before, Arrays.copyOf(after, before.length));
+        List<Task> loaded = storage.load();
+        assertEquals(5, loaded.size());
+        assertTrue(loaded.get(4).isDone());
+    }
+
+    @Test
+    void save_insertedOrRemovedMidList_writesSameBytesAsFullSave() throws IOException {
+        List<Task> tasks = numberedTodos(12);
+        tasks.set(5, new Event("standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.WEEKLY));
+        storage.save(tasks);
+
+        tasks.add(0, new Todo("first"));
+        tasks.add(7, new Deadline("seventh", "2025-03-12 1800"));
+        storage.save(tasks, Change.inserted(0, 7));
+        assertArrayEquals(savedAfresh(tasks), Files.readAllBytes(dataFile));
+
+        tasks.remove(11);
+        tasks.remove(3);
+        tasks.remove(2);
+        storage.save(tasks, Change.removed(2, 3, 11));
+        assertArrayEquals(savedAfresh(tasks), Files.readAllBytes(dataFile));
+
+        tasks.set(4, new Todo("a longer description"));
+        storage.save(tasks, Change.inPlace(4));
+        assertArrayEquals(savedAfresh(tasks), Files.readAllBytes(dataFile));
+
+        // The layout of copied records is right if a patch lands on the right bytes
+        Object fileKey = fileKey();
+        tasks.get(8).mark();
+        storage.save(tasks, Change.inPlace(8));
+        assertEquals(fileKey, fileKey());
+        assertArrayEquals(savedAfresh(tasks), Files.readAllBytes(dataFile));
+    }
+
+    @Test
+    void save_midListChangeToLegacyFile_addsChecksumsToEveryRecord() throws IOException {
+        Files.writeString(dataFile, "T\t0\tread book\nD\t1\treturn book\t2025-03-12\n");
+        List<Task> tasks = new ArrayList<>(storage.load());
+
+        tasks.add(1, new Todo("between"));
+        storage.save(tasks, Change.inserted(1));
+
+        assertArrayEquals(savedAfresh(tasks), Files.readAllBytes(dataFile));
+    }
+
+    @Test
+    void reload_unchangedFile_returnsNull() {
+        List<Task> tasks = numberedTodos(3);
+        storage.save(tasks);
+
+        assertFalse(storage.isChangedExternally());
+        assertNull(storage.reload(tasks));
+    }
+
+    @Test
+    void reload_oneTaskEditedElsewhere_reparsesOnlyThatRecord() throws IOException {
+        List<Task> tasks = numberedTodos(5);
+        storage.save(tasks);
+        List<Task> elsewhere = numberedTodos(5);
+        elsewhere.set(2, new Deadline("task 2, due", "2025-03-12 1800"));
+        new Storage(dataFile.toString()).save(elsewhere);
+
+        ExternalChange change = storage.reload(tasks);
+
+        assertEquals(2, change.getFrom());
+        assertEquals(1, change.getRemoved());
+        assertEquals(1, change.getReparsed());
+        assertEquals("task 2, due", change.getInserted().get(0).getDescription());
+        assertNull(storage.reload(tasks));
+
+        tasks.set(2, change.getInserted().get(0));
+        Object fileKey = fileKey();
+        tasks.get(4).mark();
+        storage.save(tasks, Change.inPlace(4));
+        assertEquals(fileKey, fileKey());
+        assertTrue(storage.load().get(4).isDone());
+    }
+
+    @Test
+    void reload_linesReorderedElsewhere_reusesTasksWithoutParsing() throws IOException {
+        List<Task> tasks = numberedTodos(4);
+        storage.save(tasks);
+        List<String> lines = new ArrayList<>(Files.readAllLines(dataFile));
+        lines.add(0, lines.remove(3));
+        Files.write(dataFile, lines, StandardCharsets.UTF_8);
+
+        ExternalChange change = storage.reload(tasks);
+
+        assertEquals(0, change.getFrom());
+        assertEquals(4, change.getRemoved());
+        assertEquals(0, change.getReparsed());
+        assertSame(tasks.get(3), change.getInserted().get(0));
+        assertSame(tasks.get(0), change.getInserted().get(1));
+    }
+
+    @Test
+    void save_fileChangedElsewhereWithoutReload_keepsCopyOfOtherVersion() throws IOException {
+        List<Task> tasks = numberedTodos(2);
+        storage.save(tasks);
+        new Storage(dataFile.toString()).save(List.of(new Todo("written elsewhere")));
+
+        tasks.get(0).mark();
+        storage.save(tasks, Change.inPlace(0));
+
+        List<Path> copies;
+        try (Stream<Path> files = Files.list(dataFile.getParent())) {
+            copies = files.filter(f -> f.getFileName().toString().startsWith("duke.txt.conflict-")).toList();
+        }
+        assertEquals(1, copies.size());
+        assertTrue(Files.readString(copies.get(0)).contains("written elsewhere"));
+        assertEquals(2, storage.load().size());
+        assertFalse(storage.isChangedExternally());
+    }
+
+    @Test
+    void catchUp_otherInstanceMarkedTask_appliesJournalEntryWithoutComparingFile() {
+        List<Task> tasks = numberedTodos(5);
+        storage.save(tasks);
+        Storage other = new Storage(dataFile.toString());
+        List<Task> elsewhere = other.load();
+        elsewhere.get(3).mark();
+        other.save(elsewhere, Change.inPlace(3));
+
+        List<ExternalChange> changes = storage.catchUp(tasks);
+
+        assertEquals(1, changes.size());
+        assertEquals(3, changes.get(0).getFrom());
+        assertEquals(1, changes.get(0).getRemoved());
+        assertEquals(1, changes.get(0).getReparsed());
+        assertTrue(changes.get(0).getInserted().get(0).isDone());
+        assertTrue(storage.catchUp(tasks).isEmpty());
+    }
+
+    @Test
+    void save_otherInstanceSavedFirst_keepsCopyInsteadOfLosingItsSave() throws IOException {
+        List<Task> tasks = numberedTodos(2);
+        storage.save(tasks);
+        Storage other = new Storage(dataFile.toString());
+        List<Task> elsewhere = other.load();
+        elsewhere.add(new Todo("added elsewhere"));
+        other.save(elsewhere, Change.inserted(2));
+
+        storage.save(tasks, Change.inPlace(0));
+
+        try (Stream<Path> files = Files.list(dataFile.getParent())) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().startsWith("duke.txt.conflict-")).count());
+        }
+        assertEquals(2, storage.load().size());
+    }
+
+    @Test
+    void segmentedSaveThenLoad_manyTasks_roundTripsAcrossSegments() {
+        storage.setSegmentSize(3);
+        List<Task> tasks = numberedTodos(10);
+
+        storage.save(tasks);
+        List<Task> loaded = storage.load();
+
+        assertEquals(4, segmentFiles().size());
+        assertEquals(10, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getDescription(), loaded.get(i).getDescription());
+        }
+    }
+
+    @Test
+    void segmentedSave_changeInOneSegment_rewritesOnlyThatSegment() throws IOException {
+        storage.setSegmentSize(3);
+        List<Task> tasks = numberedTodos(9);
+        storage.save(tasks);
+        Set<String> before = segmentFiles();
+
+        tasks.get(4).mark();
+        storage.save(tasks, Change.inPlace(4));
+        tasks.add(new Todo("task 9"));
+        storage.save(tasks, Change.inserted(9));
+
+        Set<String> after = segmentFiles();
+        assertEquals(4, after.size());
+        after.retainAll(before);
+        assertEquals(2, after.size());
+        List<Task> loaded = storage.load();
+        assertTrue(loaded.get(4).isDone());
+        assertEquals("task 9", loaded.get(9).getDescription());
+    }
+
+    @Test
+    void segmentedLoad_corruptRecordInOneSegment_quarantinesOnlyThatRecord() throws IOException {
+        storage.setSegmentSize(3);
+        storage.save(numberedTodos(9));
+        Path middle = storage.getSegmentDir().resolve(new ArrayList<>(segmentFiles()).get(1));
+        Files.writeString(middle, Files.readString(middle).replace("task 4", "task X"));
+
+        List<Task> loaded = storage.load();
+
+        assertEquals(8, loaded.size());
+        assertTrue(Files.readString(storage.getQuarantineFile()).contains("line 2: checksum mismatch"));
+        assertEquals(8, storage.load().size());
+    }
+
+    @Test
+    void segmentedLoad_missingSegment_losesOnlyItsTasks() throws IOException {
+        storage.setSegmentSize(3);
+        storage.save(numberedTodos(9));
+        Files.delete(storage.getSegmentDir().resolve(new ArrayList<>(segmentFiles()).get(0)));
+
+        List<Task> loaded = storage.load();
+
+        assertEquals(6, loaded.size());
+        assertEquals("task 3", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void setSegmentSize_thenSave_convertsBetweenLayouts() {
+        storage.save(numberedTodos(5));
+
+        storage.setSegmentSize(2);
+        storage.save(storage.load());
+        assertFalse(Files.exists(dataFile));
+        assertEquals(3, segmentFiles().size());
+
+        storage.setSegmentSize(0);
+        List<Task> loaded = storage.load();
+        storage.save(loaded);
+        assertEquals(5, loaded.size());
+        assertTrue(Files.exists(dataFile));
+        assertTrue(segmentFiles().isEmpty());
+    }
+
+    @Test
+    void appendToArchive_severalTimes_readsBackInOrder() {
+        assertTrue(storage.appendToArchive(numberedTodos(3)));
+        assertTrue(storage.appendToArchive(List.of(new Deadline("late", "2025-03-12"))));
+
+        List<Task> read = new ArrayList<>();
+        storage.readArchive(read::add);
+
+        assertEquals(4, read.size());
+        assertEquals("task 0", read.get(0).getDescription());
+        assertEquals("late", read.get(3).getDescription());
+        assertEquals("duke-archive.txt.gz", storage.getArchiveFile().getFileName().toString());
+    }
+
+    @Test
+    void readArchive_lastAppendCutShort_readsEarlierAppends() throws IOException {
+        storage.appendToArchive(numberedTodos(2));
+        long complete = Files.size(storage.getArchiveFile());
+        storage.appendToArchive(numberedTodos(50));
+        byte[] data = Files.readAllBytes(storage.getArchiveFile());
+        Files.write(storage.getArchiveFile(), Arrays.copyOf(data, (int) complete + 20));
+
+        List<Task> read = new ArrayList<>();
+        storage.readArchive(read::add);
+
+        assertEquals(2, read.size());
+    }
+
+    @Test
+    void compressedSaveThenLoad_manyBlocks_roundTripsAsPlainGzip() throws IOException {
+        storage.setCompression(6, 64);
+        List<Task> tasks = numberedTodos(100);
+
+        storage.save(tasks);
+        List<Task> loaded = storage.load();
+
+        byte[] data = Files.readAllBytes(dataFile);
+        assertEquals(0x1f, data[0] & 0xff);
+        assertEquals(0x8b, data[1] & 0xff);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            assertEquals(100, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count());
+        }
+        assertEquals(100, loaded.size());
+        assertEquals("task 99", loaded.get(99).getDescription());
+    }
+
+    @Test
+    void compressedLoad_damagedBlock_losesOnlyItsTasks() throws IOException {
+        storage.setCompression(1, 256);
+        storage.save(numberedTodos(50));
+        byte[] data = Files.readAllBytes(dataFile);
+        int block = data.length / 2;
+        while ((data[block] & 0xff) != 0x1f || (data[block + 1] & 0xff) != 0x8b) {
+            block++;
+        }
+        data[block + 24] ^= 0x5a; // inside the compressed records, past the block's header
+        Files.write(dataFile, data);
+
+        List<Task> loaded = storage.load();
+
+        assertTrue(loaded.size() > 0 && loaded.size() < 50);
+        assertEquals("task 0", loaded.get(0).getDescription());
+        try (Stream<Path> files = Files.list(dataFile.getParent())) {
+            assertTrue(files.anyMatch(f -> f.getFileName().toString().startsWith("duke.txt.corrupt-")));
+        }
+        assertEquals(loaded.size(), storage.load().size());
+    }
+
+    @Test
+    void load_fileCompressedByOtherTool_readsSequentially() throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dataFile))) {
+            out.write("T\t0\tread book\nD\t1\treturn book\t2025-03-12T18:00\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Task> loaded = storage.load();
+
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    @Test
+    void gzFileName_segmented_compressesEachSegment() throws IOException {
+        Storage compressed = new Storage(dataFile.resolveSibling("duke.txt.gz").toString());
+        compressed.setSegmentSize(3);
+
+        compressed.save(numberedTodos(7));
+
+        assertEquals(Storage.DEFAULT_COMPRESSION_LEVEL, compressed.getCompressionLevel());
+        try (Stream<Path> files = Files.list(compressed.getSegmentDir())) {
+            assertEquals(3, files.filter(f -> f.getFileName().toString().endsWith(".txt.gz")).count());
+        }
+        assertEquals("task 6", compressed.load().get(6).getDescription());
+        assertEquals("duke-archive.txt.gz", compressed.getArchiveFile().getFileName().toString());
+    }
+
+    private static List<Task> numberedTodos(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns what a full save of the tasks to a file of its own writes.
+     */
+    private static byte[] savedAfresh(List<Task> tasks) throws IOException {
+        Path file = Files.createTempDirectory("storage-test").resolve("duke.txt");
+        new Storage(file.toString()).save(tasks);
+        return Files.readAllBytes(file);
+    }
+
+    private Set<String> segmentFiles() {
+        Set<String> names = new TreeSet<>();
+        try (Stream<Path> files = Files.list(storage.getSegmentDir())) {
+            files.map(f -> f.getFileName().toString()).filter(n -> n.startsWith("segment-")).forEach(names::add);
+        } catch (IOException ex) {
+            // no segment directory
+        }
+        return names;
+    }
+
+    private Object fileKey() throws IOException {
+        return Files.readAttributes(dataFile, BasicFileAttributes.class).fileKey();
+    }
+}
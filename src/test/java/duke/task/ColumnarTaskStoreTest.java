@@ -0,0 +1,119 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import duke.storage.Storage;
+
+class ColumnarTaskStoreTest {
+    private ColumnarTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarTaskStore();
+    }
+
+    @Test
+    void get_allTaskTypes_roundTripsFieldsAndStatus() {
+        Deadline deadline = new Deadline("submit report", LocalDateTime.of(2025, 3, 12, 18, 0), true);
+        deadline.mark();
+        Event event = new Event("camp",
+            LocalDateTime.of(2025, 6, 1, 0, 0), false,
+            LocalDateTime.of(2025, 6, 3, 9, 30), true);
+        store.add(new Todo("read book"));
+        store.add(deadline);
+        store.add(event);
+
+        assertEquals(3, store.size());
+        assertEquals(new Todo("read book").toString(), store.get(0).toString());
+        assertEquals(deadline.toString(), store.get(1).toString());
+        assertEquals("2025-03-12T18:00", ((Deadline) store.get(1)).getBy());
+        Event restored = (Event) store.get(2);
+        assertEquals(event.getFrom(), restored.getFrom());
+        assertEquals(event.getTo(), restored.getTo());
+        assertTrue(store.get(1).isDone());
+        assertFalse(store.get(2).isDone());
+    }
+
+    @Test
+    void get_recurringEvent_keepsRule() {
+        store.add(new Event("standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.DAILY));
+
+        assertEquals(Recurrence.DAILY, ((Event) store.get(0)).getRecurrence());
+    }
+
+    @Test
+    void addAndRemove_middlePositions_shiftsColumnsAndDoneBits() {
+        Todo a = new Todo("a");
+        Todo b = new Todo("b");
+        b.mark();
+        Todo c = new Todo("c");
+        store.add(a);
+        store.add(c);
+        store.add(1, b);
+
+        assertEquals("b", store.get(1).getDescription());
+        assertTrue(store.get(1).isDone());
+        assertFalse(store.get(2).isDone());
+
+        store.remove(1);
+        assertEquals(2, store.size());
+        assertEquals("c", store.get(1).getDescription());
+        assertFalse(store.get(1).isDone());
+    }
+
+    @Test
+    void add_repeatedDescriptions_sharesPoolEntries() {
+        for (int i = 0; i < 1000; i++) {
+            store.add(new Todo("water plants"));
+        }
+        store.add(new Todo("feed cat"));
+        assertEquals(2, store.distinctDescriptions());
+
+        store.clear();
+        assertEquals(0, store.distinctDescriptions());
+    }
+
+    @Test
+    void set_replacesTaskAndReleasesOldDescription() {
+        store.add(new Todo("old"));
+        Task previous = store.set(0, new Todo("new"));
+
+        assertEquals("old", previous.getDescription());
+        assertEquals("new", store.get(0).getDescription());
+        assertEquals(1, store.distinctDescriptions());
+    }
+
+    @Test
+    void get_outOfRange_throws() {
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+    }
+
+    @Test
+    void taskList_columnarBacking_supportsMarkRemoveAndUndo() {
+        TaskList tasks = new TaskList(Mockito.mock(Storage.class), null, true);
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        tasks.mark(2);
+        assertTrue(tasks.get(2).isDone());
+        assertEquals(4, tasks.removeAll(new int[] {0, 1, 5, 9}));
+        assertEquals("task 3", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isDone());
+
+        tasks.undo();
+        assertEquals(10, tasks.size());
+        assertEquals("task 10", tasks.get(9).getDescription());
+        tasks.undo();
+        assertFalse(tasks.get(2).isDone());
+    }
+}
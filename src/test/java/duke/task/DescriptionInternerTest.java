@@ -0,0 +1,26 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class DescriptionInternerTest {
+
+    @Test
+    void intern_equalStrings_returnsSameInstance() {
+        String first = new String("weekly report");
+        String second = new String("weekly report");
+
+        assertSame(DescriptionInterner.intern(first), DescriptionInterner.intern(second));
+    }
+
+    @Test
+    void constructor_givenDescription_keepsThatInstance() {
+        DescriptionInterner.intern(new String("standup"));
+        String description = new String("standup");
+
+        Todo todo = new Todo(description);
+
+        assertSame(description, todo.getDescription());
+    }
+}
@@ -0,0 +1,56 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class EventTest {
+    private final Event weekly = new Event("standup",
+        LocalDateTime.of(2025, 3, 3, 9, 30), true,
+        LocalDateTime.of(2025, 3, 3, 9, 45), true, Recurrence.WEEKLY);
+
+    @Test
+    void occurrenceOn_recurringEvent_expandsOnlyMatchingWeek() {
+        Event occurrence = weekly.occurrenceOn(LocalDate.of(2026, 1, 5));
+
+        assertEquals(LocalDateTime.of(2026, 1, 5, 9, 30), occurrence.getFromDateTime());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 9, 45), occurrence.getToDateTime());
+        assertNull(weekly.occurrenceOn(LocalDate.of(2026, 1, 6)));
+        assertNull(weekly.occurrenceOn(LocalDate.of(2025, 2, 24)));
+    }
+
+    @Test
+    void occurrenceOn_multiDayOneOffEvent_matchesWholeSpan() {
+        Event camp = new Event("camp", "2025-06-01", "2025-06-03");
+
+        assertSame(camp, camp.occurrenceOn(LocalDate.of(2025, 6, 2)));
+        assertNull(camp.occurrenceOn(LocalDate.of(2025, 6, 4)));
+    }
+
+    @Test
+    void nextOccurrence_afterStartTime_movesToFollowingPeriod() {
+        assertEquals(LocalDateTime.of(2025, 3, 10, 9, 30),
+            weekly.nextOccurrence(LocalDateTime.of(2025, 3, 3, 10, 0)).getFromDateTime());
+        assertEquals(LocalDateTime.of(2025, 3, 3, 9, 30),
+            weekly.nextOccurrence(LocalDateTime.of(2025, 3, 1, 0, 0)).getFromDateTime());
+    }
+
+    @Test
+    void occurrence_monthlyOn31st_clampsToShorterMonths() {
+        Event rent = new Event("rent", "2025-01-31", "2025-01-31", Recurrence.MONTHLY);
+
+        assertEquals(LocalDate.of(2025, 2, 28), rent.occurrence(1).getFromDateTime().toLocalDate());
+        assertEquals(LocalDate.of(2025, 3, 31), rent.occurrence(2).getFromDateTime().toLocalDate());
+    }
+
+    @Test
+    void toString_recurringEvent_showsRule() {
+        assertEquals("[E] [  ] standup (from: 3 Mar 2025, 9:30 AM, to: 3 Mar 2025, 9:45 AM, every week)",
+            weekly.toString());
+    }
+}
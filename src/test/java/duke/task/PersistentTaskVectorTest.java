@@ -0,0 +1,80 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PersistentTaskVectorTest {
+    private PersistentTaskVector vector;
+
+    @BeforeEach
+    void setUp() {
+        vector = new PersistentTaskVector();
+    }
+
+    @Test
+    void addGetRemove_randomEditsAcrossManyNodes_matchesArrayList() {
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                int at = random.nextInt(expected.size() + 1);
+                Todo t = new Todo("task " + i);
+                expected.add(at, t);
+                vector.add(at, t);
+            } else if (op < 8) {
+                int at = random.nextInt(expected.size());
+                assertSame(expected.remove(at), vector.remove(at));
+            } else {
+                int at = random.nextInt(expected.size());
+                Todo t = new Todo("set " + i);
+                assertSame(expected.set(at, t), vector.set(at, t));
+            }
+        }
+
+        assertEquals(expected, vector);
+        vector.subList(10, 500).clear();
+        expected.subList(10, 500).clear();
+        assertEquals(expected, vector);
+    }
+
+    @Test
+    void snapshot_listChangedAfterwards_keepsVersionItWasTakenAt() {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Todo t = new Todo("task " + i);
+            added.add(t);
+            vector.add(t);
+        }
+
+        List<Task> snapshot = vector.snapshot();
+        vector.set(3, new Todo("replaced"));
+        vector.add(500, new Todo("inserted"));
+        vector.remove(999);
+        vector.clear();
+        vector.add(new Todo("after clear"));
+
+        assertEquals(added, snapshot);
+        assertEquals(1, vector.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Todo("x")));
+    }
+
+    @Test
+    void snapshot_nothingChanged_returnsSameSnapshot() {
+        vector.add(new Todo("a"));
+        List<Task> first = vector.snapshot();
+
+        assertSame(first, vector.snapshot());
+        vector.set(0, new Todo("b"));
+        assertEquals("a", first.get(0).getDescription());
+        assertEquals("b", vector.snapshot().get(0).getDescription());
+    }
+}
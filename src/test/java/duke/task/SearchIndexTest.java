@@ -0,0 +1,84 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import duke.storage.Storage;
+
+class SearchIndexTest {
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new TaskList(Mockito.mock(Storage.class), null);
+        tasks.add(new Todo("write weekly report for the team"));
+        tasks.add(new Todo("report"));
+        tasks.add(new Todo("team lunch"));
+        tasks.add(new Todo("repair bike"));
+    }
+
+    @Test
+    void tokenize_mixedText_splitsIntoLowerCaseWords() {
+        assertEquals(List.of("call", "bob", "re", "q3", "plan"), SearchIndex.tokenize("Call Bob (re: Q3-plan)"));
+    }
+
+    @Test
+    void editDistance_knownPairs_countsEdits() {
+        assertEquals(0, SearchIndex.editDistance("report", "report"));
+        assertEquals(2, SearchIndex.editDistance("reprot", "report"));
+        assertEquals(3, SearchIndex.editDistance("kitten", "sitting"));
+    }
+
+    @Test
+    void search_exactWord_ranksShorterDescriptionFirst() {
+        assertArrayEquals(new int[] {1, 0}, tasks.search("report"));
+    }
+
+    @Test
+    void search_severalWords_requiresEveryWord() {
+        assertArrayEquals(new int[] {0}, tasks.search("team report"));
+    }
+
+    @Test
+    void search_prefix_matchesWordsStartingWithIt() {
+        assertArrayEquals(new int[] {2}, tasks.search("lun*"));
+        assertEquals(3, tasks.search("rep*").length);
+    }
+
+    @Test
+    void search_typo_matchesNearbyWord() {
+        assertArrayEquals(new int[] {1, 0}, tasks.search("repot"));
+    }
+
+    @Test
+    void search_noWordMatch_fallsBackToSubstring() {
+        assertArrayEquals(new int[] {0}, tasks.search("eekl"));
+    }
+
+    @Test
+    void search_afterUpdateAndDelete_reflectsCurrentTasks() {
+        assertArrayEquals(new int[] {2}, tasks.search("lunch"));
+
+        tasks.replace(2, new Todo("team dinner"));
+        tasks.remove(1);
+
+        assertEquals(0, tasks.search("lunch").length);
+        assertArrayEquals(new int[] {1}, tasks.search("dinner"));
+        assertArrayEquals(new int[] {0}, tasks.search("report"));
+    }
+
+    @Test
+    void search_undoDelete_findsTaskAgain() {
+        tasks.remove(3);
+        assertEquals(0, tasks.search("bike").length);
+
+        tasks.undo();
+        assertArrayEquals(new int[] {3}, tasks.search("bike"));
+    }
+}
@@ -0,0 +1,63 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SlotOrderTest {
+    @Test
+    void insertRemove_randomEdits_positionsMatchArrayList() {
+        SlotOrder order = new SlotOrder();
+        List<Long> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                int at = random.nextInt(expected.size() + 1);
+                long id = order.insert(at);
+                assertFalse(expected.contains(id));
+                expected.add(at, id);
+            } else {
+                int from = random.nextInt(expected.size());
+                int to = Math.min(expected.size(), from + 1 + random.nextInt(4));
+                List<Long> removed = new ArrayList<>();
+                order.remove(from, to, removed::add);
+                assertEquals(expected.subList(from, to), removed);
+                expected.subList(from, to).clear();
+            }
+        }
+
+        assertEquals(expected.size(), order.size());
+        List<Long> walked = new ArrayList<>();
+        order.forEach(walked::add);
+        assertEquals(expected, walked);
+        for (int p = 0; p < expected.size(); p++) {
+            assertEquals((long) expected.get(p), order.idAt(p));
+            assertEquals(p, order.positionOf(expected.get(p)));
+        }
+    }
+
+    @Test
+    void remove_thenInsert_reusesIdsOfRemovedSlots() {
+        SlotOrder order = new SlotOrder();
+        for (int i = 0; i < 10; i++) {
+            order.insert(i);
+        }
+        Set<Long> removed = new HashSet<>();
+        order.remove(2, 5, removed::add);
+
+        Set<Long> reused = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            reused.add(order.insert(0));
+        }
+
+        assertEquals(removed, reused);
+        assertEquals(10, order.size());
+    }
+}
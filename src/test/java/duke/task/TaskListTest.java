@@ -1,11 +1,21 @@
 package duke.task;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +24,8 @@ import org.mockito.Mockito;
 import duke.storage.Storage;
 
 class TaskListTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 9, 0);
+
     private TaskList taskList;
     private Todo task1;
     private Todo task2;
@@ -106,4 +118,427 @@ class TaskListTest {
 
         assertEquals(0, taskList.size());
     }
+
+    @Test
+    void undo_afterAdd_removesTask() {
+        taskList.add(task1);
+
+        assertEquals("add", taskList.undo());
+        assertEquals(0, taskList.size());
+    }
+
+    @Test
+    void undo_afterRemove_restoresTaskAtOriginalPosition() {
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.remove(0);
+
+        taskList.undo();
+
+        assertEquals(2, taskList.size());
+        assertEquals(task1, taskList.get(0));
+        assertEquals(task2, taskList.get(1));
+    }
+
+    @Test
+    void undo_afterMark_restoresPreviousStatus() {
+        taskList.add(task1);
+        taskList.mark(0);
+
+        taskList.undo();
+
+        assertFalse(taskList.get(0).isDone());
+    }
+
+    @Test
+    void undo_afterClear_restoresAllTasks() {
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.clear();
+
+        assertEquals("clear", taskList.undo());
+        assertEquals(task1, taskList.get(0));
+        assertEquals(task2, taskList.get(1));
+    }
+
+    @Test
+    void redo_afterUndo_reappliesChange() {
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.remove(0);
+        taskList.undo();
+
+        assertEquals("delete", taskList.redo());
+        assertEquals(1, taskList.size());
+        assertEquals(task2, taskList.get(0));
+    }
+
+    @Test
+    void redo_afterNewChange_hasNothingToRedo() {
+        taskList.add(task1);
+        taskList.undo();
+        taskList.add(task2);
+
+        assertNull(taskList.redo());
+    }
+
+    @Test
+    void replace_validIndex_swapsTaskAndUndoRestoresOriginal() {
+        taskList.add(task1);
+
+        Task previous = taskList.replace(0, task2);
+
+        assertEquals(task1, previous);
+        assertEquals(task2, taskList.get(0));
+        taskList.undo();
+        assertEquals(task1, taskList.get(0));
+    }
+
+    @Test
+    void setHistoryDepth_limitExceeded_dropsOldestEntries() {
+        taskList.setHistoryDepth(1);
+        taskList.add(task1);
+        taskList.add(task2);
+
+        assertEquals("add", taskList.undo());
+        assertNull(taskList.undo());
+        assertEquals(1, taskList.size());
+    }
+
+    @Test
+    void removeAll_rangeSelection_removesInOnePassAndKeepsOrder() {
+        for (int i = 1; i <= 6; i++) {
+            taskList.add(new Todo("Task " + i));
+        }
+
+        int[] positions = TaskSelector.numbers(List.of(new int[]{2, 3}, new int[]{5, 5})).resolve(taskList);
+        int removed = taskList.removeAll(positions);
+
+        assertEquals(3, removed);
+        assertEquals(3, taskList.size());
+        assertEquals("Task 1", taskList.get(0).getDescription());
+        assertEquals("Task 4", taskList.get(1).getDescription());
+        assertEquals("Task 6", taskList.get(2).getDescription());
+        taskList.undo();
+        assertEquals(6, taskList.size());
+        assertEquals("Task 3", taskList.get(2).getDescription());
+    }
+
+    @Test
+    void removeAllThenUndo_manyScatteredPositions_notifiesIndexesOfThoseTasksOnly() {
+        for (int i = 0; i < 100; i++) {
+            taskList.add(new Todo("Task " + i));
+        }
+        int[] calls = new int[2];
+        taskList.addIndex(new TaskIndex() {
+            @Override
+            public void added(long id, Task task) {
+                calls[0]++;
+            }
+
+            @Override
+            public void removed(long id) {
+                calls[1]++;
+            }
+        });
+        calls[0] = 0;
+        int[] positions = new int[20];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i * 5;
+        }
+
+        taskList.removeAll(positions);
+        assertEquals(0, calls[0]);
+        assertEquals(20, calls[1]);
+        taskList.undo();
+
+        assertEquals(20, calls[0]);
+        assertEquals(100, taskList.size());
+        assertEquals("Task 5", taskList.get(5).getDescription());
+        assertEquals("Task 6", taskList.get(6).getDescription());
+    }
+
+    @Test
+    void markAll_doneSelector_unmarksOnlyDoneTasks() {
+        taskList.add(task1);
+        taskList.add(task2);
+        taskList.mark(1);
+
+        taskList.markAll(TaskSelector.done().resolve(taskList), false);
+
+        assertFalse(taskList.get(0).isDone());
+        assertFalse(taskList.get(1).isDone());
+    }
+
+    @Test
+    void resolve_beforeSelector_selectsEarlierDatedTasks() {
+        taskList.add(task1);
+        taskList.add(new Deadline("Old", "2024-12-31"));
+        taskList.add(new Deadline("New", "2025-01-01"));
+
+        int[] positions = TaskSelector.before(LocalDate.of(2025, 1, 1)).resolve(taskList);
+
+        assertEquals(1, positions.length);
+        assertEquals(1, positions[0]);
+    }
+
+    @Test
+    void resolve_numberOutOfRange_throwsException() {
+        taskList.add(task1);
+
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> TaskSelector.numbers(List.<int[]>of(new int[]{1, 2})).resolve(taskList));
+    }
+
+    @Test
+    void positionsSortedBy_due_ordersDatedTasksFirstAndTracksChanges() {
+        taskList.add(task1);
+        taskList.add(new Deadline("Later", "2025-03-01"));
+        taskList.add(new Event("Trip", "2025-01-01", "2025-02-01"));
+
+        assertArrayEquals(new int[]{2, 1, 0}, taskList.positionsSortedBy(SortOrder.DUE, NOW));
+
+        taskList.add(0, new Deadline("Soonest", "2024-12-01"));
+        assertArrayEquals(new int[]{0, 3, 2, 1}, taskList.positionsSortedBy(SortOrder.DUE, NOW));
+
+        taskList.remove(3);
+        assertArrayEquals(new int[]{0, 2, 1}, taskList.positionsSortedBy(SortOrder.DUE, NOW));
+
+        taskList.undo();
+        assertArrayEquals(new int[]{0, 3, 2, 1}, taskList.positionsSortedBy(SortOrder.DUE, NOW));
+    }
+
+    @Test
+    void positionsSortedBy_due_placesRecurringEventByNextOccurrence() {
+        taskList.add(new Deadline("Later", "2025-01-10"));
+        taskList.add(new Event("Standup", "2024-06-03 0930", "2024-06-03 0945", Recurrence.WEEKLY));
+        taskList.add(new Deadline("Sooner", "2025-01-05"));
+
+        assertArrayEquals(new int[]{2, 1, 0}, taskList.positionsSortedBy(SortOrder.DUE, NOW));
+        assertArrayEquals(new int[]{2, 0, 1}, taskList.positionsSortedBy(SortOrder.DUE, NOW.plusDays(7)));
+    }
+
+    @Test
+    void positionsSortedBy_doneAfterMark_movesTaskToEnd() {
+        TaskList columnar = new TaskList(Mockito.mock(Storage.class), null, true);
+        columnar.add(task1);
+        columnar.add(task2);
+        assertArrayEquals(new int[]{0, 1}, columnar.positionsSortedBy(SortOrder.DONE, NOW));
+
+        columnar.mark(0);
+        assertArrayEquals(new int[]{1, 0}, columnar.positionsSortedBy(SortOrder.DONE, NOW));
+
+        columnar.undo();
+        assertArrayEquals(new int[]{0, 1}, columnar.positionsSortedBy(SortOrder.DONE, NOW));
+    }
+
+    @Test
+    void positionsOverdue_dateOnlyDeadline_notOverdueUntilDayEnds() {
+        taskList.add(new Deadline("Today", "2025-03-10"));
+        taskList.add(new Deadline("Yesterday", "2025-03-09"));
+        taskList.add(new Deadline("This morning", "2025-03-10 0800"));
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+        assertArrayEquals(new int[]{1, 2}, taskList.positionsOverdue(now));
+
+        taskList.mark(1);
+        assertArrayEquals(new int[]{2}, taskList.positionsOverdue(now));
+
+        taskList.unmark(1);
+        taskList.remove(2);
+        assertArrayEquals(new int[]{1}, taskList.positionsOverdue(now));
+    }
+
+    @Test
+    void positionsUpcoming_mixedTasks_returnsWindowInTimeOrder() {
+        taskList.add(task1);
+        taskList.add(new Deadline("Next week", "2025-03-17"));
+        taskList.add(new Event("Camp", "2025-03-12 0900", "2025-03-14 1800"));
+        taskList.add(new Deadline("Tonight", "2025-03-10 2000"));
+        taskList.add(new Deadline("Past", "2025-03-01"));
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+        assertArrayEquals(new int[]{3, 2, 1}, taskList.positionsUpcoming(now, 7));
+        assertArrayEquals(new int[]{3}, taskList.positionsUpcoming(now, 0));
+    }
+
+    @Test
+    void positionsOnAndUpcoming_recurringEvent_expandLazily() {
+        taskList.add(new Event("Standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.WEEKLY));
+        taskList.add(new Deadline("Report", "2025-03-20"));
+
+        assertArrayEquals(new int[]{0}, taskList.positionsOn(LocalDate.of(2030, 3, 4)));
+        assertEquals(LocalDateTime.of(2030, 3, 4, 9, 30),
+            ((Event) taskList.tasksOn(LocalDate.of(2030, 3, 4)).get(0)).getFromDateTime());
+
+        LocalDateTime now = LocalDateTime.of(2025, 3, 14, 12, 0);
+        assertArrayEquals(new int[]{0, 1}, taskList.positionsUpcoming(now, 7));
+        assertArrayEquals(new int[]{}, taskList.positionsUpcoming(now, 1));
+    }
+
+    @Test
+    void upcoming_weeklyEventMarkedDone_listsEveryOccurrenceInWindow() {
+        taskList.add(new Event("Standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.WEEKLY));
+        taskList.add(new Deadline("Report", "2025-03-20"));
+        taskList.mark(0);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+        List<ScheduledTask> upcoming = taskList.upcoming(now, 14);
+
+        assertEquals(3, upcoming.size());
+        assertEquals(LocalDateTime.of(2025, 3, 17, 9, 30), ((Event) upcoming.get(0).getTask()).getFromDateTime());
+        assertFalse(upcoming.get(0).getTask().isDone());
+        assertEquals(1, upcoming.get(1).getPosition());
+        assertEquals(LocalDateTime.of(2025, 3, 24, 9, 30), ((Event) upcoming.get(2).getTask()).getFromDateTime());
+        assertArrayEquals(new int[]{0, 1, 0}, taskList.positionsUpcoming(now, 14));
+        assertArrayEquals(new int[]{0}, taskList.positionsUpcoming(now.plusDays(13), 2));
+    }
+
+    @Test
+    void archive_withCutoff_movesOnlyDatedTasksThatEndedBefore() throws IOException {
+        TaskList tasks = new TaskList(tempStorage(), null);
+        tasks.add(new Todo("done todo"));
+        tasks.add(new Deadline("old report", "2025-01-10"));
+        tasks.add(new Deadline("new report", "2025-03-10"));
+        tasks.add(new Event("weekly sync", "2025-01-06 0900", "2025-01-06 1000", Recurrence.WEEKLY));
+        tasks.add(new Deadline("open report", "2025-01-05"));
+        for (int i = 0; i < 4; i++) {
+            tasks.mark(i);
+        }
+
+        List<Task> archived = tasks.archive(LocalDate.of(2025, 2, 1));
+
+        assertEquals(1, archived.size());
+        assertEquals("old report", archived.get(0).getDescription());
+        assertEquals(4, tasks.size());
+        assertNull(tasks.undo());
+    }
+
+    @Test
+    void archive_thenSearchArchive_findsArchivedTasksOnly() throws IOException {
+        TaskList tasks = new TaskList(tempStorage(), null);
+        tasks.add(new Todo("write report"));
+        tasks.add(new Todo("read report"));
+        tasks.add(new Todo("buy milk"));
+        tasks.mark(0);
+        tasks.mark(2);
+
+        assertEquals(2, tasks.archive(null).size());
+        tasks.mark(0);
+        tasks.archive(null);
+
+        assertEquals(0, tasks.size());
+        List<Task> found = tasks.searchArchive(TaskQuery.parse("report"), NOW);
+        assertEquals(2, found.size());
+        assertEquals("write report", found.get(0).getDescription());
+        assertEquals(1, tasks.searchArchive(TaskQuery.parse("mil"), NOW).size());
+        assertTrue(tasks.searchArchive(TaskQuery.parse("report done:no"), NOW).isEmpty());
+    }
+
+    @Test
+    void addAll_batch_appendsInOrderAndUndoesAsOne() throws IOException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList(storage, null);
+        tasks.add(task1);
+
+        tasks.addAll(List.of(task2, new Todo("Task 3"), new Todo("Task 4")));
+
+        assertEquals(4, tasks.size());
+        assertEquals("Task 4", tasks.get(3).getDescription());
+        assertEquals(4, storage.load().size());
+        assertEquals("import", tasks.undo());
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void reload_fileChangedElsewhere_appliesChangeAndClearsHistory() throws IOException {
+        String path = Files.createTempDirectory("reload-test").resolve("duke.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path), null);
+        tasks.add(task1);
+        tasks.add(task2);
+        Path elsewhere = Files.createTempDirectory("reload-test").resolve("duke.txt");
+        new Storage(elsewhere.toString()).save(List.of(task1, new Todo("Task 2, edited"), new Todo("Task 3")));
+        Files.copy(elsewhere, Path.of(path), StandardCopyOption.REPLACE_EXISTING); // as another program would
+
+        tasks.reload();
+
+        assertEquals(3, tasks.size());
+        assertEquals(task1, tasks.get(0));
+        assertEquals("Task 2, edited", tasks.get(1).getDescription());
+        assertArrayEquals(new int[] {2}, tasks.search("Task 3"));
+        assertNull(tasks.undo());
+        assertTrue(tasks.reload().isEmpty());
+    }
+
+    @Test
+    void mark_otherInstanceInsertedBefore_marksSameTaskAtItsNewPosition() throws IOException {
+        String path = Files.createTempDirectory("shared-test").resolve("duke.txt").toString();
+        new Storage(path).save(List.of(task1, task2));
+        Storage storage = new Storage(path);
+        TaskList mine = new TaskList(storage, storage.load());
+        Storage otherStorage = new Storage(path);
+        TaskList other = new TaskList(otherStorage, otherStorage.load());
+
+        other.add(0, new Todo("Task 0"));
+        mine.mark(1);
+
+        assertEquals(3, mine.size());
+        assertEquals("Task 0", mine.get(0).getDescription());
+        assertTrue(mine.get(2).isDone());
+        assertTrue(new Storage(path).load().get(2).isDone());
+    }
+
+    @Test
+    void reloadThenMark_otherInstanceDeletedEarlierTask_marksTaskUserMeant() throws IOException {
+        String path = Files.createTempDirectory("shared-test").resolve("duke.txt").toString();
+        new Storage(path).save(List.of(new Todo("a"), new Todo("b"), new Todo("c")));
+        Storage storage = new Storage(path);
+        TaskList mine = new TaskList(storage, storage.load());
+        Storage otherStorage = new Storage(path);
+        TaskList other = new TaskList(otherStorage, otherStorage.load());
+
+        other.remove(0);
+        assertTrue(mine.reload().isEmpty());
+        Task marked = mine.mark(1);
+
+        assertEquals("b", marked.getDescription());
+        assertTrue(marked.isDone());
+        assertEquals(2, mine.size());
+        assertTrue(mine.get(0).isDone());
+    }
+
+    @Test
+    void mark_otherInstanceRemovedThatTask_throwsAndLeavesFileAlone() throws IOException {
+        String path = Files.createTempDirectory("shared-test").resolve("duke.txt").toString();
+        new Storage(path).save(List.of(task1, task2));
+        Storage storage = new Storage(path);
+        TaskList mine = new TaskList(storage, storage.load());
+        Storage otherStorage = new Storage(path);
+        TaskList other = new TaskList(otherStorage, otherStorage.load());
+
+        other.remove(1);
+
+        assertThrows(ConcurrentModificationException.class, () -> mine.mark(1));
+        assertEquals(1, mine.size());
+        assertEquals(1, new Storage(path).load().size());
+    }
+
+    @Test
+    void snapshot_taskMarkedAfterwards_keepsStatusAtTimeOfSnapshot() {
+        taskList.add(task1);
+        taskList.add(task2);
+
+        List<Task> snapshot = taskList.snapshot();
+        taskList.mark(0);
+        taskList.remove(1);
+
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.get(0).isDone());
+        assertTrue(taskList.get(0).isDone());
+        assertEquals(1, taskList.snapshot().size());
+    }
+
+    private static Storage tempStorage() throws IOException {
+        return new Storage(Files.createTempDirectory("archive-test").resolve("duke.txt").toString());
+    }
 }
@@ -0,0 +1,144 @@
+package duke.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import duke.storage.Storage;
+
+class TaskQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 11, 1, 9, 0);
+
+    private TaskList tasks;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new TaskList(Mockito.mock(Storage.class), null);
+        tasks.add(new Todo("write report"));
+        tasks.add(new Deadline("submit report", "2025-11-20 1800"));
+        tasks.add(new Deadline("submit report draft", "2025-12-05"));
+        tasks.add(new Event("report review", "2025-11-25 1400", "2025-11-25 1500"));
+        tasks.add(new Deadline("pay rent", "2025-11-30"));
+        tasks.mark(1);
+    }
+
+    @Test
+    void parse_wordsAndFilters_separatesThem() {
+        TaskQuery q = TaskQuery.parse("report type:Deadline done:no due<2025-12-01 draft");
+
+        assertEquals("report draft", q.getWords());
+        assertEquals(TaskType.DEADLINE, q.getType());
+        assertEquals(Boolean.FALSE, q.getDone());
+        assertNull(q.getDueFrom());
+        assertEquals(LocalDate.of(2025, 12, 1), q.getDueUntil());
+    }
+
+    @Test
+    void parse_dueComparisons_buildDayRanges() {
+        TaskQuery on = TaskQuery.parse("due:2025-11-25");
+        assertEquals(LocalDate.of(2025, 11, 25), on.getDueFrom());
+        assertEquals(LocalDate.of(2025, 11, 26), on.getDueUntil());
+
+        TaskQuery range = TaskQuery.parse("due>2025-11-01 due<=2025-11-30");
+        assertEquals(LocalDate.of(2025, 11, 2), range.getDueFrom());
+        assertEquals(LocalDate.of(2025, 12, 1), range.getDueUntil());
+        assertFalse(range.hasWords());
+        assertTrue(range.hasFilters());
+    }
+
+    @Test
+    void parse_badFilterValues_throws() {
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("type:chore"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("done:maybe"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("due<someday"));
+    }
+
+    @Test
+    void query_allFilters_matchesOnlyTasksSatisfyingEveryPart() {
+        TaskQuery all = TaskQuery.parse("report type:deadline done:no due<2025-12-06");
+        assertArrayEquals(new int[] {2}, tasks.query(all, NOW));
+        assertArrayEquals(new int[] {1}, tasks.query(TaskQuery.parse("report done:yes"), NOW));
+    }
+
+    @Test
+    void query_dueRange_excludesTodosAndUsesEventStart() {
+        assertArrayEquals(new int[] {1, 3, 4}, tasks.query(TaskQuery.parse("due>=2025-11-20 due<=2025-11-30"), NOW));
+        assertArrayEquals(new int[] {3}, tasks.query(TaskQuery.parse("due:2025-11-25"), NOW));
+    }
+
+    @Test
+    void query_due_usesEventEndAsListSortDoes() {
+        tasks.add(new Event("offsite", "2025-11-28", "2025-12-02"));
+
+        assertArrayEquals(new int[] {5}, tasks.query(TaskQuery.parse("due:2025-12-02"), NOW));
+        assertArrayEquals(new int[] {1, 3, 4}, tasks.query(TaskQuery.parse("due>=2025-11-20 due<=2025-11-30"), NOW));
+    }
+
+    @Test
+    void query_dueFromToday_findsRecurringEventByNextOccurrence() {
+        tasks.add(new Event("standup", "2025-01-06 0930", "2025-01-06 0945", Recurrence.WEEKLY));
+
+        assertArrayEquals(new int[] {5}, tasks.query(TaskQuery.parse("standup due>=2025-11-01"), NOW));
+        assertArrayEquals(new int[] {5}, tasks.query(TaskQuery.parse("due:2025-11-03"), NOW));
+        assertArrayEquals(new int[0], tasks.query(TaskQuery.parse("standup due<2025-11-01"), NOW));
+    }
+
+    @Test
+    void query_filtersOnly_returnsListOrder() {
+        assertArrayEquals(new int[] {0, 2, 3, 4}, tasks.query(TaskQuery.parse("done:no"), NOW));
+    }
+
+    @Test
+    void query_afterMarkAndDelete_reflectsCurrentTasks() {
+        assertArrayEquals(new int[] {2, 4}, tasks.query(TaskQuery.parse("type:deadline done:no"), NOW));
+
+        tasks.mark(4);
+        tasks.remove(0);
+
+        assertArrayEquals(new int[] {1}, tasks.query(TaskQuery.parse("type:deadline done:no"), NOW));
+    }
+
+    @Test
+    void plan_selectiveDateRange_drivesFromDateIndex() {
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new Todo("report " + i));
+        }
+        QueryPlan plan = tasks.plan(TaskQuery.parse("report done:no due:2025-11-25"), NOW);
+
+        assertArrayEquals(new int[] {3}, plan.execute());
+        List<String> lines = plan.describe();
+        assertTrue(lines.get(0).startsWith("1. date index for due on 2025-11-25 (estimate 1) -> 1 task(s)"));
+        assertTrue(lines.get(1).startsWith("2. filter done:no -> 1 task(s)"));
+        assertTrue(lines.get(2).startsWith("3. filter words 'report' -> 1 task(s)"));
+    }
+
+    @Test
+    void plan_fewDoneTasks_drivesFromDoneBitset() {
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new Todo("report " + i));
+        }
+        QueryPlan plan = tasks.plan(TaskQuery.parse("report done:yes"), NOW);
+
+        assertArrayEquals(new int[] {1}, plan.execute());
+        assertTrue(plan.describe().get(0).startsWith("1. done bitset for done:yes (estimate 1) -> 1 task(s)"));
+    }
+
+    @Test
+    void plan_selectiveWords_drivesFromSearchIndex() {
+        QueryPlan plan = tasks.plan(TaskQuery.parse("rent done:no"), NOW);
+
+        assertArrayEquals(new int[] {4}, plan.execute());
+        assertTrue(plan.describe().get(0).startsWith("1. search index for 'rent' (estimate 1)"));
+    }
+}
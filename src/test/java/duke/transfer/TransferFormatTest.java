@@ -0,0 +1,187 @@
+package duke.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Recurrence;
+import duke.task.Task;
+import duke.task.Todo;
+
+class TransferFormatTest {
+
+    @Test
+    void exportThenImport_everyFormat_roundTrips() throws IOException {
+        for (TransferFormat format : TransferFormat.values()) {
+            List<Task> read = readAll(format, write(format, sampleTasks()));
+
+            assertEquals(4, read.size(), format.getKeyword());
+            for (int i = 0; i < read.size(); i++) {
+                assertEquals(sampleTasks().get(i).toString(), read.get(i).toString(), format.getKeyword());
+            }
+        }
+    }
+
+    @Test
+    void csvWriter_specialCharacters_areQuoted() throws IOException {
+        String csv = write(TransferFormat.CSV, List.of(new Todo("say \"hi\", then leave")));
+
+        assertEquals("type,done,description,by,from,to,every\r\n"
+            + "todo,false,\"say \"\"hi\"\", then leave\",,,,\r\n", csv);
+    }
+
+    @Test
+    void csvReader_reorderedColumnsAndBadRow_skipsOnlyBadRow() throws IOException {
+        String csv = "Description,Notes,Type,By\n"
+            + "\"two\nlines\",ignored,deadline,2025-03-12 1800\n"
+            + "no date,,deadline,\n"
+            + "\n"
+            + "plain,,T,\n";
+        TaskReader reader = TransferFormat.CSV.newReader(new StringReader(csv));
+
+        Task first = reader.next();
+        assertThrows(IllegalArgumentException.class, reader::next);
+        Task last = reader.next();
+
+        assertEquals("two lines", first.getDescription());
+        assertTrue(first instanceof Deadline);
+        assertEquals("plain", last.getDescription());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvReader_noTypeColumn_failsWholeFile() {
+        TaskReader reader = TransferFormat.CSV.newReader(new StringReader("name,due\nfoo,bar\n"));
+
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void jsonLinesReader_malformedLine_skipsOnlyThatLine() throws IOException {
+        String jsonl = "{\"type\":\"todo\",\"description\":\"caf\\u00e9 \\\"run\\\"\",\"done\":true,\"tags\":null}\n"
+            + "{\"type\":\"todo\",\"description\":[\"nested\"]}\n"
+            + "{\"TYPE\": \"event\", \"description\": \"sync\", \"from\": \"2025-03-03T09:30\", "
+            + "\"to\": \"2025-03-03T10:00\", \"every\": \"week\", \"priority\": 2}\n";
+        TaskReader reader = TransferFormat.JSON_LINES.newReader(new StringReader(jsonl));
+
+        Task first = reader.next();
+        assertThrows(IllegalArgumentException.class, reader::next);
+        Event last = (Event) reader.next();
+
+        assertEquals("café \"run\"", first.getDescription());
+        assertTrue(first.isDone());
+        assertEquals(Recurrence.WEEKLY, last.getRecurrence());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void icalendarWriter_longSummary_foldsLinesAt75Octets() throws IOException {
+        String ics = write(TransferFormat.ICALENDAR, List.of(new Todo("é".repeat(100))));
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        assertEquals("é".repeat(100), readAll(TransferFormat.ICALENDAR, ics).get(0).getDescription());
+    }
+
+    @Test
+    void icalendarReader_otherCalendarsFile_readsTodosAndEvents() throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\n"
+            + "BEGIN:VTIMEZONE\r\nTZID:Custom\r\nEND:VTIMEZONE\r\n"
+            + "BEGIN:VEVENT\r\nSUMMARY:Offsite\\, day one\r\nDTSTART;VALUE=DATE:20250310\r\n"
+            + "DTEND;VALUE=DATE:20250312\r\nBEGIN:VALARM\r\nSUMMARY:not this\r\nEND:VALARM\r\nEND:VEVENT\r\n"
+            + "BEGIN:VEVENT\r\nSUMMARY:Standup\r\nDTSTART;TZID=Custom:20250303T093000\r\nDURATION:PT15M\r\n"
+            + "RRULE:FREQ=WEEKLY;INTERVAL=1;WKST=MO\r\nEND:VEVENT\r\n"
+            + "BEGIN:VTODO\r\nSUMMARY:File\r\n  taxes\r\nDUE:20250415T170000\r\nSTATUS:COMPLETED\r\nEND:VTODO\r\n"
+            + "BEGIN:VTODO\r\nDUE:20250415\r\nEND:VTODO\r\n"
+            + "END:VCALENDAR\r\n";
+        TaskReader reader = TransferFormat.ICALENDAR.newReader(new StringReader(ics));
+
+        Event offsite = (Event) reader.next();
+        Event standup = (Event) reader.next();
+        Deadline taxes = (Deadline) reader.next();
+        assertThrows(IllegalArgumentException.class, reader::next);
+
+        assertEquals("Offsite, day one", offsite.getDescription());
+        assertEquals("2025-03-11", offsite.getToDateTime().toLocalDate().toString());
+        assertFalse(offsite.toHasTime());
+        assertEquals("09:30", standup.getFromDateTime().toLocalTime().toString());
+        assertEquals("09:45", standup.getToDateTime().toLocalTime().toString());
+        assertEquals(Recurrence.WEEKLY, standup.getRecurrence());
+        assertEquals("File taxes", taxes.getDescription());
+        assertTrue(taxes.isDone());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void icalendarReader_ruleWithCountUntilOrByday_readsOneOffEvent() throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\n"
+            + event("FREQ=WEEKLY;COUNT=4") + event("FREQ=DAILY;UNTIL=20250310") + event("FREQ=WEEKLY;BYDAY=MO,WE")
+            + event("FREQ=MONTHLY;INTERVAL=2")
+            + "END:VCALENDAR\r\n";
+
+        List<Task> read = readAll(TransferFormat.ICALENDAR, ics);
+
+        assertEquals(4, read.size());
+        for (Task task : read) {
+            assertNull(((Event) task).getRecurrence());
+        }
+    }
+
+    @Test
+    void fromKeyword_aliases_resolve() {
+        assertEquals(TransferFormat.JSON_LINES, TransferFormat.fromKeyword(" JSON "));
+        assertEquals(TransferFormat.ICALENDAR, TransferFormat.fromKeyword("ical"));
+        assertNull(TransferFormat.fromKeyword("xml"));
+    }
+
+    private static String event(String rule) {
+        return "BEGIN:VEVENT\r\nSUMMARY:Standup\r\nDTSTART:20250303T093000\r\nRRULE:" + rule + "\r\nEND:VEVENT\r\n";
+    }
+
+    private static List<Task> sampleTasks() {
+        Todo todo = new Todo("read, then \"summarise\" book");
+        todo.mark();
+        Event offsite = new Event("offsite", "2025-03-10", "2025-03-11");
+        offsite.mark();
+        return List.of(
+            todo,
+            new Deadline("return book", "2025-03-12 1800"),
+            new Event("standup", "2025-03-03 0930", "2025-03-03 0945", Recurrence.WEEKLY),
+            offsite);
+    }
+
+    private static String write(TransferFormat format, List<Task> tasks) throws IOException {
+        StringWriter out = new StringWriter();
+        TaskWriter writer = format.newWriter(out);
+        writer.begin();
+        for (Task t : tasks) {
+            writer.write(t);
+        }
+        writer.end();
+        return out.toString();
+    }
+
+    private static List<Task> readAll(TransferFormat format, String text) throws IOException {
+        TaskReader reader = format.newReader(new StringReader(text));
+        List<Task> tasks = new ArrayList<>();
+        Task t;
+        while ((t = reader.next()) != null) {
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}